@@ -0,0 +1,118 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.hobbit.vocab.HOBBIT;
+import org.hobbit.vocab.HobbitExperiments;
+
+/**
+ * Creates the RDF models of benchmarks, systems and experiments that are used
+ * as input of the benchmarks.
+ */
+public class BenchmarkModels {
+
+    public static final String NAMESPACE = "http://example.org/";
+    public static final String API_URI = NAMESPACE + "Api";
+
+    protected BenchmarkModels() {
+        // Exists only to defeat instantiation.
+    }
+
+    /**
+     * Creates the model of a benchmark with the given number of parameters.
+     * Every second parameter is forwarded to the system.
+     *
+     * @param benchmarkUri the URI of the benchmark
+     * @param parameters   the number of parameters of the benchmark
+     * @return the model of the benchmark
+     */
+    public static Model createBenchmarkModel(String benchmarkUri, int parameters) {
+        Model model = ModelFactory.createDefaultModel();
+        Resource benchmark = model.createResource(benchmarkUri, HOBBIT.Benchmark);
+        model.add(benchmark, RDFS.label, "Benchmark " + benchmarkUri, "en");
+        model.add(benchmark, RDFS.comment, "A generated benchmark", "en");
+        model.add(benchmark, HOBBIT.imageName, benchmarkUri.replace(NAMESPACE, "hobbit/") + "_controller");
+        model.add(benchmark, HOBBIT.usesImage, benchmarkUri.replace(NAMESPACE, "hobbit/") + "_datagen");
+        model.add(benchmark, HOBBIT.usesImage, benchmarkUri.replace(NAMESPACE, "hobbit/") + "_taskgen");
+        model.add(benchmark, HOBBIT.hasAPI, model.createResource(API_URI));
+        for (int i = 0; i < parameters; ++i) {
+            Resource parameter = getParameter(model, i);
+            model.add(benchmark, HOBBIT.hasParameter, parameter);
+            model.add(parameter, RDF.type, HOBBIT.Parameter);
+            model.add(parameter, RDF.type, HOBBIT.ConfigurableParameter);
+            model.add(parameter, RDFS.label, "Parameter " + i, "en");
+            model.add(parameter, HOBBIT.defaultValue, Integer.toString(i));
+            if ((i % 2) == 0) {
+                model.add(parameter, RDF.type, HOBBIT.ForwardedParameter);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Creates the model of a system implementing the API of the generated
+     * benchmarks.
+     *
+     * @param systemUri the URI of the system
+     * @return the model of the system
+     */
+    public static Model createSystemModel(String systemUri) {
+        Model model = ModelFactory.createDefaultModel();
+        Resource system = model.createResource(systemUri, HOBBIT.SystemInstance);
+        model.add(system, RDFS.label, "System " + systemUri, "en");
+        model.add(system, HOBBIT.imageName, systemUri.replace(NAMESPACE, "hobbit/"));
+        model.add(system, HOBBIT.implementsAPI, model.createResource(API_URI));
+        return model;
+    }
+
+    /**
+     * Creates the parameter model of an experiment that sets all parameters of
+     * a benchmark created with {@link #createBenchmarkModel(String, int)}.
+     *
+     * @param benchmarkUri the URI of the benchmark
+     * @param parameters   the number of parameters of the benchmark
+     * @param maxHardware  whether the experiment defines the maximum hardware
+     *                     of the system
+     * @return the parameter model of the experiment
+     */
+    public static Model createExperimentModel(String benchmarkUri, int parameters, boolean maxHardware) {
+        Model model = ModelFactory.createDefaultModel();
+        Resource experiment = HobbitExperiments.New;
+        model.add(experiment, RDF.type, HOBBIT.Experiment);
+        model.add(experiment, HOBBIT.involvesBenchmark, model.createResource(benchmarkUri));
+        for (int i = 0; i < parameters; ++i) {
+            model.addLiteral(experiment, model.createProperty(getParameter(model, i).getURI()), i);
+        }
+        if (maxHardware) {
+            Resource hardware = model.createResource(NAMESPACE + "maxHardware");
+            model.add(experiment, HOBBIT.maxHardware, hardware);
+            model.addLiteral(hardware, HOBBIT.hasCPUTypeCount, 4);
+            model.addLiteral(hardware, HOBBIT.hasMemory, 8L * 1024 * 1024 * 1024);
+        }
+        return model;
+    }
+
+    private static Property getParameter(Model model, int id) {
+        return model.createProperty(NAMESPACE, "parameter" + id);
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.core.data.BenchmarkMetaData;
+import org.hobbit.core.data.SystemMetaData;
+import org.hobbit.core.rabbit.RabbitMQUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the preparation of the benchmark and system parameters that the
+ * {@link ExperimentManager} executes for every experiment it starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExperimentManagerBenchmark {
+
+    private static final String BENCHMARK_URI = BenchmarkModels.NAMESPACE + "Benchmark";
+    private static final String SYSTEM_URI = BenchmarkModels.NAMESPACE + "System";
+
+    /**
+     * Number of parameters of the benchmark.
+     */
+    @Param({ "10", "100" })
+    public int parameters;
+
+    private String benchParamsWithHardware;
+    private String benchParamsWithoutHardware;
+    private ExperimentConfiguration config;
+    private BenchmarkMetaData benchmark;
+    private SystemMetaData system;
+
+    @Setup
+    public void setup() {
+        benchParamsWithHardware = RabbitMQUtils
+                .writeModel2String(BenchmarkModels.createExperimentModel(BENCHMARK_URI, parameters, true));
+        benchParamsWithoutHardware = RabbitMQUtils
+                .writeModel2String(BenchmarkModels.createExperimentModel(BENCHMARK_URI, parameters, false));
+        config = new ExperimentConfiguration("1", BENCHMARK_URI, benchParamsWithHardware, SYSTEM_URI);
+        benchmark = new BenchmarkMetaData();
+        benchmark.uri = BENCHMARK_URI;
+        benchmark.rdfModel = BenchmarkModels.createBenchmarkModel(BENCHMARK_URI, parameters);
+        system = new SystemMetaData();
+        system.uri = SYSTEM_URI;
+        system.rdfModel = BenchmarkModels.createSystemModel(SYSTEM_URI);
+    }
+
+    @Benchmark
+    public Map<String, Object> getHardwareConstraints() {
+        return ExperimentManager.getHardwareConstraints(benchParamsWithHardware);
+    }
+
+    @Benchmark
+    public Map<String, Object> getHardwareConstraintsWithoutMaxHardware() {
+        return ExperimentManager.getHardwareConstraints(benchParamsWithoutHardware);
+    }
+
+    @Benchmark
+    public String getSerializedSystemParams() {
+        return ExperimentManager.getSerializedSystemParams(config, benchmark, system);
+    }
+}
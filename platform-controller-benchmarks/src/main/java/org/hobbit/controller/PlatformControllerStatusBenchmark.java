@@ -0,0 +1,102 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.mocks.DummyImageManager;
+import org.hobbit.controller.mocks.DummyPlatformController;
+import org.hobbit.core.data.status.ControllerStatus;
+import org.hobbit.utils.config.HobbitConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the creation of the controller status that is requested by the
+ * front end using the mocks of the controller tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlatformControllerStatusBenchmark {
+
+    /**
+     * The experiment manager must not start experiments while the status is
+     * measured.
+     */
+    private static final long CHECK_FOR_EXPERIMENTS_INTERVAL = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Number of experiments waiting in the queue.
+     */
+    @Param({ "10", "100" })
+    public int queueSize;
+
+    private PlatformController controller;
+    private File spoolDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        spoolDirectory = Files.createTempDirectory("result-spool").toFile();
+        Configuration config = new MapConfiguration(new HashMap<>());
+        config.addProperty(ExperimentManager.RESULT_SPOOL_DIRECTORY_KEY, spoolDirectory.getAbsolutePath());
+        HobbitConfiguration configuration = new HobbitConfiguration();
+        configuration.addConfiguration(config);
+
+        controller = new DummyPlatformController();
+        for (int i = 0; i < queueSize; ++i) {
+            ExperimentConfiguration experiment = new ExperimentConfiguration(Integer.toString(i),
+                    DummyImageManager.BENCHMARK_NAME, "{}", DummyImageManager.SYSTEM_URI);
+            experiment.userName = ((i % 2) == 0) ? "user" : "other";
+            controller.queue.add(experiment);
+        }
+        controller.expManager = new ExperimentManager(controller, configuration, CHECK_FOR_EXPERIMENTS_INTERVAL,
+                CHECK_FOR_EXPERIMENTS_INTERVAL);
+    }
+
+    @Benchmark
+    public ControllerStatus getStatus() {
+        return controller.getStatus("user");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        controller.expManager.close();
+        FileUtils.deleteQuietly(spoolDirectory);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.hobbit.controller.BenchmarkModels;
+import org.hobbit.core.data.BenchmarkMetaData;
+import org.hobbit.core.data.SystemMetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of image meta data and the look-up of benchmarks in an
+ * {@link AbstactImageManager} that knows hundreds of images.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageManagerBenchmark {
+
+    /**
+     * Number of benchmark images known by the image manager.
+     */
+    @Param({ "100", "500" })
+    public int images;
+
+    private Model benchmarkModel;
+    private String[] benchmarkUris;
+    private AbstactImageManager imageManager;
+    private int nextUri = 0;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkMetaData> benchmarks = new ArrayList<>(images);
+        benchmarkUris = new String[images];
+        for (int i = 0; i < images; ++i) {
+            benchmarkUris[i] = BenchmarkModels.NAMESPACE + "Benchmark" + i;
+            benchmarks.addAll(MetaDataFactory.modelToBenchmarkMetaData(
+                    BenchmarkModels.createBenchmarkModel(benchmarkUris[i], 10), "project" + i, new Date(i)));
+        }
+        benchmarkModel = BenchmarkModels.createBenchmarkModel(benchmarkUris[0], 10);
+        imageManager = new AbstactImageManager() {
+            @Override
+            protected List<BenchmarkMetaData> getUncheckedBenchmarks() {
+                return benchmarks;
+            }
+
+            @Override
+            protected List<SystemMetaData> getUncheckedSystems() {
+                return new ArrayList<>();
+            }
+        };
+    }
+
+    @Benchmark
+    public List<BenchmarkMetaData> modelToBenchmarkMetaData() {
+        return MetaDataFactory.modelToBenchmarkMetaData(benchmarkModel, "project", new Date(0));
+    }
+
+    @Benchmark
+    public BenchmarkMetaData getBenchmark() {
+        // iterate over the URIs to look up benchmarks at all positions
+        nextUri = (nextUri + 1) % benchmarkUris.length;
+        return imageManager.getBenchmark(benchmarkUris[nextUri]);
+    }
+
+    @Benchmark
+    public List<BenchmarkMetaData> getBenchmarks() {
+        return imageManager.getBenchmarks();
+    }
+}
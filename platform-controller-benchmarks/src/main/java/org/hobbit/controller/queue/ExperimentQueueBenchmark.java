@@ -0,0 +1,127 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Measures the operations of the {@link ExperimentQueueImpl}. An embedded Redis
+ * server is started on the default port unless a Redis host has been
+ * configured using the <code>HOBBIT_REDIS_HOST</code> environmental variable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExperimentQueueBenchmark {
+
+    private static final int REDIS_PORT = 6379;
+
+    /**
+     * Number of experiments waiting in the queue.
+     */
+    @Param({ "10", "100" })
+    public int queueSize;
+
+    private RedisServer redisServer = null;
+    private ExperimentQueueImpl queue;
+    private List<ExperimentConfiguration> experiments = new ArrayList<>();
+    private ExperimentConfiguration addedExperiment;
+    private int nextExperiment = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        if (!System.getenv().containsKey("HOBBIT_REDIS_HOST")) {
+            redisServer = RedisServer.builder().port(REDIS_PORT).setting("maxmemory 128M").build();
+            redisServer.start();
+        }
+        queue = new ExperimentQueueImpl();
+        // make sure that the queue only contains the experiments of this benchmark
+        for (ExperimentConfiguration experiment : queue.listAll()) {
+            queue.remove(experiment);
+        }
+        for (int i = 0; i < queueSize; ++i) {
+            experiments.add(createExperiment("queued" + i));
+        }
+        queue.addAll(experiments);
+        addedExperiment = createExperiment("added");
+    }
+
+    private static ExperimentConfiguration createExperiment(String id) {
+        ExperimentConfiguration experiment = new ExperimentConfiguration(id, "http://example.org/Benchmark",
+                "{}", "http://example.org/System");
+        experiment.userName = "user";
+        experiment.submissionTime = System.currentTimeMillis();
+        return experiment;
+    }
+
+    @Benchmark
+    public boolean addAndRemove() {
+        queue.add(addedExperiment);
+        return queue.remove(addedExperiment);
+    }
+
+    @Benchmark
+    public List<ExperimentConfiguration> listAll() {
+        return queue.listAll();
+    }
+
+    @Benchmark
+    public ExperimentConfiguration getNextExperiment() {
+        return queue.getNextExperiment(Collections.emptySet());
+    }
+
+    @Benchmark
+    public ExperimentConfiguration getExperiment() {
+        nextExperiment = (nextExperiment + 1) % experiments.size();
+        return queue.getExperiment(experiments.get(nextExperiment).id);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (ExperimentConfiguration experiment : experiments) {
+            queue.remove(experiment);
+        }
+        experiments.clear();
+        queue.close();
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+}
@@ -17,16 +17,28 @@
 package org.hobbit.controller;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.apache.commons.io.IOUtils;
@@ -43,12 +55,23 @@ import org.hobbit.controller.config.HobbitConfig;
 import org.hobbit.controller.data.ExperimentConfiguration;
 import org.hobbit.controller.data.ExperimentStatus;
 import org.hobbit.controller.data.ExperimentStatus.States;
+import org.hobbit.controller.data.ExtControllerStatus;
+import org.hobbit.controller.data.HardwareResources;
 import org.hobbit.controller.data.SetupHardwareInformation;
 import org.hobbit.controller.docker.ClusterManager;
 import org.hobbit.controller.docker.ContainerManager;
 import org.hobbit.controller.docker.MetaDataFactory;
 import org.hobbit.controller.execute.ExperimentAbortTimerTask;
+import org.hobbit.controller.execute.ExperimentSlot;
+import org.hobbit.controller.execute.ExperimentTeardownPipeline;
+import org.hobbit.controller.execute.ExperimentTeardownPipeline.Stage;
+import org.hobbit.controller.execute.ImagePrewarmer;
+import org.hobbit.controller.execute.RabbitMQBrokerPool;
+import org.hobbit.controller.execute.ResourceAdmissionController;
+import org.hobbit.controller.execute.ResultSpool;
+import org.hobbit.controller.utils.MetricsLogger;
 import org.hobbit.controller.utils.RabbitMQConnector;
+import org.hobbit.controller.utils.RabbitMQManagementClient;
 import org.hobbit.core.Commands;
 import org.hobbit.core.Constants;
 import org.hobbit.core.data.BenchmarkMetaData;
@@ -70,8 +93,12 @@ import org.slf4j.LoggerFactory;
 import com.spotify.docker.client.exceptions.DockerException;
 
 /**
- * This class encapsulates (and synchronizes) all methods that are applied on a
- * running experiment.
+ * This class encapsulates (and synchronizes) all methods that are applied on
+ * running experiments. The experiments are executed in a configurable number
+ * of {@link ExperimentSlot}s. Each slot holds the status of its experiment and
+ * the connector to the experiment's RabbitMQ broker and is used as mutex for
+ * all operations on this experiment. Hence, operations on different
+ * experiments do not block each other.
  *
  * @author Michael R&ouml;der (roeder@informatik.uni-leipzig.de)
  *
@@ -79,6 +106,16 @@ import com.spotify.docker.client.exceptions.DockerException;
 public class ExperimentManager implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExperimentManager.class);
     private static final int DEFAULT_MAX_EXECUTION_TIME = 20 * 60 * 1000;
+    private static final int DEFAULT_MAX_PARALLEL_EXPERIMENTS = 1;
+    /**
+     * Time (in ms) {@link #close()} waits for experiments that are currently
+     * created.
+     */
+    private static final long CREATION_CLOSE_TIMEOUT = 60000;
+    private static final long DEFAULT_MAX_BACKFILL_DELAY = 60 * 60 * 1000;
+    private static final int DEFAULT_IMAGE_PREWARM_LOOKAHEAD = 2;
+    private static final int DEFAULT_RABBIT_MQ_POOL_SIZE = 0;
+    private static final long DEFAULT_RESOURCE_USAGE_SAMPLING_INTERVAL = 10000;
 
     /**
      * Key of the environmental variable used to define which docker image to use as
@@ -90,6 +127,85 @@ public class ExperimentManager implements Closeable {
      * experiments.
      */
     private static final String RABBIT_MQ_EXPERIMENTS_HOST_NAME_KEY = "HOBBIT_RABBIT_EXPERIMENTS_HOST";
+    /**
+     * Environmental variable key for the URL of the management API of the
+     * RabbitMQ broker used for experiments. If it is set together with
+     * {@link #RABBIT_MQ_EXPERIMENTS_HOST_NAME_KEY} and
+     * {@link #RABBIT_MQ_EXPERIMENTS_VIRTUAL_HOSTS_KEY}, every experiment gets its
+     * own virtual host and user on the shared broker.
+     */
+    private static final String RABBIT_MQ_EXPERIMENTS_MANAGEMENT_URL_KEY = "HOBBIT_RABBIT_EXPERIMENTS_MANAGEMENT_URL";
+    /**
+     * Environmental variable key that has to be set to <code>true</code> to give
+     * experiments their own virtual hosts on the shared broker. The virtual host
+     * and its credentials are passed to the containers of an experiment via
+     * {@link #RABBIT_MQ_VIRTUAL_HOST_KEY}, {@link #RABBIT_MQ_USERNAME_KEY} and
+     * {@link #RABBIT_MQ_PASSWORD_KEY}. The HOBBIT core library up to version
+     * 1.0.23 (the version this platform is built with) ignores these variables
+     * and connects to the default virtual host. Hence, this may only be enabled
+     * if the images of all benchmarks and systems use a core library that
+     * connects to the given virtual host. Otherwise, their commands would never
+     * reach the controller.
+     */
+    private static final String RABBIT_MQ_EXPERIMENTS_VIRTUAL_HOSTS_KEY = "HOBBIT_RABBIT_EXPERIMENTS_VIRTUAL_HOSTS";
+    /**
+     * Environmental variable keys for the credentials of an administrator of the
+     * RabbitMQ broker used for experiments.
+     */
+    private static final String RABBIT_MQ_EXPERIMENTS_ADMIN_USER_KEY = "HOBBIT_RABBIT_EXPERIMENTS_ADMIN_USER";
+    private static final String RABBIT_MQ_EXPERIMENTS_ADMIN_PASSWORD_KEY = "HOBBIT_RABBIT_EXPERIMENTS_ADMIN_PASSWORD";
+    /**
+     * Environmental variable keys with which the virtual host of an experiment
+     * and its credentials are passed to the containers of the experiment.
+     */
+    public static final String RABBIT_MQ_VIRTUAL_HOST_KEY = "HOBBIT_RABBIT_VHOST";
+    public static final String RABBIT_MQ_USERNAME_KEY = "HOBBIT_RABBIT_USERNAME";
+    public static final String RABBIT_MQ_PASSWORD_KEY = "HOBBIT_RABBIT_PASSWORD";
+    /**
+     * Environmental variable key for the number of experiments that can be
+     * executed in parallel.
+     */
+    public static final String MAX_PARALLEL_EXPERIMENTS_KEY = "MAX_PARALLEL_EXPERIMENTS";
+    /**
+     * Environmental variable key for the maximum time (in ms) the first
+     * experiment of the queue can be overtaken by smaller experiments that fit
+     * into the free resources of the cluster.
+     */
+    public static final String MAX_BACKFILL_DELAY_KEY = "MAX_BACKFILL_DELAY";
+    /**
+     * Environmental variable key for the number of upcoming experiments in the
+     * queue whose images are pulled before the experiments are started. A value
+     * of 0 disables the pre-warming.
+     */
+    public static final String IMAGE_PREWARM_LOOKAHEAD_KEY = "IMAGE_PREWARM_LOOKAHEAD";
+    /**
+     * Environmental variable key for the number of RabbitMQ brokers that are
+     * started ahead of time for upcoming experiments. It is ignored if a shared
+     * broker for experiments has been configured. A value of 0 disables the
+     * pool.
+     */
+    public static final String RABBIT_MQ_POOL_SIZE_KEY = "RABBIT_MQ_POOL_SIZE";
+    /**
+     * Environmental variable key for the number of threads that execute the
+     * teardowns of terminated experiments.
+     */
+    public static final String TEARDOWN_THREADS_KEY = "TEARDOWN_THREADS";
+    /**
+     * Environmental variable key for the directory in which the results of
+     * experiments are spooled before they are inserted into the storage.
+     */
+    public static final String RESULT_SPOOL_DIRECTORY_KEY = "RESULT_SPOOL_DIRECTORY";
+    /**
+     * Environmental variable key for the maximum time (in ms) the result spool
+     * waits before it retries to insert results into an unavailable storage.
+     */
+    public static final String RESULT_SPOOL_MAX_BACKOFF_KEY = "RESULT_SPOOL_MAX_BACKOFF";
+    /**
+     * Environmental variable key for the interval (in ms) with which the
+     * resource usage of the system and benchmark containers of running
+     * experiments is sampled. A value of 0 disables the sampling.
+     */
+    public static final String RESOURCE_USAGE_SAMPLING_INTERVAL_KEY = "RESOURCE_USAGE_SAMPLING_INTERVAL";
     /**
      * Time interval the experiment manager waits before it checks for the an
      * experiment to start. It is larger than {@link #CHECK_FOR_NEW_EXPERIMENT}
@@ -99,9 +215,15 @@ public class ExperimentManager implements Closeable {
     public static final long CHECK_FOR_FIRST_EXPERIMENT = 30000;
     /**
      * Time interval with which the experiment manager checks for a new experiment
-     * to start.
+     * to start. Since the manager is informed about new experiments, terminated
+     * experiments and execution dates, this periodic check is only a safety net.
      */
-    public static final long CHECK_FOR_NEW_EXPERIMENT = 10000;
+    public static final long CHECK_FOR_NEW_EXPERIMENT = 60000;
+    /**
+     * Time interval with which the experiment manager pre-warms the images of
+     * the upcoming experiments.
+     */
+    public static final long PREWARM_IMAGES_INTERVAL = 60000;
     /**
      * Default time an experiment has to terminate after it has been started.
      */
@@ -111,19 +233,90 @@ public class ExperimentManager implements Closeable {
      */
     private PlatformController controller;
     /**
-     * Object used as mutex used to synchronize the access to the
-     * {@link #experimentStatus} instance.
+     * Object used as mutex to make sure that only one thread at a time assigns
+     * experiments to free slots.
      */
-    private Object experimentMutex = new Object();
+    private Object schedulingMutex = new Object();
     /**
-     * Status of the current experiment. <code>null</code> if no benchmark is
-     * running.
+     * Executor creating the experiments of the reserved slots. The creation
+     * happens outside of the {@link #schedulingMutex} to make sure that slow
+     * image pulls or container starts of one experiment neither delay the
+     * creation of experiments in other slots nor block the scheduling.
+     */
+    private ExecutorService experimentCreator;
+    /**
+     * The slots in which experiments can be executed.
+     */
+    protected ExperimentSlot slots[];
+    /**
+     * Decides whether experiments fit into the free resources of the cluster.
+     */
+    protected ResourceAdmissionController admissionController;
+    /**
+     * Connector that is shared by all slots if a RabbitMQ broker for experiments
+     * has been configured. <code>null</code> if every experiment gets its own
+     * broker.
+     */
+    private RabbitMQConnector sharedRabbitMQConnector = null;
+    /**
+     * Pool of pre-started RabbitMQ brokers. <code>null</code> if the pool is
+     * disabled.
+     */
+    protected RabbitMQBrokerPool rabbitMQBrokerPool = null;
+    /**
+     * Client used to create the virtual hosts of experiments on the shared
+     * broker. <code>null</code> if experiments do not get their own virtual
+     * hosts.
      */
-    protected ExperimentStatus experimentStatus = null;
+    protected RabbitMQManagementClient rabbitMQManagementClient = null;
+    /**
+     * Pipeline executing the steps of an experiment's teardown that are not
+     * necessary before its slot can be reused.
+     */
+    protected ExperimentTeardownPipeline teardownPipeline;
+    /**
+     * Spool decoupling the storage of experiment results from the latency and
+     * availability of the storage.
+     */
+    protected ResultSpool resultSpool;
     /**
      * Timer used to trigger the creation of the next benchmark.
      */
     protected Timer expStartTimer;
+    /**
+     * Flag indicating that a check for new experiments has been requested but
+     * has not been executed, yet.
+     */
+    private AtomicBoolean experimentCheckRequested = new AtomicBoolean(false);
+    /**
+     * Task waking up the {@link #expStartTimer} at the earliest execution date
+     * of the experiments in the queue. It is only accessed by the thread of the
+     * timer.
+     */
+    private TimerTask executionDateWakeUp = null;
+    /**
+     * The point in time for which the {@link #executionDateWakeUp} has been
+     * scheduled.
+     */
+    private long executionDateWakeUpTime = 0;
+    /**
+     * Timer used to pre-warm the images of upcoming experiments.
+     * <code>null</code> if pre-warming is disabled.
+     */
+    protected Timer imagePrewarmTimer = null;
+    /**
+     * Pulls the images of upcoming experiments.
+     */
+    protected ImagePrewarmer imagePrewarmer = new ImagePrewarmer();
+    /**
+     * Number of upcoming experiments whose images are pre-warmed.
+     */
+    protected int imagePrewarmLookahead = DEFAULT_IMAGE_PREWARM_LOOKAHEAD;
+    /**
+     * Timer used to sample the resource usage of running experiments.
+     * <code>null</code> if the sampling is disabled.
+     */
+    protected Timer resourceUsageTimer = null;
     /**
      * The configuration of this platform.
      */
@@ -143,159 +336,503 @@ public class ExperimentManager implements Closeable {
         } catch (Exception e) {
             LOGGER.debug("Could not get execution time from env, using default value..");
         }
+        int maxParallelExperiments = DEFAULT_MAX_PARALLEL_EXPERIMENTS;
+        try {
+            maxParallelExperiments = hobbitConfig.getInt(MAX_PARALLEL_EXPERIMENTS_KEY,
+                    DEFAULT_MAX_PARALLEL_EXPERIMENTS, LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get number of parallel experiments from env, using default value..");
+        }
+        if (maxParallelExperiments < 1) {
+            LOGGER.warn("Got an invalid number of parallel experiments ({}). Using {} instead.",
+                    maxParallelExperiments, DEFAULT_MAX_PARALLEL_EXPERIMENTS);
+            maxParallelExperiments = DEFAULT_MAX_PARALLEL_EXPERIMENTS;
+        }
+        LOGGER.info("Experiment manager will execute up to {} experiment(s) in parallel.", maxParallelExperiments);
+        slots = new ExperimentSlot[maxParallelExperiments];
+        for (int i = 0; i < slots.length; ++i) {
+            slots[i] = new ExperimentSlot(i);
+        }
+        AtomicInteger creatorCount = new AtomicInteger();
+        experimentCreator = Executors.newFixedThreadPool(slots.length, r -> {
+            Thread thread = new Thread(r, "experiment-creator-" + creatorCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long maxBackfillDelay = DEFAULT_MAX_BACKFILL_DELAY;
+        try {
+            maxBackfillDelay = hobbitConfig.getLong(MAX_BACKFILL_DELAY_KEY, DEFAULT_MAX_BACKFILL_DELAY, LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get maximum backfill delay from env, using default value..");
+        }
+        admissionController = new ResourceAdmissionController(maxBackfillDelay);
+
+        String rabbitMQManagementUrl = hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_MANAGEMENT_URL_KEY,
+                (String) null);
+        if ((rabbitMQManagementUrl != null)
+                && (hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_HOST_NAME_KEY, (String) null) != null)) {
+            if (Boolean.parseBoolean(hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_VIRTUAL_HOSTS_KEY, "false"))) {
+                LOGGER.info("Experiments will get their own virtual hosts on the shared RabbitMQ broker.");
+                rabbitMQManagementClient = new RabbitMQManagementClient(rabbitMQManagementUrl,
+                        hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_ADMIN_USER_KEY, "guest"),
+                        hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_ADMIN_PASSWORD_KEY, "guest"));
+            } else {
+                LOGGER.error("{} is set but {} is not \"true\". Experiments won't get their own virtual hosts since "
+                        + "this needs a HOBBIT core library in the benchmark and system images that supports {}. "
+                        + "All experiments will share the default virtual host of the configured broker.",
+                        RABBIT_MQ_EXPERIMENTS_MANAGEMENT_URL_KEY, RABBIT_MQ_EXPERIMENTS_VIRTUAL_HOSTS_KEY,
+                        RABBIT_MQ_VIRTUAL_HOST_KEY);
+            }
+        }
+
+        int teardownThreads = ExperimentTeardownPipeline.DEFAULT_THREADS;
+        try {
+            teardownThreads = hobbitConfig.getInt(TEARDOWN_THREADS_KEY, ExperimentTeardownPipeline.DEFAULT_THREADS,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get number of teardown threads from env, using default value..");
+        }
+        teardownPipeline = new ExperimentTeardownPipeline(Math.max(1, teardownThreads),
+                ExperimentTeardownPipeline.DEFAULT_MAX_ATTEMPTS, ExperimentTeardownPipeline.DEFAULT_RETRY_DELAY);
+
+        String spoolDirectory = hobbitConfig.getString(RESULT_SPOOL_DIRECTORY_KEY, (String) null);
+        if (spoolDirectory == null) {
+            spoolDirectory = ResultSpool.DEFAULT_DIRECTORY;
+        }
+        long spoolMaxBackoff = ResultSpool.DEFAULT_MAX_BACKOFF;
+        try {
+            spoolMaxBackoff = hobbitConfig.getLong(RESULT_SPOOL_MAX_BACKOFF_KEY, ResultSpool.DEFAULT_MAX_BACKOFF,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get maximum back-off of the result spool from env, using default value..");
+        }
+        resultSpool = new ResultSpool(new File(spoolDirectory), () -> controller.storage(),
+                ResultSpool.DEFAULT_MIN_BACKOFF, Math.max(ResultSpool.DEFAULT_MIN_BACKOFF, spoolMaxBackoff));
+
+        int rabbitMQPoolSize = DEFAULT_RABBIT_MQ_POOL_SIZE;
+        try {
+            rabbitMQPoolSize = hobbitConfig.getInt(RABBIT_MQ_POOL_SIZE_KEY, DEFAULT_RABBIT_MQ_POOL_SIZE, LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get RabbitMQ pool size from env, using default value..");
+        }
+        if ((rabbitMQPoolSize > 0) && (controller.containerManager != null)
+                && (hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_HOST_NAME_KEY, (String) null) == null)) {
+            LOGGER.info("Keeping {} RabbitMQ broker(s) ready for upcoming experiments.", rabbitMQPoolSize);
+            // the brokers are started for the next experiments in the queue
+            final int upcomingBrokers = rabbitMQPoolSize;
+            rabbitMQBrokerPool = new RabbitMQBrokerPool(controller, controller.containerManager,
+                    hobbitConfig.getString(RABBIT_IMAGE_ENV_KEY), rabbitMQPoolSize,
+                    () -> getUpcomingExperimentIds(upcomingBrokers));
+        }
 
         expStartTimer = new Timer();
         expStartTimer.schedule(new TimerTask() {
             @Override
             public void run() {
-                try {
-                    // trigger the creation of the next benchmark
-                    createNextExperiment();
-                } catch (Throwable e) {
-                    LOGGER.error(
-                            "The experiment starting timer got an unexpected exception. Trying to handle the corrupted experiment if there is one.",
-                            e);
-                    // If there is an experiment status, it will be handled in
-                    // this method
-                    handleExperimentTermination();
-                }
+                checkForNewExperiments();
             }
         }, checkForFirstExperiment, checkForNewExperiment);
+
+        try {
+            imagePrewarmLookahead = hobbitConfig.getInt(IMAGE_PREWARM_LOOKAHEAD_KEY, DEFAULT_IMAGE_PREWARM_LOOKAHEAD,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get image pre-warming look-ahead from env, using default value..");
+        }
+        if (imagePrewarmLookahead > 0) {
+            imagePrewarmTimer = new Timer(true);
+            imagePrewarmTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    try {
+                        prewarmImages();
+                    } catch (Throwable e) {
+                        LOGGER.error("The image pre-warming timer got an unexpected exception.", e);
+                    }
+                }
+            }, checkForFirstExperiment, PREWARM_IMAGES_INTERVAL);
+        }
+
+        long samplingInterval = DEFAULT_RESOURCE_USAGE_SAMPLING_INTERVAL;
+        try {
+            samplingInterval = hobbitConfig.getLong(RESOURCE_USAGE_SAMPLING_INTERVAL_KEY,
+                    DEFAULT_RESOURCE_USAGE_SAMPLING_INTERVAL, LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get resource usage sampling interval from env, using default value..");
+        }
+        if (samplingInterval > 0) {
+            resourceUsageTimer = new Timer(true);
+            resourceUsageTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    try {
+                        sampleResourceUsage();
+                    } catch (Throwable e) {
+                        LOGGER.error("The resource usage timer got an unexpected exception.", e);
+                    }
+                }
+            }, samplingInterval, samplingInterval);
+        }
     }
 
     /**
-     * Creates the next experiment if there is no experiment running and there is an
-     * experiment waiting in the queue.
+     * Adds the current resource usage of the system and benchmark containers of
+     * all running experiments to their time series. The slots are not locked
+     * since the requests to Prometheus may take some time.
      */
-    public void createNextExperiment() {
-        synchronized (experimentMutex) {
+    protected void sampleResourceUsage() {
+        if (controller.resInfoCollector == null) {
+            return;
+        }
+        for (ExperimentSlot slot : slots) {
+            ExperimentStatus experimentStatus = slot.getStatus();
+            if ((experimentStatus == null) || (experimentStatus.getState() == States.STOPPED)) {
+                continue;
+            }
+            long timestamp = System.currentTimeMillis();
             try {
-                // if there is no benchmark running, the queue has been
-                // initialized and cluster is healthy
-                if ((experimentStatus == null) && (controller.queue != null)) {
-                    ClusterManager clusterManager = this.controller.clusterManager;
-                    boolean isClusterHealthy = clusterManager.isClusterHealthy();
-                    if (!isClusterHealthy) {
-                        LOGGER.error("Can not start next experiment in the queue, cluster is NOT HEALTHY. "
-                                + "Check your cluster consistency or adjust SWARM_NODE_NUMBER environment variable."
-                                + " Expected number of nodes: " + clusterManager.getExpectedNumberOfNodes()
-                                + " Current number of nodes: " + clusterManager.getNumberOfNodes());
-                        return;
-                    }
-                    ExperimentConfiguration config = controller.queue.getNextExperiment();
-                    LOGGER.debug("Trying to start the next benchmark.");
-                    if (config == null) {
-                        LOGGER.debug("There is no experiment to start.");
-                        return;
-                    }
-                    LOGGER.info("Creating next experiment " + config.id + " with benchmark " + config.benchmarkUri
-                            + " and system " + config.systemUri + " to the queue.");
-                    experimentStatus = new ExperimentStatus(config, HobbitExperiments.getExperimentURI(config.id));
-
-                    createRabbitMQ(config);
-
-                    BenchmarkMetaData benchmark = controller.imageManager().getBenchmark(config.benchmarkUri);
-                    if ((benchmark == null) || (benchmark.mainImage == null)) {
-                        // Think about reusing the existing object created above
-                        experimentStatus = new ExperimentStatus(config, HobbitExperiments.getExperimentURI(config.id),
-                                this, defaultMaxExecutionTime);
-                        experimentStatus.addError(HobbitErrors.BenchmarkImageMissing);
-                        throw new Exception("Couldn't find image name for benchmark " + config.benchmarkUri);
-                    }
+                String systemContainer = experimentStatus.getSystemContainer();
+                if (systemContainer != null) {
+                    experimentStatus.getSystemUsage().addSample(timestamp, controller.resInfoCollector
+                            .getContainerUsageInformation(Constants.CONTAINER_TYPE_SYSTEM, systemContainer));
+                }
+                String benchmarkContainer = experimentStatus.getBenchmarkContainer();
+                if (benchmarkContainer != null) {
+                    experimentStatus.getBenchmarkUsage().addSample(timestamp, controller.resInfoCollector
+                            .getContainerUsageInformation(Constants.CONTAINER_TYPE_BENCHMARK, benchmarkContainer));
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Could not sample the resource usage of experiment " + experimentStatus.config.id + ".",
+                        e);
+            }
+        }
+    }
+
+    /**
+     * Pulls the images of the next {@link #imagePrewarmLookahead} experiments
+     * waiting in the queue with a low priority.
+     */
+    protected void prewarmImages() {
+        if ((controller.queue == null) || (controller.containerManager == null)
+                || (controller.imageManager() == null)) {
+            return;
+        }
+        Set<String> excludedExperiments = getRunningExperimentIds();
+        excludedExperiments.addAll(teardownPipeline.getPendingExperimentIds());
+        List<ExperimentConfiguration> upcomingExperiments = controller.queue
+                .getNextExperiments(imagePrewarmLookahead, excludedExperiments);
+        imagePrewarmer.prewarm(upcomingExperiments, controller.imageManager(), controller.containerManager);
+    }
 
-                    SystemMetaData system = controller.imageManager().getSystem(config.systemUri);
-                    if ((system == null) || (system.mainImage == null)) {
-                        // Think about reusing the existing object created above
-                        experimentStatus = new ExperimentStatus(config, HobbitExperiments.getExperimentURI(config.id),
-                                this, defaultMaxExecutionTime);
-                        experimentStatus.addError(HobbitErrors.SystemImageMissing);
-                        throw new Exception("Couldn't find image name for system " + config.systemUri);
+    /**
+     * Returns the IDs of the given number of experiments that are waiting in the
+     * queue and will be started next.
+     *
+     * @param number the maximum number of experiments
+     * @return the IDs of the upcoming experiments
+     */
+    protected List<String> getUpcomingExperimentIds(int number) {
+        if (controller.queue == null) {
+            return Collections.emptyList();
+        }
+        Set<String> excludedExperiments = getRunningExperimentIds();
+        excludedExperiments.addAll(teardownPipeline.getPendingExperimentIds());
+        List<String> experimentIds = new ArrayList<>();
+        for (ExperimentConfiguration config : controller.queue.getNextExperiments(number, excludedExperiments)) {
+            experimentIds.add(config.id);
+        }
+        return experimentIds;
+    }
+
+    /**
+     * Requests a check for new experiments, e.g., because an experiment has been
+     * added to the queue or an experiment terminated. The check is executed
+     * asynchronously by the thread of the {@link #expStartTimer}. Requests that
+     * arrive before the check starts are merged into a single check.
+     */
+    public void requestExperimentCheck() {
+        if (experimentCheckRequested.compareAndSet(false, true)) {
+            try {
+                expStartTimer.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        experimentCheckRequested.set(false);
+                        checkForNewExperiments();
                     }
+                }, 0);
+            } catch (IllegalStateException e) {
+                // the timer has already been canceled
+                experimentCheckRequested.set(false);
+            }
+        }
+    }
 
-                    prefetchImages(benchmark, system);
+    /**
+     * Tries to create the next experiments and schedules a wake up for the next
+     * execution date of the experiments in the queue. This method is only
+     * called by the thread of the {@link #expStartTimer}.
+     */
+    private void checkForNewExperiments() {
+        try {
+            // trigger the creation of the next benchmark
+            createNextExperiment();
+            scheduleExecutionDateWakeUp();
+        } catch (Throwable e) {
+            // Experiments that couldn't be started are handled within the
+            // method. We only have to make sure that the timer keeps running.
+            LOGGER.error("The experiment starting timer got an unexpected exception.", e);
+        }
+    }
 
-                    // time an experiment has to terminate after it has been started
-                    long maxExecutionTime = defaultMaxExecutionTime;
+    /**
+     * Makes sure that the {@link #expStartTimer} checks for new experiments when
+     * the earliest execution date of the experiments in the queue is reached.
+     */
+    private void scheduleExecutionDateWakeUp() {
+        if (controller.queue == null) {
+            return;
+        }
+        Long nextExecutionTime = controller.queue.getNextExecutionTime();
+        if ((nextExecutionTime != null) && (executionDateWakeUp != null)
+                && (nextExecutionTime == executionDateWakeUpTime)) {
+            // the wake up has already been scheduled
+            return;
+        }
+        if (executionDateWakeUp != null) {
+            executionDateWakeUp.cancel();
+            executionDateWakeUp = null;
+        }
+        if (nextExecutionTime != null) {
+            LOGGER.debug("Scheduling a check for new experiments at {}.", nextExecutionTime);
+            executionDateWakeUp = new TimerTask() {
+                @Override
+                public void run() {
+                    checkForNewExperiments();
+                }
+            };
+            executionDateWakeUpTime = nextExecutionTime;
+            expStartTimer.schedule(executionDateWakeUp, new Date(nextExecutionTime));
+        }
+    }
 
-                    // try to load benchmark timeouts from config file
-                    try {
-                        HobbitConfig hobbitCfg = HobbitConfig.loadConfig();
-                        HobbitConfig.TimeoutConfig timeouts = hobbitCfg.getTimeout(config.benchmarkUri);
-                        if (timeouts != null) {
-                            if (config.challengeUri != null) {
-                                if (timeouts.challengeTimeout != -1) {
-                                    maxExecutionTime = timeouts.challengeTimeout;
-                                    LOGGER.info("Using challenge timeout: {}", maxExecutionTime);
-                                } else {
-                                    LOGGER.warn(
-                                            "Challenge timeout for given benchmark is not set, using default value..");
-                                }
-                            } else {
-                                if (timeouts.benchmarkTimeout != -1) {
-                                    maxExecutionTime = timeouts.benchmarkTimeout;
-                                    LOGGER.info("Using benchmark timeout:", maxExecutionTime);
-                                } else {
-                                    LOGGER.warn("Benchmark timeout is not set, using default value..");
-                                }
-                            }
-                        } else {
-                            LOGGER.error("Timeouts for given benchmark are not set, using default value..");
+    /**
+     * Creates the next experiments if there are free slots and there are
+     * experiments waiting in the queue.
+     */
+    public void createNextExperiment() {
+        synchronized (schedulingMutex) {
+            // if the queue has not been initialized, yet
+            if (controller.queue == null) {
+                return;
+            }
+            ExperimentSlot slot = getFreeSlot();
+            if (slot == null) {
+                LOGGER.debug("All experiment slots are occupied.");
+                return;
+            }
+            // if the cluster is not healthy
+            ClusterManager clusterManager = this.controller.clusterManager;
+            try {
+                boolean isClusterHealthy = clusterManager.isClusterHealthy();
+                if (!isClusterHealthy) {
+                    LOGGER.error("Can not start next experiment in the queue, cluster is NOT HEALTHY. "
+                            + "Check your cluster consistency or adjust SWARM_NODE_NUMBER environment variable."
+                            + " Expected number of nodes: " + clusterManager.getExpectedNumberOfNodes()
+                            + " Current number of nodes: " + clusterManager.getNumberOfNodes());
+                    return;
+                }
+            } catch (Exception e) {
+                LOGGER.error("Could not get cluster health status. Won't start a new experiment.", e);
+                return;
+            }
+            admissionController.updateCapacity(clusterManager);
+            // Experiments that we tried to start during this run. They are excluded
+            // even if their start failed and they couldn't be removed from the queue.
+            // Experiments that do not fit into the free resources are excluded as
+            // well, giving smaller experiments the chance to backfill.
+            Set<String> handledExperiments = new HashSet<>();
+            boolean queueHeadBlocked = false;
+            while (slot != null) {
+                Set<String> excludedExperiments = getRunningExperimentIds();
+                // experiments in their teardown are still part of the queue
+                excludedExperiments.addAll(teardownPipeline.getPendingExperimentIds());
+                excludedExperiments.addAll(handledExperiments);
+                LOGGER.debug("Trying to start the next benchmark.");
+                ExperimentConfiguration config = controller.queue.getNextExperiment(excludedExperiments);
+                if (config == null) {
+                    LOGGER.debug("There is no experiment to start.");
+                    return;
+                }
+                handledExperiments.add(config.id);
+                HardwareResources footprint = getFootprint(config);
+                if (!admissionController.canAdmit(footprint, getReservedResources())) {
+                    LOGGER.debug("Experiment {} ({}) does not fit into the free resources.", config.id,
+                            footprint != null ? footprint : "exclusive");
+                    if (!queueHeadBlocked) {
+                        queueHeadBlocked = true;
+                        if (!admissionController.mayBackfill(config.id)) {
+                            return;
                         }
-                    } catch (Exception e) {
-                        LOGGER.error("Could not load timeouts config ({}). Using default value {}ms.", e.getMessage(),
-                                defaultMaxExecutionTime);
                     }
+                    continue;
+                }
+                admissionController.admitted(config.id);
+                controller.queue.experimentStarted(config);
+                reserveSlot(slot, config, footprint);
+                submitExperimentCreation(slot, config);
+                slot = getFreeSlot();
+            }
+        }
+    }
 
-                    // start experiment timer/status
-                    experimentStatus.startAbortionTimer(this, maxExecutionTime);
-                    experimentStatus.setState(States.INIT);
-
-                    LOGGER.info("Creating benchmark controller " + benchmark.mainImage);
-                    String containerId = controller.containerManager.startContainer(benchmark.mainImage,
-                            Constants.CONTAINER_TYPE_BENCHMARK, experimentStatus.getRootContainer(),
-                            new String[] {
-                                    Constants.RABBIT_MQ_HOST_NAME_KEY + "=" + experimentStatus.getRabbitMQContainer(),
-                                    Constants.HOBBIT_SESSION_ID_KEY + "=" + config.id,
-                                    Constants.HOBBIT_EXPERIMENT_URI_KEY + "=" + experimentStatus.experimentUri,
-                                    Constants.BENCHMARK_PARAMETERS_MODEL_KEY + "=" + config.serializedBenchParams,
-                                    Constants.SYSTEM_URI_KEY + "=" + config.systemUri },
-                            null, null, config.id, Collections.emptyMap());
-                    if (containerId == null) {
-                        experimentStatus.addError(HobbitErrors.BenchmarkCreationError);
-                        throw new Exception("Couldn't create benchmark controller " + config.benchmarkUri);
-                    }
+    /**
+     * Reserves the given free slot for the given experiment. After this call,
+     * the slot is occupied and its resources are taken into account by the
+     * admission of further experiments.
+     *
+     * @param slot      the free slot
+     * @param config    the configuration of the experiment
+     * @param footprint the resources reserved for the experiment
+     */
+    private void reserveSlot(ExperimentSlot slot, ExperimentConfiguration config, HardwareResources footprint) {
+        synchronized (slot) {
+            // the reservation has to be set before the status occupies the slot
+            slot.setReservedResources(footprint);
+            slot.setStatus(new ExperimentStatus(config, HobbitExperiments.getExperimentURI(config.id)));
+        }
+    }
 
-                    if (experimentStatus.getRootContainer() == null) {
-                        experimentStatus.setRootContainer(containerId);
-                    }
-                    experimentStatus.setBenchmarkContainer(containerId);
-
-                    LOGGER.info("Creating system " + system.mainImage);
-                    String serializedSystemParams = getSerializedSystemParams(config, benchmark, system);
-                    containerId = controller.containerManager.startContainer(system.mainImage,
-                            Constants.CONTAINER_TYPE_SYSTEM, experimentStatus.getRootContainer(),
-                            new String[] {
-                                    Constants.RABBIT_MQ_HOST_NAME_KEY + "=" + experimentStatus.getRabbitMQContainer(),
-                                    Constants.HOBBIT_SESSION_ID_KEY + "=" + config.id,
-                                    Constants.SYSTEM_PARAMETERS_MODEL_KEY + "=" + serializedSystemParams },
-                            null, null, config.id, getHardwareConstraints(config.serializedBenchParams));
-                    if (containerId == null) {
-                        LOGGER.error("Couldn't start the system. Trying to cancel the benchmark.");
-                        forceBenchmarkTerminate_unsecured(HobbitErrors.SystemCreationError);
-                        throw new Exception("Couldn't start the system " + config.systemUri);
+    /**
+     * Submits the creation of the given experiment in the given reserved slot.
+     *
+     * @param slot   the slot that has been reserved for the experiment
+     * @param config the configuration of the experiment
+     */
+    private void submitExperimentCreation(ExperimentSlot slot, ExperimentConfiguration config) {
+        Runnable creation = () -> {
+            synchronized (slot) {
+                // the experiment might have been stopped before its creation
+                if (slot.hasSession(config.id)) {
+                    createExperiment_unsecured(slot, config);
+                }
+            }
+        };
+        try {
+            experimentCreator.execute(creation);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("The experiment manager has been closed. Creating experiment {} directly.", config.id);
+            creation.run();
+        }
+    }
+
+    /**
+     * Creates the given experiment in the given slot that has been reserved for
+     * it. If the experiment can not be created, it is terminated and the slot is
+     * freed.
+     *
+     * @param slot   the slot reserved for the experiment
+     * @param config the configuration of the experiment
+     */
+    private void createExperiment_unsecured(ExperimentSlot slot, ExperimentConfiguration config) {
+        try {
+            LOGGER.info("Creating next experiment " + config.id + " with benchmark " + config.benchmarkUri
+                    + " and system " + config.systemUri + " in slot " + slot.getIndex() + ".");
+            ExperimentStatus experimentStatus = slot.getStatus();
+            experimentStatus.setResultGraphUri(getResultGraphUri(config));
+
+            createRabbitMQ(slot);
+
+            BenchmarkMetaData benchmark = controller.imageManager().getBenchmark(config.benchmarkUri);
+            if ((benchmark == null) || (benchmark.mainImage == null)) {
+                experimentStatus.addError(HobbitErrors.BenchmarkImageMissing);
+                throw new Exception("Couldn't find image name for benchmark " + config.benchmarkUri);
+            }
+
+            SystemMetaData system = controller.imageManager().getSystem(config.systemUri);
+            if ((system == null) || (system.mainImage == null)) {
+                experimentStatus.addError(HobbitErrors.SystemImageMissing);
+                throw new Exception("Couldn't find image name for system " + config.systemUri);
+            }
+
+            prefetchImages(experimentStatus, benchmark, system);
+
+            // time an experiment has to terminate after it has been started
+            long maxExecutionTime = defaultMaxExecutionTime;
+
+            // try to load benchmark timeouts from config file
+            try {
+                HobbitConfig hobbitCfg = HobbitConfig.loadConfig();
+                HobbitConfig.TimeoutConfig timeouts = hobbitCfg.getTimeout(config.benchmarkUri);
+                if (timeouts != null) {
+                    if (config.challengeUri != null) {
+                        if (timeouts.challengeTimeout != -1) {
+                            maxExecutionTime = timeouts.challengeTimeout;
+                            LOGGER.info("Using challenge timeout: {}", maxExecutionTime);
+                        } else {
+                            LOGGER.warn("Challenge timeout for given benchmark is not set, using default value..");
+                        }
                     } else {
-                        experimentStatus.setSystemContainer(containerId);
+                        if (timeouts.benchmarkTimeout != -1) {
+                            maxExecutionTime = timeouts.benchmarkTimeout;
+                            LOGGER.info("Using benchmark timeout:", maxExecutionTime);
+                        } else {
+                            LOGGER.warn("Benchmark timeout is not set, using default value..");
+                        }
                     }
-                    LOGGER.info("Finished starting of new experiment.");
+                } else {
+                    LOGGER.error("Timeouts for given benchmark are not set, using default value..");
                 }
             } catch (Exception e) {
-                LOGGER.error("Exception while trying to start a new benchmark. Removing it from the queue.", e);
-                // Add an error if there is a model but no error was added
-                if (experimentStatus != null) {
-                    experimentStatus.addErrorIfNonPresent(HobbitErrors.UnexpectedError);
-                }
-                handleExperimentTermination_unsecured();
+                LOGGER.error("Could not load timeouts config ({}). Using default value {}ms.", e.getMessage(),
+                        defaultMaxExecutionTime);
             }
+
+            // start experiment timer/status
+            experimentStatus.startAbortionTimer(this, maxExecutionTime);
+            experimentStatus.setState(States.INIT);
+
+            LOGGER.info("Creating benchmark controller " + benchmark.mainImage);
+            String containerId = controller.containerManager.startContainer(benchmark.mainImage,
+                    Constants.CONTAINER_TYPE_BENCHMARK, experimentStatus.getRootContainer(),
+                    createEnvironment(experimentStatus, Constants.HOBBIT_SESSION_ID_KEY + "=" + config.id,
+                            Constants.HOBBIT_EXPERIMENT_URI_KEY + "=" + experimentStatus.experimentUri,
+                            Constants.BENCHMARK_PARAMETERS_MODEL_KEY + "=" + config.serializedBenchParams,
+                            Constants.SYSTEM_URI_KEY + "=" + config.systemUri),
+                    null, null, config.id, Collections.emptyMap());
+            if (containerId == null) {
+                experimentStatus.addError(HobbitErrors.BenchmarkCreationError);
+                throw new Exception("Couldn't create benchmark controller " + config.benchmarkUri);
+            }
+
+            if (experimentStatus.getRootContainer() == null) {
+                experimentStatus.setRootContainer(containerId);
+            }
+            experimentStatus.setBenchmarkContainer(containerId);
+
+            LOGGER.info("Creating system " + system.mainImage);
+            String serializedSystemParams = getSerializedSystemParams(config, benchmark, system);
+            containerId = controller.containerManager.startContainer(system.mainImage,
+                    Constants.CONTAINER_TYPE_SYSTEM, experimentStatus.getRootContainer(),
+                    createEnvironment(experimentStatus, Constants.HOBBIT_SESSION_ID_KEY + "=" + config.id,
+                            Constants.SYSTEM_PARAMETERS_MODEL_KEY + "=" + serializedSystemParams),
+                    null, null, config.id, getHardwareConstraints(config.serializedBenchParams));
+            if (containerId == null) {
+                LOGGER.error("Couldn't start the system. Trying to cancel the benchmark.");
+                forceBenchmarkTerminate_unsecured(slot, HobbitErrors.SystemCreationError);
+                throw new Exception("Couldn't start the system " + config.systemUri);
+            } else {
+                experimentStatus.setSystemContainer(containerId);
+            }
+            LOGGER.info("Finished starting of new experiment.");
+        } catch (Exception e) {
+            LOGGER.error("Exception while trying to start a new benchmark. Removing it from the queue.", e);
+            // Add an error if there is a model but no error was added
+            ExperimentStatus experimentStatus = slot.getStatus();
+            if (experimentStatus != null) {
+                experimentStatus.addErrorIfNonPresent(HobbitErrors.UnexpectedError);
+            }
+            handleExperimentTermination_unsecured(slot);
         }
     }
 
@@ -322,29 +859,137 @@ public class ExperimentManager implements Closeable {
         return Collections.emptyMap();
     }
 
-    protected void createRabbitMQ(ExperimentConfiguration config) throws Exception {
+    /**
+     * Determines the resources that have to be reserved for the given
+     * experiment based on the <code>hobbit:maxHardware</code> of its benchmark
+     * parameters.
+     *
+     * @param config the configuration of the experiment
+     * @return the footprint of the experiment or <code>null</code> if the
+     *         experiment has to be executed exclusively
+     */
+    private HardwareResources getFootprint(ExperimentConfiguration config) {
+        HardwareResources declared = null;
+        try {
+            declared = HardwareResources.fromConstraints(getHardwareConstraints(config.serializedBenchParams));
+        } catch (Exception e) {
+            LOGGER.warn("Couldn't read the hardware constraints of experiment " + config.id
+                    + ". It will be executed exclusively.", e);
+        }
+        return admissionController.getFootprint(declared);
+    }
+
+    /**
+     * @return the resources reserved by the experiments that are currently
+     *         occupying a slot (<code>null</code> elements represent experiments
+     *         that are executed exclusively)
+     */
+    private List<HardwareResources> getReservedResources() {
+        List<HardwareResources> reservations = new ArrayList<>(slots.length);
+        for (ExperimentSlot slot : slots) {
+            if (!slot.isFree()) {
+                reservations.add(slot.getReservedResources());
+            }
+        }
+        return reservations;
+    }
+
+    /**
+     * Creates the RabbitMQ broker for the experiment in the given slot (or uses
+     * the configured broker for experiments) and sets the connector of the slot.
+     *
+     * @param slot the slot containing the experiment for which the broker should
+     *             be created
+     * @throws Exception if the broker can not be created or the connector can not
+     *                   be initialized
+     */
+    protected void createRabbitMQ(ExperimentSlot slot) throws Exception {
+        ExperimentStatus experimentStatus = slot.getStatus();
         String rabbitMQAddress = hobbitConfig.getString(RABBIT_MQ_EXPERIMENTS_HOST_NAME_KEY, (String) null);
-        if (rabbitMQAddress == null) {
+        RabbitMQBrokerPool.PooledBroker pooledBroker = null;
+        if ((rabbitMQAddress == null) && (rabbitMQBrokerPool != null)) {
+            pooledBroker = rabbitMQBrokerPool.lease(experimentStatus.config.id);
+        }
+        if (pooledBroker != null) {
+            rabbitMQAddress = pooledBroker.getContainerName();
+            experimentStatus.setRootContainer(rabbitMQAddress);
+            experimentStatus.setRabbitMQContainer(rabbitMQAddress);
+            LOGGER.info("Using the pre-started RabbitMQ for the experiment: {}", rabbitMQAddress);
+            slot.setRabbitMQConnector(pooledBroker.getConnector());
+        } else if (rabbitMQAddress == null) {
             LOGGER.info("Starting new RabbitMQ for the experiment...");
             rabbitMQAddress = controller.containerManager.startContainer(hobbitConfig.getString(RABBIT_IMAGE_ENV_KEY),
-                    Constants.CONTAINER_TYPE_BENCHMARK, null, new String[] {}, null, null, config.id,
-                    Collections.emptyMap());
+                    Constants.CONTAINER_TYPE_BENCHMARK, null, new String[] {}, null, null,
+                    experimentStatus.config.id, Collections.emptyMap());
             if (rabbitMQAddress == null) {
                 experimentStatus.addError(HobbitErrors.UnexpectedError); // FIXME
                 throw new Exception("Couldn't start new RabbitMQ for the experiment");
             }
 
             experimentStatus.setRootContainer(rabbitMQAddress);
+            experimentStatus.setRabbitMQContainer(rabbitMQAddress);
             LOGGER.info("Using the newly started RabbitMQ for the experiment: {}", rabbitMQAddress);
+
+            RabbitMQConnector rabbitMQConnector = new RabbitMQConnector(controller, rabbitMQAddress);
+            slot.setRabbitMQConnector(rabbitMQConnector);
+            rabbitMQConnector.init();
+        } else if (rabbitMQManagementClient != null) {
+            String virtualHost = "experiment-" + experimentStatus.config.id;
+            String password = UUID.randomUUID().toString();
+            LOGGER.info("Creating the virtual host {} on the configured RabbitMQ for the experiment: {}", virtualHost,
+                    rabbitMQAddress);
+            experimentStatus.setRabbitMQContainer(rabbitMQAddress);
+            // set the virtual host first to make sure that it is removed if one of
+            // the following steps fails
+            experimentStatus.setRabbitMQVirtualHost(virtualHost, virtualHost, password);
+            rabbitMQManagementClient.createVirtualHost(virtualHost);
+            rabbitMQManagementClient.createUser(virtualHost, password, virtualHost);
+
+            RabbitMQConnector rabbitMQConnector = new RabbitMQConnector(controller, rabbitMQAddress, virtualHost,
+                    virtualHost, password);
+            slot.setRabbitMQConnector(rabbitMQConnector);
+            rabbitMQConnector.init();
         } else {
             LOGGER.info("Using the configured RabbitMQ for the experiment: {}", rabbitMQAddress);
+            experimentStatus.setRabbitMQContainer(rabbitMQAddress);
+            // All experiments share the same broker. If every slot would get its own
+            // connector, the controller would receive every command several times.
+            slot.setRabbitMQConnector(getSharedRabbitMQConnector(rabbitMQAddress), true);
         }
-        experimentStatus.setRabbitMQContainer(rabbitMQAddress);
+    }
 
-        RabbitMQConnector rabbitMQConnector = new RabbitMQConnector(controller,
-                experimentStatus.getRabbitMQContainer());
-        controller.setExpRabbitMQConnector(rabbitMQConnector);
-        rabbitMQConnector.init();
+    /**
+     * Returns the connector to the configured RabbitMQ broker for experiments.
+     * The connector is created if it does not exist.
+     *
+     * @param rabbitMQAddress the host name of the configured broker
+     * @return the connector shared by all slots
+     * @throws Exception if the connector can not be initialized
+     */
+    private synchronized RabbitMQConnector getSharedRabbitMQConnector(String rabbitMQAddress) throws Exception {
+        if (sharedRabbitMQConnector == null) {
+            RabbitMQConnector rabbitMQConnector = new RabbitMQConnector(controller, rabbitMQAddress);
+            rabbitMQConnector.init();
+            sharedRabbitMQConnector = rabbitMQConnector;
+        }
+        return sharedRabbitMQConnector;
+    }
+
+    /**
+     * Creates the environment of a container of the given experiment comprising
+     * the address of the experiment's RabbitMQ broker, its virtual host (if
+     * any) and the given variables.
+     *
+     * @param experimentStatus the status of the experiment
+     * @param variables        the additional environment variables
+     * @return the environment variables of the container
+     */
+    private static String[] createEnvironment(ExperimentStatus experimentStatus, String... variables) {
+        List<String> environment = new ArrayList<>();
+        environment.add(Constants.RABBIT_MQ_HOST_NAME_KEY + "=" + experimentStatus.getRabbitMQContainer());
+        environment.addAll(Arrays.asList(experimentStatus.getRabbitMQVirtualHostEnvironment()));
+        environment.addAll(Arrays.asList(variables));
+        return environment.toArray(new String[environment.size()]);
     }
 
     // FIXME add javadoc
@@ -375,24 +1020,25 @@ public class ExperimentManager implements Closeable {
         return RabbitMQUtils.writeModel2String(systemModel);
     }
 
-    protected void prefetchImages(BenchmarkMetaData benchmark, SystemMetaData system) throws Exception {
+    protected void prefetchImages(ExperimentStatus experimentStatus, BenchmarkMetaData benchmark,
+            SystemMetaData system) throws Exception {
         Set<String> usedImages = new HashSet<String>();
         usedImages.add(benchmark.mainImage);
         usedImages.addAll(benchmark.usedImages);
         usedImages.add(system.mainImage);
-        usedImages.addAll(benchmark.usedImages);
-        // pull all used images
+        usedImages.addAll(system.usedImages);
+        // pull all used images in parallel
         for (String image : usedImages) {
             experimentStatus.addImage(image);
-            controller.containerManager.pullImage(image);
         }
+        controller.containerManager.pullImages(usedImages);
     }
 
     /**
-     * Sets the result model of the current running experiment by transforming the
-     * given data into an RDF model using the given function while owning the
-     * {@link #experimentStatus} object and therefore blocking all other operations
-     * on that object.
+     * Sets the result model of the experiment with the given session ID by
+     * transforming the given data into an RDF model using the given function while
+     * owning the slot of the experiment and therefore blocking all other
+     * operations on that experiment.
      *
      * @param sessionId the experiment ID to which the result model belongs to
      * @param data      binary data containing a serialized RDF model
@@ -400,33 +1046,26 @@ public class ExperimentManager implements Closeable {
      *                  an RDF model
      */
     public void setResultModel(String sessionId, byte[] data, Function<? super byte[], ? extends Model> function) {
-        synchronized (experimentMutex) {
-            if ((experimentStatus != null) && (experimentStatus.config != null)
-                    && (sessionId.equals(experimentStatus.config.id))) {
-                setResultModel_unsecured(function.apply(data));
-            } else {
-                LOGGER.warn("Got result model for {} which is not running.", sessionId);
+        ExperimentSlot slot = getSlot(sessionId);
+        if (slot != null) {
+            synchronized (slot) {
+                if (slot.hasSession(sessionId)) {
+                    setResultModel_unsecured(slot, function.apply(data));
+                    return;
+                }
             }
         }
+        LOGGER.warn("Got result model for {} which is not running.", sessionId);
     }
 
     /**
-     * Sets the result model of the current running experiment.
+     * Sets the result model of the experiment in the given slot.
      *
+     * @param slot  the slot of the experiment
      * @param model the result model
      */
-    public void setResultModel(Model model) {
-        synchronized (experimentMutex) {
-            setResultModel_unsecured(model);
-        }
-    }
-
-    /**
-     * Sets the result model of the current running experiment.
-     *
-     * @param model the result model
-     */
-    private void setResultModel_unsecured(Model model) {
+    private void setResultModel_unsecured(ExperimentSlot slot, Model model) {
+        ExperimentStatus experimentStatus = slot.getStatus();
         if (experimentStatus != null) {
             experimentStatus.setOrMergeResultModel(model);
         } else {
@@ -435,40 +1074,48 @@ public class ExperimentManager implements Closeable {
     }
 
     /**
-     * This method handles the storing of the experiment results in the database,
-     * the removing of the experiment from the queue and its closing in a
-     * synchronized way.
+     * This method handles the storing of the results of the experiment with the
+     * given session ID in the database, the removing of the experiment from the
+     * queue and its closing in a synchronized way.
+     *
+     * @param sessionId the ID of the experiment that terminated
      */
-    public synchronized void handleExperimentTermination() {
-        synchronized (experimentMutex) {
-            handleExperimentTermination_unsecured();
+    public void handleExperimentTermination(String sessionId) {
+        ExperimentSlot slot = getSlot(sessionId);
+        if (slot != null) {
+            synchronized (slot) {
+                if (slot.hasSession(sessionId)) {
+                    handleExperimentTermination_unsecured(slot);
+                    return;
+                }
+            }
         }
+        LOGGER.warn("Got a termination request for {} which is not running.", sessionId);
     }
 
-    private synchronized void handleExperimentTermination_unsecured() {
+    /**
+     * Handles the termination of the experiment in the given slot. Only the
+     * steps that are necessary before the slot can be reused are executed
+     * while holding the mutex of the slot, i.e., the result model is completed
+     * and stored and the experiment is detached from the slot. The remaining
+     * steps are handed over to the {@link #teardownPipeline}.
+     *
+     * @param slot the slot of the terminated experiment
+     */
+    private void handleExperimentTermination_unsecured(ExperimentSlot slot) {
+        ExperimentStatus experimentStatus = slot.getStatus();
         if (experimentStatus != null) {
             LOGGER.info("Benchmark terminated. Experiment " + experimentStatus.config.id
-                    + " has been finished. Removing it from the queue and setting the config to null.");
+                    + " has been finished. Storing its results and freeing slot " + slot.getIndex() + ".");
             // Close the experiment to stop its internal timer
             IOUtils.closeQuietly(experimentStatus);
             long endTimestamp = System.currentTimeMillis();
-            // TODO add information about the hardware
 
             // Store the result model in DB
             // choose the correct graph
-            String graphUri = Constants.PUBLIC_RESULT_GRAPH_URI;
-            if (experimentStatus.config.challengeUri != null) {
-                // check if challenge is repeatable (by selecting data from all graphs)
-                boolean repeatable = false;
-                Model challengeModel = controller.getChallengeFromUri(experimentStatus.config.challengeUri, null);
-                if (challengeModel != null) {
-                    Resource challenge = challengeModel.getResource(experimentStatus.config.challengeUri);
-                    repeatable = RdfHelper.getLiteral(challengeModel, challenge, HOBBIT.registrationCutoffDate) != null;
-                }
-
-                if (!repeatable) {
-                    graphUri = Constants.PRIVATE_RESULT_GRAPH_URI;
-                }
+            String graphUri = experimentStatus.getResultGraphUri();
+            if (graphUri == null) {
+                graphUri = getResultGraphUri(experimentStatus.config);
             }
 
             // if cluster is not healthy add error message to experimentStatus
@@ -493,58 +1140,174 @@ public class ExperimentManager implements Closeable {
                 experimentStatus.addError(HobbitErrors.UnexpectedError);
                 resultModel = experimentStatus.getResultModel();
             }
-            SetupHardwareInformation hardwareInformation = null;
-            try {
-                hardwareInformation = controller.resInfoCollector.getHardwareInformation();
-            } catch (Exception e) {
-                LOGGER.error("Could not retrieve hardware information.", e);
-            }
-            experimentStatus.addMetaDataToResult(controller.imageManager(), endTimestamp, hardwareInformation);
+            // The hardware information is added by the teardown pipeline
+            experimentStatus.addMetaDataToResult(controller.imageManager(), endTimestamp, null);
 
-            // Send insert query
-            if (!controller.storage().sendInsertQuery(resultModel, graphUri)) {
-                if (resultModel != null) {
-                    StringWriter writer = new StringWriter();
-                    resultModel.write(writer, "TTL");
-                    LOGGER.error("Error while storing the result model of the experiment. Logging it: ",
-                            writer.toString().replace('\n', ' '));
-                }
-            }
-            // We have to remove the config from the queue
-            controller.queue.remove(experimentStatus.config);
-            // Send experiment URI to the analysis component if the result is public
-            if (graphUri.equals(Constants.PUBLIC_RESULT_GRAPH_URI)) {
-                try {
-                    controller.analyzeExperiment(experimentStatus.experimentUri);
-                    LOGGER.info("Sent {} to the analysis component.", experimentStatus.experimentUri);
-                } catch (IOException e) {
-                    LOGGER.error("Could not send task \"{}\" to AnalyseQueue.",
-                            experimentStatus.getConfig().challengeTaskUri);
-                }
-            }
+            // Spool the results. They are inserted into the storage in the background
+            storeResults(experimentStatus.config.id, resultModel, graphUri);
 
-            try {
-                controller.closeExpRabbitMQConnector();
-            } catch (Exception e) {
-                LOGGER.error("Could not switch the command queue to the default broker.");
-            }
-            controller.containerManager.removeContainer(experimentStatus.getRootContainer());
+            RabbitMQConnector rabbitMQConnector = detachRabbitMQConnector(slot);
+            teardownPipeline.submit(experimentStatus.config.id,
+                    createTeardownStages(experimentStatus, graphUri, rabbitMQConnector));
 
             // publish experiment results (if needed)
             // controller.publishChallengeForExperiment(experimentStatus.config);
-            // Remove the experiment status object
-            experimentStatus = null;
+            // Free the slot
+            slot.clear();
+            // check whether the next experiment can use the free slot
+            requestExperimentCheck();
         }
     }
 
     /**
-     * Forces the benchmark controller and its child containers to terminate. If the
-     * given error is not <code>null</code> it is added to the result model of the
-     * experiment.
+     * Determines the graph in which the results of the given experiment should
+     * be stored. The results of experiments that are part of a challenge that
+     * is not repeatable are stored in the private graph.
+     *
+     * @param config the configuration of the experiment
+     * @return the URI of the result graph
+     */
+    private String getResultGraphUri(ExperimentConfiguration config) {
+        if (config.challengeUri != null) {
+            // check if challenge is repeatable (by selecting data from all graphs)
+            boolean repeatable = false;
+            Model challengeModel = controller.getChallengeFromUri(config.challengeUri, null);
+            if (challengeModel != null) {
+                Resource challenge = challengeModel.getResource(config.challengeUri);
+                repeatable = RdfHelper.getLiteral(challengeModel, challenge, HOBBIT.registrationCutoffDate) != null;
+            }
+
+            if (!repeatable) {
+                return Constants.PRIVATE_RESULT_GRAPH_URI;
+            }
+        }
+        return Constants.PUBLIC_RESULT_GRAPH_URI;
+    }
+
+    /**
+     * Creates the stages of the teardown of the given experiment that are
+     * executed after the experiment has been detached from its slot.
      *
+     * @param experimentStatus  the status of the terminated experiment
+     * @param graphUri          the graph in which the results have been stored
+     * @param rabbitMQConnector the connector that should be closed or
+     *                          <code>null</code> if there is no such connector
+     * @return the stages of the teardown
+     */
+    private List<Stage> createTeardownStages(ExperimentStatus experimentStatus, String graphUri,
+            RabbitMQConnector rabbitMQConnector) {
+        List<Stage> stages = new ArrayList<>();
+        // We have to remove the config from the queue
+        stages.add(new Stage("queue-removal", () -> controller.queue.remove(experimentStatus.config)));
+        if (rabbitMQConnector != null) {
+            stages.add(new Stage("rabbitmq-connector", () -> rabbitMQConnector.close()));
+        }
+        String rootContainer = experimentStatus.getRootContainer();
+        if (rootContainer != null) {
+            // a failed removal is retried by the pipeline
+            stages.add(new Stage("container-removal",
+                    () -> controller.containerManager.removeParentAndChildrenOrFail(rootContainer)));
+        }
+        if ((experimentStatus.getRabbitMQVirtualHost() != null) && (rabbitMQManagementClient != null)) {
+            stages.add(new Stage("rabbitmq-virtual-host",
+                    () -> rabbitMQManagementClient.deleteVirtualHost(experimentStatus.getRabbitMQVirtualHost())));
+            stages.add(new Stage("rabbitmq-user",
+                    () -> rabbitMQManagementClient.deleteUser(experimentStatus.getRabbitMQUsername())));
+        }
+        stages.add(new Stage("hardware-information", () -> storeHardwareInformation(experimentStatus, graphUri)));
+        // Send experiment URI to the analysis component if the result is public
+        if (graphUri.equals(Constants.PUBLIC_RESULT_GRAPH_URI)) {
+            // the analysis has to wait until all results are in the storage
+            stages.add(new Stage("analysis", () -> resultSpool.runWhenFlushed(experimentStatus.config.id, () -> {
+                controller.analyzeExperiment(experimentStatus.experimentUri);
+                LOGGER.info("Sent {} to the analysis component.", experimentStatus.experimentUri);
+            })));
+        }
+        return stages;
+    }
+
+    /**
+     * Adds the hardware information of the cluster to the stored results of
+     * the given experiment.
+     *
+     * @param experimentStatus the status of the terminated experiment
+     * @param graphUri         the graph in which the results have been stored
+     */
+    private void storeHardwareInformation(ExperimentStatus experimentStatus, String graphUri) throws Exception {
+        if (controller.resInfoCollector == null) {
+            return;
+        }
+        SetupHardwareInformation hardwareInformation = controller.resInfoCollector.getHardwareInformation();
+        if (hardwareInformation == null) {
+            throw new IllegalStateException("Could not retrieve hardware information.");
+        }
+        Model model = ModelFactory.createDefaultModel();
+        model.add(model.getResource(experimentStatus.experimentUri), HOBBIT.wasCarriedOutOn,
+                hardwareInformation.addToModel(model));
+        insertIntoResults(experimentStatus.config.id, model, graphUri);
+    }
+
+    /**
+     * Stores the given results of the given experiment. The results are
+     * written to the {@link #resultSpool}. If this fails, they are inserted
+     * directly into the storage and logged if this fails as well.
+     *
+     * @param experimentId the ID of the experiment
+     * @param model        the results of the experiment
+     * @param graphUri     the graph into which the results should be inserted
+     */
+    private void storeResults(String experimentId, Model model, String graphUri) {
+        if (model == null) {
+            return;
+        }
+        try {
+            resultSpool.spool(experimentId, model, graphUri);
+            return;
+        } catch (Exception e) {
+            LOGGER.error("Couldn't spool the results of experiment " + experimentId
+                    + ". Trying to insert them directly.", e);
+        }
+        if (!controller.storage().sendInsertQuery(model, graphUri)) {
+            StringWriter writer = new StringWriter();
+            model.write(writer, "TTL");
+            LOGGER.error("Error while storing the result model of the experiment. Logging it: ",
+                    writer.toString().replace('\n', ' '));
+        }
+    }
+
+    private void insertIntoResults(String experimentId, Model model, String graphUri) throws IOException {
+        resultSpool.spool(experimentId, model, graphUri);
+    }
+
+    /**
+     * Detaches the RabbitMQ connector from the given slot.
+     *
+     * @param slot the slot of which the connector should be detached
+     * @return the connector if it has to be closed or <code>null</code> if it is
+     *         shared with other slots or there is no connector
+     */
+    private RabbitMQConnector detachRabbitMQConnector(ExperimentSlot slot) {
+        RabbitMQConnector rabbitMQConnector = slot.getRabbitMQConnector();
+        LOGGER.info("Detaching experiment's RabbitMQ connector for the command queue: {}", rabbitMQConnector);
+        if (rabbitMQConnector == null) {
+            LOGGER.warn("Got a request to close the RabbitMQ connector but it was already null.");
+        } else if (slot.isSharedConnector()) {
+            rabbitMQConnector = null;
+        }
+        slot.setRabbitMQConnector(null);
+        return rabbitMQConnector;
+    }
+
+    /**
+     * Forces the benchmark controller and its child containers of the experiment
+     * in the given slot to terminate. If the given error is not <code>null</code>
+     * it is added to the result model of the experiment.
+     *
+     * @param slot  the slot of the experiment that should be terminated
      * @param error error that is added to the result model of the experiment
      */
-    private void forceBenchmarkTerminate_unsecured(Resource error) {
+    private void forceBenchmarkTerminate_unsecured(ExperimentSlot slot, Resource error) {
+        ExperimentStatus experimentStatus = slot.getStatus();
         if (experimentStatus != null) {
             experimentStatus.setState(States.STOPPED);
             String parent = experimentStatus.getRootContainer();
@@ -564,11 +1327,18 @@ public class ExperimentManager implements Closeable {
      */
     public void notifyTermination(String containerId, long exitCode) {
         boolean consumed = false;
-        synchronized (experimentMutex) {
-            if (experimentStatus != null) {
-                // If this container is the benchmark controller of the
-                // current
-                // experiment
+        for (ExperimentSlot slot : slots) {
+            // Check without acquiring the mutex first to make sure that we do not
+            // have to wait for slots that are busy with other experiments
+            if (!isContainerOfExperiment(slot.getStatus(), containerId)) {
+                continue;
+            }
+            synchronized (slot) {
+                ExperimentStatus experimentStatus = slot.getStatus();
+                if (!isContainerOfExperiment(experimentStatus, containerId)) {
+                    continue;
+                }
+                // If this container is the benchmark controller of the experiment
                 if (containerId.equals(experimentStatus.getBenchmarkContainer())) {
                     experimentStatus.setState(ExperimentStatus.States.STOPPED);
                     if (exitCode != 0) {
@@ -576,7 +1346,7 @@ public class ExperimentManager implements Closeable {
                                 + " terminated with an exit code != 0.");
                         experimentStatus.addErrorIfNonPresent(HobbitErrors.BenchmarkCrashed);
                     }
-                    handleExperimentTermination_unsecured();
+                    handleExperimentTermination_unsecured(slot);
                     consumed = true;
                     // If this is the system container and benchmark and
                     // system are not running
@@ -584,15 +1354,18 @@ public class ExperimentManager implements Closeable {
                         && (experimentStatus.getState() == ExperimentStatus.States.INIT)) {
                     LOGGER.info("The system has been stopped before the benchmark has been started. Aborting.");
                     // Cancel the experiment
-                    forceBenchmarkTerminate_unsecured(HobbitErrors.SystemCrashed);
+                    forceBenchmarkTerminate_unsecured(slot, HobbitErrors.SystemCrashed);
                     consumed = true;
                 } else if (containerId.equals(experimentStatus.getRabbitMQContainer())) {
                     LOGGER.info("The RabbitMQ has been stopped. Aborting.");
                     // Cancel the experiment
-                    forceBenchmarkTerminate_unsecured(HobbitErrors.UnexpectedError); // FIXME
+                    forceBenchmarkTerminate_unsecured(slot, HobbitErrors.UnexpectedError); // FIXME
                     consumed = true;
                 }
             }
+            if (consumed) {
+                break;
+            }
         }
         if (!consumed) {
             LOGGER.info("Sending broadcast message...");
@@ -618,6 +1391,22 @@ public class ExperimentManager implements Closeable {
         }
     }
 
+    /**
+     * Checks whether the given container is the benchmark controller, the system
+     * or the RabbitMQ broker of the given experiment.
+     *
+     * @param experimentStatus the status of the experiment (can be
+     *                         <code>null</code>)
+     * @param containerId      the Id of the container
+     * @return <code>true</code> if the container is one of the main containers of
+     *         the given experiment
+     */
+    private static boolean isContainerOfExperiment(ExperimentStatus experimentStatus, String containerId) {
+        return (experimentStatus != null) && (containerId.equals(experimentStatus.getBenchmarkContainer())
+                || containerId.equals(experimentStatus.getSystemContainer())
+                || containerId.equals(experimentStatus.getRabbitMQContainer()));
+    }
+
     /**
      * Handles the messages that either the system or the benchmark controller are
      * ready.
@@ -625,44 +1414,50 @@ public class ExperimentManager implements Closeable {
      * @param systemReportedReady <code>true</code> if the message was sent by the
      *                            system, <code>false</code> if the benchmark
      *                            controller is ready
+     * @param sessionId           the ID of the experiment
      */
     public void systemOrBenchmarkReady(boolean systemReportedReady, String sessionId) {
-        synchronized (experimentMutex) {
-            if ((experimentStatus != null) && (experimentStatus.config != null)
-                    && (sessionId.equals(experimentStatus.config.id))) {
-                // If there is an experiment waiting with the state INIT and if
-                // both - system and benchmark are ready
-                if ((experimentStatus != null) && (experimentStatus.setReadyAndCheck(systemReportedReady)
-                        && (experimentStatus.getState() == ExperimentStatus.States.INIT))) {
-                    try {
-                        startBenchmark_unsecured();
-                    } catch (IOException e) {
-                        // Let's retry this
+        ExperimentSlot slot = getSlot(sessionId);
+        if (slot != null) {
+            synchronized (slot) {
+                ExperimentStatus experimentStatus = slot.getStatus();
+                if (slot.hasSession(sessionId)) {
+                    // If there is an experiment waiting with the state INIT and if
+                    // both - system and benchmark are ready
+                    if (experimentStatus.setReadyAndCheck(systemReportedReady)
+                            && (experimentStatus.getState() == ExperimentStatus.States.INIT)) {
                         try {
-                            startBenchmark_unsecured();
-                        } catch (IOException e2) {
-                            LOGGER.error(
-                                    "Couldn't sent start signal to the benchmark controller. Terminating experiment.",
-                                    e2);
-                            // We have to terminate the experiment
-                            forceBenchmarkTerminate_unsecured(HobbitErrors.UnexpectedError);
+                            startBenchmark_unsecured(experimentStatus);
+                        } catch (IOException e) {
+                            // Let's retry this
+                            try {
+                                startBenchmark_unsecured(experimentStatus);
+                            } catch (IOException e2) {
+                                LOGGER.error(
+                                        "Couldn't sent start signal to the benchmark controller. Terminating experiment.",
+                                        e2);
+                                // We have to terminate the experiment
+                                forceBenchmarkTerminate_unsecured(slot, HobbitErrors.UnexpectedError);
+                            }
                         }
                     }
+                    return;
                 }
-            } else {
-                LOGGER.warn("Got a ready message for benchmark or system of {} which is not running.", sessionId);
             }
         }
+        LOGGER.warn("Got a ready message for benchmark or system of {} which is not running.", sessionId);
     }
 
     /**
-     * Sends the start message to the benchmark controller.
+     * Sends the start message to the benchmark controller of the given
+     * experiment.
      *
+     * @param experimentStatus the status of the experiment that should be started
      * @throws IOException if there is a communication problem or if the name of the
      *                     system container can not be retrieved from the docker
      *                     daemon
      */
-    private void startBenchmark_unsecured() throws IOException {
+    private void startBenchmark_unsecured(ExperimentStatus experimentStatus) throws IOException {
         String containerName = controller.containerManager.getContainerName(experimentStatus.getSystemContainer());
         if (containerName == null) {
             throw new IOException(
@@ -682,51 +1477,70 @@ public class ExperimentManager implements Closeable {
     }
 
     /**
-     * Adds the status of the current experiment to the given status object.
+     * Adds the status of the running experiment that has been started first to
+     * the given status object. If the given object is an
+     * {@link ExtControllerStatus}, the status of all running experiments is
+     * added to it, ordered by their start time.
      *
      * @param status the status object to which the data should be added
      */
     public void addStatusInfo(ControllerStatus status, String userName) {
-        // copy the pointer to the experiment status to make sure that we can
-        // read it even if another thread sets the pointer to null. This gives
-        // us the possibility to read the status without acquiring the
-        // experimentMutex.
-        ExperimentStatus currentStatus = experimentStatus;
-        if (currentStatus != null) {
-            ExperimentConfiguration config = currentStatus.getConfig();
-            RunningExperiment experiment = new RunningExperiment();
-            if (config != null) {
-                experiment.benchmarkUri = config.benchmarkUri;
-                experiment.systemUri = config.systemUri;
-                experiment.experimentId = config.id;
-                experiment.challengeUri = config.challengeUri;
-                experiment.challengeTaskUri = config.challengeTaskUri;
-                experiment.canBeCanceled = userName != null && userName.equals(config.userName);
-                experiment.dateOfExecution = config.executionDate != null ? config.executionDate.getTimeInMillis() : 0;
-            }
-            experiment.startTimestamp = currentStatus.getStartTimeStamp();
-            experiment.timestampOfAbortion = currentStatus.getAbortionTimeStamp();
-            States exState = currentStatus.getState();
-            if (exState != null) {
-                experiment.status = exState.description;
-            }
-            status.experiment = experiment;
-        }
-    }
-
-    /**
-     * Changes the state of the internal experiment to
+        // copy the pointers to the experiment status objects to make sure that we
+        // can read them even if another thread sets a pointer to null. This gives
+        // us the possibility to read the status without acquiring the mutexes of
+        // the slots.
+        List<ExperimentStatus> runningStatuses = getRunningExperimentStatuses();
+        Collections.sort(runningStatuses, (s1, s2) -> Long.compare(s1.getStartTimeStamp(), s2.getStartTimeStamp()));
+        RunningExperiment[] experiments = new RunningExperiment[runningStatuses.size()];
+        for (int i = 0; i < experiments.length; ++i) {
+            experiments[i] = createRunningExperiment(runningStatuses.get(i), userName);
+        }
+        if (experiments.length > 0) {
+            status.experiment = experiments[0];
+        }
+        if (status instanceof ExtControllerStatus) {
+            ((ExtControllerStatus) status).runningExperiments = experiments;
+        }
+    }
+
+    private static RunningExperiment createRunningExperiment(ExperimentStatus currentStatus, String userName) {
+        ExperimentConfiguration config = currentStatus.getConfig();
+        RunningExperiment experiment = new RunningExperiment();
+        if (config != null) {
+            experiment.benchmarkUri = config.benchmarkUri;
+            experiment.systemUri = config.systemUri;
+            experiment.experimentId = config.id;
+            experiment.challengeUri = config.challengeUri;
+            experiment.challengeTaskUri = config.challengeTaskUri;
+            experiment.canBeCanceled = userName != null && userName.equals(config.userName);
+            experiment.dateOfExecution = config.executionDate != null ? config.executionDate.getTimeInMillis() : 0;
+        }
+        experiment.startTimestamp = currentStatus.getStartTimeStamp();
+        experiment.timestampOfAbortion = currentStatus.getAbortionTimeStamp();
+        States exState = currentStatus.getState();
+        if (exState != null) {
+            experiment.status = exState.description;
+        }
+        return experiment;
+    }
+
+    /**
+     * Changes the state of the experiment with the given session ID to
      * {@link ExperimentStatus.States#EVALUATION}.
+     *
+     * @param sessionId the ID of the experiment
      */
     public void taskGenFinished(String sessionId) {
-        synchronized (experimentMutex) {
-            if ((experimentStatus != null) && (experimentStatus.config != null)
-                    && (sessionId.equals(experimentStatus.config.id))) {
-                experimentStatus.setState(ExperimentStatus.States.EVALUATION);
-            } else {
-                LOGGER.warn("Got a taskGenFinished message of {} which is not running.", sessionId);
+        ExperimentSlot slot = getSlot(sessionId);
+        if (slot != null) {
+            synchronized (slot) {
+                if (slot.hasSession(sessionId)) {
+                    slot.getStatus().setState(ExperimentStatus.States.EVALUATION);
+                    return;
+                }
             }
         }
+        LOGGER.warn("Got a taskGenFinished message of {} which is not running.", sessionId);
     }
 
     /**
@@ -734,42 +1548,51 @@ public class ExperimentManager implements Closeable {
      * experiment has been reached.
      *
      * @param expiredState the experiment status the timer was working on which is
-     *                     used to make sure that the timer was started for the
-     *                     currently running experiment.
+     *                     used to make sure that the timer was started for an
+     *                     experiment that is still running.
      */
     public void notifyExpRuntimeExpired(ExperimentStatus expiredState) {
         Objects.requireNonNull(expiredState);
-        synchronized (experimentMutex) {
-            // If this is the currently running experiment
-            if ((experimentStatus != null) && (expiredState.experimentUri.equals(expiredState.experimentUri))) {
-                // If the experiment hasn't been stopped
-                if (experimentStatus.getState() != States.STOPPED) {
-                    LOGGER.error("The experiment {} took too much time. Forcing termination.",
-                            experimentStatus.experimentUri);
-                    forceBenchmarkTerminate_unsecured(HobbitErrors.ExperimentTookTooMuchTime);
+        for (ExperimentSlot slot : slots) {
+            if (slot.getStatus() != expiredState) {
+                continue;
+            }
+            synchronized (slot) {
+                ExperimentStatus experimentStatus = slot.getStatus();
+                // If this is still the experiment of the timer
+                if (experimentStatus == expiredState) {
+                    // If the experiment hasn't been stopped
+                    if (experimentStatus.getState() != States.STOPPED) {
+                        LOGGER.error("The experiment {} took too much time. Forcing termination.",
+                                experimentStatus.experimentUri);
+                        forceBenchmarkTerminate_unsecured(slot, HobbitErrors.ExperimentTookTooMuchTime);
+                    }
+                    return;
                 }
-            } else {
-                LOGGER.warn(
-                        "Got a timeout notification for an experiment that does not match the current experiment. It will be ignored.");
             }
         }
+        LOGGER.warn(
+                "Got a timeout notification for an experiment that does not match a running experiment. It will be ignored.");
     }
 
     /**
-     * Stops the currently running experiment if it has the given experiment id.
+     * Stops the experiment with the given experiment id if it is running.
      *
      * @param experimentId the id of the experiment that should be stopped
      */
     public void stopExperimentIfRunning(String experimentId) {
-        synchronized (experimentMutex) {
-            // If this is the currently running experiment
-            if ((experimentStatus != null) && (experimentStatus.config != null)
-                    && (experimentStatus.config.id.equals(experimentId))) {
-                // If the experiment hasn't been stopped
-                if (experimentStatus.getState() != States.STOPPED) {
-                    LOGGER.error("The experiment {} was stopped by the user. Forcing termination.",
-                            experimentStatus.experimentUri);
-                    forceBenchmarkTerminate_unsecured(HobbitErrors.TerminatedByUser);
+        ExperimentSlot slot = getSlot(experimentId);
+        if (slot != null) {
+            synchronized (slot) {
+                // If this is still the experiment of the slot
+                if (slot.hasSession(experimentId)) {
+                    ExperimentStatus experimentStatus = slot.getStatus();
+                    // If the experiment hasn't been stopped
+                    if (experimentStatus.getState() != States.STOPPED) {
+                        LOGGER.error("The experiment {} was stopped by the user. Forcing termination.",
+                                experimentStatus.experimentUri);
+                        forceBenchmarkTerminate_unsecured(slot, HobbitErrors.TerminatedByUser);
+                    }
                 }
             }
         }
@@ -778,18 +1601,164 @@ public class ExperimentManager implements Closeable {
     @Override
     public void close() throws IOException {
         expStartTimer.cancel();
+        // let experiments that are currently created reach a defined state
+        experimentCreator.shutdown();
+        try {
+            if (!experimentCreator.awaitTermination(CREATION_CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Closing the experiment manager while experiments are still created.");
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for experiments that are created.");
+        }
+        // finish the teardowns of terminated experiments
+        teardownPipeline.close();
+        // spooled results that are not flushed are inserted after a restart
+        resultSpool.close();
+        if (rabbitMQBrokerPool != null) {
+            rabbitMQBrokerPool.close();
+        }
+        if (imagePrewarmTimer != null) {
+            imagePrewarmTimer.cancel();
+        }
+        if (resourceUsageTimer != null) {
+            resourceUsageTimer.cancel();
+        }
+        synchronized (this) {
+            if (sharedRabbitMQConnector != null) {
+                IOUtils.closeQuietly(sharedRabbitMQConnector);
+                sharedRabbitMQConnector = null;
+            }
+        }
     }
 
     public boolean isExpRunning(String sessionId) {
-        // copy the pointer to the experiment status to make sure that we can
-        // read it even if another thread sets the pointer to null. This gives
-        // us the possibility to read the status without acquiring the
-        // experimentMutex.
-        ExperimentStatus currentStatus = experimentStatus;
         // Make sure that there is an experiment running with the given ID and that has
         // not been already stopped
-        return (currentStatus != null) && (currentStatus.config != null) && (sessionId.equals(currentStatus.config.id))
-                && (currentStatus.getState() != States.STOPPED);
+        ExperimentStatus currentStatus = getExperimentStatus(sessionId);
+        return (currentStatus != null) && (currentStatus.getState() != States.STOPPED);
+    }
+
+    /**
+     * Returns the slot of the experiment with the given session ID or
+     * <code>null</code> if there is no such experiment running. Note that the
+     * caller has to check the session ID of the slot again after acquiring its
+     * mutex.
+     *
+     * @param sessionId the ID of the experiment
+     * @return the slot of the experiment or <code>null</code>
+     */
+    protected ExperimentSlot getSlot(String sessionId) {
+        for (ExperimentSlot slot : slots) {
+            if (slot.hasSession(sessionId)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a free slot or <code>null</code> if all slots are occupied
+     */
+    protected ExperimentSlot getFreeSlot() {
+        for (ExperimentSlot slot : slots) {
+            if (slot.isFree()) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the status of the experiment with the given session ID or
+     * <code>null</code> if there is no such experiment running.
+     *
+     * @param sessionId the ID of the experiment
+     * @return the status of the experiment or <code>null</code>
+     */
+    public ExperimentStatus getExperimentStatus(String sessionId) {
+        // copy the pointer to the experiment status to make sure that we can
+        // read it even if another thread sets the pointer to null.
+        for (ExperimentSlot slot : slots) {
+            ExperimentStatus currentStatus = slot.getStatus();
+            if ((currentStatus != null) && (currentStatus.config != null)
+                    && (currentStatus.config.id.equals(sessionId))) {
+                return currentStatus;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the status objects of all experiments that are currently occupying
+     *         a slot
+     */
+    public List<ExperimentStatus> getRunningExperimentStatuses() {
+        List<ExperimentStatus> statuses = new ArrayList<>(slots.length);
+        for (ExperimentSlot slot : slots) {
+            ExperimentStatus currentStatus = slot.getStatus();
+            if (currentStatus != null) {
+                statuses.add(currentStatus);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * @return the IDs of all experiments that are currently occupying a slot
+     */
+    public Set<String> getRunningExperimentIds() {
+        Set<String> ids = new HashSet<>();
+        for (ExperimentSlot slot : slots) {
+            String sessionId = slot.getSessionId();
+            if (sessionId != null) {
+                ids.add(sessionId);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the connector to the RabbitMQ broker of the experiment with the
+     * given session ID or <code>null</code> if there is no such experiment
+     * running.
+     *
+     * @param sessionId the ID of the experiment
+     * @return the connector of the experiment or <code>null</code>
+     */
+    public RabbitMQConnector getRabbitMQConnector(String sessionId) {
+        ExperimentSlot slot = getSlot(sessionId);
+        return (slot == null) ? null : slot.getRabbitMQConnector();
+    }
+
+    /**
+     * @return all connectors to the RabbitMQ brokers of the currently running
+     *         experiments (connectors that are shared by several slots are
+     *         contained only once)
+     */
+    public Set<RabbitMQConnector> getRabbitMQConnectors() {
+        Set<RabbitMQConnector> connectors = new HashSet<>();
+        for (ExperimentSlot slot : slots) {
+            RabbitMQConnector connector = slot.getRabbitMQConnector();
+            if (connector != null) {
+                connectors.add(connector);
+            }
+        }
+        return connectors;
+    }
+
+    /**
+     * Registers the metrics of the teardowns and of the result spool at the
+     * given logger.
+     *
+     * @param metricsLogger the logger that exposes the metrics
+     */
+    public void registerMetrics(MetricsLogger metricsLogger) {
+        ExperimentTeardownPipeline pipeline = teardownPipeline;
+        metricsLogger.register("experiment teardowns", () -> String.format("{teardowns=%s, stages=%s}",
+                pipeline.getTeardownMetrics(), pipeline.getStageMetrics()));
+        ResultSpool spool = resultSpool;
+        metricsLogger.register("result spool", () -> String.format("{pendingFiles=%d, flushes=%s}",
+                spool.getPendingFileCount(), spool.getFlushMetrics()));
     }
 
     public void setController(PlatformController controller) {
@@ -809,6 +1778,11 @@ public class ExperimentManager implements Closeable {
      *                             ({@code false}).
      */
     public void handleErrorReport(String sessionId, ErrorData errorData, boolean isBenchmarkContainer) {
+        ExperimentStatus experimentStatus = getExperimentStatus(sessionId);
+        if (experimentStatus == null) {
+            LOGGER.warn("Got an error report of {} which is not running. It will be ignored.", sessionId);
+            return;
+        }
         // Transform the error data into RDF
         Model resultModel = ModelFactory.createDefaultModel();
         // Generate IRI for this error
@@ -836,10 +1810,13 @@ public class ExperimentManager implements Closeable {
         if (errorData.getDescription() != null) {
             resultModel.add(error, RDFS.comment, errorData.getDescription());
         }
-        synchronized (experimentMutex) {
-            // Check again whether we are still working on the same experiment
-            if (isExpRunning(sessionId)) {
-                setResultModel_unsecured(resultModel);
+        ExperimentSlot slot = getSlot(sessionId);
+        if (slot != null) {
+            synchronized (slot) {
+                // Check again whether we are still working on the same experiment
+                if ((slot.getStatus() == experimentStatus) && isExpRunning(sessionId)) {
+                    setResultModel_unsecured(slot, resultModel);
+                }
             }
         }
     }
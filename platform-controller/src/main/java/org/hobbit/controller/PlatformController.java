@@ -24,7 +24,10 @@ import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,7 +36,9 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 import org.apache.commons.configuration2.EnvironmentConfiguration;
 import org.apache.commons.io.IOUtils;
@@ -49,22 +54,32 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.vocabulary.RDF;
 import org.hobbit.controller.analyze.ExperimentAnalyzer;
 import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.data.ExperimentStatus;
+import org.hobbit.controller.data.ExtControllerStatus;
+import org.hobbit.controller.data.UserShare;
 import org.hobbit.controller.docker.ClusterManager;
 import org.hobbit.controller.docker.ClusterManagerImpl;
 import org.hobbit.controller.docker.ContainerManager;
 import org.hobbit.controller.docker.ContainerManagerImpl;
 import org.hobbit.controller.docker.ContainerStateObserver;
-import org.hobbit.controller.docker.ContainerStateObserverImpl;
 import org.hobbit.controller.docker.ContainerTerminationCallback;
+import org.hobbit.controller.docker.DockerUtility;
+import org.hobbit.controller.docker.EventBasedContainerStateObserver;
 import org.hobbit.controller.docker.FileBasedImageManager;
 import org.hobbit.controller.docker.GitlabBasedImageManager;
 import org.hobbit.controller.docker.ImageManager;
 import org.hobbit.controller.docker.ImageManagerFacade;
 import org.hobbit.controller.docker.ResourceInformationCollector;
 import org.hobbit.controller.docker.ResourceInformationCollectorImpl;
+import org.hobbit.controller.execute.CommandDispatcher;
+import org.hobbit.controller.front.ExtFrontEndApiCommands;
 import org.hobbit.controller.front.FrontEndApiHandler;
 import org.hobbit.controller.queue.ExperimentQueue;
 import org.hobbit.controller.queue.ExperimentQueueImpl;
+import org.hobbit.controller.queue.FairShareSchedulingPolicy;
+import org.hobbit.controller.queue.PolicyBasedExperimentQueue;
+import org.hobbit.controller.queue.SchedulingPolicy;
+import org.hobbit.controller.utils.MetricsLogger;
 import org.hobbit.controller.utils.RabbitMQConnector;
 import org.hobbit.core.Commands;
 import org.hobbit.core.Constants;
@@ -145,16 +160,47 @@ public class PlatformController extends AbstractComponent implements ContainerTe
      * Environmental variable key for the Gitlab usage flag.
      */
     private static final String USE_GITLAB_KEY = "USE_GITLAB";
+    /**
+     * Environmental variable key for the scheduling policy of the queue.
+     * Possible values are {@value #SCHEDULING_POLICY_FIFO} (default) and
+     * {@value #SCHEDULING_POLICY_FAIR_SHARE}. The fair share scheduling has to
+     * be enabled explicitly.
+     */
+    public static final String SCHEDULING_POLICY_KEY = "SCHEDULING_POLICY";
+    public static final String SCHEDULING_POLICY_FAIR_SHARE = "fair-share";
+    public static final String SCHEDULING_POLICY_FIFO = "fifo";
+    /**
+     * Environmental variable key for the weights of the users, e.g.,
+     * <code>user1=2,user2=0.5</code>. Users without a weight have the weight 1.
+     */
+    public static final String FAIR_SHARE_WEIGHTS_KEY = "FAIR_SHARE_WEIGHTS";
+    /**
+     * Environmental variable key for the half-life (in ms) of the usage of a
+     * user.
+     */
+    public static final String FAIR_SHARE_HALF_LIFE_KEY = "FAIR_SHARE_HALF_LIFE";
+    /**
+     * Environmental variable key for the delay (in ms) of batch experiments
+     * compared to interactive experiments.
+     */
+    public static final String BATCH_PRIORITY_DELAY_KEY = "BATCH_PRIORITY_DELAY";
+    /**
+     * Environmental variable key for the number of threads that handle the
+     * commands received from the command queue.
+     */
+    public static final String COMMAND_HANDLER_THREADS_KEY = "COMMAND_HANDLER_THREADS";
+    /**
+     * Environmental variable key for the interval (in ms) in which the metrics
+     * of the controller's components are logged. A value &lt;= 0 disables the
+     * logging.
+     */
+    public static final String METRICS_LOG_INTERVAL_KEY = "METRICS_LOG_INTERVAL";
 
     /**
      * Time interval after which challenges are checked for being published.
      */
     public static final long PUBLISH_CHALLENGES = 60 * 60 * 1000;
 
-    /**
-     * Connector for the experiment's RabbitMQ service.
-     */
-    protected RabbitMQConnector rabbitMQConnector = null;
     /**
      * RabbitMQ channel between front end and platform controller.
      */
@@ -179,6 +225,21 @@ public class PlatformController extends AbstractComponent implements ContainerTe
      * The queue containing experiments that are waiting for their execution.
      */
     protected ExperimentQueue queue;
+    /**
+     * The scheduling policy of the queue or {@code null} if the experiments are
+     * executed in the order in which they have been added.
+     */
+    protected SchedulingPolicy schedulingPolicy;
+    /**
+     * Dispatcher executing the received commands in parallel while keeping the
+     * order of the commands of a session. Commands are handled directly by the
+     * receiving thread as long as it is <code>null</code>.
+     */
+    protected CommandDispatcher commandDispatcher;
+    /**
+     * Logs the metrics of the controller's components periodically.
+     */
+    protected MetricsLogger metricsLogger = new MetricsLogger();
     /**
      * A simple mutex that is used to wait for a termination signal for the
      * controller.
@@ -245,6 +306,20 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         hobbitConfig = new HobbitConfiguration();
         hobbitConfig.addConfiguration(new EnvironmentConfiguration());
 
+        int commandHandlerThreads = CommandDispatcher.DEFAULT_THREADS;
+        try {
+            commandHandlerThreads = hobbitConfig.getInt(COMMAND_HANDLER_THREADS_KEY, CommandDispatcher.DEFAULT_THREADS,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get number of command handler threads from env, using default value..");
+        }
+        commandDispatcher = new CommandDispatcher(Math.max(1, commandHandlerThreads));
+        CommandDispatcher dispatcher = commandDispatcher;
+        metricsLogger.register("command dispatcher",
+                () -> String.format("{queueDepth=%d, maxQueueDepth=%d, latencies=%s}", dispatcher.getQueueDepth(),
+                        dispatcher.getMaxQueueDepth(), dispatcher.getLatencies()));
+        metricsLogger.register("Docker requests", DockerUtility::getRequestMetrics);
+
         // Set task history limit for swarm cluster to 0 (will remove all terminated
         // containers)
         // Only for prod mode
@@ -258,14 +333,18 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         }
 
         // create container manager
-        containerManager = new ContainerManagerImpl();
+        containerManager = new ContainerManagerImpl(clusterManager);
         LOGGER.debug("Container manager initialized.");
-        // Create container observer (polls status every 5s)
-        containerObserver = new ContainerStateObserverImpl(containerManager, 5 * 1000);
+        // Create container observer (listens to the Docker events and reconciles
+        // the status every 5s)
+        containerObserver = new EventBasedContainerStateObserver(containerManager,
+                DockerUtility.initializeStreamingDockerClient(), 5 * 1000);
         containerObserver.addTerminationCallback(this);
         // Tell the manager to add container to the observer
         containerManager.addContainerObserver(containerObserver);
-        resInfoCollector = new ResourceInformationCollectorImpl(containerManager);
+        ResourceInformationCollectorImpl collector = new ResourceInformationCollectorImpl(containerManager);
+        metricsLogger.register("Prometheus queries", collector::getPrometheusQueryMetrics);
+        resInfoCollector = collector;
 
         containerObserver.startObserving();
         LOGGER.debug("Container observer initialized.");
@@ -301,6 +380,13 @@ public class PlatformController extends AbstractComponent implements ContainerTe
                 .queue(outgoingDataQueuefactory, Constants.CONTROLLER_2_ANALYSIS_QUEUE_NAME).build();
 
         queue = new ExperimentQueueImpl();
+        String policyName = hobbitConfig.getString(SCHEDULING_POLICY_KEY, SCHEDULING_POLICY_FIFO);
+        if (SCHEDULING_POLICY_FAIR_SHARE.equals(policyName)) {
+            schedulingPolicy = createFairSharePolicy();
+            queue = new PolicyBasedExperimentQueue(queue, schedulingPolicy);
+        } else if (!SCHEDULING_POLICY_FIFO.equals(policyName)) {
+            LOGGER.warn("Unknown scheduling policy \"{}\". Using {} scheduling.", policyName, SCHEDULING_POLICY_FIFO);
+        }
 
         storage = StorageServiceClient.create(outgoingDataQueuefactory.getConnection());
 
@@ -309,6 +395,9 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         if (expManager == null) {
             expManager = new ExperimentManager(this, hobbitConfig);
         }
+        expManager.registerMetrics(metricsLogger);
+        // start new experiments as soon as they are added to the queue
+        queue.addListener(expManager::requestExperimentCheck);
 
         // schedule challenges re-publishing
         challengeCheckTimer = new Timer();
@@ -321,31 +410,43 @@ public class PlatformController extends AbstractComponent implements ContainerTe
             }
         }, PUBLISH_CHALLENGES, PUBLISH_CHALLENGES);
 
-        LOGGER.info("Platform controller initialized.");
-    }
+        long metricsLogInterval = MetricsLogger.DEFAULT_INTERVAL;
+        try {
+            metricsLogInterval = hobbitConfig.getLong(METRICS_LOG_INTERVAL_KEY, MetricsLogger.DEFAULT_INTERVAL,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get metrics log interval from env, using default value..");
+        }
+        metricsLogger.start(metricsLogInterval);
 
-    /**
-     * This method sets the RabbitMQ connector for the command queue.
-     */
-    public void setExpRabbitMQConnector(RabbitMQConnector rabbitMQConnector) {
-        LOGGER.info("Setting experiment's RabbitMQ connector for the command queue: {}", rabbitMQConnector);
-        assert this.rabbitMQConnector == null : "RabbitMQ connector should be null";
-        this.rabbitMQConnector = rabbitMQConnector;
+        LOGGER.info("Platform controller initialized.");
     }
 
     /**
-     * This method closes and removes the RabbitMQ connector for the command queue.
+     * Creates the fair share scheduling policy based on the configuration.
      *
-     * @throws Exception
+     * @return the fair share scheduling policy
      */
-    public void closeExpRabbitMQConnector() {
-        LOGGER.info("Closing experiment's RabbitMQ connector for the command queue: {}", rabbitMQConnector);
-        if(rabbitMQConnector != null) {
-            IOUtils.closeQuietly(rabbitMQConnector);
-            rabbitMQConnector = null;
-        } else {
-            LOGGER.warn("Got a request to close the RabbitMQ connector but it was already null.");
+    private SchedulingPolicy createFairSharePolicy() {
+        long halfLife = FairShareSchedulingPolicy.DEFAULT_HALF_LIFE;
+        try {
+            halfLife = hobbitConfig.getLong(FAIR_SHARE_HALF_LIFE_KEY, FairShareSchedulingPolicy.DEFAULT_HALF_LIFE,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get fair share half-life from env, using default value..");
         }
+        long batchDelay = FairShareSchedulingPolicy.DEFAULT_BATCH_DELAY;
+        try {
+            batchDelay = hobbitConfig.getLong(BATCH_PRIORITY_DELAY_KEY, FairShareSchedulingPolicy.DEFAULT_BATCH_DELAY,
+                    LOGGER);
+        } catch (Exception e) {
+            LOGGER.debug("Could not get batch priority delay from env, using default value..");
+        }
+        Map<String, Double> weights = FairShareSchedulingPolicy
+                .parseWeights(hobbitConfig.getString(FAIR_SHARE_WEIGHTS_KEY, (String) null));
+        LOGGER.info("Using fair share scheduling (half-life={}ms, batch delay={}ms, weights={}).", halfLife,
+                batchDelay, weights);
+        return new FairShareSchedulingPolicy(weights, halfLife, batchDelay);
     }
 
     /**
@@ -383,36 +484,25 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         switch (command) {
         case Commands.DOCKER_CONTAINER_START: {
             StartCommandData startParams = null;
-            String containerName = "";
+            CompletableFuture<String> containerName;
             if (expManager.isExpRunning(sessionId)) {
                 // Convert data byte array to config data structure
                 startParams = GsonUtils.deserializeObjectWithGson(gson, data, StartCommandData.class, false);
-                // trigger creation
-                containerName = createContainer(startParams);
+                // trigger creation without waiting for the container
+                containerName = createContainer(sessionId, startParams);
             } else {
                 LOGGER.error(
                         "Got a request to start a container for experiment \"{}\" which is either not running or was already stopped. Returning null.",
                         sessionId);
+                containerName = CompletableFuture.completedFuture("");
             }
 
             if (replyTo != null) {
-                try {
-                    AMQP.BasicProperties.Builder propsBuilder = new AMQP.BasicProperties.Builder();
-                    propsBuilder.deliveryMode(2);
-                    propsBuilder.correlationId(props.getCorrelationId());
-                    AMQP.BasicProperties replyProps = propsBuilder.build();
-                    publishToCmdChannel("", replyTo, replyProps, RabbitMQUtils.writeString(containerName));
-                } catch (IOException e) {
-                    StringBuilder errMsgBuilder = new StringBuilder();
-                    errMsgBuilder.append("Error, couldn't sent response after creation of container (");
-                    if (startParams != null) {
-                        errMsgBuilder.append(startParams.toString());
-                    }
-                    errMsgBuilder.append(") to replyTo=");
-                    errMsgBuilder.append(replyTo);
-                    errMsgBuilder.append(".");
-                    LOGGER.error(errMsgBuilder.toString(), e);
-                }
+                final StartCommandData finalStartParams = startParams;
+                final String finalReplyTo = replyTo;
+                // reply as soon as the container has been started
+                containerName.whenComplete((name, e) -> sendContainerStartReply(sessionId, finalReplyTo,
+                        props.getCorrelationId(), finalStartParams, (e == null) ? name : null));
             }
             break;
         }
@@ -456,7 +546,7 @@ public class PlatformController extends AbstractComponent implements ContainerTe
                     response = new byte[0];
                 }
                 try {
-                    publishToCmdChannel("", replyTo, MessageProperties.PERSISTENT_BASIC, response);
+                    publishToCmdChannel(sessionId, "", replyTo, MessageProperties.PERSISTENT_BASIC, response);
                 } catch (IOException e) {
                     StringBuilder errMsgBuilder = new StringBuilder();
                     errMsgBuilder.append("Error, couldn't sent the request resource usage statistics to replyTo=");
@@ -490,33 +580,82 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         }
     }
 
+    /**
+     * Sends the name of a started container as reply to a
+     * {@link Commands#DOCKER_CONTAINER_START} command.
+     *
+     * @param sessionId     the ID of the experiment the container belongs to
+     * @param replyTo       the queue to which the reply should be sent
+     * @param correlationId the correlation ID of the command
+     * @param startParams   the data of the command (used for logging)
+     * @param containerName the name of the created container or
+     *                      <code>null</code> if it couldn't be created
+     */
+    private void sendContainerStartReply(String sessionId, String replyTo, String correlationId,
+            StartCommandData startParams, String containerName) {
+        try {
+            AMQP.BasicProperties.Builder propsBuilder = new AMQP.BasicProperties.Builder();
+            propsBuilder.deliveryMode(2);
+            propsBuilder.correlationId(correlationId);
+            AMQP.BasicProperties replyProps = propsBuilder.build();
+            publishToCmdChannel(sessionId, "", replyTo, replyProps, RabbitMQUtils.writeString(containerName));
+        } catch (IOException e) {
+            StringBuilder errMsgBuilder = new StringBuilder();
+            errMsgBuilder.append("Error, couldn't sent response after creation of container (");
+            if (startParams != null) {
+                errMsgBuilder.append(startParams.toString());
+            }
+            errMsgBuilder.append(") to replyTo=");
+            errMsgBuilder.append(replyTo);
+            errMsgBuilder.append(".");
+            LOGGER.error(errMsgBuilder.toString(), e);
+        }
+    }
+
     /**
      * Creates and starts a container based on the given {@link StartCommandData}
-     * instance.
+     * instance. The container is started asynchronously.
      *
-     * @param data the data needed to start the container
-     * @return the name of the created container
+     * @param sessionId the ID of the experiment the container belongs to
+     * @param data      the data needed to start the container
+     * @return future of the name of the created container
      */
-    private String createContainer(StartCommandData data) {
+    private CompletableFuture<String> createContainer(String sessionId, StartCommandData data) {
         String parentId = containerManager.getContainerId(data.parent);
         if ((parentId == null) && (CONTAINER_PARENT_CHECK)) {
             LOGGER.error("Couldn't create container because the parent \"{}\" is not known.", data.parent);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
+        ExperimentStatus experimentStatus = expManager.getExperimentStatus(sessionId);
+        if (experimentStatus == null) {
+            LOGGER.error("Couldn't create container because the experiment \"{}\" is not running anymore.",
+                    sessionId);
+            return CompletableFuture.completedFuture(null);
+        }
         boolean pullImage = false;
-        if (!expManager.experimentStatus.getUsedImages().contains(data.image)) {
-            expManager.experimentStatus.addImage(data.image);
+        if (!experimentStatus.getUsedImages().contains(data.image)) {
+            experimentStatus.addImage(data.image);
             pullImage = true;
         }
 
-        String containerId = containerManager.startContainer(data.image, data.type, parentId, data.environmentVariables,
-                data.networkAliases, null, pullImage, null);
-        if (containerId == null) {
-            return null;
-        } else {
-            return containerManager.getContainerName(containerId);
+        String[] environment = data.environmentVariables;
+        // containers of experiments with an own virtual host need its credentials
+        String[] virtualHostEnvironment = experimentStatus.getRabbitMQVirtualHostEnvironment();
+        if (virtualHostEnvironment.length > 0) {
+            environment = (environment == null) ? virtualHostEnvironment
+                    : Stream.concat(Arrays.stream(environment), Arrays.stream(virtualHostEnvironment))
+                            .toArray(String[]::new);
         }
+
+        return containerManager.startContainerAsync(data.image, data.type, parentId, environment,
+                data.networkAliases, null, pullImage, sessionId, null).thenApply(containerId -> {
+                    if (containerId == null) {
+                        return null;
+                    } else {
+                        return containerManager.getContainerName(containerId);
+                    }
+                });
     }
 
     /**
@@ -554,6 +693,9 @@ public class PlatformController extends AbstractComponent implements ContainerTe
 
     @Override
     public void close() throws IOException {
+        // log the metrics a last time
+        metricsLogger.close();
+        metricsLogger.logMetrics();
         // stop the container observer
         try {
             if (containerObserver != null) {
@@ -575,6 +717,10 @@ public class PlatformController extends AbstractComponent implements ContainerTe
                 }
             }
         }
+        // finish the handling of received commands
+        if (commandDispatcher != null) {
+            commandDispatcher.close();
+        }
         // Close the storage client
         IOUtils.closeQuietly(storage);
         // Close the queue if this is needed
@@ -638,26 +784,61 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         if (attachData) {
             buffer.put(data);
         }
-        publishToCmdChannel(Constants.HOBBIT_COMMAND_EXCHANGE_NAME, "", props, buffer.array());
+        publishToCmdChannel(address, Constants.HOBBIT_COMMAND_EXCHANGE_NAME, "", props, buffer.array());
     }
 
     /**
-     * A wrapper around basicPublish.
+     * A wrapper around basicPublish that chooses the RabbitMQ broker(s) based on
+     * the given session ID. Messages for a single experiment are sent to the
+     * broker of this experiment while broadcasts and messages for platform
+     * components are sent to the brokers of all running experiments.
+     *
+     * @param sessionId the session ID the message is addressed to
      */
-    private void publishToCmdChannel(String exchange, String routingKey, BasicProperties props, byte[] body)
-            throws IOException {
-        if (rabbitMQConnector != null) {
-            rabbitMQConnector.basicPublish(exchange, routingKey, props, body);
+    private void publishToCmdChannel(String sessionId, String exchange, String routingKey, BasicProperties props,
+            byte[] body) throws IOException {
+        Collection<RabbitMQConnector> connectors;
+        if (Constants.HOBBIT_SESSION_ID_FOR_BROADCASTS.equals(sessionId)
+                || Constants.HOBBIT_SESSION_ID_FOR_PLATFORM_COMPONENTS.equals(sessionId)) {
+            connectors = expManager.getRabbitMQConnectors();
         } else {
-            LOGGER.error("Trying to publish a command queue message but there is no RabbitMQ connector.");
+            RabbitMQConnector connector = expManager.getRabbitMQConnector(sessionId);
+            connectors = (connector == null) ? Collections.emptySet() : Collections.singleton(connector);
+        }
+        if (connectors.isEmpty()) {
+            LOGGER.error("Trying to publish a command queue message for session {} but there is no RabbitMQ connector.",
+                    sessionId);
             throw new IOException("No RabbitMQ connector to publish command queue messages to.");
         }
+        for (RabbitMQConnector connector : connectors) {
+            connector.basicPublish(exchange, routingKey, props, body);
+        }
+    }
+
+    /**
+     * Hands the given command over to the {@link #commandDispatcher} which
+     * executes {@link #receiveCommand(byte, byte[], String, BasicProperties)}
+     * asynchronously. If there is no dispatcher, the command is handled
+     * directly.
+     *
+     * @param command   command to be executed
+     * @param data      byte-encoded supplementary json for the command
+     * @param sessionId the session the command belongs to
+     * @param props     the properties of the received message
+     */
+    public void dispatchCommand(byte command, byte[] data, String sessionId, AMQP.BasicProperties props) {
+        CommandDispatcher dispatcher = commandDispatcher;
+        if (dispatcher != null) {
+            dispatcher.dispatch(sessionId, command, () -> receiveCommand(command, data, sessionId, props));
+        } else {
+            receiveCommand(command, data, sessionId, props);
+        }
     }
 
     /**
      * The controller overrides the super method because it does not need to check
      * for the leading hobbit id and delegates the command handling to the
-     * {@link #receiveCommand(byte, byte[], String, String)} method.
+     * {@link #dispatchCommand(byte, byte[], String, BasicProperties)} method.
      */
     protected void handleCmd(byte bytes[], AMQP.BasicProperties props) {
         ByteBuffer buffer = ByteBuffer.wrap(bytes);
@@ -673,7 +854,7 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         } else {
             remainingData = new byte[0];
         }
-        receiveCommand(command, remainingData, sessionId, props);
+        dispatchCommand(command, remainingData, sessionId, props);
     }
 
     public void handleFrontEndCmd(byte bytes[], String replyTo, BasicProperties replyProperties) {
@@ -736,6 +917,25 @@ public class PlatformController extends AbstractComponent implements ContainerTe
                 response = RabbitMQUtils.writeString(experimentId);
                 break;
             }
+            case ExtFrontEndApiCommands.ADD_EXPERIMENT_CONFIGURATIONS: {
+                // get the user name followed by the experiments
+                String userName = RabbitMQUtils.readString(buffer);
+                List<ExperimentConfiguration> experiments = new ArrayList<>();
+                while (buffer.hasRemaining()) {
+                    String benchmarkUri = RabbitMQUtils.readString(buffer);
+                    String systemUri = RabbitMQUtils.readString(buffer);
+                    String serializedBenchParams = RabbitMQUtils.readString(buffer);
+                    ExperimentConfiguration experiment = new ExperimentConfiguration(generateExperimentId(),
+                            benchmarkUri, serializedBenchParams, systemUri, userName, null, null, null);
+                    experiment.batch = true;
+                    experiments.add(experiment);
+                }
+                LOGGER.info("Adding {} experiments of user {} to the queue.", experiments.size(), userName);
+                queue.addAll(experiments);
+                response = RabbitMQUtils.writeString(
+                        gson.toJson(experiments.stream().map(e -> e.id).toArray(String[]::new)));
+                break;
+            }
             case FrontEndApiCommands.GET_SYSTEMS_OF_USER: {
                 // get the user name
                 String email = RabbitMQUtils.readString(buffer);
@@ -892,8 +1092,8 @@ public class PlatformController extends AbstractComponent implements ContainerTe
         for (ExperimentConfiguration ex : experiments) {
             LOGGER.info("Adding experiment " + ex.id + " with benchmark " + ex.benchmarkUri + " and system "
                     + ex.systemUri + " to the queue.");
-            queue.add(ex);
         }
+        queue.addAll(experiments);
     }
 
     /**
@@ -1218,31 +1418,21 @@ public class PlatformController extends AbstractComponent implements ContainerTe
      *
      * @return the status of this controller
      */
-    private ControllerStatus getStatus(String userName) {
-        ControllerStatus status = new ControllerStatus();
+    ControllerStatus getStatus(String userName) {
+        ExtControllerStatus status = new ExtControllerStatus();
         expManager.addStatusInfo(status, userName);
-        RunningExperiment runningExperiment = status.experiment;
-        if ((runningExperiment != null) && (runningExperiment.systemUri != null)) {
-            Model model = imageManager.getSystemModel(runningExperiment.systemUri);
-            if (model != null) {
-                runningExperiment.systemName = RdfHelper.getLabel(model,
-                        model.getResource(runningExperiment.systemUri));
-            } else {
-                runningExperiment.systemName = runningExperiment.systemUri;
-            }
-            model = imageManager.getBenchmarkModel(runningExperiment.benchmarkUri);
-            if (model != null) {
-                runningExperiment.benchmarkName = RdfHelper.getLabel(model,
-                        model.getResource(runningExperiment.benchmarkUri));
-            } else {
-                runningExperiment.benchmarkName = runningExperiment.benchmarkUri;
+        Set<String> runningIds = new HashSet<>();
+        if (status.runningExperiments != null) {
+            for (RunningExperiment runningExperiment : status.runningExperiments) {
+                addNames(runningExperiment);
+                runningIds.add(runningExperiment.experimentId);
             }
         }
         List<ExperimentConfiguration> experiments = queue.listAll();
         List<QueuedExperiment> tempQueue = new ArrayList<QueuedExperiment>(experiments.size());
         QueuedExperiment queuedExp;
         for (ExperimentConfiguration experiment : experiments) {
-            if ((runningExperiment == null) || (!experiment.id.equals(runningExperiment.experimentId))) {
+            if (!runningIds.contains(experiment.id)) {
                 queuedExp = new QueuedExperiment();
                 queuedExp.experimentId = experiment.id;
                 queuedExp.benchmarkUri = experiment.benchmarkUri;
@@ -1259,9 +1449,40 @@ public class PlatformController extends AbstractComponent implements ContainerTe
             }
         }
         status.queuedExperiments = tempQueue.toArray(new QueuedExperiment[tempQueue.size()]);
+        if (schedulingPolicy != null) {
+            List<UserShare> shares = schedulingPolicy.getShares(System.currentTimeMillis());
+            if (shares != null) {
+                status.userShares = shares.toArray(new UserShare[shares.size()]);
+            }
+        }
         return status;
     }
 
+    /**
+     * Adds the labels of the system and the benchmark to the given running
+     * experiment.
+     *
+     * @param runningExperiment the running experiment that should get the labels
+     */
+    private void addNames(RunningExperiment runningExperiment) {
+        if (runningExperiment.systemUri == null) {
+            return;
+        }
+        Model model = imageManager.getSystemModel(runningExperiment.systemUri);
+        if (model != null) {
+            runningExperiment.systemName = RdfHelper.getLabel(model, model.getResource(runningExperiment.systemUri));
+        } else {
+            runningExperiment.systemName = runningExperiment.systemUri;
+        }
+        model = imageManager.getBenchmarkModel(runningExperiment.benchmarkUri);
+        if (model != null) {
+            runningExperiment.benchmarkName = RdfHelper.getLabel(model,
+                    model.getResource(runningExperiment.benchmarkUri));
+        } else {
+            runningExperiment.benchmarkName = runningExperiment.benchmarkUri;
+        }
+    }
+
     /**
      * Generates a unique experiment Id based on the current time stamp and the last
      * Id ({@link #lastIdTime}) that has been created.
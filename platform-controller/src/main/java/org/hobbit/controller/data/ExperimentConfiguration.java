@@ -36,6 +36,17 @@ public class ExperimentConfiguration {
     public String challengeUri;
     public String challengeTaskUri;
     public String userName;
+    /**
+     * Time stamp (in ms) at which the experiment has been added to the queue or
+     * 0 if it is unknown.
+     */
+    public long submissionTime;
+    /**
+     * Flag marking experiments that are part of batch work, e.g., a parameter
+     * sweep. They are scheduled with a lower priority than single experiments
+     * submitted interactively.
+     */
+    public boolean batch;
 
     public ExperimentConfiguration() {
     }
@@ -59,4 +70,29 @@ public class ExperimentConfiguration {
         this.userName = userName;
     }
 
+    /**
+     * Returns the time stamp since which this experiment is waiting for its
+     * execution, i.e., the later one of its submission time and its execution
+     * date. Experiments without both have been waiting since 0.
+     *
+     * @return the time stamp (in ms) since which this experiment is waiting
+     */
+    public long getWaitingSince() {
+        long executionTime = (executionDate != null) ? executionDate.getTimeInMillis() : 0;
+        return Math.max(submissionTime, executionTime);
+    }
+
+    /**
+     * Creates a copy of the given experiment configuration.
+     *
+     * @param other the configuration that should be copied
+     */
+    public ExperimentConfiguration(ExperimentConfiguration other) {
+        this(other.id, other.benchmarkUri, other.serializedBenchParams, other.systemUri, other.userName,
+                other.challengeUri, other.challengeTaskUri,
+                (other.executionDate != null) ? (Calendar) other.executionDate.clone() : null);
+        this.submissionTime = other.submissionTime;
+        this.batch = other.batch;
+    }
+
 }
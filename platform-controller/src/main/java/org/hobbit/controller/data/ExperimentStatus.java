@@ -131,6 +131,16 @@ public class ExperimentStatus implements Closeable {
      * Container name of the RabbitMQ service for this experiment.
      */
     private String rabbitMQContainer = null;
+    /**
+     * Virtual host of the experiment on a shared RabbitMQ broker or
+     * <code>null</code> if the experiment uses the default virtual host.
+     */
+    private String rabbitMQVirtualHost = null;
+    /**
+     * Credentials for the {@link #rabbitMQVirtualHost}.
+     */
+    private String rabbitMQUsername = null;
+    private String rabbitMQPassword = null;
     /**
      * Container name of the system.
      */
@@ -139,6 +149,10 @@ public class ExperimentStatus implements Closeable {
      * Container name of the system.
      */
     private String systemContainer = null;
+    /**
+     * The URI of the graph in which the results will be stored.
+     */
+    private String resultGraphUri = null;
     /**
      * The RDF model containing the results.
      */
@@ -155,6 +169,14 @@ public class ExperimentStatus implements Closeable {
      * The next error Id that will be used for the currently running session.
      */
     private AtomicInteger nextErrorReportId = new AtomicInteger(0);
+    /**
+     * Resource usage of the system containers sampled during the experiment.
+     */
+    private final ResourceUsageSeries systemUsage = new ResourceUsageSeries("system");
+    /**
+     * Resource usage of the benchmark containers sampled during the experiment.
+     */
+    private final ResourceUsageSeries benchmarkUsage = new ResourceUsageSeries("benchmark");
 
     /**
      * Creates an experiment status with the given experiment config, the given
@@ -270,6 +292,52 @@ public class ExperimentStatus implements Closeable {
         this.rabbitMQContainer = rabbitMQContainer;
     }
 
+    public String getRabbitMQVirtualHost() {
+        return rabbitMQVirtualHost;
+    }
+
+    public String getRabbitMQUsername() {
+        return rabbitMQUsername;
+    }
+
+    /**
+     * Sets the virtual host of this experiment on a shared RabbitMQ broker and
+     * the credentials that should be used to access it.
+     *
+     * @param virtualHost the virtual host of the experiment
+     * @param username    the user name for the virtual host
+     * @param password    the password of the user
+     */
+    public void setRabbitMQVirtualHost(String virtualHost, String username, String password) {
+        this.rabbitMQVirtualHost = virtualHost;
+        this.rabbitMQUsername = username;
+        this.rabbitMQPassword = password;
+    }
+
+    /**
+     * Returns the environment variables that tell a container which virtual
+     * host of the RabbitMQ broker it should use and how to access it. The array
+     * is empty if the experiment uses the default virtual host.
+     *
+     * @return the environment variables of the experiment's virtual host
+     */
+    public String[] getRabbitMQVirtualHostEnvironment() {
+        if (rabbitMQVirtualHost == null) {
+            return new String[0];
+        }
+        return new String[] { ExperimentManager.RABBIT_MQ_VIRTUAL_HOST_KEY + "=" + rabbitMQVirtualHost,
+                ExperimentManager.RABBIT_MQ_USERNAME_KEY + "=" + rabbitMQUsername,
+                ExperimentManager.RABBIT_MQ_PASSWORD_KEY + "=" + rabbitMQPassword };
+    }
+
+    public String getResultGraphUri() {
+        return resultGraphUri;
+    }
+
+    public void setResultGraphUri(String resultGraphUri) {
+        this.resultGraphUri = resultGraphUri;
+    }
+
     public String getBenchmarkContainer() {
         return benchmarkContainer;
     }
@@ -294,6 +362,14 @@ public class ExperimentStatus implements Closeable {
         return abortionTimeStamp;
     }
 
+    public ResourceUsageSeries getSystemUsage() {
+        return systemUsage;
+    }
+
+    public ResourceUsageSeries getBenchmarkUsage() {
+        return benchmarkUsage;
+    }
+
     /**
      * Adds an image to the set of images used in this experiment.
      *
@@ -535,6 +611,7 @@ public class ExperimentStatus implements Closeable {
     /**
      * Uses the given {@link ImageManager} instance to add additional meta data
      * regarding the benchmark and the system to the experiment result model.
+     * The resource usage sampled during the experiment is added as KPIs.
      *
      * @param imageManager        used to get RDF models for the benchmark and the
      *                            system of this experiment
@@ -583,6 +660,10 @@ public class ExperimentStatus implements Closeable {
                         hardwareInformation.addToModel(resultModel));
             }
 
+            // Add the resource usage sampled during the experiment
+            systemUsage.addToModel(resultModel, resultModel.getResource(experimentUri));
+            benchmarkUsage.addToModel(resultModel, resultModel.getResource(experimentUri));
+
             // Remove statements that shouldn't be part of the result model.
             List<Statement> removableStatements = resultModel.listStatements(null, HOBBIT.imageName, (RDFNode) null)
                     .toList();
@@ -0,0 +1,40 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.data;
+
+import org.hobbit.core.data.status.ControllerStatus;
+import org.hobbit.core.data.status.RunningExperiment;
+
+/**
+ * An extended controller status including all running experiments and the
+ * share accounting of the scheduling policy.
+ */
+public class ExtControllerStatus extends ControllerStatus {
+
+    /**
+     * All currently running experiments ordered by their start time. The first
+     * element is the same as {@link #experiment}.
+     */
+    public RunningExperiment[] runningExperiments;
+
+    /**
+     * The shares of all users known to the fair share scheduling policy. The
+     * array is empty if the FIFO scheduling policy is used since it does not
+     * account for the usage of users.
+     */
+    public UserShare[] userShares = new UserShare[0];
+}
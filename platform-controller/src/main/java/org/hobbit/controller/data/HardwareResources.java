@@ -0,0 +1,98 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.data;
+
+import java.util.Map;
+
+import org.hobbit.controller.docker.ContainerManager;
+
+/**
+ * Simple, immutable data structure representing an amount of CPU and memory,
+ * e.g., the capacity of a cluster node or the footprint of an experiment.
+ *
+ */
+public class HardwareResources {
+
+    /**
+     * Resources representing nothing.
+     */
+    public static final HardwareResources NONE = new HardwareResources(0, 0);
+
+    /**
+     * CPU in nano CPU seconds (i.e., 10^9 for a single CPU).
+     */
+    private final long nanoCpus;
+    /**
+     * Memory in bytes.
+     */
+    private final long memory;
+
+    public HardwareResources(long nanoCpus, long memory) {
+        this.nanoCpus = nanoCpus;
+        this.memory = memory;
+    }
+
+    /**
+     * Creates the resources declared by the given container constraints (see
+     * {@link ContainerManager#NANO_CPU_LIMIT_CONSTRAINT} and
+     * {@link ContainerManager#MEMORY_LIMIT_CONSTRAINT}).
+     *
+     * @param constraints the constraints of a container
+     * @return the declared resources or <code>null</code> if the constraints do
+     *         not declare any resources
+     */
+    public static HardwareResources fromConstraints(Map<String, Object> constraints) {
+        Object nanoCpus = constraints.get(ContainerManager.NANO_CPU_LIMIT_CONSTRAINT);
+        Object memory = constraints.get(ContainerManager.MEMORY_LIMIT_CONSTRAINT);
+        if ((nanoCpus == null) && (memory == null)) {
+            return null;
+        }
+        return new HardwareResources(nanoCpus != null ? ((Number) nanoCpus).longValue() : 0,
+                memory != null ? ((Number) memory).longValue() : 0);
+    }
+
+    public long getNanoCpus() {
+        return nanoCpus;
+    }
+
+    public long getMemory() {
+        return memory;
+    }
+
+    public HardwareResources plus(HardwareResources other) {
+        return new HardwareResources(nanoCpus + other.nanoCpus, memory + other.memory);
+    }
+
+    public HardwareResources minus(HardwareResources other) {
+        return new HardwareResources(nanoCpus - other.nanoCpus, memory - other.memory);
+    }
+
+    /**
+     * @param available the available resources
+     * @return <code>true</code> if these resources fit into the given available
+     *         resources
+     */
+    public boolean fitsInto(HardwareResources available) {
+        return (nanoCpus <= available.nanoCpus) && (memory <= available.memory);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HardwareResources [cpus=%.2f, memory=%.1f GiB]", nanoCpus / 1000000000.0,
+                memory / 1024.0 / 1024.0 / 1024.0);
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.data;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.hobbit.core.data.usage.ResourceUsageInformation;
+import org.hobbit.vocab.HOBBIT;
+
+/**
+ * This class is used to store the resource usage of the containers of one
+ * component of an experiment (e.g., the system) that has been sampled during
+ * the experiment. The samples are kept in a buffer with a fixed capacity. If
+ * the buffer is full, every second sample is dropped and only every second of
+ * the following samples is stored, i.e., the buffer always covers the complete
+ * experiment with a decreasing resolution.
+ *
+ * <p>
+ * At the end of the experiment, the samples are summarized as KPIs (minimum,
+ * maximum, mean, percentiles and a downsampled series) of the CPU usage (in
+ * cores), the memory usage and the disk usage (in bytes).
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public class ResourceUsageSeries {
+
+    public static final int DEFAULT_CAPACITY = 2048;
+    /**
+     * Number of points of the downsampled series added to the result model.
+     */
+    public static final int DEFAULT_SERIES_LENGTH = 60;
+    /**
+     * The percentiles that are added to the result model.
+     */
+    private static final int[] PERCENTILES = { 50, 90, 99 };
+    /**
+     * Value marking that a metric is missing in a sample.
+     */
+    private static final long MISSING = -1;
+
+    private static final String CPU = "CpuUsage";
+    private static final String MEMORY = "MemoryUsage";
+    private static final String DISK = "DiskUsage";
+
+    /**
+     * Name of the component, e.g., <code>system</code>, which is used as prefix
+     * of the KPIs.
+     */
+    private final String component;
+    private final long[] timestamps;
+    /**
+     * Accumulated CPU time (in ms) of the containers.
+     */
+    private final long[] cpuUsage;
+    private final long[] memoryUsage;
+    private final long[] diskUsage;
+    private int size = 0;
+    /**
+     * Only every n-th of the received samples is stored.
+     */
+    private int stride = 1;
+    private long receivedSamples = 0;
+
+    public ResourceUsageSeries(String component) {
+        this(component, DEFAULT_CAPACITY);
+    }
+
+    public ResourceUsageSeries(String component, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("The capacity has to be at least 2.");
+        }
+        this.component = component;
+        timestamps = new long[capacity];
+        cpuUsage = new long[capacity];
+        memoryUsage = new long[capacity];
+        diskUsage = new long[capacity];
+    }
+
+    /**
+     * Adds the given sample. Samples without usage information are ignored.
+     *
+     * @param timestamp the point in time at which the sample has been taken
+     * @param usage     the summed resource usage of the containers of the
+     *                  component
+     */
+    public synchronized void addSample(long timestamp, ResourceUsageInformation usage) {
+        if (usage == null) {
+            return;
+        }
+        if ((receivedSamples++ % stride) != 0) {
+            return;
+        }
+        if (size == timestamps.length) {
+            compact();
+        }
+        timestamps[size] = timestamp;
+        cpuUsage[size] = (usage.getCpuStats() != null) ? usage.getCpuStats().getTotalUsage() : MISSING;
+        memoryUsage[size] = (usage.getMemoryStats() != null) ? usage.getMemoryStats().getUsageSum() : MISSING;
+        diskUsage[size] = (usage.getDiskStats() != null) ? usage.getDiskStats().getFsSizeSum() : MISSING;
+        ++size;
+    }
+
+    /**
+     * Drops every second sample and halves the rate with which new samples
+     * are stored.
+     */
+    private void compact() {
+        int newSize = (size + 1) / 2;
+        for (int i = 1; i < newSize; ++i) {
+            timestamps[i] = timestamps[2 * i];
+            cpuUsage[i] = cpuUsage[2 * i];
+            memoryUsage[i] = memoryUsage[2 * i];
+            diskUsage[i] = diskUsage[2 * i];
+        }
+        size = newSize;
+        stride *= 2;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the statistics of the CPU usage (in cores) which is derived from
+     *         the accumulated CPU time of two consecutive samples or
+     *         <code>null</code> if there are not enough samples
+     */
+    public synchronized Statistics getCpuStatistics() {
+        long[] rateTimestamps = new long[size];
+        double[] rates = new double[size];
+        int count = 0;
+        for (int i = 1; i < size; ++i) {
+            long duration = timestamps[i] - timestamps[i - 1];
+            long cpuTime = cpuUsage[i] - cpuUsage[i - 1];
+            // ignore samples of containers that have been restarted or removed
+            if ((cpuUsage[i] != MISSING) && (cpuUsage[i - 1] != MISSING) && (duration > 0) && (cpuTime >= 0)) {
+                rateTimestamps[count] = timestamps[i];
+                rates[count] = cpuTime / (double) duration;
+                ++count;
+            }
+        }
+        return Statistics.create(Arrays.copyOf(rateTimestamps, count), Arrays.copyOf(rates, count),
+                DEFAULT_SERIES_LENGTH);
+    }
+
+    /**
+     * @return the statistics of the memory usage (in bytes) or
+     *         <code>null</code> if there are no samples
+     */
+    public synchronized Statistics getMemoryStatistics() {
+        return createStatistics(memoryUsage);
+    }
+
+    /**
+     * @return the statistics of the disk usage (in bytes) or <code>null</code>
+     *         if there are no samples
+     */
+    public synchronized Statistics getDiskStatistics() {
+        return createStatistics(diskUsage);
+    }
+
+    private Statistics createStatistics(long[] usage) {
+        long[] valueTimestamps = new long[size];
+        double[] values = new double[size];
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (usage[i] != MISSING) {
+                valueTimestamps[count] = timestamps[i];
+                values[count] = usage[i];
+                ++count;
+            }
+        }
+        return Statistics.create(Arrays.copyOf(valueTimestamps, count), Arrays.copyOf(values, count),
+                DEFAULT_SERIES_LENGTH);
+    }
+
+    /**
+     * Adds the statistics of this series as KPIs of the given experiment to the
+     * given model. Nothing is added if there are no samples.
+     *
+     * @param model      the model to which the KPIs should be added
+     * @param experiment the experiment the KPIs belong to
+     */
+    public void addToModel(Model model, Resource experiment) {
+        addToModel(model, experiment, CPU, "CPU usage (cores)", getCpuStatistics());
+        addToModel(model, experiment, MEMORY, "memory usage (bytes)", getMemoryStatistics());
+        addToModel(model, experiment, DISK, "disk usage (bytes)", getDiskStatistics());
+    }
+
+    private void addToModel(Model model, Resource experiment, String metric, String label, Statistics statistics) {
+        if (statistics == null) {
+            return;
+        }
+        String name = component + metric;
+        String componentLabel = component.substring(0, 1).toUpperCase(Locale.ROOT) + component.substring(1);
+        addKpi(model, experiment, name + "Min", componentLabel + " minimum " + label, statistics.min);
+        addKpi(model, experiment, name + "Max", componentLabel + " maximum " + label, statistics.max);
+        addKpi(model, experiment, name + "Mean", componentLabel + " mean " + label, statistics.mean);
+        for (int i = 0; i < PERCENTILES.length; ++i) {
+            addKpi(model, experiment, name + "P" + PERCENTILES[i],
+                    componentLabel + " " + PERCENTILES[i] + "th percentile " + label, statistics.percentiles[i]);
+        }
+        Property series = model.createProperty(HOBBIT.getURI(), name + "Series");
+        model.add(series, RDFS.label, componentLabel + " " + label + " over time", "en");
+        model.add(series, RDFS.comment, "Space-separated averages of " + statistics.series.length
+                + " equally long intervals of the experiment.", "en");
+        StringBuilder builder = new StringBuilder();
+        for (double value : statistics.series) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(String.format(Locale.ROOT, "%.3f", value));
+        }
+        model.add(experiment, series, builder.toString());
+    }
+
+    private static void addKpi(Model model, Resource experiment, String name, String label, double value) {
+        Property kpi = model.createProperty(HOBBIT.getURI(), name);
+        model.add(kpi, RDF.type, HOBBIT.KPI);
+        model.add(kpi, RDFS.label, label, "en");
+        model.addLiteral(experiment, kpi, value);
+    }
+
+    /**
+     * Summary of the values of a metric.
+     */
+    public static class Statistics {
+        public final double min;
+        public final double max;
+        public final double mean;
+        /**
+         * The values of the percentiles defined in {@link #PERCENTILES}.
+         */
+        public final double[] percentiles;
+        /**
+         * Averages of the values of equally long intervals. Intervals without
+         * a value get the average of their predecessor.
+         */
+        public final double[] series;
+
+        private Statistics(double min, double max, double mean, double[] percentiles, double[] series) {
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.percentiles = percentiles;
+            this.series = series;
+        }
+
+        /**
+         * Creates the statistics of the given values.
+         *
+         * @param timestamps   the points in time of the values in ascending
+         *                     order
+         * @param values       the values
+         * @param seriesLength the maximum number of points of the downsampled
+         *                     series
+         * @return the statistics or <code>null</code> if there are no values
+         */
+        public static Statistics create(long[] timestamps, double[] values, int seriesLength) {
+            if (values.length == 0) {
+                return null;
+            }
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double[] percentiles = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length; ++i) {
+                // nearest-rank method
+                int rank = (int) Math.ceil((PERCENTILES[i] / 100.0) * sorted.length);
+                percentiles[i] = sorted[Math.max(rank, 1) - 1];
+            }
+            return new Statistics(sorted[0], sorted[sorted.length - 1], sum / values.length, percentiles,
+                    downsample(timestamps, values, Math.min(seriesLength, values.length)));
+        }
+
+        private static double[] downsample(long[] timestamps, double[] values, int length) {
+            long start = timestamps[0];
+            // the interval is at least 1ms long
+            double interval = Math.max(timestamps[timestamps.length - 1] - start + 1, length) / (double) length;
+            double[] sums = new double[length];
+            int[] counts = new int[length];
+            for (int i = 0; i < values.length; ++i) {
+                int bucket = Math.min((int) ((timestamps[i] - start) / interval), length - 1);
+                sums[bucket] += values[i];
+                ++counts[bucket];
+            }
+            double[] series = new double[length];
+            for (int i = 0; i < length; ++i) {
+                if (counts[i] > 0) {
+                    series[i] = sums[i] / counts[i];
+                } else {
+                    series[i] = (i > 0) ? series[i - 1] : 0;
+                }
+            }
+            return series;
+        }
+    }
+}
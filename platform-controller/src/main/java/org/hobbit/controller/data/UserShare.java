@@ -0,0 +1,46 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.data;
+
+/**
+ * The share of the cluster a single user has consumed according to the fair
+ * share scheduling policy.
+ */
+public class UserShare {
+
+    public String userName;
+    /**
+     * The weight of the user. A user with weight 2 is entitled to twice the
+     * share of a user with weight 1.
+     */
+    public double weight;
+    /**
+     * The decayed runtime (in ms) of the user's experiments including the
+     * runtime of the user's running experiments.
+     */
+    public long usage;
+    /**
+     * The user's part of the usage of all users (between 0 and 1).
+     */
+    public double share;
+    /**
+     * The share the user is entitled to according to the weights of all known
+     * users (between 0 and 1).
+     */
+    public double targetShare;
+    public int runningExperiments;
+}
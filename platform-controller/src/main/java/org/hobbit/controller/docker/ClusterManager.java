@@ -1,5 +1,10 @@
 package org.hobbit.controller.docker;
 
+import java.util.List;
+import java.util.Set;
+
+import org.hobbit.controller.data.HardwareResources;
+
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.messages.Info;
 
@@ -34,6 +39,23 @@ public interface ClusterManager {
      */
     public long getNumberOfNodes(String label) throws DockerException, InterruptedException;
 
+    /**
+     * Get the resources (CPU and memory) of the ready nodes in the cluster
+     *
+     * @param label
+     *            the label to filter nodes or <code>null</code> if all nodes
+     *            should be taken into account
+     * @return the resources of every node with the specified label
+     */
+    public List<HardwareResources> getNodeResources(String label) throws DockerException, InterruptedException;
+
+    /**
+     * Get the IDs of the ready nodes in the cluster
+     *
+     * @return the IDs of all ready nodes
+     */
+    public Set<String> getNodeIds() throws DockerException, InterruptedException;
+
     /**
      * Get the health status of the cluster
      *
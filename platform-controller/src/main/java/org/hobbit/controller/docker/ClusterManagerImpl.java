@@ -1,7 +1,12 @@
 package org.hobbit.controller.docker;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.hobbit.controller.data.HardwareResources;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,11 +16,15 @@ import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.messages.Info;
 import com.spotify.docker.client.messages.swarm.Node;
 import com.spotify.docker.client.messages.swarm.OrchestrationConfig;
+import com.spotify.docker.client.messages.swarm.Resources;
 import com.spotify.docker.client.messages.swarm.SwarmSpec;
 import com.spotify.docker.client.messages.swarm.Version;
 
 /**
- * ClusterManager implementation
+ * ClusterManager implementation. The list of ready nodes is cached for a short
+ * time ({@link #NODE_CACHE_TTL_KEY}) to make sure that a single instance can be
+ * shared by all components that need information about the cluster topology
+ * without sending a request to the swarm manager for every single query.
  *
  * @author Ivan Ermilov (iermilov@informatik.uni-leipzig.de)
  *
@@ -23,12 +32,31 @@ import com.spotify.docker.client.messages.swarm.Version;
 public class ClusterManagerImpl implements ClusterManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(ClusterManagerImpl.class);
 
+    /**
+     * Environmental variable key for the time (in ms) the list of nodes is
+     * cached.
+     */
+    public static final String NODE_CACHE_TTL_KEY = "CLUSTER_NODE_CACHE_TTL";
+    private static final long DEFAULT_NODE_CACHE_TTL = 5000;
+
     /**
      * Docker client instance
      */
     private DockerClient dockerClient;
     private long expectedNumberOfNodes = 0;
     private String SWARM_NODE_NUMBER = null;
+    /**
+     * Time (in ms) the list of ready nodes is cached.
+     */
+    private long nodeCacheTtl = DEFAULT_NODE_CACHE_TTL;
+    /**
+     * The cached list of ready nodes.
+     */
+    private volatile List<Node> readyNodes = null;
+    /**
+     * Time stamp at which {@link #readyNodes} has been retrieved.
+     */
+    private volatile long readyNodesTimestamp = 0;
 
     public ClusterManagerImpl() throws DockerCertificateException {
         dockerClient = DockerUtility.getDockerClient();
@@ -38,6 +66,15 @@ public class ClusterManagerImpl implements ClusterManager {
         } else {
             expectedNumberOfNodes = Integer.parseInt(SWARM_NODE_NUMBER);
         }
+        String nodeCacheTtlString = System.getenv(NODE_CACHE_TTL_KEY);
+        if(nodeCacheTtlString != null) {
+            try {
+                nodeCacheTtl = Long.parseLong(nodeCacheTtlString);
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}=\"{}\". Using default value {}ms.", NODE_CACHE_TTL_KEY,
+                        nodeCacheTtlString, DEFAULT_NODE_CACHE_TTL);
+            }
+        }
     }
 
     public Info getClusterInfo() throws DockerException, InterruptedException {
@@ -45,7 +82,23 @@ public class ClusterManagerImpl implements ClusterManager {
     }
 
     private Stream<Node> streamReadyNodes() throws DockerException, InterruptedException {
-        return dockerClient.listNodes().stream().filter(n->n.status().state().equalsIgnoreCase("ready"));
+        List<Node> nodes = readyNodes;
+        if((nodes == null) || ((System.currentTimeMillis() - readyNodesTimestamp) > nodeCacheTtl)) {
+            nodes = refreshReadyNodes();
+        }
+        return nodes.stream();
+    }
+
+    private synchronized List<Node> refreshReadyNodes() throws DockerException, InterruptedException {
+        // Another thread might have refreshed the list while we were waiting
+        if((readyNodes != null) && ((System.currentTimeMillis() - readyNodesTimestamp) <= nodeCacheTtl)) {
+            return readyNodes;
+        }
+        List<Node> nodes = dockerClient.listNodes().stream().filter(n->n.status().state().equalsIgnoreCase("ready"))
+                .collect(Collectors.toList());
+        readyNodes = nodes;
+        readyNodesTimestamp = System.currentTimeMillis();
+        return nodes;
     }
 
     public long getNumberOfNodes() throws DockerException, InterruptedException {
@@ -57,6 +110,26 @@ public class ClusterManagerImpl implements ClusterManager {
         return streamReadyNodes().filter(n->parts[1].equals(n.spec().labels().get(parts[0]))).count();
     }
 
+    public List<HardwareResources> getNodeResources(String label) throws DockerException, InterruptedException {
+        Stream<Node> nodes = streamReadyNodes();
+        if (label != null) {
+            final String[] parts = label.split("=");
+            nodes = nodes.filter(n->parts[1].equals(n.spec().labels().get(parts[0])));
+        }
+        return nodes.map(n->{
+            Resources resources = (n.description() != null) ? n.description().resources() : null;
+            if (resources == null) {
+                return HardwareResources.NONE;
+            }
+            return new HardwareResources(resources.nanoCpus() != null ? resources.nanoCpus() : 0,
+                    resources.memoryBytes() != null ? resources.memoryBytes() : 0);
+        }).collect(Collectors.toList());
+    }
+
+    public Set<String> getNodeIds() throws DockerException, InterruptedException {
+        return streamReadyNodes().map(n->n.id()).collect(Collectors.toSet());
+    }
+
     public boolean isClusterHealthy() throws DockerException, InterruptedException {
         long numberOfNodes = getNumberOfNodes();
         if(numberOfNodes >= expectedNumberOfNodes) {
@@ -16,8 +16,11 @@
  */
 package org.hobbit.controller.docker;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.hobbit.core.Constants;
 
@@ -181,6 +184,35 @@ public interface ContainerManager {
     public String startContainer(String imageName, String containerType, String parentId, String[] env,
             String[] netAliases, String[] command, String experimentId, Map<String, Object> constraints);
 
+    /**
+     * Starts the container with the given image name asynchronously. The
+     * returned future is completed as soon as the container has been scheduled
+     * by the swarm, i.e., its task left the {@code PENDING} state, or the start
+     * failed. The default implementation starts the container synchronously
+     * using {@link #startContainer(String, String, String, String[], String[], String[], boolean, Map)}
+     * (ignoring the experiment Id) and returns a completed future.
+     *
+     * @param imageName     name of the image to be started
+     * @param containerType type to be assigned to container
+     * @param parentId      id of the parent container
+     * @param env           environment variables of the schema "key=value"
+     * @param netAliases    network aliases for this container
+     * @param command       commands that should be executed
+     * @param pullImage     whether the image needs to be prefetched
+     * @param experimentId  experimentId to add to GELF tag (can be
+     *                      {@code null})
+     * @param constraints   Additional constraints for the container
+     *
+     * @return future of the container Id. The future is completed with
+     *         {@code null} if an error occurred.
+     */
+    public default CompletableFuture<String> startContainerAsync(String imageName, String containerType,
+            String parentId, String[] env, String[] netAliases, String[] command, boolean pullImage,
+            String experimentId, Map<String, Object> constraints) {
+        return CompletableFuture.completedFuture(
+                startContainer(imageName, containerType, parentId, env, netAliases, command, pullImage, constraints));
+    }
+
     /**
      * Stops the container with the given container Id.
      *
@@ -213,6 +245,19 @@ public interface ContainerManager {
      */
     public void removeParentAndChildren(String parent);
 
+    /**
+     * Removes the parent container and all its children given the parent id. In
+     * contrast to {@link #removeParentAndChildren(String)}, a failed removal is
+     * reported to the caller, e.g., to retry it.
+     *
+     * @param parent id of the parent container
+     * @throws Exception if the containers could not be retrieved or one of them
+     *                   could not be removed
+     */
+    public default void removeParentAndChildrenOrFail(String parent) throws Exception {
+        removeParentAndChildren(parent);
+    }
+
     /**
      * Returns container's exit code or null if container is still running.
      *
@@ -220,6 +265,28 @@ public interface ContainerManager {
      */
     public Long getContainerExitCode(String serviceName) throws DockerException, InterruptedException;
 
+    /**
+     * Returns the exit codes of all given containers that are not running
+     * anymore. Implementations should retrieve the states of all containers with
+     * a constant number of requests. The default implementation calls
+     * {@link #getContainerExitCode(String)} for every single container.
+     *
+     * @param serviceNames the names of the containers that should be checked
+     * @return a map containing the exit code of every given container that is not
+     *         running anymore
+     */
+    public default Map<String, Long> getContainerExitCodes(Collection<String> serviceNames)
+            throws DockerException, InterruptedException {
+        Map<String, Long> exitCodes = new HashMap<>();
+        for (String serviceName : serviceNames) {
+            Long exitCode = getContainerExitCode(serviceName);
+            if (exitCode != null) {
+                exitCodes.put(serviceName, exitCode);
+            }
+        }
+        return exitCodes;
+    }
+
     /**
      * Returns container info
      *
@@ -278,6 +345,32 @@ public interface ContainerManager {
      */
     public void pullImage(String imageName);
 
+    /**
+     * Pulls the images with the given names. Implementations may pull the
+     * images in parallel. The default implementation pulls them one after the
+     * other using {@link #pullImage(String)}.
+     *
+     * @param imageNames the names of the images that should be pulled
+     */
+    public default void pullImages(Collection<String> imageNames) {
+        for (String imageName : imageNames) {
+            pullImage(imageName);
+        }
+    }
+
+    /**
+     * Pulls the images with the given names in the background with a low
+     * priority, e.g., to prepare the images of experiments that are waiting in
+     * the queue. In contrast to {@link #pullImages(Collection)}, pulls triggered
+     * by this method should not delay the pulls of running experiments. The
+     * default implementation simply uses {@link #pullImages(Collection)}.
+     *
+     * @param imageNames the names of the images that should be pulled
+     */
+    public default void prewarmImages(Collection<String> imageNames) {
+        pullImages(imageNames);
+    }
+
     /**
      * Returns statistics of the container with the given Id or {@code null} if the
      * container can not be found or an error occurs.
@@ -18,13 +18,26 @@ package org.hobbit.controller.docker;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -37,7 +50,6 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableMap;
 import com.spotify.docker.client.DockerClient;
-import com.spotify.docker.client.exceptions.DockerCertificateException;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.exceptions.ServiceNotFoundException;
 import com.spotify.docker.client.exceptions.TaskNotFoundException;
@@ -76,13 +88,18 @@ public class ContainerManagerImpl implements ContainerManager {
     public static final String USER_EMAIL_KEY = "GITLAB_EMAIL";
     public static final String USER_PASSWORD_KEY = GitlabControllerImpl.GITLAB_TOKEN_KEY;
     public static final String REGISTRY_URL_KEY = "REGISTRY_URL";
+    public static final String IMAGE_PULL_THREADS_KEY = "IMAGE_PULL_THREADS";
+    public static final String IMAGE_PREWARM_PAUSE_KEY = "IMAGE_PREWARM_PAUSE";
+    public static final String CONTAINER_START_THREADS_KEY = "CONTAINER_START_THREADS";
+    public static final String CONTAINER_REMOVAL_THREADS_KEY = "CONTAINER_REMOVAL_THREADS";
+    public static final String CONTAINER_START_TIMEOUT_KEY = "CONTAINER_START_TIMEOUT";
 
     private static final int DOCKER_MAX_NAME_LENGTH = 63;
 
     private static final String DEPLOY_ENV = System.getenv().containsKey(DEPLOY_ENV_KEY)
             ? System.getenv().get(DEPLOY_ENV_KEY)
             : "production";
-    private static final String DEPLOY_ENV_TESTING = "testing";
+    static final String DEPLOY_ENV_TESTING = "testing";
     private static final String DEPLOY_ENV_DEVELOP = "develop";
     private static final String LOGGING_DRIVER_GELF = "gelf";
     private static final Pattern PORT_PATTERN = Pattern.compile(":[0-9]+/");
@@ -93,6 +110,16 @@ public class ContainerManagerImpl implements ContainerManager {
 
     private static final long DOCKER_POLL_INTERVAL = 100;
     private static final long DOCKER_IMAGE_PULL_MAX_WAITING_TIME = 1200000; // 20 min
+    private static final int DEFAULT_IMAGE_PULL_THREADS = 4;
+    private static final long DEFAULT_IMAGE_PREWARM_PAUSE = 10000;
+    private static final int DEFAULT_CONTAINER_START_THREADS = 8;
+    private static final int DEFAULT_CONTAINER_REMOVAL_THREADS = 8;
+    /**
+     * Default time (in ms) a container may need to leave the pending states.
+     * It includes the time a node may need to pull the image.
+     */
+    private static final long DEFAULT_CONTAINER_START_TIMEOUT = DOCKER_IMAGE_PULL_MAX_WAITING_TIME;
+    private static final long DOCKER_REMOVAL_MAX_WAITING_TIME = 60000;
 
     /**
      * Default network for new containers
@@ -120,6 +147,23 @@ public class ContainerManagerImpl implements ContainerManager {
      * Logging separator for type/experiment id.
      */
     private static final String LOGGING_SEPARATOR = "_sep_";
+    /**
+     * Criteria selecting all services created by the platform, i.e., all
+     * services with a {@link #LABEL_TYPE} label (an empty value matches any
+     * value).
+     */
+    private static final Service.Criteria PLATFORM_SERVICES = Service.Criteria.builder()
+            .labels(ImmutableMap.of(LABEL_TYPE, "")).build();
+    /**
+     * Criteria selecting the tasks of all services created by the platform.
+     */
+    private static final Task.Criteria PLATFORM_TASKS = Task.Criteria.builder().label(LABEL_TYPE).build();
+    /**
+     * Orders tasks by their creation time. The newest task of a service is the
+     * last one.
+     */
+    private static final Comparator<Task> TASK_CREATION_ORDER = Comparator.comparing(Task::createdAt,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
     /**
      * Docker client instance
      */
@@ -137,17 +181,99 @@ public class ContainerManagerImpl implements ContainerManager {
     /**
      * Observers that should be notified if a container terminates.
      */
-    private List<ContainerStateObserver> containerObservers = new ArrayList<>();
+    private List<ContainerStateObserver> containerObservers = new CopyOnWriteArrayList<>();
+    /**
+     * Cluster manager used to retrieve the number of nodes in the different
+     * worker groups.
+     */
+    private ClusterManager clusterManager;
 
     private String gelfAddress = null;
-    private String experimentId = null;
+    /**
+     * Executor used to pull several images in parallel.
+     */
+    private ExecutorService imagePullExecutor;
+    /**
+     * Futures of the pulls that are currently running mapped to the names of
+     * the images.
+     */
+    private Map<String, CompletableFuture<Void>> runningPulls = new ConcurrentHashMap<>();
+    /**
+     * Single thread executor used for low priority pulls of images that are
+     * not needed, yet.
+     */
+    private ExecutorService imagePrewarmExecutor;
+    /**
+     * Images that are waiting for a low priority pull.
+     */
+    private Set<String> pendingPrewarms = ConcurrentHashMap.newKeySet();
+    /**
+     * Number of pulls that have been requested by experiments and are not
+     * finished, yet. Low priority pulls are postponed while this number is
+     * larger than 0.
+     */
+    private AtomicInteger activeForegroundPulls = new AtomicInteger();
+    /**
+     * Time (in ms) the low priority puller waits after each pull. Since Docker
+     * does not offer a bandwidth limit for pulls, this pause limits the share of
+     * the bandwidth that is used by the low priority pulls.
+     */
+    private long imagePrewarmPause = DEFAULT_IMAGE_PREWARM_PAUSE;
+    /**
+     * Executor used to create the services of several containers in parallel.
+     */
+    private ExecutorService containerStartExecutor;
+    /**
+     * Executor used to remove the services of a container tree in parallel.
+     */
+    private ExecutorService containerRemovalExecutor;
+    /**
+     * Single thread executor that regularly checks the tasks of the services
+     * in {@link #pendingStarts}.
+     */
+    private ScheduledExecutorService taskWatcher;
+    /**
+     * Starts of containers that wait for their task to leave the
+     * {@code PENDING} state mapped to the IDs of their services.
+     */
+    private Map<String, PendingStart> pendingStarts = new ConcurrentHashMap<>();
+    /**
+     * Time (in ms) after which a start whose task is still pending fails.
+     */
+    private long containerStartTimeout = DEFAULT_CONTAINER_START_TIMEOUT;
+    /**
+     * The environment the platform is deployed in. It determines whether
+     * containers are removed.
+     */
+    private String deployEnv = DEPLOY_ENV;
+    /**
+     * The images that have been pulled on all nodes mapped to their digests.
+     */
+    private Map<String, PulledImage> pulledImages = new ConcurrentHashMap<>();
+    /**
+     * Resolver used to retrieve the current digests of images from their
+     * registries.
+     */
+    private ImageDigestResolver digestResolver;
 
     /**
      * Constructor that creates new docker client instance
      */
     public ContainerManagerImpl() throws Exception {
+        this(new ClusterManagerImpl());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clusterManager the cluster manager that is used to determine the
+     *                       placement of new containers (should be shared with
+     *                       the other components of the platform)
+     */
+    public ContainerManagerImpl(ClusterManager clusterManager) throws Exception {
         LOGGER.info("Deployed as \"{}\".", DEPLOY_ENV);
         dockerClient = DockerUtility.getDockerClient();
+        this.clusterManager = clusterManager;
 
         String username = System.getenv(USER_NAME_KEY);
         String email = System.getenv(USER_EMAIL_KEY);
@@ -163,6 +289,78 @@ public class ContainerManagerImpl implements ContainerManager {
                     USER_NAME_KEY, USER_EMAIL_KEY, USER_PASSWORD_KEY);
             gitlabAuth = null;
         }
+        digestResolver = new ImageDigestResolver(registryUrl, username, password);
+        int imagePullThreads = DEFAULT_IMAGE_PULL_THREADS;
+        if (System.getenv().containsKey(IMAGE_PULL_THREADS_KEY)) {
+            try {
+                imagePullThreads = Integer.parseInt(System.getenv(IMAGE_PULL_THREADS_KEY));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}. Using default value {}.", IMAGE_PULL_THREADS_KEY,
+                        DEFAULT_IMAGE_PULL_THREADS);
+            }
+        }
+        imagePullExecutor = Executors.newFixedThreadPool(Math.max(1, imagePullThreads), runnable -> {
+            Thread thread = new Thread(runnable, "image-puller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        imagePrewarmExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-prewarmer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        int containerStartThreads = DEFAULT_CONTAINER_START_THREADS;
+        if (System.getenv().containsKey(CONTAINER_START_THREADS_KEY)) {
+            try {
+                containerStartThreads = Integer.parseInt(System.getenv(CONTAINER_START_THREADS_KEY));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}. Using default value {}.", CONTAINER_START_THREADS_KEY,
+                        DEFAULT_CONTAINER_START_THREADS);
+            }
+        }
+        containerStartExecutor = Executors.newFixedThreadPool(Math.max(1, containerStartThreads), runnable -> {
+            Thread thread = new Thread(runnable, "container-starter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int containerRemovalThreads = DEFAULT_CONTAINER_REMOVAL_THREADS;
+        if (System.getenv().containsKey(CONTAINER_REMOVAL_THREADS_KEY)) {
+            try {
+                containerRemovalThreads = Integer.parseInt(System.getenv(CONTAINER_REMOVAL_THREADS_KEY));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}. Using default value {}.", CONTAINER_REMOVAL_THREADS_KEY,
+                        DEFAULT_CONTAINER_REMOVAL_THREADS);
+            }
+        }
+        containerRemovalExecutor = Executors.newFixedThreadPool(Math.max(1, containerRemovalThreads), runnable -> {
+            Thread thread = new Thread(runnable, "container-remover");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (System.getenv().containsKey(CONTAINER_START_TIMEOUT_KEY)) {
+            try {
+                containerStartTimeout = Long.parseLong(System.getenv(CONTAINER_START_TIMEOUT_KEY));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}. Using default value {}.", CONTAINER_START_TIMEOUT_KEY,
+                        DEFAULT_CONTAINER_START_TIMEOUT);
+            }
+        }
+        taskWatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "container-start-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        taskWatcher.scheduleWithFixedDelay(this::checkPendingStarts, DOCKER_POLL_INTERVAL, DOCKER_POLL_INTERVAL,
+                TimeUnit.MILLISECONDS);
+        if (System.getenv().containsKey(IMAGE_PREWARM_PAUSE_KEY)) {
+            try {
+                imagePrewarmPause = Long.parseLong(System.getenv(IMAGE_PREWARM_PAUSE_KEY));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}. Using default value {}.", IMAGE_PREWARM_PAUSE_KEY,
+                        DEFAULT_IMAGE_PREWARM_PAUSE);
+            }
+        }
         gelfAddress = System.getenv(LOGGING_GELF_ADDRESS_KEY);
         if (gelfAddress == null) {
             LOGGER.info(
@@ -253,11 +451,180 @@ public class ContainerManagerImpl implements ContainerManager {
      * @param imageName the name of the image that should be pulled
      */
     public void pullImage(String imageName) {
+        pullImages(Collections.singleton(imageName));
+    }
+
+    @Override
+    public void pullImages(Collection<String> imageNames) {
         // do not pull if env var is set to false
         if (!DOCKER_AUTOPULL) {
             LOGGER.warn("Skipping image pulling because DOCKER_AUTOPULL is unset");
             return;
         }
+        List<CompletableFuture<Void>> pulls = new ArrayList<>();
+        activeForegroundPulls.incrementAndGet();
+        try {
+            for (String imageName : new HashSet<>(imageNames)) {
+                pulls.add(getPullFuture(imageName));
+            }
+            CompletableFuture.allOf(pulls.toArray(new CompletableFuture[pulls.size()])).join();
+        } catch (Exception e) {
+            LOGGER.error("Exception while pulling images " + imageNames + ".", e);
+        } finally {
+            activeForegroundPulls.decrementAndGet();
+        }
+    }
+
+    /**
+     * Pulls the given image without blocking the calling thread. The pull
+     * counts as pull of an experiment, i.e., low priority pulls are postponed
+     * until it is finished.
+     *
+     * @param imageName the name of the image that should be pulled
+     * @return future that is completed when the pull is finished. Errors are
+     *         logged and do not complete the future exceptionally.
+     */
+    private CompletableFuture<Void> pullImageAsync(String imageName) {
+        // do not pull if env var is set to false
+        if (!DOCKER_AUTOPULL) {
+            LOGGER.warn("Skipping image pulling because DOCKER_AUTOPULL is unset");
+            return CompletableFuture.completedFuture(null);
+        }
+        activeForegroundPulls.incrementAndGet();
+        return getPullFuture(imageName).handle((v, e) -> {
+            activeForegroundPulls.decrementAndGet();
+            if (e != null) {
+                LOGGER.error("Exception while pulling image " + imageName + ".", e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Submits the given images to a single low priority puller thread and
+     * returns immediately. The pull of an image only registers itself as running
+     * pull when it starts. Hence, an experiment requesting an image which is
+     * still waiting for its low priority pull does not have to wait for the
+     * other low priority pulls. Low priority pulls are skipped while pulls of
+     * experiments are running and can be requested again later on.
+     */
+    @Override
+    public void prewarmImages(Collection<String> imageNames) {
+        if (!DOCKER_AUTOPULL) {
+            return;
+        }
+        for (String imageName : imageNames) {
+            if (runningPulls.containsKey(imageName) || !pendingPrewarms.add(imageName)) {
+                continue;
+            }
+            try {
+                imagePrewarmExecutor.execute(() -> prewarmImage(imageName));
+            } catch (RejectedExecutionException e) {
+                pendingPrewarms.remove(imageName);
+            }
+        }
+    }
+
+    /**
+     * Pulls the given image as low priority pull if no other pull is running
+     * for it and no experiment is currently pulling images.
+     *
+     * @param imageName the name of the image that should be pulled
+     */
+    private void prewarmImage(String imageName) {
+        try {
+            if (activeForegroundPulls.get() > 0) {
+                LOGGER.debug("Postponing the pre-warming of \"{}\" since experiment images are being pulled.",
+                        imageName);
+                return;
+            }
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            if (runningPulls.putIfAbsent(imageName, future) != null) {
+                return;
+            }
+            boolean pulled;
+            try {
+                LOGGER.debug("Pre-warming the image \"{}\".", imageName);
+                pulled = pullImageOnAllNodes(imageName);
+            } finally {
+                runningPulls.remove(imageName, future);
+                future.complete(null);
+            }
+            if (pulled && (imagePrewarmPause > 0)) {
+                Thread.sleep(imagePrewarmPause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pendingPrewarms.remove(imageName);
+        }
+    }
+
+    /**
+     * Returns the future of the pull of the given image. If the image is already
+     * being pulled, the future of this pull is returned. Otherwise, a new pull is
+     * submitted to the {@link #imagePullExecutor}.
+     *
+     * @param imageName the name of the image that should be pulled
+     * @return the future of the pull
+     */
+    private CompletableFuture<Void> getPullFuture(String imageName) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> runningPull = runningPulls.putIfAbsent(imageName, future);
+        if (runningPull != null) {
+            LOGGER.debug("The image \"{}\" is already being pulled.", imageName);
+            return runningPull;
+        }
+        try {
+            imagePullExecutor.execute(() -> {
+                try {
+                    pullImageOnAllNodes(imageName);
+                } finally {
+                    runningPulls.remove(imageName, future);
+                    future.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            runningPulls.remove(imageName, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Pulls the given image on all nodes of the swarm using a global service. The
+     * pull is skipped if the image has already been pulled on all current nodes
+     * and the registry still offers the same digest for it.
+     *
+     * <p>
+     * The pulled images are only recorded in memory ({@link #pulledImages}) and
+     * it is assumed that the nodes keep them. If an image is removed from a
+     * node (e.g., by pruning), the pull is skipped although the image is
+     * missing and Docker has to pull it when the container is started. After a
+     * restart of the controller, all images are pulled again.
+     * </p>
+     *
+     * @param imageName the name of the image that should be pulled
+     * @return {@code false} if the pull has been skipped, {@code true} if the
+     *         image has been pulled or an attempt to pull it has been made
+     */
+    private boolean pullImageOnAllNodes(String imageName) {
+        Set<String> nodeIds;
+        try {
+            nodeIds = clusterManager.getNodeIds();
+        } catch (Exception e) {
+            LOGGER.error("Couldn't retrieve list of swarm nodes!");
+            return false;
+        }
+        String digest = digestResolver.resolveDigest(imageName);
+        if (digest != null) {
+            PulledImage pulledImage = pulledImages.get(imageName);
+            if ((pulledImage != null) && digest.equals(pulledImage.digest) && pulledImage.nodeIds.containsAll(nodeIds)) {
+                LOGGER.info("Skipping pulling of the image \"{}\" since all nodes have its current digest {}.",
+                        imageName, digest);
+                return false;
+            }
+        }
 
         LOGGER.info("Pulling the image \"{}\"", imageName);
 
@@ -292,14 +659,7 @@ public class ContainerManagerImpl implements ContainerManager {
         serviceCfgBuilder.taskTemplate(taskCfgBuilder.build());
         serviceCfgBuilder.name(getInstanceName(imageName, "pull"));
         ServiceSpec serviceCfg = serviceCfgBuilder.build();
-        Integer totalNodes;
-        try {
-            // TODO: use ClusterManager
-            totalNodes = dockerClient.listNodes().size();
-        } catch (Exception e) {
-            LOGGER.error("Couldn't retrieve list of swarm nodes!");
-            return;
-        }
+        Integer totalNodes = nodeIds.size();
         try {
             ServiceCreateResponse resp = createService(serviceCfg);
             String serviceId = resp.id();
@@ -333,6 +693,9 @@ public class ContainerManagerImpl implements ContainerManager {
                         return false;
                     }
                 }, DOCKER_POLL_INTERVAL, DOCKER_IMAGE_PULL_MAX_WAITING_TIME);
+                if (digest != null) {
+                    pulledImages.put(imageName, new PulledImage(digest, nodeIds));
+                }
             } catch (InterruptedException e) {
                 LOGGER.warn(
                         "Interrupted while waiting for the image {} to be pulled. Assuming that pulling was successful. Exception: {}",
@@ -343,22 +706,29 @@ public class ContainerManagerImpl implements ContainerManager {
         } catch (Exception e) {
             LOGGER.error("Exception while pulling the image \"" + imageName + "\".", e);
         }
+        return true;
     }
 
     /**
-     * Creates new container using given image and assigns given type and parent
+     * Creates new container using given image and assigns given type and
+     * parent. The method returns as soon as the service of the container has
+     * been created. The returned future is completed by the
+     * {@link #taskWatcher} when the task of the service is not pending anymore.
      *
      * @param imageName     image to use as base for container
      * @param containerType container type
      * @param parentId      parent id
      * @param env           (optional) environment variables
      * @param command       (optional) command to be executed with image
+     * @param experimentId  (optional) experiment id added to the GELF tag
      * @param constraints   additional constraints
      *
-     * @return String the container Id or <code>null</code> if an error occurs
+     * @return future of the container Id which is completed with
+     *         <code>null</code> if an error occurs
      */
-    private String createContainer(String imageName, String containerType, String parentId, String[] env,
-            String[] netAliases, String[] command, Map<String, Object> constraints) {
+    private CompletableFuture<String> createContainer(String imageName, String containerType, String parentId,
+            String[] env, String[] netAliases, String[] command, String experimentId,
+            Map<String, Object> constraints) {
         ServiceSpec.Builder serviceCfgBuilder = ServiceSpec.builder();
 
         TaskSpec.Builder taskCfgBuilder = TaskSpec.builder();
@@ -389,7 +759,7 @@ public class ContainerManagerImpl implements ContainerManager {
                 LOGGER.error(
                         "Can't create container using image {} without a container type (either a given type or one that can be derived from the parent). Returning null.",
                         imageName);
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
         }
 
@@ -398,13 +768,9 @@ public class ContainerManagerImpl implements ContainerManager {
         long numberOfSystemSwarmNodes = 0;
         long numberOfBenchmarkSwarmNodes = 0;
         try {
-            ClusterManager clusterManager = new ClusterManagerImpl();
             numberOfSwarmNodes = clusterManager.getNumberOfNodes();
             numberOfSystemSwarmNodes = clusterManager.getNumberOfNodes("org.hobbit.workergroup=system");
             numberOfBenchmarkSwarmNodes = clusterManager.getNumberOfNodes("org.hobbit.workergroup=benchmark");
-        } catch (DockerCertificateException e) {
-            LOGGER.error("Could not initialize Cluster Manager, will use container placement constraints by default. ",
-                    e);
         } catch (Exception e) {
             LOGGER.error("Could not get number of swarm nodes. ", e);
         }
@@ -437,7 +803,7 @@ public class ContainerManagerImpl implements ContainerManager {
             } else {
                 LOGGER.error("Got a request to create a container with type={} and parentType={}. "
                         + "Got no rule to determine its type. Returning null.", containerType, parentType);
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
         } else {
             LOGGER.warn("The swarm cluster got only 1 node, I will not use placement constraints.");
@@ -509,46 +875,98 @@ public class ContainerManagerImpl implements ContainerManager {
 
         serviceCfgBuilder.name(serviceName);
         ServiceSpec serviceCfg = serviceCfgBuilder.build();
-        String serviceId = null;
         try {
             ServiceCreateResponse resp = createService(serviceCfg);
-            serviceId = resp.id();
-            final String serviceIdForLambda = serviceId;
             // wait for a container of that service to start
-            List<Task> serviceTasks = new ArrayList<Task>();
-            Waiting.waitFor(() -> {
-                serviceTasks.clear();
-                serviceTasks.addAll(
-                        dockerClient.listTasks(Task.Criteria.builder().serviceName(serviceIdForLambda).build()));
-
-                if (!serviceTasks.isEmpty()) {
-                    TaskStatus status = serviceTasks.get(0).status();
-                    if (status.state().equals(TaskStatus.TASK_STATE_PENDING)) {
-                        if (status.err() != null && status.err().matches("no suitable node.*")) {
-                            throw new Exception(status.err());
-                        }
-                    }
-                    return !NEW_TASKS_STATES.contains(status.state());
-                }
+            PendingStart pendingStart = new PendingStart(resp.id(), serviceName,
+                    System.currentTimeMillis() + containerStartTimeout);
+            pendingStarts.put(pendingStart.serviceId, pendingStart);
+            return pendingStart.future;
+        } catch (Exception e) {
+            LOGGER.error("Couldn't create Docker container. Returning null.", e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 
-                return false;
-            }, DOCKER_POLL_INTERVAL);
-            // return new container id
-            LOGGER.info("Container {} created", serviceName);
-            return serviceName;
+    /**
+     * Checks the newest task of every service in {@link #pendingStarts} and
+     * completes the futures of all services whose task is not pending anymore.
+     * The tasks of all services are retrieved with a single request. Starts that
+     * exceed the {@link #containerStartTimeout} fail even if the tasks couldn't
+     * be retrieved. This method is executed regularly by the
+     * {@link #taskWatcher}.
+     */
+    private void checkPendingStarts() {
+        if (pendingStarts.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Task> newestTasks;
+        try {
+            newestTasks = dockerClient.listTasks(PLATFORM_TASKS).stream()
+                    .filter(task -> pendingStarts.containsKey(task.serviceId())).collect(Collectors
+                            .toMap(Task::serviceId, task -> task, BinaryOperator.maxBy(TASK_CREATION_ORDER)));
         } catch (Exception e) {
-            if (serviceId != null) {
-                try {
-                    LOGGER.info("Removing service {} which didn't cleanly start", serviceId);
-                    dockerClient.removeService(serviceId);
-                } catch (Exception cleanupE) {
-                    LOGGER.error("Couldn't remove service {} which didn't cleanly start", serviceId, cleanupE);
-                }
+            LOGGER.warn("Couldn't check the tasks of the containers that are starting. Trying again.", e);
+            newestTasks = Collections.emptyMap();
+        }
+        for (PendingStart pendingStart : pendingStarts.values()) {
+            if (now > pendingStart.deadline) {
+                failPendingStart(pendingStart, new TimeoutException("The task of service " + pendingStart.serviceName
+                        + " didn't start within " + containerStartTimeout + "ms."));
+                continue;
             }
+            Task task = newestTasks.get(pendingStart.serviceId);
+            if (task == null) {
+                continue;
+            }
+            TaskStatus status = task.status();
+            if (status.state().equals(TaskStatus.TASK_STATE_PENDING) && (status.err() != null)
+                    && status.err().matches("no suitable node.*")) {
+                failPendingStart(pendingStart, new Exception(status.err()));
+            } else if (!NEW_TASKS_STATES.contains(status.state())) {
+                pendingStarts.remove(pendingStart.serviceId);
+                // return new container id
+                LOGGER.info("Container {} created", pendingStart.serviceName);
+                pendingStart.future.complete(pendingStart.serviceName);
+            }
+        }
+    }
 
-            LOGGER.error("Couldn't create Docker container. Returning null.", e);
-            return null;
+    /**
+     * Sets the time (in ms) after which a start whose task is still pending
+     * fails. Starts that are already pending keep their deadline.
+     *
+     * @param containerStartTimeout the new timeout (in ms)
+     */
+    void setContainerStartTimeout(long containerStartTimeout) {
+        this.containerStartTimeout = containerStartTimeout;
+    }
+
+    /**
+     * Sets the environment the platform is deployed in, e.g., to enable the
+     * testing mode in which containers with a non-zero exit code are kept.
+     *
+     * @param deployEnv the deployment environment
+     */
+    void setDeployEnv(String deployEnv) {
+        this.deployEnv = deployEnv;
+    }
+
+    /**
+     * Removes the service of the given start, which didn't cleanly start, and
+     * completes its future with <code>null</code>.
+     */
+    private void failPendingStart(PendingStart pendingStart, Exception cause) {
+        pendingStarts.remove(pendingStart.serviceId);
+        try {
+            LOGGER.info("Removing service {} which didn't cleanly start", pendingStart.serviceId);
+            dockerClient.removeService(pendingStart.serviceId);
+        } catch (Exception cleanupE) {
+            LOGGER.error("Couldn't remove service {} which didn't cleanly start", pendingStart.serviceId, cleanupE);
         }
+        LOGGER.error("Couldn't create Docker container. Returning null.", cause);
+        pendingStart.future.complete(null);
     }
 
     @Deprecated
@@ -592,36 +1010,44 @@ public class ContainerManagerImpl implements ContainerManager {
     @Override
     public String startContainer(String imageName, String containerType, String parentId, String[] env,
             String[] netAliases, String[] command, boolean pullImage, Map<String, Object> constraints) {
-        if (pullImage) {
-            pullImage(imageName);
-        }
-
-        String containerId = createContainer(imageName, containerType, parentId, env, netAliases, command, constraints);
-
-        // if the creation was successful
-        if (containerId != null) {
-            for (ContainerStateObserver observer : containerObservers) {
-                observer.addObservedContainer(containerId);
-            }
-            return containerId;
-        }
-        return null;
+        return startContainerAsync(imageName, containerType, parentId, env, netAliases, command, pullImage, null,
+                constraints).join();
     }
 
     @Override
     public String startContainer(String imageName, String containerType, String parentId, String[] env,
             String[] netAliases, String[] command, String experimentId, Map<String, Object> constraints) {
-        this.experimentId = experimentId;
-        return startContainer(imageName, containerType, parentId, env, netAliases, command, true, constraints);
+        return startContainerAsync(imageName, containerType, parentId, env, netAliases, command, true, experimentId,
+                constraints).join();
+    }
+
+    @Override
+    public CompletableFuture<String> startContainerAsync(String imageName, String containerType, String parentId,
+            String[] env, String[] netAliases, String[] command, boolean pullImage, String experimentId,
+            Map<String, Object> constraints) {
+        CompletableFuture<Void> pull = pullImage ? pullImageAsync(imageName) : CompletableFuture.completedFuture(null);
+        return pull.thenComposeAsync(v -> createContainer(imageName, containerType, parentId, env, netAliases,
+                command, experimentId, constraints), containerStartExecutor).thenApply(containerId -> {
+                    // if the creation was successful
+                    if (containerId != null) {
+                        for (ContainerStateObserver observer : containerObservers) {
+                            observer.addObservedContainer(containerId);
+                        }
+                    }
+                    return containerId;
+                }).exceptionally(e -> {
+                    LOGGER.error("Couldn't start container of image " + imageName + ". Returning null.", e);
+                    return null;
+                });
     }
 
     @Override
     public void removeContainer(String serviceName) {
         try {
             Long exitCode = getContainerExitCode(serviceName);
-            if (DEPLOY_ENV.equals(DEPLOY_ENV_DEVELOP)) {
+            if (deployEnv.equals(DEPLOY_ENV_DEVELOP)) {
                 LOGGER.info("Will not remove container {}. " + "Development mode is enabled.", serviceName);
-            } else if (DEPLOY_ENV.equals(DEPLOY_ENV_TESTING) && (exitCode != null && exitCode != 0)) {
+            } else if (deployEnv.equals(DEPLOY_ENV_TESTING) && (exitCode != null && exitCode != 0)) {
                 // In testing - do not remove containers if they returned non-zero exit code
                 // null exit code usually means that the container is running at the moment
                 LOGGER.info("Will not remove container {}. " + "ExitCode: {} != 0 and testing mode is enabled.",
@@ -661,23 +1087,122 @@ public class ContainerManagerImpl implements ContainerManager {
         removeParentAndChildren(parentId);
     }
 
+    /**
+     * Removes the parent container and all its descendants. The whole tree is
+     * resolved with a single listing of the services. After that, the tree is
+     * removed level by level starting with the parent. The containers of a
+     * level are removed in parallel and their removal is confirmed with a
+     * single listing per check. Hence, the time needed for the removal depends
+     * on the depth of the tree instead of the number of containers.
+     */
     @Override
     public void removeParentAndChildren(String parent) {
-        // stop parent
-        removeContainer(parent);
-
-        // find children
         try {
-            List<Service> services = dockerClient
-                    .listServices(Service.Criteria.builder().labels(ImmutableMap.of(LABEL_PARENT, parent)).build());
+            removeParentAndChildrenOrFail(parent);
+        } catch (Exception e) {
+            LOGGER.error("Error while removing containers: " + e.toString());
+        }
+    }
 
-            for (Service c : services) {
-                if (c != null) {
-                    removeParentAndChildren(c.spec().name());
+    @Override
+    public void removeParentAndChildrenOrFail(String parent) throws Exception {
+        // resolve the whole tree with a single listing
+        Map<String, List<String>> childrenOfParents = new HashMap<>();
+        for (Service service : dockerClient.listServices(PLATFORM_SERVICES)) {
+            Map<String, String> labels = service.spec().labels();
+            String serviceParent = (labels == null) ? null : labels.get(LABEL_PARENT);
+            if (serviceParent != null) {
+                childrenOfParents.computeIfAbsent(serviceParent, k -> new ArrayList<>())
+                        .add(service.spec().name());
+            }
+        }
+        List<List<String>> levels = new ArrayList<>();
+        Set<String> treeServices = new HashSet<>();
+        treeServices.add(parent);
+        List<String> level = Collections.singletonList(parent);
+        while (!level.isEmpty()) {
+            levels.add(level);
+            List<String> nextLevel = new ArrayList<>();
+            for (String serviceName : level) {
+                for (String child : childrenOfParents.getOrDefault(serviceName, Collections.emptyList())) {
+                    // avoid endless loops caused by cyclic labels
+                    if (treeServices.add(child)) {
+                        nextLevel.add(child);
+                    }
                 }
             }
-        } catch (Exception e) {
-            LOGGER.error("Error while removing containers: " + e.toString());
+            level = nextLevel;
+        }
+        // In testing - do not remove containers if they returned non-zero exit code
+        Map<String, Long> exitCodes = deployEnv.equals(DEPLOY_ENV_TESTING)
+                ? getContainerExitCodes(treeServices)
+                : Collections.emptyMap();
+        Set<String> failedServices = ConcurrentHashMap.newKeySet();
+        for (List<String> serviceNames : levels) {
+            removeContainers(serviceNames, exitCodes, failedServices);
+        }
+        if (!failedServices.isEmpty()) {
+            throw new DockerException("Couldn't remove the containers " + failedServices + ".");
+        }
+    }
+
+    /**
+     * Removes the given containers in parallel and waits until all of them are
+     * gone.
+     *
+     * @param serviceNames   the names of the containers that should be removed
+     * @param exitCodes      the exit codes of the containers that are not
+     *                       running anymore
+     * @param failedServices the set to which the names of the containers are
+     *                       added that could not be removed
+     */
+    private void removeContainers(List<String> serviceNames, Map<String, Long> exitCodes,
+            Set<String> failedServices) throws Exception {
+        Set<String> removedServices = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> removals = new ArrayList<>();
+        for (String serviceName : serviceNames) {
+            Long exitCode = exitCodes.get(serviceName);
+            if (deployEnv.equals(DEPLOY_ENV_DEVELOP)) {
+                LOGGER.info("Will not remove container {}. " + "Development mode is enabled.", serviceName);
+            } else if (deployEnv.equals(DEPLOY_ENV_TESTING) && (exitCode != null && exitCode != 0)) {
+                // null exit code usually means that the container is running at the moment
+                LOGGER.info("Will not remove container {}. " + "ExitCode: {} != 0 and testing mode is enabled.",
+                        serviceName, exitCode);
+            } else {
+                removals.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        LOGGER.info("Removing container {}. ", serviceName);
+                        dockerClient.removeService(serviceName);
+                        removedServices.add(serviceName);
+                    } catch (ServiceNotFoundException e) {
+                        LOGGER.error("Couldn't remove container {} because it doesn't exist", serviceName);
+                    } catch (Exception e) {
+                        LOGGER.error("Couldn't remove container {}.", serviceName, e);
+                        failedServices.add(serviceName);
+                    }
+                }, containerRemovalExecutor));
+            }
+        }
+        if (removals.isEmpty()) {
+            return;
+        }
+        CompletableFuture.allOf(removals.toArray(new CompletableFuture[removals.size()])).join();
+        if (removedServices.isEmpty()) {
+            return;
+        }
+        // wait for the services to disappear
+        try {
+            Waiting.waitFor(() -> {
+                for (Service service : dockerClient.listServices(PLATFORM_SERVICES)) {
+                    if (removedServices.contains(service.spec().name())) {
+                        return false;
+                    }
+                }
+                return true;
+            }, DOCKER_POLL_INTERVAL, DOCKER_REMOVAL_MAX_WAITING_TIME);
+        } catch (InterruptedException e) {
+            LOGGER.warn("The removed containers {} didn't disappear within {}ms.", removedServices,
+                    DOCKER_REMOVAL_MAX_WAITING_TIME);
         }
     }
 
@@ -738,6 +1263,55 @@ public class ContainerManagerImpl implements ContainerManager {
         return null;
     }
 
+    @Override
+    public Map<String, Long> getContainerExitCodes(Collection<String> serviceNames)
+            throws DockerException, InterruptedException {
+        Map<String, Long> exitCodes = new HashMap<>();
+        if (serviceNames.isEmpty()) {
+            return exitCodes;
+        }
+        // Retrieve all services and all tasks of the platform at once and resolve
+        // the exit codes in memory
+        Map<String, String> serviceIds = new HashMap<>();
+        for (Service service : dockerClient.listServices(PLATFORM_SERVICES)) {
+            serviceIds.put(service.spec().name(), service.id());
+        }
+        Map<String, List<Task>> tasksByServiceId = new HashMap<>();
+        for (Task task : dockerClient.listTasks(PLATFORM_TASKS)) {
+            tasksByServiceId.computeIfAbsent(task.serviceId(), k -> new ArrayList<>()).add(task);
+        }
+
+        for (String serviceName : serviceNames) {
+            String serviceId = serviceIds.get(serviceName);
+            if (serviceId == null) {
+                LOGGER.warn(
+                        "Couldn't get the exit code for container {}. Service doesn't exist. Assuming it was stopped by the platform.",
+                        serviceName);
+                exitCodes.put(serviceName, DOCKER_EXITCODE_SIGKILL);
+                continue;
+            }
+            List<Task> tasks = tasksByServiceId.get(serviceId);
+            if (tasks == null) {
+                LOGGER.warn("Couldn't get the exit code for container {}. Service has no tasks.", serviceName);
+                continue;
+            }
+            for (Task task : tasks) {
+                if (!UNFINISHED_TASK_STATES.contains(task.status().state())) {
+                    // Task is finished.
+                    Long exitCode = task.status().containerStatus().exitCode();
+                    if (exitCode == null) {
+                        LOGGER.warn("Couldn't get the exit code for container {}. Task is finished. Returning 0.",
+                                serviceName);
+                        exitCode = 0l;
+                    }
+                    exitCodes.put(serviceName, exitCode);
+                    break;
+                }
+            }
+        }
+        return exitCodes;
+    }
+
     @Deprecated
     @Override
     public String getContainerId(String name) {
@@ -787,4 +1361,37 @@ public class ContainerManagerImpl implements ContainerManager {
         }
         return (container == null) ? null : container.spec().labels().get(LABEL_TYPE);
     }
+
+    /**
+     * The start of a container whose service has been created but whose task
+     * is still pending.
+     */
+    private static class PendingStart {
+        private final String serviceId;
+        private final String serviceName;
+        /**
+         * Time stamp (in ms) after which the start fails.
+         */
+        private final long deadline;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        public PendingStart(String serviceId, String serviceName, long deadline) {
+            this.serviceId = serviceId;
+            this.serviceName = serviceName;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * The digest of an image and the nodes on which this digest has been pulled.
+     */
+    private static class PulledImage {
+        private final String digest;
+        private final Set<String> nodeIds;
+
+        public PulledImage(String digest, Set<String> nodeIds) {
+            this.digest = digest;
+            this.nodeIds = nodeIds;
+        }
+    }
 }
@@ -17,20 +17,24 @@
 package org.hobbit.controller.docker;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.spotify.docker.client.exceptions.DockerException;
-
 /**
  * This class implements the {@link ContainerStateObserver} interface by
- * starting a scheduled job that retrieves a list of containers and their status
- * using the given {@link ContainerManager}. If a container has the status
- * "exited" and can be found in the internal list of monitored containers, the
+ * starting a scheduled job that retrieves the status of all monitored
+ * containers with a single call of
+ * {@link ContainerManager#getContainerExitCodes(java.util.Collection)}. If a
+ * container has the status "exited" and can be found in the internal list of
+ * monitored containers, the
  * {@link ContainerTerminationCallback#notifyTermination(String, int)} methods
  * of all registered callbacks are called.
  *
@@ -77,7 +81,7 @@ public class ContainerStateObserverImpl implements ContainerStateObserver {
         this.manager = manager;
         this.repeatInterval = repeatInterval;
         monitoredContainers = new ArrayList<>();
-        terminationCallbacks = new ArrayList<>();
+        terminationCallbacks = new CopyOnWriteArrayList<>();
         timer = new Timer();
     }
 
@@ -92,29 +96,65 @@ public class ContainerStateObserverImpl implements ContainerStateObserver {
                 synchronized (monitoredContainers) {
                     containerIds = monitoredContainers.toArray(new String[monitoredContainers.size()]);
                 }
-                for (String id : containerIds) {
-                    try {
-                        Long exitStatus = manager.getContainerExitCode(id);
-
-                        if (exitStatus != null) {
-                            // notify all callbacks
-                            for (ContainerTerminationCallback cb : terminationCallbacks) {
-                                try {
-                                    cb.notifyTermination(id, exitStatus);
-                                } catch (Throwable e) {
-                                    LOGGER.error("Error while calling container termination callback.", e);
-                                }
-                            }
-                        }
-                    } catch (DockerException | InterruptedException e) {
-                        LOGGER.error("Couldn't get the status of container " + id
-                                + ". It will be ignored during this run but will be checked again during the next run.");
-                    }
+                if (containerIds.length == 0) {
+                    return;
+                }
+                Map<String, Long> exitCodes;
+                try {
+                    // retrieve the states of all containers at once
+                    exitCodes = manager.getContainerExitCodes(Arrays.asList(containerIds));
+                } catch (Exception e) {
+                    LOGGER.error("Couldn't get the status of the observed containers. "
+                            + "They will be ignored during this run but will be checked again during the next run.", e);
+                    return;
+                }
+                for (Entry<String, Long> exitCode : exitCodes.entrySet()) {
+                    notifyTermination(exitCode.getKey(), exitCode.getValue());
                 }
             }
         }, repeatInterval, repeatInterval);
     }
 
+    /**
+     * Notifies all callbacks that the given container terminated with the given
+     * exit code. The container is removed from the list of monitored containers.
+     * If it is not monitored (anymore), e.g., because its termination has already
+     * been reported, the callbacks are not called.
+     *
+     * @param containerId
+     *            the Id of the terminated container
+     * @param exitCode
+     *            the exit code of the container
+     */
+    protected void notifyTermination(String containerId, long exitCode) {
+        synchronized (monitoredContainers) {
+            if (!monitoredContainers.remove(containerId)) {
+                return;
+            }
+        }
+        // notify all callbacks
+        for (ContainerTerminationCallback cb : terminationCallbacks) {
+            try {
+                cb.notifyTermination(containerId, exitCode);
+            } catch (Throwable e) {
+                LOGGER.error("Error while calling container termination callback.", e);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the container with the given Id is monitored.
+     *
+     * @param containerId
+     *            the Id of the container
+     * @return <code>true</code> if the container is monitored
+     */
+    protected boolean isObserved(String containerId) {
+        synchronized (monitoredContainers) {
+            return monitoredContainers.contains(containerId);
+        }
+    }
+
     @Override
     public void stopObserving() {
         timer.cancel();
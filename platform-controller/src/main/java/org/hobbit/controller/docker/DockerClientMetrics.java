@@ -0,0 +1,112 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hobbit.controller.utils.OperationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.spotify.docker.client.DockerClient;
+
+/**
+ * Records the latency and the errors of the requests sent through a
+ * {@link DockerClient} for each of its methods, i.e., for each endpoint of
+ * the Docker API. Requests that take longer than a threshold are logged.
+ */
+public class DockerClientMetrics implements InvocationHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DockerClientMetrics.class);
+
+    private final DockerClient client;
+    /**
+     * Requests that take longer (in ms) are logged.
+     */
+    private final long slowRequestThreshold;
+    private final Map<String, OperationMetrics> metrics = new ConcurrentHashMap<>();
+
+    private DockerClientMetrics(DockerClient client, long slowRequestThreshold) {
+        this.client = client;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    /**
+     * Wraps the given client into a client that records the metrics of its
+     * requests.
+     *
+     * @param client               the client that sends the requests
+     * @param slowRequestThreshold the time (in ms) after which a request is
+     *                             logged as slow
+     * @return the client recording the metrics of its requests
+     */
+    public static DockerClient instrument(DockerClient client, long slowRequestThreshold) {
+        return (DockerClient) Proxy.newProxyInstance(DockerClient.class.getClassLoader(),
+                new Class<?>[] { DockerClient.class }, new DockerClientMetrics(client, slowRequestThreshold));
+    }
+
+    /**
+     * Returns the metrics of the given client created by
+     * {@link #instrument(DockerClient, long)}.
+     *
+     * @param client the instrumented client
+     * @return the metrics of the requests mapped to the names of the client's
+     *         methods or an empty map if the client is not instrumented
+     */
+    public static Map<String, OperationMetrics> getMetrics(DockerClient client) {
+        if (Proxy.isProxyClass(client.getClass())
+                && (Proxy.getInvocationHandler(client) instanceof DockerClientMetrics)) {
+            return Collections.unmodifiableMap(((DockerClientMetrics) Proxy.getInvocationHandler(client)).metrics);
+        }
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(client, args);
+        }
+        long start = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            Object result = method.invoke(client, args);
+            success = true;
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            long duration = System.currentTimeMillis() - start;
+            OperationMetrics endpointMetrics = metrics.computeIfAbsent(method.getName(),
+                    name -> new OperationMetrics());
+            if (success) {
+                endpointMetrics.recordSuccess(duration);
+            } else {
+                endpointMetrics.recordFailure(duration);
+            }
+            if (duration > slowRequestThreshold) {
+                LOGGER.warn("Docker request {} took {}ms. Current metrics of this request: {}", method.getName(),
+                        duration, endpointMetrics);
+            }
+        }
+    }
+}
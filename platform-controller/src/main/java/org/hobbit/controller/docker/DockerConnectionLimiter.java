@@ -0,0 +1,98 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.exceptions.DockerException;
+
+/**
+ * Limits the number of concurrent requests sent through a {@link DockerClient}
+ * to the size of its connection pool. The client uses its connect timeout as
+ * the time a request waits for a connection of the pool, which is too short if
+ * all connections are used by slow requests. Requests waiting in front of the
+ * client get a separate, longer lease timeout instead while the pool itself
+ * always has a free connection.
+ *
+ * <p>
+ * Only methods that may throw a {@link DockerException} are limited. The
+ * client must not be used for streams that keep their connection after the
+ * method returned, e.g., the events of the Docker daemon.
+ * </p>
+ */
+public class DockerConnectionLimiter implements InvocationHandler {
+
+    private final DockerClient client;
+    private final Semaphore connections;
+    /**
+     * The time (in ms) a request waits for a free connection.
+     */
+    private final long leaseTimeout;
+
+    private DockerConnectionLimiter(DockerClient client, int poolSize, long leaseTimeout) {
+        this.client = client;
+        this.connections = new Semaphore(poolSize, true);
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Wraps the given client into a client that sends at most the given number
+     * of requests at the same time.
+     *
+     * @param client       the client that sends the requests
+     * @param poolSize     the size of the client's connection pool
+     * @param leaseTimeout the time (in ms) a request waits for a free
+     *                     connection before it fails
+     * @return the limited client
+     */
+    public static DockerClient limit(DockerClient client, int poolSize, long leaseTimeout) {
+        return (DockerClient) Proxy.newProxyInstance(DockerClient.class.getClassLoader(),
+                new Class<?>[] { DockerClient.class }, new DockerConnectionLimiter(client, poolSize, leaseTimeout));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ((method.getDeclaringClass() == Object.class)
+                || !Arrays.asList(method.getExceptionTypes()).contains(DockerException.class)) {
+            return invokeClient(method, args);
+        }
+        if (!connections.tryAcquire(leaseTimeout, TimeUnit.MILLISECONDS)) {
+            throw new DockerException("Docker request " + method.getName()
+                    + " didn't get a connection to the Docker daemon within " + leaseTimeout + "ms.");
+        }
+        try {
+            return invokeClient(method, args);
+        } finally {
+            connections.release();
+        }
+    }
+
+    private Object invokeClient(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(client, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
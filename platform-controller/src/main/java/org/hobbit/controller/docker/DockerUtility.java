@@ -1,16 +1,64 @@
 package org.hobbit.controller.docker;
 
+import java.util.Collections;
+import java.util.Map;
+
+import org.hobbit.controller.utils.OperationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.spotify.docker.client.DefaultDockerClient;
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.exceptions.DockerCertificateException;
 
 public class DockerUtility {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DockerUtility.class);
+
+    /**
+     * Environmental variable key for the maximum number of connections to the
+     * Docker daemon that are shared by all components of the controller.
+     */
+    public static final String DOCKER_CONNECTION_POOL_SIZE_KEY = "DOCKER_CONNECTION_POOL_SIZE";
+    /**
+     * Environmental variable key for the time (in ms) a request waits for a
+     * connection to the Docker daemon.
+     */
+    public static final String DOCKER_CONNECT_TIMEOUT_KEY = "DOCKER_CONNECT_TIMEOUT";
+    /**
+     * Environmental variable key for the time (in ms) a request waits for a
+     * free connection of the pool.
+     */
+    public static final String DOCKER_CONNECTION_LEASE_TIMEOUT_KEY = "DOCKER_CONNECTION_LEASE_TIMEOUT";
+    /**
+     * Environmental variable key for the time (in ms) a request waits for data
+     * from the Docker daemon.
+     */
+    public static final String DOCKER_READ_TIMEOUT_KEY = "DOCKER_READ_TIMEOUT";
+    /**
+     * Environmental variable key for the time (in ms) after which a request to
+     * the Docker daemon is logged as slow.
+     */
+    public static final String DOCKER_SLOW_REQUEST_THRESHOLD_KEY = "DOCKER_SLOW_REQUEST_THRESHOLD";
+
+    private static final int DEFAULT_CONNECTION_POOL_SIZE = 100;
+    private static final long DEFAULT_CONNECT_TIMEOUT = 1000;
+    private static final long DEFAULT_CONNECTION_LEASE_TIMEOUT = 60000;
+    private static final long DEFAULT_READ_TIMEOUT = 60000;
+    private static final long DEFAULT_SLOW_REQUEST_THRESHOLD = 10000;
+
     private static DockerClient dockerClient = null;
 
     protected DockerUtility() {
         // Exists only to defeat instantiation.
     }
 
+    /**
+     * Returns the client that is shared by all components of the controller.
+     * It uses a bounded pool of connections and records the latency and errors
+     * of its requests (see {@link #getRequestMetrics()}). Requests wait up to
+     * {@value #DEFAULT_CONNECTION_LEASE_TIMEOUT}ms (configurable via
+     * {@link #DOCKER_CONNECTION_LEASE_TIMEOUT_KEY}) for a free connection.
+     */
     public static synchronized DockerClient getDockerClient() throws DockerCertificateException {
         if(dockerClient == null) {
             dockerClient = initializeDockerClient();
@@ -19,9 +67,57 @@ public class DockerUtility {
     }
 
     public static DockerClient initializeDockerClient() throws DockerCertificateException {
+        int poolSize = (int) getEnvValue(DOCKER_CONNECTION_POOL_SIZE_KEY, DEFAULT_CONNECTION_POOL_SIZE);
+        poolSize = Math.max(1, poolSize);
+        long connectTimeout = getEnvValue(DOCKER_CONNECT_TIMEOUT_KEY, DEFAULT_CONNECT_TIMEOUT);
+        long leaseTimeout = getEnvValue(DOCKER_CONNECTION_LEASE_TIMEOUT_KEY, DEFAULT_CONNECTION_LEASE_TIMEOUT);
+        long readTimeout = getEnvValue(DOCKER_READ_TIMEOUT_KEY, DEFAULT_READ_TIMEOUT);
+        DefaultDockerClient.Builder builder = DefaultDockerClient.fromEnv();
+        builder.connectionPoolSize(poolSize);
+        // the client uses the connect timeout as the time a request waits for
+        // a free connection of the pool. Hence, the requests wait with their
+        // own lease timeout in front of the client until the pool has a free
+        // connection.
+        builder.connectTimeoutMillis(connectTimeout);
+        builder.readTimeoutMillis(readTimeout);
+        return DockerClientMetrics.instrument(
+                DockerConnectionLimiter.limit(builder.build(), poolSize, Math.max(connectTimeout, leaseTimeout)),
+                getEnvValue(DOCKER_SLOW_REQUEST_THRESHOLD_KEY, DEFAULT_SLOW_REQUEST_THRESHOLD));
+    }
+
+    /**
+     * Returns the latency and error metrics of the requests sent through the
+     * shared client.
+     *
+     * @return the metrics mapped to the names of the {@link DockerClient}
+     *         methods, i.e., the Docker API endpoints
+     */
+    public static synchronized Map<String, OperationMetrics> getRequestMetrics() {
+        if (dockerClient == null) {
+            return Collections.emptyMap();
+        }
+        return DockerClientMetrics.getMetrics(dockerClient);
+    }
+
+    private static long getEnvValue(String key, long defaultValue) {
+        if (System.getenv().containsKey(key)) {
+            try {
+                return Long.parseLong(System.getenv(key));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Couldn't parse {}. Using default value {}.", key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Creates a client without read timeout that can be used to consume
+     * long-living streams, e.g., the events stream of the Docker daemon.
+     */
+    public static DockerClient initializeStreamingDockerClient() throws DockerCertificateException {
         DefaultDockerClient.Builder builder = DefaultDockerClient.fromEnv();
-        builder.connectionPoolSize(5000);
         builder.connectTimeoutMillis(1000);
+        builder.readTimeoutMillis(0);
         return builder.build();
     }
 }
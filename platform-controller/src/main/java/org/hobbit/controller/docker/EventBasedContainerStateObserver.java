@@ -0,0 +1,177 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.DockerClient.EventsParam;
+import com.spotify.docker.client.EventStream;
+import com.spotify.docker.client.messages.Event;
+
+/**
+ * A {@link ContainerStateObserver} that reacts on the events stream of the
+ * Docker daemon. Terminations of containers are reported as soon as the daemon
+ * emits a <code>die</code> event for the container of an observed service or a
+ * <code>remove</code> event for an observed service.
+ *
+ * <p>
+ * The daemon of the swarm manager emits container events only for the
+ * containers running on its own node. Hence, the polling of the
+ * {@link ContainerStateObserverImpl} is kept as reconciliation to detect the
+ * termination of containers running on other nodes and to cover events that
+ * got lost while the stream was reconnected.
+ * </p>
+ *
+ * @author Michael R&ouml;der (roeder@informatik.uni-leipzig.de)
+ *
+ */
+public class EventBasedContainerStateObserver extends ContainerStateObserverImpl {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventBasedContainerStateObserver.class);
+
+    /**
+     * Label that swarm adds to the containers of a service.
+     */
+    public static final String SWARM_SERVICE_NAME_LABEL = "com.docker.swarm.service.name";
+    /**
+     * Time the observer waits before it tries to reconnect to the events stream.
+     */
+    private static final long RECONNECT_DELAY = 1000;
+
+    /**
+     * Docker client used to listen to the events stream.
+     */
+    private DockerClient dockerClient;
+    /**
+     * Thread that is consuming the events stream.
+     */
+    private Thread eventThread = null;
+    /**
+     * The events stream that is currently consumed.
+     */
+    private volatile EventStream eventStream = null;
+    /**
+     * Flag indicating that the observer has been stopped.
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Constructor.
+     *
+     * @param manager
+     *            The {@link ContainerManager} class that is used to retrieve
+     *            information about containers during the reconciliation.
+     * @param dockerClient
+     *            The client used to listen to the events stream of the Docker
+     *            daemon. It should not have a read timeout and is closed when
+     *            the observer is stopped.
+     * @param reconciliationInterval
+     *            The time interval in which the state of all observed
+     *            containers is checked.
+     */
+    public EventBasedContainerStateObserver(ContainerManager manager, DockerClient dockerClient,
+            int reconciliationInterval) {
+        super(manager, reconciliationInterval);
+        this.dockerClient = dockerClient;
+    }
+
+    @Override
+    public void startObserving() {
+        eventThread = new Thread(this::consumeEvents, "docker-events-observer");
+        eventThread.setDaemon(true);
+        eventThread.start();
+        super.startObserving();
+    }
+
+    /**
+     * Consumes the events stream until the observer is stopped. If the stream
+     * breaks, a new stream is opened.
+     */
+    private void consumeEvents() {
+        while (!stopped) {
+            try (EventStream stream = dockerClient.events(EventsParam.type(Event.Type.CONTAINER),
+                    EventsParam.type(Event.Type.SERVICE), EventsParam.event("die"), EventsParam.event("remove"))) {
+                eventStream = stream;
+                LOGGER.debug("Listening to the Docker events stream.");
+                while (!stopped && stream.hasNext()) {
+                    handleEvent(stream.next());
+                }
+            } catch (Exception e) {
+                if (!stopped) {
+                    LOGGER.warn("Error while listening to the Docker events stream. Reconnecting in " + RECONNECT_DELAY
+                            + "ms. Terminations will be detected by the reconciliation in the meantime.", e);
+                }
+            } finally {
+                eventStream = null;
+            }
+            if (!stopped) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles a single event of the Docker events stream.
+     *
+     * @param event
+     *            the event that should be handled
+     */
+    protected void handleEvent(Event event) {
+        if ((event.type() == null) || (event.actor() == null) || (event.actor().attributes() == null)) {
+            return;
+        }
+        Map<String, String> attributes = event.actor().attributes();
+        if ((event.type() == Event.Type.CONTAINER) && "die".equals(event.action())) {
+            String serviceName = attributes.get(SWARM_SERVICE_NAME_LABEL);
+            if ((serviceName != null) && isObserved(serviceName)) {
+                long exitCode = 0;
+                try {
+                    exitCode = Long.parseLong(attributes.get("exitCode"));
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("Couldn't read the exit code of container {}. Assuming 0.", serviceName);
+                }
+                notifyTermination(serviceName, exitCode);
+            }
+        } else if ((event.type() == Event.Type.SERVICE) && "remove".equals(event.action())) {
+            String serviceName = attributes.get("name");
+            if ((serviceName != null) && isObserved(serviceName)) {
+                // the service has been removed before its container terminated
+                notifyTermination(serviceName, ContainerManager.DOCKER_EXITCODE_SIGKILL);
+            }
+        }
+    }
+
+    @Override
+    public void stopObserving() {
+        stopped = true;
+        IOUtils.closeQuietly(eventStream);
+        if (eventThread != null) {
+            eventThread.interrupt();
+        }
+        dockerClient.close();
+        super.stopObserving();
+    }
+}
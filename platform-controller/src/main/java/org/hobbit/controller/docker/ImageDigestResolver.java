@@ -0,0 +1,215 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Retrieves the current digest of an image (i.e., the digest of the manifest
+ * the image's tag points to) from the registry of the image using the Docker
+ * Registry HTTP API V2. It supports anonymous access as well as the token
+ * authentication of Docker Hub and GitLab registries.
+ *
+ * @author Michael R&ouml;der (roeder@informatik.uni-leipzig.de)
+ *
+ */
+public class ImageDigestResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageDigestResolver.class);
+
+    /**
+     * The registry that is used for images without registry host.
+     */
+    public static final String DEFAULT_REGISTRY = "registry-1.docker.io";
+    private static final String DIGEST_HEADER = "Docker-Content-Digest";
+    private static final String MANIFEST_MEDIA_TYPES = "application/vnd.docker.distribution.manifest.list.v2+json, "
+            + "application/vnd.docker.distribution.manifest.v2+json, application/vnd.oci.image.index.v1+json, "
+            + "application/vnd.oci.image.manifest.v1+json";
+    private static final int TIMEOUT = 5000;
+    private static final Pattern AUTH_PARAM_PATTERN = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    /**
+     * The host of the registry for which the given credentials should be used.
+     */
+    private String credentialsRegistry;
+    /**
+     * Basic authentication header for {@link #credentialsRegistry} or
+     * <code>null</code> if no credentials are available.
+     */
+    private String basicAuth;
+
+    /**
+     * Constructor.
+     *
+     * @param credentialsRegistry the host of the registry for which the given
+     *                            credentials should be used
+     * @param username            the user name for the registry (can be
+     *                            <code>null</code>)
+     * @param password            the password or token for the registry (can be
+     *                            <code>null</code>)
+     */
+    public ImageDigestResolver(String credentialsRegistry, String username, String password) {
+        this.credentialsRegistry = credentialsRegistry;
+        if ((username != null) && (password != null)) {
+            basicAuth = "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Retrieves the current digest of the given image from its registry.
+     *
+     * @param imageName the name of the image
+     * @return the digest of the image or <code>null</code> if it couldn't be
+     *         retrieved
+     */
+    public String resolveDigest(String imageName) {
+        // An image that is pinned to a digest can not change
+        int atPos = imageName.indexOf('@');
+        if (atPos >= 0) {
+            return imageName.substring(atPos + 1);
+        }
+        String repository = imageName;
+        String tag = "latest";
+        int colonPos = repository.lastIndexOf(':');
+        if (colonPos > repository.lastIndexOf('/')) {
+            tag = repository.substring(colonPos + 1);
+            repository = repository.substring(0, colonPos);
+        }
+        String registry = DEFAULT_REGISTRY;
+        int slashPos = repository.indexOf('/');
+        if (slashPos > 0) {
+            String firstPart = repository.substring(0, slashPos);
+            if (firstPart.contains(".") || firstPart.contains(":") || firstPart.equals("localhost")) {
+                registry = firstPart;
+                repository = repository.substring(slashPos + 1);
+            }
+        }
+        if (DEFAULT_REGISTRY.equals(registry) && (repository.indexOf('/') < 0)) {
+            repository = "library/" + repository;
+        }
+        try {
+            return requestDigest(registry, repository, tag);
+        } catch (Exception e) {
+            LOGGER.debug("Couldn't retrieve the digest of " + imageName + " from its registry.", e);
+            return null;
+        }
+    }
+
+    private String requestDigest(String registry, String repository, String tag) throws IOException {
+        URL manifestUrl = new URL("https://" + registry + "/v2/" + repository + "/manifests/" + tag);
+        HttpURLConnection connection = openManifestConnection(manifestUrl, null);
+        try {
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                String challenge = connection.getHeaderField("WWW-Authenticate");
+                connection.disconnect();
+                String authorization = null;
+                if ((challenge != null) && challenge.startsWith("Bearer ")) {
+                    authorization = "Bearer " + requestToken(registry, challenge);
+                } else if (registry.equals(credentialsRegistry)) {
+                    authorization = basicAuth;
+                }
+                if (authorization == null) {
+                    return null;
+                }
+                connection = openManifestConnection(manifestUrl, authorization);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                LOGGER.debug("Got status {} while requesting {}.", connection.getResponseCode(), manifestUrl);
+                return null;
+            }
+            return connection.getHeaderField(DIGEST_HEADER);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private HttpURLConnection openManifestConnection(URL manifestUrl, String authorization) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) manifestUrl.openConnection();
+        connection.setRequestMethod("HEAD");
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        connection.setRequestProperty("Accept", MANIFEST_MEDIA_TYPES);
+        if (authorization != null) {
+            connection.setRequestProperty("Authorization", authorization);
+        }
+        return connection;
+    }
+
+    /**
+     * Requests a bearer token from the authentication service described by the
+     * given challenge.
+     */
+    private String requestToken(String registry, String challenge) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        Matcher matcher = AUTH_PARAM_PATTERN.matcher(challenge);
+        while (matcher.find()) {
+            params.put(matcher.group(1), matcher.group(2));
+        }
+        String realm = params.get("realm");
+        if (realm == null) {
+            throw new IOException("Authentication challenge without realm: " + challenge);
+        }
+        StringBuilder tokenUrl = new StringBuilder(realm);
+        char separator = realm.contains("?") ? '&' : '?';
+        for (String key : new String[] { "service", "scope" }) {
+            if (params.containsKey(key)) {
+                tokenUrl.append(separator).append(key).append('=')
+                        .append(URLEncoder.encode(params.get(key), StandardCharsets.UTF_8.name()));
+                separator = '&';
+            }
+        }
+        HttpURLConnection connection = (HttpURLConnection) new URL(tokenUrl.toString()).openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        if ((basicAuth != null) && registry.equals(credentialsRegistry)) {
+            connection.setRequestProperty("Authorization", basicAuth);
+        }
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8);
+            JsonObject response = new JsonParser().parse(reader).getAsJsonObject();
+            JsonElement token = response.has("token") ? response.get("token") : response.get("access_token");
+            if (token == null) {
+                throw new IOException("Token response does not contain a token.");
+            }
+            return token.getAsString();
+        } finally {
+            IOUtils.closeQuietly(reader);
+            connection.disconnect();
+        }
+    }
+}
@@ -16,6 +16,18 @@ public interface ResourceInformationCollector {
 
     public ResourceUsageInformation getUsageInformation(Criteria criteria);
 
+    /**
+     * Returns the summed resource usage of the given container and its child
+     * containers of the same type, e.g., the system of an experiment and the
+     * containers it created.
+     *
+     * @param containerType the type of the containers
+     * @param containerName the name of the parent container
+     * @return the resource usage or <code>null</code> if none of the containers
+     *         is running
+     */
+    public ResourceUsageInformation getContainerUsageInformation(String containerType, String containerName);
+
     public SetupHardwareInformation getHardwareInformation();
 
 }
@@ -1,18 +1,18 @@
 package org.hobbit.controller.docker;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import javax.ws.rs.core.UriBuilder;
 
-import org.apache.commons.io.IOUtils;
 import org.hobbit.core.Constants;
 import org.hobbit.core.data.usage.CpuStats;
 import org.hobbit.core.data.usage.DiskStats;
@@ -23,13 +23,14 @@ import org.slf4j.LoggerFactory;
 
 import org.hobbit.controller.data.NodeHardwareInformation;
 import org.hobbit.controller.data.SetupHardwareInformation;
+import org.hobbit.controller.utils.OperationMetrics;
+import org.hobbit.controller.utils.PrometheusClient;
 
 import org.apache.jena.ext.com.google.common.collect.Streams;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.exceptions.DockerCertificateException;
@@ -50,9 +51,23 @@ public class ResourceInformationCollectorImpl implements ResourceInformationColl
 
     public static final String PROMETHEUS_HOST_KEY = "PROMETHEUS_HOST";
     public static final String PROMETHEUS_PORT_KEY = "PROMETHEUS_PORT";
+    /**
+     * Connect and read timeout (in ms) of a single request to Prometheus.
+     */
+    public static final String PROMETHEUS_TIMEOUT_KEY = "PROMETHEUS_TIMEOUT";
+    /**
+     * Time (in ms) the result of a resource usage query is reused.
+     */
+    public static final String PROMETHEUS_CACHE_TTL_KEY = "PROMETHEUS_CACHE_TTL";
+    /**
+     * Time (in ms) the hardware information of the cluster is reused.
+     */
+    public static final String HARDWARE_INFORMATION_CACHE_TTL_KEY = "HARDWARE_INFORMATION_CACHE_TTL";
 
     public static final String PROMETHEUS_HOST_DEFAULT = "localhost";
     public static final String PROMETHEUS_PORT_DEFAULT = "9090";
+    public static final long PROMETHEUS_CACHE_TTL_DEFAULT = 2000;
+    public static final long HARDWARE_INFORMATION_CACHE_TTL_DEFAULT = 3600000;
 
     private static final String PROMETHEUS_METRIC_CPU_CORES = "machine_cpu_cores";
     private static final String PROMETHEUS_METRIC_CPU_FREQUENCY = "node_cpu_frequency_max_hertz";
@@ -62,11 +77,22 @@ public class ResourceInformationCollectorImpl implements ResourceInformationColl
     private static final String PROMETHEUS_METRIC_MEMORY_USAGE = "container_memory_usage_bytes";
     private static final String PROMETHEUS_METRIC_SWAP = "node_memory_SwapTotal_bytes";
     private static final String PROMETHEUS_METRIC_UNAME = "node_uname_info";
+    private static final String PROMETHEUS_LABEL_SERVICE_NAME = "container_label_com_docker_swarm_service_name";
+    private static final String PROMETHEUS_LABEL_INSTANCE = "instance";
+    /**
+     * Criteria selecting the tasks of all services created by the platform.
+     */
+    private static final Task.Criteria PLATFORM_TASKS = Task.Criteria.builder().label(ContainerManager.LABEL_TYPE)
+            .build();
 
     private ContainerManager manager;
     private DockerClient dockerClient;
     private String prometheusHost;
     private String prometheusPort;
+    private PrometheusClient prometheus;
+    private long hardwareInformationCacheTtl;
+    private SetupHardwareInformation cachedHardwareInformation;
+    private long hardwareInformationTimestamp;
 
     public ResourceInformationCollectorImpl(ContainerManager manager) throws DockerCertificateException {
         this(manager, null, null);
@@ -90,10 +116,34 @@ public class ResourceInformationCollectorImpl implements ResourceInformationColl
             LOGGER.info("Prometheus port env {} is not set. Using default {}.", PROMETHEUS_PORT_KEY, PROMETHEUS_PORT_DEFAULT);
             this.prometheusPort = PROMETHEUS_PORT_DEFAULT;
         }
+        int timeout = (int) getEnvValue(PROMETHEUS_TIMEOUT_KEY, PrometheusClient.DEFAULT_TIMEOUT);
+        long cacheTtl = getEnvValue(PROMETHEUS_CACHE_TTL_KEY, PROMETHEUS_CACHE_TTL_DEFAULT);
+        hardwareInformationCacheTtl = getEnvValue(HARDWARE_INFORMATION_CACHE_TTL_KEY,
+                HARDWARE_INFORMATION_CACHE_TTL_DEFAULT);
+        prometheus = new PrometheusClient(this.prometheusHost, Integer.parseInt(this.prometheusPort), timeout,
+                cacheTtl, PrometheusClient.DEFAULT_THREADS);
 
         dockerClient = DockerUtility.getDockerClient();
     }
 
+    /**
+     * @return the durations and failures of the requests sent to Prometheus
+     */
+    public OperationMetrics getPrometheusQueryMetrics() {
+        return prometheus.getQueryMetrics();
+    }
+
+    private static long getEnvValue(String key, long defaultValue) {
+        if (System.getenv().containsKey(key)) {
+            try {
+                return Long.parseLong(System.getenv().get(key));
+            } catch (NumberFormatException e) {
+                LOGGER.error("Could not parse value of " + key + ". Using default " + defaultValue + ".", e);
+            }
+        }
+        return defaultValue;
+    }
+
     @Override
     public ResourceUsageInformation getSystemUsageInformation() {
         return getUsageInformation(Service.Criteria.builder()
@@ -101,90 +151,159 @@ public class ResourceInformationCollectorImpl implements ResourceInformationColl
                 .build());
     }
 
-    private long countRunningTasks(String serviceName) {
-        try {
-            return dockerClient.listTasks(
-                    Task.Criteria.builder().serviceName(serviceName).build()
-            )
-            .stream()
-            .filter(t -> TaskStatus.TASK_STATE_RUNNING.equals(t.status().state()))
-            .count();
-        } catch (DockerException | InterruptedException e) {
-            return 0;
-        }
+    @Override
+    public ResourceUsageInformation getUsageInformation(Service.Criteria criteria) {
+        return getServicesUsageInformation(manager.getContainers(criteria));
     }
 
     @Override
-    public ResourceUsageInformation getUsageInformation(Service.Criteria criteria) {
-        List<Service> services = manager.getContainers(criteria);
+    public ResourceUsageInformation getContainerUsageInformation(String containerType, String containerName) {
+        List<Service> services = manager.getContainers(Service.Criteria.builder()
+                .labels(ImmutableMap.of(ContainerManager.LABEL_TYPE, containerType)).build());
+        return getServicesUsageInformation(services.stream().filter(service -> containerName.equals(service.spec().name())
+                || containerName.equals(service.spec().labels().get(ContainerManager.LABEL_PARENT)))
+                .collect(Collectors.toList()));
+    }
 
-        Map<String, Service> containerMapping = new HashMap<>();
-        for (Service c : services) {
-            containerMapping.put(c.spec().name(), c);
+    private ResourceUsageInformation getServicesUsageInformation(List<Service> services) {
+        // filter all containers that are not running
+        Set<String> runningServices = getRunningServices(services);
+        if (runningServices.isEmpty()) {
+            return null;
         }
-        ResourceUsageInformation resourceInfo = containerMapping.keySet().parallelStream()
-                // filter all containers that are not running
-                .filter(s -> countRunningTasks(s) != 0)
-                // get the stats for the single
-                .map(id -> requestCpuAndMemoryStats(id))
+        // get the stats of all containers with a single query per metric while the
+        // queries are executed in parallel
+        CompletableFuture<Map<String, Double>> cpuFuture = requestServiceValues(PROMETHEUS_METRIC_CPU_USAGE,
+                runningServices, true);
+        CompletableFuture<Map<String, Double>> memoryFuture = requestServiceValues(PROMETHEUS_METRIC_MEMORY_USAGE,
+                runningServices, false);
+        CompletableFuture<Map<String, Double>> fsFuture = requestServiceValues(PROMETHEUS_METRIC_FS_USAGE,
+                runningServices, false);
+        Map<String, Double> cpuUsage = cpuFuture.join();
+        Map<String, Double> memoryUsage = memoryFuture.join();
+        Map<String, Double> fsUsage = fsFuture.join();
+        return runningServices.stream()
+                .map(name -> createUsageInformation(cpuUsage.get(name), memoryUsage.get(name), fsUsage.get(name)))
                 // sum up the stats
                 .collect(Collectors.reducing(ResourceUsageInformation::staticMerge)).orElse(null);
-        return resourceInfo;
     }
 
-    protected ResourceUsageInformation requestCpuAndMemoryStats(String serviceName) {
-        ResourceUsageInformation resourceInfo = new ResourceUsageInformation();
-        try {
-            Double value = requestAveragePrometheusValue(PROMETHEUS_METRIC_CPU_USAGE, serviceName);
-            if (value != null) {
-                resourceInfo.setCpuStats(new CpuStats(Math.round(value * 1000)));
-            }
-        } catch (Exception e) {
-            LOGGER.error("Could not get cpu usage stats for container {}", serviceName, e);
+    /**
+     * Determines the names of the given services that have a running task
+     * using a single task listing.
+     *
+     * @param services the services that should be checked
+     * @return the names of the services that have a running task
+     */
+    private Set<String> getRunningServices(List<Service> services) {
+        Set<String> runningServices = new HashSet<>();
+        if (services.isEmpty()) {
+            return runningServices;
         }
-        try {
-            String value = requestSamplePrometheusValue(PROMETHEUS_METRIC_MEMORY_USAGE, serviceName);
-            if (value != null) {
-                resourceInfo.setMemoryStats(new MemoryStats(Long.parseLong(value)));
-            }
-        } catch (Exception e) {
-            LOGGER.error("Could not get memory usage stats for container {}", serviceName, e);
+        Map<String, String> serviceNames = new HashMap<>();
+        for (Service service : services) {
+            serviceNames.put(service.id(), service.spec().name());
         }
         try {
-            String value = requestSamplePrometheusValue(PROMETHEUS_METRIC_FS_USAGE, serviceName);
-            if (value != null) {
-                resourceInfo.setDiskStats(new DiskStats(Long.parseLong(value)));
+            for (Task task : dockerClient.listTasks(PLATFORM_TASKS)) {
+                if (TaskStatus.TASK_STATE_RUNNING.equals(task.status().state())
+                        && serviceNames.containsKey(task.serviceId())) {
+                    runningServices.add(serviceNames.get(task.serviceId()));
+                }
             }
-        } catch (Exception e) {
-            LOGGER.error("Could not get disk usage stats for container {}", serviceName, e);
+        } catch (DockerException | InterruptedException e) {
+            LOGGER.error("Could not get the tasks of the services. Assuming that no service is running.", e);
+        }
+        return runningServices;
+    }
+
+    /**
+     * Creates the usage information of a single container based on the given
+     * values. Missing values are ignored.
+     */
+    private ResourceUsageInformation createUsageInformation(Double cpuUsage, Double memoryUsage, Double fsUsage) {
+        ResourceUsageInformation resourceInfo = new ResourceUsageInformation();
+        if (cpuUsage != null) {
+            resourceInfo.setCpuStats(new CpuStats(Math.round(cpuUsage * 1000)));
+        }
+        if (memoryUsage != null) {
+            resourceInfo.setMemoryStats(new MemoryStats(Math.round(memoryUsage)));
+        }
+        if (fsUsage != null) {
+            resourceInfo.setDiskStats(new DiskStats(Math.round(fsUsage)));
         }
         return resourceInfo;
     }
 
-    private JsonArray queryPrometheus(String query) {
-        LOGGER.debug("Prometheus query: {}", query);
-        UriBuilder uri = UriBuilder.fromPath("/api/v1/query");
-        uri.host(prometheusHost);
-        uri.port(Integer.parseInt(prometheusPort));
-        uri.queryParam("query", "{query}");
-        URL url;
-        try {
-            url = new URI("http:///").resolve(uri.build(query)).toURL();
-        } catch (MalformedURLException | URISyntaxException e) {
-            LOGGER.error("Error while building Prometheus URL", e);
-            return null;
+    /**
+     * Requests the value of the given metric for each of the given services with
+     * a single query.
+     *
+     * @param metric           the metric that should be requested (should not
+     *                         contain regular expression special characters)
+     * @param serviceNames     the names of the services (swarm service names do
+     *                         not contain regular expression special characters)
+     * @param averageInstances see
+     *                         {@link #parseServiceValues(String, JsonArray, boolean)}
+     * @return a future that is completed with the values of the metric mapped to
+     *         the names of the services. Services without values are not
+     *         contained.
+     */
+    CompletableFuture<Map<String, Double>> requestServiceValues(String metric, Set<String> serviceNames,
+            boolean averageInstances) {
+        StringBuilder query = new StringBuilder();
+        query.append('{');
+        query.append("__name__=").append('"').append(metric).append('"');
+        query.append(", ");
+        query.append(PROMETHEUS_LABEL_SERVICE_NAME).append("=~").append('"')
+                .append(String.join("|", serviceNames))
+                .append('"');
+        query.append('}');
+        return prometheus.queryAsync(query.toString()).handle((result, error) -> {
+            if (error != null) {
+                LOGGER.error("Could not get " + metric + " for the containers " + serviceNames, error);
+                return new HashMap<>();
+            }
+            return parseServiceValues(metric, result, averageInstances);
+        });
+    }
+
+    /**
+     * Determines the value of the given metric for each service in the given
+     * result. Like a separate request per service, only the first value of every
+     * instance (i.e., node) is taken into account.
+     *
+     * @param metric           the requested metric
+     * @param result           the result of the request
+     * @param averageInstances if <code>true</code>, the value of a service is the
+     *                         average of its instances' values. Otherwise, the
+     *                         value of its first instance is used.
+     * @return the values of the metric mapped to the names of the services
+     */
+    static Map<String, Double> parseServiceValues(String metric, JsonArray result, boolean averageInstances) {
+        Map<String, Map<String, Double>> instanceValues = new HashMap<>();
+        for (JsonElement element : result) {
+            try {
+                JsonObject obj = element.getAsJsonObject();
+                JsonObject metricObj = obj.getAsJsonObject("metric");
+                String instance = metricObj.has(PROMETHEUS_LABEL_INSTANCE)
+                        ? metricObj.get(PROMETHEUS_LABEL_INSTANCE).getAsString()
+                        : "";
+                double value = Double.parseDouble(obj.get("value").getAsJsonArray().get(1).getAsString());
+                instanceValues.computeIfAbsent(metricObj.get(PROMETHEUS_LABEL_SERVICE_NAME).getAsString(),
+                        name -> new LinkedHashMap<>()).putIfAbsent(instance, value);
+            } catch (Exception e) {
+                LOGGER.error("Could not parse the Prometheus result " + element + " for " + metric, e);
+            }
         }
-        LOGGER.debug("Prometheus URL: {}", url);
-        String content = null;
-        try {
-            content = IOUtils.toString(url.openConnection().getInputStream());
-        } catch (IOException e) {
-            LOGGER.error("Error while requesting Prometheus", e);
-            return null;
+        Map<String, Double> values = new HashMap<>();
+        for (Entry<String, Map<String, Double>> entry : instanceValues.entrySet()) {
+            Collection<Double> instances = entry.getValue().values();
+            values.put(entry.getKey(), averageInstances
+                    ? instances.stream().collect(Collectors.averagingDouble(Double::doubleValue))
+                    : instances.iterator().next());
         }
-        LOGGER.debug("Prometheus response: {}", content);
-        JsonObject root = new JsonParser().parse(content).getAsJsonObject();
-        return root.getAsJsonObject("data").getAsJsonArray("result");
+        return values;
     }
 
     private String prometheusMetricValue(JsonObject obj) {
@@ -211,12 +330,17 @@ public class ResourceInformationCollectorImpl implements ResourceInformationColl
                 .append('"');
         if (serviceName != null) {
             query.append(", ");
-            query.append("container_label_com_docker_swarm_service_name=").append('"')
+            query.append(PROMETHEUS_LABEL_SERVICE_NAME).append('=').append('"')
                     .append(serviceName)
                     .append('"');
         }
         query.append('}');
-        JsonArray result = queryPrometheus(query.toString());
+        JsonArray result;
+        try {
+            result = prometheus.query(query.toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Error while requesting Prometheus", e);
+        }
         // result is an array of data from all metrics from all instances
         return Streams.stream(result).map(JsonElement::getAsJsonObject).collect(
             // group by "instance" in the outer map
@@ -236,27 +360,22 @@ public class ResourceInformationCollectorImpl implements ResourceInformationColl
         );
     }
 
-    private String requestSamplePrometheusValue(String metric, String serviceName) {
-        Map<String, Map<String, List<String>>> instances = requestPrometheusMetrics(new String[] {metric}, serviceName);
-        if (instances.size() == 0) {
-            return null;
-        }
-        return instances.values().iterator().next().get(metric).get(0);
-    }
-
-    private Double requestAveragePrometheusValue(String metric, String serviceName) {
-        Map<String, Map<String, List<String>>> instances = requestPrometheusMetrics(new String[] {metric}, serviceName);
-        if (instances.size() == 0) {
-            return null;
+    /**
+     * Returns the hardware information of the cluster. Since the hardware of
+     * the nodes rarely changes, the information is reused for the time defined
+     * by {@link #HARDWARE_INFORMATION_CACHE_TTL_KEY}.
+     */
+    @Override
+    public synchronized SetupHardwareInformation getHardwareInformation() {
+        long now = System.currentTimeMillis();
+        if ((cachedHardwareInformation == null) || (now - hardwareInformationTimestamp >= hardwareInformationCacheTtl)) {
+            cachedHardwareInformation = requestHardwareInformation();
+            hardwareInformationTimestamp = now;
         }
-        return instances.values().stream().map(item -> item.get(metric).get(0))
-                .collect(
-                        Collectors.averagingDouble(Double::parseDouble)
-                );
+        return cachedHardwareInformation;
     }
 
-    @Override
-    public SetupHardwareInformation getHardwareInformation() {
+    private SetupHardwareInformation requestHardwareInformation() {
         SetupHardwareInformation setupInfo = new SetupHardwareInformation();
 
         Map<String, Map<String, List<String>>> instances = requestPrometheusMetrics(new String[] {
@@ -0,0 +1,265 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hobbit.controller.utils.OperationMetrics;
+import org.hobbit.core.Commands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class dispatches the commands received from the command queue to a
+ * bounded pool of threads. Commands are grouped into lanes by their session
+ * and their command class (see {@link #getCommandClass(byte)}). The commands
+ * of a single lane are executed one after the other in the order in which
+ * they have been received while different lanes are executed in parallel.
+ * Hence, a slow container start of one experiment does neither delay the
+ * commands of other experiments nor, e.g., the error reports of the same
+ * experiment.
+ *
+ * <p>
+ * The dispatcher records the number of commands that are waiting or running
+ * and the latency of every command type, i.e., the time between the dispatch
+ * of a command and the end of its handling.
+ * </p>
+ */
+public class CommandDispatcher implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandDispatcher.class);
+
+    public static final int DEFAULT_THREADS = 8;
+    /**
+     * Command class of commands that start or stop containers.
+     */
+    public static final String COMMAND_CLASS_CONTAINER = "container";
+    /**
+     * Command class of requests for resource usage statistics.
+     */
+    public static final String COMMAND_CLASS_RESOURCES = "resources";
+    /**
+     * Command class of all other commands, e.g., signals and error reports.
+     */
+    public static final String COMMAND_CLASS_CONTROL = "control";
+    /**
+     * Maximum time (in ms) {@link #close()} waits for running commands.
+     */
+    private static final long CLOSE_TIMEOUT = 10000;
+
+    private final ExecutorService executor;
+    /**
+     * The lanes that have waiting or running commands mapped to their keys.
+     * Guarded by this map.
+     */
+    private final Map<String, Lane> lanes = new HashMap<>();
+    /**
+     * Number of commands that have been dispatched but not finished, yet.
+     */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    /**
+     * Handling latencies mapped to the names of the commands.
+     */
+    private final Map<String, OperationMetrics> latencies = new ConcurrentHashMap<>();
+
+    public CommandDispatcher(int threads) {
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "command-handler-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Determines the class of the given command. Commands of the same class and
+     * session are executed in the order in which they have been received.
+     *
+     * @param command the command
+     * @return the class of the command
+     */
+    public static String getCommandClass(byte command) {
+        switch (command) {
+        case Commands.DOCKER_CONTAINER_START: // falls through
+        case Commands.DOCKER_CONTAINER_STOP:
+            return COMMAND_CLASS_CONTAINER;
+        case Commands.REQUEST_SYSTEM_RESOURCES_USAGE:
+            return COMMAND_CLASS_RESOURCES;
+        default:
+            return COMMAND_CLASS_CONTROL;
+        }
+    }
+
+    /**
+     * Dispatches the given handler of the given command. The handler is
+     * executed after all previously dispatched handlers of the same session
+     * and command class have finished. If the dispatcher has been closed, the
+     * handler is executed directly by the calling thread.
+     *
+     * @param sessionId the session the command belongs to
+     * @param command   the command
+     * @param handler   the handler that executes the command
+     */
+    public void dispatch(String sessionId, byte command, Runnable handler) {
+        String commandName = Commands.toString(command);
+        Task task = new Task(commandName, handler);
+        int depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+        String key = sessionId + '/' + getCommandClass(command);
+        Lane lane;
+        synchronized (lanes) {
+            lane = lanes.get(key);
+            if (lane != null) {
+                // the lane is busy, the task will be executed after the current task
+                lane.tasks.add(task);
+                return;
+            }
+            lane = new Lane(key);
+            lanes.put(key, lane);
+        }
+        submit(lane, task);
+    }
+
+    /**
+     * Submits the given task of the given lane to the executor.
+     */
+    private void submit(Lane lane, Task task) {
+        try {
+            executor.execute(() -> runLane(lane, task));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("The command dispatcher has been closed. Executing {} directly.", task.commandName);
+            runLane(lane, task);
+        }
+    }
+
+    /**
+     * Executes the given task and the tasks that have been added to its lane
+     * in the meantime.
+     */
+    private void runLane(Lane lane, Task task) {
+        while (task != null) {
+            task.run();
+            synchronized (lanes) {
+                task = lane.tasks.poll();
+                if (task == null) {
+                    lanes.remove(lane.key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of commands that have been dispatched but have not
+     *         been finished, yet
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return the largest number of commands that have been dispatched but not
+     *         finished at the same time
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the handling latencies mapped to the names of the commands
+     */
+    public Map<String, OperationMetrics> getLatencies() {
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Closing the command dispatcher while {} command(s) are still waiting.", queueDepth.get());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A command that has been dispatched together with its handler.
+     */
+    private class Task {
+        private final String commandName;
+        private final Runnable handler;
+        private final long dispatchTime = System.currentTimeMillis();
+
+        public Task(String commandName, Runnable handler) {
+            this.commandName = commandName;
+            this.handler = handler;
+        }
+
+        public void run() {
+            boolean success = false;
+            try {
+                handler.run();
+                success = true;
+            } catch (Throwable e) {
+                LOGGER.error("Exception while handling command " + commandName + ".", e);
+            } finally {
+                long latency = System.currentTimeMillis() - dispatchTime;
+                OperationMetrics metrics = latencies.computeIfAbsent(commandName, n -> new OperationMetrics());
+                if (success) {
+                    metrics.recordSuccess(latency);
+                } else {
+                    metrics.recordFailure(latency);
+                }
+                int depth = queueDepth.decrementAndGet();
+                LOGGER.debug("Handled {} after {}ms. {} command(s) are waiting.", commandName, latency, depth);
+            }
+        }
+    }
+
+    /**
+     * The commands of a single session and command class that are waiting for
+     * their execution.
+     */
+    private static class Lane {
+        private final String key;
+        private final Queue<Task> tasks = new ArrayDeque<>();
+
+        public Lane(String key) {
+            this.key = key;
+        }
+    }
+}
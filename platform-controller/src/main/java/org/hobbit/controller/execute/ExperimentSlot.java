@@ -0,0 +1,151 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import org.hobbit.controller.ExperimentManager;
+import org.hobbit.controller.data.ExperimentStatus;
+import org.hobbit.controller.data.HardwareResources;
+import org.hobbit.controller.utils.RabbitMQConnector;
+
+/**
+ * A slot of the {@link ExperimentManager} in which a single experiment can be
+ * executed. A slot holds the status of its experiment (including the abortion
+ * timer of the experiment) and the connector to the RabbitMQ broker that is
+ * used by the experiment's command queue.
+ *
+ * <p>
+ * The slot object itself is used as mutex for all operations that are applied
+ * on the experiment it contains.
+ * </p>
+ *
+ */
+public class ExperimentSlot {
+
+    /**
+     * The index of this slot.
+     */
+    private final int index;
+    /**
+     * Status of the experiment running in this slot. <code>null</code> if the
+     * slot is free.
+     */
+    private volatile ExperimentStatus status = null;
+    /**
+     * Connector for the RabbitMQ broker of the experiment.
+     */
+    private volatile RabbitMQConnector rabbitMQConnector = null;
+    /**
+     * Flag indicating whether the connector is shared with other slots and must
+     * not be closed when the experiment of this slot terminates.
+     */
+    private boolean sharedConnector = false;
+    /**
+     * The resources reserved for the experiment of this slot.
+     * <code>null</code> if the experiment is executed exclusively.
+     */
+    private volatile HardwareResources reservedResources = null;
+
+    public ExperimentSlot(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public ExperimentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ExperimentStatus status) {
+        this.status = status;
+    }
+
+    public RabbitMQConnector getRabbitMQConnector() {
+        return rabbitMQConnector;
+    }
+
+    public void setRabbitMQConnector(RabbitMQConnector rabbitMQConnector) {
+        setRabbitMQConnector(rabbitMQConnector, false);
+    }
+
+    public void setRabbitMQConnector(RabbitMQConnector rabbitMQConnector, boolean sharedConnector) {
+        this.rabbitMQConnector = rabbitMQConnector;
+        this.sharedConnector = sharedConnector;
+    }
+
+    public boolean isSharedConnector() {
+        return sharedConnector;
+    }
+
+    public HardwareResources getReservedResources() {
+        return reservedResources;
+    }
+
+    public void setReservedResources(HardwareResources reservedResources) {
+        this.reservedResources = reservedResources;
+    }
+
+    /**
+     * @return <code>true</code> if there is no experiment in this slot
+     */
+    public boolean isFree() {
+        return status == null;
+    }
+
+    /**
+     * Returns the ID of the experiment that is running in this slot or
+     * <code>null</code> if the slot is free.
+     *
+     * @return the ID of the experiment running in this slot
+     */
+    public String getSessionId() {
+        ExperimentStatus currentStatus = status;
+        if ((currentStatus != null) && (currentStatus.config != null)) {
+            return currentStatus.config.id;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the experiment with the given session ID is running in this
+     * slot.
+     *
+     * @param sessionId the ID of the experiment
+     * @return <code>true</code> if this slot contains the experiment with the
+     *         given ID
+     */
+    public boolean hasSession(String sessionId) {
+        return (sessionId != null) && sessionId.equals(getSessionId());
+    }
+
+    /**
+     * Frees the slot. Note that the RabbitMQ connector is not closed by this
+     * method.
+     */
+    public void clear() {
+        status = null;
+        rabbitMQConnector = null;
+        sharedConnector = false;
+        reservedResources = null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExperimentSlot{index=%d, session=%s}", index, getSessionId());
+    }
+}
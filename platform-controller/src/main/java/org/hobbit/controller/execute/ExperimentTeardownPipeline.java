@@ -0,0 +1,268 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hobbit.controller.utils.OperationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class executes the steps of an experiment's teardown that do not have
+ * to be finished before the slot of the experiment can be used by the next
+ * experiment, e.g., the removal of its containers. The stages of a single
+ * teardown are executed one after the other while the teardowns of different
+ * experiments are executed in parallel. A failing stage is retried with an
+ * exponentially growing delay. If it fails {@link #maxAttempts} times, the
+ * failure is logged and the next stage is executed, since, e.g., the
+ * containers of an experiment should be removed even if its results couldn't
+ * be completed.
+ */
+public class ExperimentTeardownPipeline implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExperimentTeardownPipeline.class);
+
+    public static final int DEFAULT_THREADS = 2;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_RETRY_DELAY = 1000;
+    /**
+     * Maximum time (in ms) {@link #close()} waits for pending teardowns.
+     */
+    private static final long CLOSE_TIMEOUT = 60000;
+
+    /**
+     * A step of a teardown.
+     */
+    @FunctionalInterface
+    public static interface StageAction {
+        public void execute() throws Exception;
+    }
+
+    /**
+     * A named step of a teardown. The name is used for logging and for the
+     * metrics of the stage.
+     */
+    public static class Stage {
+        private final String name;
+        private final StageAction action;
+
+        public Stage(String name, StageAction action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final ScheduledExecutorService executor;
+    private final int maxAttempts;
+    /**
+     * Delay (in ms) before the first retry of a failed stage. It is doubled
+     * with every further retry.
+     */
+    private final long retryDelay;
+    /**
+     * The IDs of the experiments whose teardown has not been finished, yet.
+     * Guarded by this pipeline.
+     */
+    private final Set<String> pendingExperiments = new HashSet<>();
+    private final Map<String, OperationMetrics> stageMetrics = new ConcurrentHashMap<>();
+    private final OperationMetrics teardownMetrics = new OperationMetrics();
+
+    public ExperimentTeardownPipeline() {
+        this(DEFAULT_THREADS, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY);
+    }
+
+    public ExperimentTeardownPipeline(int threads, int maxAttempts, long retryDelay) {
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "experiment-teardown-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the teardown of the given experiment comprising the given stages.
+     *
+     * @param experimentId the ID of the experiment
+     * @param stages       the stages that should be executed in the given order
+     */
+    public void submit(String experimentId, List<Stage> stages) {
+        synchronized (this) {
+            pendingExperiments.add(experimentId);
+        }
+        TeardownJob job = new TeardownJob(experimentId, stages);
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("The teardown pipeline has been closed. Executing the teardown of {} directly.",
+                    experimentId);
+            job.run();
+        }
+    }
+
+    /**
+     * @return the IDs of the experiments whose teardown has not been finished,
+     *         yet
+     */
+    public synchronized Set<String> getPendingExperimentIds() {
+        return new HashSet<>(pendingExperiments);
+    }
+
+    /**
+     * Waits until all submitted teardowns have been finished.
+     *
+     * @param timeout the maximum time (in ms) to wait
+     * @return {@code true} if all teardowns have been finished or
+     *         {@code false} if the timeout has been reached
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public synchronized boolean awaitCompletion(long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        while (!pendingExperiments.isEmpty()) {
+            long remaining = end - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    private synchronized void finished(String experimentId) {
+        pendingExperiments.remove(experimentId);
+        notifyAll();
+    }
+
+    /**
+     * @return the metrics of the single stages mapped to the names of the
+     *         stages
+     */
+    public Map<String, OperationMetrics> getStageMetrics() {
+        return Collections.unmodifiableMap(stageMetrics);
+    }
+
+    /**
+     * @return the metrics of the complete teardowns
+     */
+    public OperationMetrics getTeardownMetrics() {
+        return teardownMetrics;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!awaitCompletion(CLOSE_TIMEOUT)) {
+                LOGGER.warn("Closing the teardown pipeline while the teardowns of {} are still pending.",
+                        getPendingExperimentIds());
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for pending teardowns.");
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * The teardown of a single experiment. The job is executed by one of the
+     * threads of the executor until a stage has to be retried. In that case, it
+     * is rescheduled and continues with the failed stage.
+     */
+    private class TeardownJob implements Runnable {
+        private final String experimentId;
+        private final List<Stage> stages;
+        private final long startTime = System.currentTimeMillis();
+        /**
+         * The time (in ms) spent in the single stages of this teardown
+         * including failed attempts.
+         */
+        private final Map<String, Long> stageDurations = new LinkedHashMap<>();
+        private int stageIndex = 0;
+        private int attempt = 1;
+
+        public TeardownJob(String experimentId, List<Stage> stages) {
+            this.experimentId = experimentId;
+            this.stages = new ArrayList<>(stages);
+        }
+
+        @Override
+        public void run() {
+            while (stageIndex < stages.size()) {
+                Stage stage = stages.get(stageIndex);
+                OperationMetrics metrics = stageMetrics.computeIfAbsent(stage.name, n -> new OperationMetrics());
+                long stageStart = System.currentTimeMillis();
+                try {
+                    stage.action.execute();
+                    long duration = System.currentTimeMillis() - stageStart;
+                    stageDurations.merge(stage.name, duration, Long::sum);
+                    metrics.recordSuccess(duration);
+                } catch (Exception e) {
+                    long duration = System.currentTimeMillis() - stageStart;
+                    stageDurations.merge(stage.name, duration, Long::sum);
+                    if ((attempt < maxAttempts) && retry(stage, e)) {
+                        metrics.recordRetry(duration);
+                        return;
+                    }
+                    metrics.recordFailure(duration);
+                    LOGGER.error("Stage \"" + stage.name + "\" of the teardown of experiment " + experimentId
+                            + " failed " + attempt + " time(s). Continuing with the next stage.", e);
+                }
+                ++stageIndex;
+                attempt = 1;
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            teardownMetrics.recordSuccess(duration);
+            LOGGER.info(
+                    "Finished the teardown of experiment {} after {}ms. Stage durations (ms): {}. Metrics of all teardowns: {}",
+                    experimentId, duration, stageDurations, teardownMetrics);
+            finished(experimentId);
+        }
+
+        private boolean retry(Stage stage, Exception e) {
+            long delay = retryDelay << (attempt - 1);
+            LOGGER.warn("Stage \"{}\" of the teardown of experiment {} failed ({}). Retrying in {}ms.", stage.name,
+                    experimentId, e.toString(), delay);
+            // the attempt has to be counted before the job is handed over
+            ++attempt;
+            try {
+                executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException re) {
+                --attempt;
+                return false;
+            }
+            return true;
+        }
+    }
+}
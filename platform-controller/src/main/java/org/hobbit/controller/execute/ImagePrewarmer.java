@@ -0,0 +1,115 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.docker.ContainerManager;
+import org.hobbit.controller.docker.ImageManager;
+import org.hobbit.core.data.BenchmarkMetaData;
+import org.hobbit.core.data.SystemMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class pulls the images of experiments that are waiting in the queue
+ * before they are started. The images of an experiment are resolved only once
+ * and handed over to {@link ContainerManager#prewarmImages(java.util.Collection)}
+ * every time {@link #prewarm(List, ImageManager, ContainerManager)} is called
+ * while the experiment is still among the upcoming experiments. Pulls that
+ * have been postponed are therefore requested again while images that are
+ * already up to date are skipped by the container manager.
+ */
+public class ImagePrewarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImagePrewarmer.class);
+
+    /**
+     * The images of the upcoming experiments mapped to the experiment IDs.
+     */
+    private Map<String, Set<String>> experimentImages = new HashMap<>();
+
+    /**
+     * Pre-warms the images of the given upcoming experiments.
+     *
+     * @param upcomingExperiments the experiments that will be executed next
+     * @param imageManager        the image manager used to retrieve the meta
+     *                            data of benchmarks and systems
+     * @param containerManager    the container manager used to pull the images
+     */
+    public synchronized void prewarm(List<ExperimentConfiguration> upcomingExperiments, ImageManager imageManager,
+            ContainerManager containerManager) {
+        Map<String, Set<String>> images = new HashMap<>();
+        Set<String> prewarmedImages = new LinkedHashSet<>();
+        for (ExperimentConfiguration config : upcomingExperiments) {
+            Set<String> experimentImages = this.experimentImages.get(config.id);
+            if (experimentImages == null) {
+                experimentImages = getImages(config, imageManager);
+            }
+            // if the images couldn't be retrieved, we will try it again next time
+            if (experimentImages != null) {
+                images.put(config.id, experimentImages);
+                prewarmedImages.addAll(experimentImages);
+            }
+        }
+        // forget about experiments that are not upcoming anymore
+        experimentImages = images;
+        if (!prewarmedImages.isEmpty()) {
+            LOGGER.debug("Pre-warming images {} of upcoming experiments.", prewarmedImages);
+            containerManager.prewarmImages(prewarmedImages);
+        }
+    }
+
+    /**
+     * Retrieves the images of the benchmark and the system of the given
+     * experiment.
+     *
+     * @param config       the configuration of the experiment
+     * @param imageManager the image manager used to retrieve the meta data
+     * @return the images of the experiment or {@code null} if they couldn't be
+     *         retrieved
+     */
+    protected Set<String> getImages(ExperimentConfiguration config, ImageManager imageManager) {
+        try {
+            Set<String> images = new LinkedHashSet<>();
+            BenchmarkMetaData benchmark = imageManager.getBenchmark(config.benchmarkUri);
+            if (benchmark != null) {
+                images.add(benchmark.mainImage);
+                if (benchmark.usedImages != null) {
+                    images.addAll(benchmark.usedImages);
+                }
+            }
+            SystemMetaData system = imageManager.getSystem(config.systemUri);
+            if (system != null) {
+                images.add(system.mainImage);
+                if (system.usedImages != null) {
+                    images.addAll(system.usedImages);
+                }
+            }
+            images.remove(null);
+            return images;
+        } catch (Exception e) {
+            LOGGER.warn("Couldn't retrieve the images of the upcoming experiment " + config.id + ".", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.hobbit.controller.PlatformController;
+import org.hobbit.controller.docker.ContainerManager;
+import org.hobbit.controller.utils.RabbitMQConnector;
+import org.hobbit.core.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of RabbitMQ brokers that are started ahead of time for the next
+ * experiments waiting in the queue. A broker is started for a single
+ * experiment, i.e., it carries the experiment's ID like a broker that is
+ * started together with the experiment (e.g., in the tag of its GELF logs),
+ * and is removed together with the other containers of the experiment. Every
+ * lease triggers the start of a replacement for the next upcoming experiment
+ * in the background, so the start of an experiment does not have to wait for
+ * the broker to boot. Idle brokers are checked regularly and replaced if their
+ * connection has been lost or removed if their experiment is not upcoming
+ * anymore.
+ */
+public class RabbitMQBrokerPool implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RabbitMQBrokerPool.class);
+
+    /**
+     * Time interval with which the idle brokers are checked.
+     */
+    public static final long HEALTH_CHECK_INTERVAL = 30000;
+
+    /**
+     * A started broker together with an initialized connector to it.
+     */
+    public static class PooledBroker {
+        private final String containerName;
+        private final RabbitMQConnector connector;
+
+        public PooledBroker(String containerName, RabbitMQConnector connector) {
+            this.containerName = containerName;
+            this.connector = connector;
+        }
+
+        public String getContainerName() {
+            return containerName;
+        }
+
+        public RabbitMQConnector getConnector() {
+            return connector;
+        }
+    }
+
+    private PlatformController controller;
+    private ContainerManager containerManager;
+    private String rabbitMQImage;
+    /**
+     * The number of idle brokers this pool tries to keep.
+     */
+    private int size;
+    /**
+     * Supplies the IDs of the experiments that will be started next, ordered by
+     * their position in the queue.
+     */
+    private Supplier<List<String>> upcomingExperiments;
+    /**
+     * Brokers that are ready to be leased mapped to the IDs of their
+     * experiments.
+     */
+    private Map<String, PooledBroker> idleBrokers = new LinkedHashMap<>();
+    /**
+     * IDs of the experiments for which a broker is currently started.
+     */
+    private Set<String> startingBrokers = new HashSet<>();
+    private boolean closed = false;
+    private ExecutorService brokerStarter;
+    private Timer healthCheckTimer;
+
+    public RabbitMQBrokerPool(PlatformController controller, ContainerManager containerManager, String rabbitMQImage,
+            int size, Supplier<List<String>> upcomingExperiments) {
+        this.controller = controller;
+        this.containerManager = containerManager;
+        this.rabbitMQImage = rabbitMQImage;
+        this.size = size;
+        this.upcomingExperiments = upcomingExperiments;
+        brokerStarter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rabbitmq-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheckTimer = new Timer(true);
+        healthCheckTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                checkIdleBrokers();
+            }
+        }, HEALTH_CHECK_INTERVAL, HEALTH_CHECK_INTERVAL);
+        refill();
+    }
+
+    /**
+     * Leases the idle broker that has been started for the given experiment.
+     * The broker and its connector belong to the caller afterwards, i.e., the
+     * caller has to remove the broker and close the connector when they are not
+     * needed anymore.
+     *
+     * @param experimentId the ID of the experiment that should use the broker
+     * @return the broker of the experiment or {@code null} if no healthy broker
+     *         has been started for the experiment
+     */
+    public PooledBroker lease(String experimentId) {
+        PooledBroker broker;
+        synchronized (this) {
+            broker = idleBrokers.remove(experimentId);
+        }
+        if ((broker != null) && !broker.connector.isOpen()) {
+            discard(Collections.singletonList(broker));
+            broker = null;
+        }
+        refill();
+        if (broker != null) {
+            LOGGER.info("Leased the pre-started RabbitMQ broker {} for experiment {}.", broker.containerName,
+                    experimentId);
+        }
+        return broker;
+    }
+
+    /**
+     * @return the number of brokers that are ready to be leased
+     */
+    public synchronized int getNumberOfIdleBrokers() {
+        return idleBrokers.size();
+    }
+
+    /**
+     * Removes idle brokers whose connection has been lost and starts new
+     * brokers if the pool is not full.
+     */
+    protected void checkIdleBrokers() {
+        List<PooledBroker> brokenBrokers = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PooledBroker> iterator = idleBrokers.values().iterator();
+            while (iterator.hasNext()) {
+                PooledBroker broker = iterator.next();
+                if (!broker.connector.isOpen()) {
+                    iterator.remove();
+                    brokenBrokers.add(broker);
+                }
+            }
+        }
+        if (!brokenBrokers.isEmpty()) {
+            LOGGER.warn("Replacing {} idle RabbitMQ broker(s) that lost their connection.", brokenBrokers.size());
+        }
+        discard(brokenBrokers);
+        refill();
+    }
+
+    /**
+     * Removes the idle brokers of experiments that are not upcoming anymore and
+     * starts brokers in the background for the next upcoming experiments until
+     * the number of idle and starting brokers reaches the size of this pool.
+     */
+    private void refill() {
+        List<String> experimentIds;
+        try {
+            experimentIds = upcomingExperiments.get();
+        } catch (Exception e) {
+            LOGGER.warn("Couldn't retrieve the upcoming experiments. The RabbitMQ pool won't be refilled.", e);
+            return;
+        }
+        List<PooledBroker> outdatedBrokers = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            Iterator<Entry<String, PooledBroker>> iterator = idleBrokers.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<String, PooledBroker> entry = iterator.next();
+                if (!experimentIds.contains(entry.getKey())) {
+                    iterator.remove();
+                    outdatedBrokers.add(entry.getValue());
+                }
+            }
+            for (String experimentId : experimentIds) {
+                if ((idleBrokers.size() + startingBrokers.size()) >= size) {
+                    break;
+                }
+                if (!idleBrokers.containsKey(experimentId) && startingBrokers.add(experimentId)) {
+                    try {
+                        brokerStarter.execute(() -> startBroker(experimentId));
+                    } catch (RejectedExecutionException e) {
+                        startingBrokers.remove(experimentId);
+                        break;
+                    }
+                }
+            }
+        }
+        discard(outdatedBrokers);
+    }
+
+    private void startBroker(String experimentId) {
+        PooledBroker broker = null;
+        try {
+            String containerName = containerManager.startContainer(rabbitMQImage, Constants.CONTAINER_TYPE_BENCHMARK,
+                    null, new String[] {}, null, null, experimentId, Collections.emptyMap());
+            if (containerName == null) {
+                LOGGER.error("Couldn't start a RabbitMQ broker for the pool. Trying again later.");
+                return;
+            }
+            RabbitMQConnector connector = createConnector(containerName);
+            try {
+                connector.init();
+            } catch (Exception e) {
+                LOGGER.error("Couldn't connect to the pooled RabbitMQ broker " + containerName
+                        + ". Removing it and trying again later.", e);
+                discard(Collections.singletonList(new PooledBroker(containerName, connector)));
+                return;
+            }
+            broker = new PooledBroker(containerName, connector);
+            LOGGER.info("Started RabbitMQ broker {} for experiment {}.", containerName, experimentId);
+        } finally {
+            boolean discardBroker = false;
+            synchronized (this) {
+                startingBrokers.remove(experimentId);
+                if (broker != null) {
+                    if (closed) {
+                        discardBroker = true;
+                    } else {
+                        idleBrokers.put(experimentId, broker);
+                    }
+                }
+            }
+            if (discardBroker) {
+                discard(Collections.singletonList(broker));
+            }
+        }
+    }
+
+    /**
+     * Creates the (not yet initialized) connector to the given broker.
+     *
+     * @param containerName the name of the broker's container
+     * @return the connector to the broker
+     */
+    protected RabbitMQConnector createConnector(String containerName) {
+        return new RabbitMQConnector(controller, containerName);
+    }
+
+    private void discard(List<PooledBroker> brokers) {
+        for (PooledBroker broker : brokers) {
+            try {
+                broker.connector.close();
+            } catch (Exception e) {
+                LOGGER.debug("Exception while closing the connector of a pooled RabbitMQ broker.", e);
+            }
+            try {
+                containerManager.removeContainer(broker.containerName);
+            } catch (Exception e) {
+                LOGGER.error("Couldn't remove the pooled RabbitMQ broker " + broker.containerName + ".", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheckTimer.cancel();
+        brokerStarter.shutdownNow();
+        List<PooledBroker> brokers;
+        synchronized (this) {
+            closed = true;
+            brokers = new ArrayList<>(idleBrokers.values());
+            idleBrokers.clear();
+        }
+        discard(brokers);
+    }
+}
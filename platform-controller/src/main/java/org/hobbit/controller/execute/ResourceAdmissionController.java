@@ -0,0 +1,243 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hobbit.controller.ExperimentManager;
+import org.hobbit.controller.data.HardwareResources;
+import org.hobbit.controller.docker.ClusterManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides whether an experiment can be started next to the experiments that
+ * are already running. The decision is based on the resources the experiments
+ * declared via <code>hobbit:maxHardware</code> and the resources of the nodes
+ * of the system worker group (the group the system containers are placed on).
+ *
+ * <p>
+ * An experiment without a declared footprint (or with a footprint that does
+ * not fit on a single node) is executed exclusively, i.e., it is only admitted
+ * if no other experiment is running and no other experiment is admitted while
+ * it is running.
+ * </p>
+ *
+ * <p>
+ * The resources are tracked per node. Since the controller does not know on
+ * which nodes Docker placed the containers of the running experiments, their
+ * footprints are assigned to the node with the most free memory (similar to
+ * the spread strategy of Docker Swarm). An experiment is admitted if its
+ * footprint fits into the remaining resources of a single node. This is an
+ * estimation; the actual placement of Docker may differ.
+ * </p>
+ *
+ * <p>
+ * Smaller experiments may backfill the free resources if the first experiment
+ * of the queue does not fit. To avoid starving this experiment, backfilling is
+ * stopped as soon as it had to wait for longer than the configured maximum
+ * backfill delay.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe. It is only used by the scheduling thread of
+ * the {@link ExperimentManager}.
+ * </p>
+ *
+ */
+public class ResourceAdmissionController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceAdmissionController.class);
+
+    /**
+     * Label of the nodes the system containers are placed on.
+     */
+    public static final String SYSTEM_WORKER_GROUP_LABEL = "org.hobbit.workergroup=system";
+    /**
+     * Orders resources by their memory and their CPUs.
+     */
+    private static final Comparator<HardwareResources> RESOURCE_COMPARATOR = Comparator
+            .comparingLong(HardwareResources::getMemory).thenComparingLong(HardwareResources::getNanoCpus);
+
+    /**
+     * Maximum time (in ms) the first experiment of the queue can be overtaken by
+     * smaller experiments.
+     */
+    private final long maxBackfillDelay;
+    /**
+     * Resources of the single nodes of the system worker group or
+     * <code>null</code> if they are not known.
+     */
+    private List<HardwareResources> nodes = null;
+    /**
+     * ID of the experiment that could not be admitted and is overtaken by
+     * smaller experiments.
+     */
+    private String blockedExperimentId = null;
+    /**
+     * The time at which {@link #blockedExperimentId} has been blocked for the
+     * first time.
+     */
+    private long blockedSince = 0;
+
+    public ResourceAdmissionController(long maxBackfillDelay) {
+        this.maxBackfillDelay = maxBackfillDelay;
+    }
+
+    /**
+     * Retrieves the current resources of the system worker group. If the
+     * cluster has no nodes with the system worker group label, all nodes are
+     * taken into account (in this case the containers are placed without
+     * constraints).
+     *
+     * @param clusterManager the cluster manager used to retrieve the node
+     *                       resources
+     */
+    public void updateCapacity(ClusterManager clusterManager) {
+        try {
+            List<HardwareResources> nodes = clusterManager.getNodeResources(SYSTEM_WORKER_GROUP_LABEL);
+            if (nodes.isEmpty()) {
+                nodes = clusterManager.getNodeResources(null);
+            }
+            this.nodes = new ArrayList<>(nodes);
+        } catch (Exception e) {
+            LOGGER.error("Couldn't retrieve the resources of the cluster nodes. Experiments will be executed exclusively.",
+                    e);
+            this.nodes = null;
+        }
+    }
+
+    /**
+     * Determines the footprint an experiment with the given hardware constraints
+     * will have.
+     *
+     * @param declared the resources declared by the experiment (can be
+     *                 <code>null</code>)
+     * @return the footprint of the experiment or <code>null</code> if the
+     *         experiment has to be executed exclusively
+     */
+    public HardwareResources getFootprint(HardwareResources declared) {
+        if ((declared == null) || (nodes == null)) {
+            return null;
+        }
+        for (HardwareResources node : nodes) {
+            if (declared.fitsInto(node)) {
+                return declared;
+            }
+        }
+        LOGGER.warn("The declared hardware {} does not fit on a single node of the cluster ({}).", declared, nodes);
+        return null;
+    }
+
+    /**
+     * Checks whether an experiment with the given footprint can be started next
+     * to the running experiments.
+     *
+     * @param footprint    the footprint of the experiment (<code>null</code> if
+     *                     it has to be executed exclusively)
+     * @param reservations the footprints of the running experiments
+     *                     (<code>null</code> elements represent exclusively
+     *                     running experiments)
+     * @return <code>true</code> if the experiment can be started
+     */
+    public boolean canAdmit(HardwareResources footprint, Collection<HardwareResources> reservations) {
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        if ((footprint == null) || (nodes == null)) {
+            return false;
+        }
+        List<HardwareResources> sortedReservations = new ArrayList<>(reservations.size());
+        for (HardwareResources reservation : reservations) {
+            if (reservation == null) {
+                return false;
+            }
+            sortedReservations.add(reservation);
+        }
+        // place the largest reservations first
+        Collections.sort(sortedReservations, RESOURCE_COMPARATOR.reversed());
+        HardwareResources[] free = nodes.toArray(new HardwareResources[nodes.size()]);
+        for (HardwareResources reservation : sortedReservations) {
+            int node = getNodeWithMostFreeMemory(reservation, free);
+            if (node < 0) {
+                // the running experiments already use more than we can account for
+                return false;
+            }
+            free[node] = free[node].minus(reservation);
+        }
+        return getNodeWithMostFreeMemory(footprint, free) >= 0;
+    }
+
+    /**
+     * Returns the index of the node with the most free memory that can take the
+     * given resources.
+     *
+     * @param resources the resources that should be placed
+     * @param free      the free resources of the single nodes
+     * @return the index of the node or -1 if the resources do not fit on any
+     *         node
+     */
+    private static int getNodeWithMostFreeMemory(HardwareResources resources, HardwareResources[] free) {
+        int selected = -1;
+        for (int i = 0; i < free.length; ++i) {
+            if (resources.fitsInto(free[i])
+                    && ((selected < 0) || (RESOURCE_COMPARATOR.compare(free[i], free[selected]) > 0))) {
+                selected = i;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Called if the given experiment is the first experiment in the queue that
+     * can not be admitted. Checks whether smaller experiments may still overtake
+     * it.
+     *
+     * @param experimentId the ID of the blocked experiment
+     * @return <code>true</code> if other experiments may be started instead
+     */
+    public boolean mayBackfill(String experimentId) {
+        long now = System.currentTimeMillis();
+        if (!experimentId.equals(blockedExperimentId)) {
+            blockedExperimentId = experimentId;
+            blockedSince = now;
+            return true;
+        }
+        if ((now - blockedSince) < maxBackfillDelay) {
+            return true;
+        }
+        LOGGER.info("Experiment {} has been waiting for {}ms. Smaller experiments won't be started before it.",
+                experimentId, now - blockedSince);
+        return false;
+    }
+
+    /**
+     * Informs the controller that the experiment with the given ID has been
+     * admitted.
+     *
+     * @param experimentId the ID of the admitted experiment
+     */
+    public void admitted(String experimentId) {
+        if (experimentId.equals(blockedExperimentId)) {
+            blockedExperimentId = null;
+        }
+    }
+}
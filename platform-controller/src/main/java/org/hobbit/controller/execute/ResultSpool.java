@@ -0,0 +1,479 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.hobbit.controller.utils.OperationMetrics;
+import org.hobbit.storage.client.StorageServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A durable spool for the results of experiments. Results are written to a
+ * local directory as gzipped N-Triples files before a background flusher
+ * inserts them into the storage. Hence, terminating an experiment does not
+ * depend on the latency of the storage and results are not lost if the storage
+ * is not reachable, even if the controller is restarted in the meantime.
+ *
+ * <p>
+ * The spool is append-only. Every call of
+ * {@link #spool(String, Model, String)} creates a new file which is never
+ * changed afterwards. Its first line is a comment with the target graph. The
+ * flusher merges files with the same graph into a single insert and deletes
+ * them after the insert succeeded. If the insert fails, the flusher backs off
+ * exponentially before it retries.
+ * </p>
+ */
+public class ResultSpool implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultSpool.class);
+
+    public static final String DEFAULT_DIRECTORY = "result-spool";
+    public static final long DEFAULT_MIN_BACKOFF = 1000;
+    public static final long DEFAULT_MAX_BACKOFF = 5 * 60 * 1000;
+    /**
+     * Interval (in ms) in which the spool directory is checked even if no new
+     * results have been spooled.
+     */
+    private static final long FLUSH_INTERVAL = 60000;
+    /**
+     * Maximum number of files merged into a single insert.
+     */
+    private static final int MAX_BATCH_FILES = 50;
+    /**
+     * Maximum number of triples merged into a single insert. A single file
+     * with more triples is inserted on its own.
+     */
+    private static final long MAX_BATCH_TRIPLES = 100000;
+    private static final String FILE_SUFFIX = ".nt.gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String FAILED_SUFFIX = ".failed";
+    private static final String GRAPH_HEADER = "# graph ";
+
+    private final File directory;
+    private final Supplier<StorageServiceClient> storage;
+    private final long minBackoff;
+    private final long maxBackoff;
+    private final ScheduledExecutorService flusher;
+    /**
+     * Flag indicating that a flush has been scheduled but did not start, yet.
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    /**
+     * Counter making the names of files that are created within the same
+     * millisecond unique.
+     */
+    private final AtomicLong fileCounter = new AtomicLong();
+    /**
+     * The number of spooled files of every experiment (identified by
+     * {@link #toKey(String)}). Guarded by this spool.
+     */
+    private final Map<String, Integer> pendingFiles = new HashMap<>();
+    /**
+     * Actions that are executed as soon as all results of an experiment have
+     * been inserted. Guarded by this spool.
+     */
+    private final Map<String, List<Runnable>> flushActions = new HashMap<>();
+    /**
+     * The current delay (in ms) before the next retry. Only accessed by the
+     * flusher thread.
+     */
+    private long backoff = 0;
+    /**
+     * Flag indicating that a retry has been scheduled. Only accessed by the
+     * flusher thread.
+     */
+    private boolean retryScheduled = false;
+    private final OperationMetrics flushMetrics = new OperationMetrics();
+
+    public ResultSpool(File directory, Supplier<StorageServiceClient> storage) {
+        this(directory, storage, DEFAULT_MIN_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    public ResultSpool(File directory, Supplier<StorageServiceClient> storage, long minBackoff, long maxBackoff) {
+        this.directory = directory;
+        this.storage = storage;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        if (!directory.exists() && !directory.mkdirs()) {
+            LOGGER.error("Couldn't create the result spool directory {}.", directory.getAbsolutePath());
+        }
+        // count the files that have been spooled before a restart
+        File[] files = listSpooledFiles();
+        for (File file : files) {
+            pendingFiles.merge(getExperimentId(file), 1, Integer::sum);
+        }
+        if (files.length > 0) {
+            LOGGER.info("Found {} spooled result file(s) that haven't been inserted, yet.", files.length);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "result-spool-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::requestFlush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        requestFlush();
+    }
+
+    /**
+     * Writes the given results of the given experiment to the spool and
+     * triggers their insertion into the given graph.
+     *
+     * @param experimentId the ID of the experiment
+     * @param model        the results that should be inserted
+     * @param graphUri     the graph into which the results should be inserted
+     * @throws IOException if the results couldn't be written to the spool
+     */
+    public void spool(String experimentId, Model model, String graphUri) throws IOException {
+        String key = toKey(experimentId);
+        String name = String.format("%013d-%06d-%s", System.currentTimeMillis(),
+                fileCounter.incrementAndGet() % 1000000, key);
+        File tempFile = new File(directory, name + TEMP_SUFFIX);
+        // the file has to be counted before it becomes visible since a running
+        // flush may insert it directly
+        synchronized (this) {
+            pendingFiles.merge(key, 1, Integer::sum);
+        }
+        boolean visible = false;
+        try {
+            try (FileOutputStream fout = new FileOutputStream(tempFile)) {
+                GZIPOutputStream out = new GZIPOutputStream(fout);
+                out.write((GRAPH_HEADER + graphUri + "\n").getBytes(StandardCharsets.UTF_8));
+                model.write(out, "N-TRIPLE");
+                out.flush();
+                out.finish();
+                // make sure that the data is on the disk before the file is visible
+                fout.getFD().sync();
+            }
+            // a file with the final name is always complete
+            Files.move(tempFile.toPath(), new File(directory, name + FILE_SUFFIX).toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+            visible = true;
+        } finally {
+            if (!visible) {
+                if (tempFile.exists() && !tempFile.delete()) {
+                    LOGGER.warn("Couldn't delete the incomplete spool file {}.", tempFile);
+                }
+                keyProcessed(key);
+            }
+        }
+        LOGGER.debug("Spooled {} triples of experiment {}.", model.size(), experimentId);
+        requestFlush();
+    }
+
+    /**
+     * Executes the given action as soon as all spooled results of the given
+     * experiment have been inserted into the storage. If there are no pending
+     * results, the action is executed directly by the calling thread.
+     *
+     * @param experimentId the ID of the experiment
+     * @param action       the action that should be executed
+     */
+    public void runWhenFlushed(String experimentId, Runnable action) {
+        String key = toKey(experimentId);
+        synchronized (this) {
+            if (pendingFiles.containsKey(key)) {
+                flushActions.computeIfAbsent(key, id -> new ArrayList<>()).add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * @return {@code true} if there are spooled results of the given
+     *         experiment that haven't been inserted, yet
+     */
+    public synchronized boolean hasPendingResults(String experimentId) {
+        return pendingFiles.containsKey(toKey(experimentId));
+    }
+
+    /**
+     * Waits until all spooled results have been inserted into the storage.
+     *
+     * @param timeout the maximum time (in ms) to wait
+     * @return {@code true} if there are no spooled results anymore,
+     *         {@code false} if the timeout elapsed before
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public synchronized boolean awaitFlush(long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        long remaining = timeout;
+        while (!pendingFiles.isEmpty() && (remaining > 0)) {
+            wait(remaining);
+            remaining = end - System.currentTimeMillis();
+        }
+        return pendingFiles.isEmpty();
+    }
+
+    /**
+     * @return the number of spooled files that haven't been inserted, yet
+     */
+    public synchronized int getPendingFileCount() {
+        int count = 0;
+        for (Integer files : pendingFiles.values()) {
+            count += files;
+        }
+        return count;
+    }
+
+    /**
+     * @return the metrics of the inserts of the flusher. Failed inserts are
+     *         counted as retries since they are always retried.
+     */
+    public OperationMetrics getFlushMetrics() {
+        return flushMetrics;
+    }
+
+    /**
+     * Requests an asynchronous flush. Requests that arrive while a flush is
+     * waiting for its execution are merged into this flush.
+     */
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // the spool has been closed
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Inserts all spooled files into the storage. This method is only executed
+     * by the flusher thread.
+     */
+    private void flush() {
+        flushRequested.set(false);
+        if (retryScheduled) {
+            // the storage failed recently, wait for the scheduled retry
+            return;
+        }
+        File[] files = listSpooledFiles();
+        int pos = 0;
+        while (pos < files.length) {
+            // create a batch of files with the same graph
+            List<File> batch = new ArrayList<>();
+            Model model = ModelFactory.createDefaultModel();
+            String graphUri = null;
+            while ((pos < files.length) && (batch.size() < MAX_BATCH_FILES)
+                    && ((batch.isEmpty()) || (model.size() < MAX_BATCH_TRIPLES))) {
+                try {
+                    String fileGraph = readFile(files[pos], null);
+                    if ((graphUri != null) && !graphUri.equals(fileGraph)) {
+                        break;
+                    }
+                    Model fileModel = ModelFactory.createDefaultModel();
+                    readFile(files[pos], fileModel);
+                    model.add(fileModel);
+                    graphUri = fileGraph;
+                    batch.add(files[pos]);
+                } catch (Exception e) {
+                    LOGGER.error("Couldn't read spooled file " + files[pos] + ". Moving it aside.", e);
+                    moveAside(files[pos]);
+                    fileProcessed(files[pos]);
+                }
+                ++pos;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            long start = System.currentTimeMillis();
+            boolean success = false;
+            try {
+                success = storage.get().sendInsertQuery(model, graphUri);
+            } catch (Exception e) {
+                LOGGER.warn("Exception while inserting spooled results.", e);
+            }
+            if (!success) {
+                flushMetrics.recordRetry(System.currentTimeMillis() - start);
+                backoff = (backoff == 0) ? minBackoff : Math.min(2 * backoff, maxBackoff);
+                LOGGER.warn(
+                        "Couldn't insert {} spooled result file(s) into {}. Retrying in {}ms. Pending files: {}, flush metrics: {}",
+                        batch.size(), graphUri, backoff, getPendingFileCount(), flushMetrics);
+                retryScheduled = true;
+                try {
+                    flusher.schedule(() -> {
+                        retryScheduled = false;
+                        flush();
+                    }, backoff, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // the spool has been closed
+                }
+                return;
+            }
+            flushMetrics.recordSuccess(System.currentTimeMillis() - start);
+            for (File file : batch) {
+                if (!file.delete()) {
+                    LOGGER.error("Couldn't delete the inserted spool file {}. Moving it aside.", file);
+                    moveAside(file);
+                }
+                fileProcessed(file);
+            }
+            LOGGER.debug("Inserted {} spooled result file(s) into {}. Flush metrics: {}", batch.size(), graphUri,
+                    flushMetrics);
+        }
+        if (backoff > 0) {
+            LOGGER.info("Inserted the spooled results after failed inserts. Flush metrics: {}", flushMetrics);
+        }
+        backoff = 0;
+    }
+
+    /**
+     * Reads the given spool file.
+     *
+     * @param file  the file that should be read
+     * @param model the model to which the triples should be added or
+     *              {@code null} if only the graph should be read
+     * @return the graph of the results in the file
+     * @throws IOException if the file couldn't be read
+     */
+    private String readFile(File file, Model model) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            int b;
+            while (((b = in.read()) >= 0) && (b != '\n')) {
+                header.write(b);
+            }
+            String headerLine = new String(header.toByteArray(), StandardCharsets.UTF_8);
+            if (!headerLine.startsWith(GRAPH_HEADER)) {
+                throw new IOException("The spool file " + file + " has no graph header.");
+            }
+            if (model != null) {
+                model.read(in, null, "N-TRIPLE");
+            }
+            return headerLine.substring(GRAPH_HEADER.length());
+        }
+    }
+
+    private void moveAside(File file) {
+        if (!file.renameTo(new File(file.getPath() + FAILED_SUFFIX))) {
+            LOGGER.error("Couldn't move spool file {} aside.", file);
+        }
+    }
+
+    /**
+     * Updates the pending files of the file's experiment after the file has
+     * been removed from the spool.
+     */
+    private void fileProcessed(File file) {
+        keyProcessed(getExperimentId(file));
+    }
+
+    /**
+     * Decrements the number of pending files of the given experiment (see
+     * {@link #toKey(String)}) and executes the actions waiting for the
+     * experiment's results if there are no further files.
+     */
+    private void keyProcessed(String experimentId) {
+        while (true) {
+            List<Runnable> actions;
+            synchronized (this) {
+                Integer count = pendingFiles.get(experimentId);
+                if ((count != null) && (count > 1)) {
+                    pendingFiles.put(experimentId, count - 1);
+                    return;
+                }
+                // the file is still counted while the actions are executed
+                actions = flushActions.remove(experimentId);
+                if (actions == null) {
+                    pendingFiles.remove(experimentId);
+                    notifyAll();
+                    return;
+                }
+            }
+            for (Runnable action : actions) {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    LOGGER.error("Exception while executing an action after the results of " + experimentId
+                            + " have been inserted.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the spooled files in the order in which they have been created
+     */
+    private File[] listSpooledFiles() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    /**
+     * @return the given experiment ID in the form in which it is used in the
+     *         names of the spooled files
+     */
+    private static String toKey(String experimentId) {
+        return experimentId.replaceAll("[^A-Za-z0-9_.]", "_");
+    }
+
+    /**
+     * @return the key of the experiment of the given spooled file, see
+     *         {@link #toKey(String)}
+     */
+    private static String getExperimentId(File file) {
+        String name = file.getName();
+        // skip time stamp and counter
+        int start = name.indexOf('-', name.indexOf('-') + 1) + 1;
+        int end = name.indexOf(FILE_SUFFIX, start);
+        return name.substring(start, end < 0 ? name.length() : end);
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        synchronized (this) {
+            if (!pendingFiles.isEmpty()) {
+                LOGGER.warn("Closing the result spool while results of {} experiment(s) are still spooled in {}.",
+                        pendingFiles.size(), directory.getAbsolutePath());
+            }
+        }
+    }
+}
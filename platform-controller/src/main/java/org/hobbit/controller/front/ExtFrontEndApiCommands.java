@@ -0,0 +1,42 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.front;
+
+import org.hobbit.core.FrontEndApiCommands;
+
+/**
+ * Front end commands that are offered by the platform controller in addition
+ * to the commands defined in {@link FrontEndApiCommands} of the core library.
+ * The values are chosen to not collide with the commands of the core library
+ * (which is checked by a unit test). The commands should be moved to
+ * {@link FrontEndApiCommands} with the next release of the core library.
+ */
+public final class ExtFrontEndApiCommands {
+
+    private ExtFrontEndApiCommands() {
+    }
+
+    /**
+     * Front end command for adding several experiment configurations to the
+     * queue at once, e.g., a parameter sweep. The data comprises the user name
+     * followed by triples of benchmark URI, system URI and serialized benchmark
+     * parameters. The response is a JSON array with the IDs of the created
+     * experiments.
+     */
+    public static final byte ADD_EXPERIMENT_CONFIGURATIONS = 64;
+
+}
@@ -0,0 +1,148 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.hobbit.controller.data.ExperimentConfiguration;
+
+/**
+ * Codec storing experiments in a compact binary form. The fields are written
+ * as length-prefixed UTF-8 strings while the serialized benchmark parameters,
+ * which are typically the largest part of an experiment, are compressed. Since
+ * the queue stores strings, the binary data is Base64-encoded and marked with
+ * the {@link #PREFIX}. Changes of the format have to use a new prefix.
+ */
+public class BinaryExperimentConfigurationCodec implements ExperimentConfigurationCodec {
+
+    /**
+     * Prefix marking strings encoded with version 1 of this codec.
+     */
+    public static final String PREFIX = "b1:";
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    @Override
+    public String encode(ExperimentConfiguration experiment) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, experiment.id);
+            out.writeLong(experiment.executionDate != null ? experiment.executionDate.getTimeInMillis() : NO_DATE);
+            writeString(out, experiment.benchmarkUri);
+            writeString(out, experiment.systemUri);
+            writeString(out, experiment.challengeUri);
+            writeString(out, experiment.challengeTaskUri);
+            writeString(out, experiment.userName);
+            writeBytes(out, experiment.serializedBenchParams != null
+                    ? compress(experiment.serializedBenchParams.getBytes(StandardCharsets.UTF_8))
+                    : null);
+            out.writeLong(experiment.submissionTime);
+            out.writeBoolean(experiment.batch);
+        } catch (IOException e) {
+            // can not happen since we are writing to memory
+            throw new IllegalStateException("Couldn't encode experiment " + experiment.id, e);
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    @Override
+    public ExperimentConfiguration decode(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        byte[] data = Base64.getDecoder().decode(encoded.substring(PREFIX.length()));
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            ExperimentConfiguration experiment = new ExperimentConfiguration();
+            experiment.id = readString(in);
+            long executionDate = in.readLong();
+            if (executionDate != NO_DATE) {
+                experiment.executionDate = Calendar.getInstance();
+                experiment.executionDate.setTimeInMillis(executionDate);
+            }
+            experiment.benchmarkUri = readString(in);
+            experiment.systemUri = readString(in);
+            experiment.challengeUri = readString(in);
+            experiment.challengeTaskUri = readString(in);
+            experiment.userName = readString(in);
+            byte[] params = readBytes(in);
+            if (params != null) {
+                experiment.serializedBenchParams = new String(decompress(params), StandardCharsets.UTF_8);
+            }
+            experiment.submissionTime = in.readLong();
+            experiment.batch = in.readBoolean();
+            return experiment;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Couldn't decode experiment.", e);
+        }
+    }
+
+    @Override
+    public boolean canDecode(String encoded) {
+        return (encoded != null) && encoded.startsWith(PREFIX);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] value = readBytes(in);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+
+/**
+ * Interface of a class that transforms {@link ExperimentConfiguration}
+ * instances into the strings that are stored in the queue and back.
+ */
+public interface ExperimentConfigurationCodec {
+
+    /**
+     * Encodes the given experiment.
+     *
+     * @param experiment
+     *            the experiment that should be encoded
+     * @return the encoded experiment
+     */
+    public String encode(ExperimentConfiguration experiment);
+
+    /**
+     * Decodes the given string.
+     *
+     * @param encoded
+     *            an experiment encoded by this codec
+     * @return the decoded experiment or {@code null} if the given string is
+     *         {@code null}
+     */
+    public ExperimentConfiguration decode(String encoded);
+
+    /**
+     * Checks whether the given string has been encoded with this codec.
+     *
+     * @param encoded
+     *            the encoded experiment
+     * @return {@code true} if this codec can decode the given string
+     */
+    public boolean canDecode(String encoded);
+}
@@ -16,7 +16,12 @@
  */
 package org.hobbit.controller.queue;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.hobbit.controller.data.ExperimentConfiguration;
 
@@ -33,7 +38,64 @@ public interface ExperimentQueue {
      *
      * @return the experiment that should be executed next
      */
-    public ExperimentConfiguration getNextExperiment();
+    public default ExperimentConfiguration getNextExperiment() {
+        return getNextExperiment(Collections.emptySet());
+    }
+
+    /**
+     * Returns the experiment that should be executed next while ignoring the
+     * experiments with the given IDs, e.g., because they are already running.
+     *
+     * @param excludedExperimentIds
+     *            IDs of experiments that should not be returned
+     * @return the experiment that should be executed next or {@code null} if
+     *         there is no such experiment
+     */
+    public ExperimentConfiguration getNextExperiment(Set<String> excludedExperimentIds);
+
+    /**
+     * Returns up to the given number of experiments in the order in which they
+     * would be returned by {@link #getNextExperiment(Set)}, i.e., the
+     * experiments that will be executed next.
+     *
+     * @param count
+     *            the maximum number of experiments that should be returned
+     * @param excludedExperimentIds
+     *            IDs of experiments that should not be returned
+     * @return the experiments that should be executed next
+     */
+    public default List<ExperimentConfiguration> getNextExperiments(int count, Set<String> excludedExperimentIds) {
+        List<ExperimentConfiguration> experiments = new ArrayList<>();
+        Set<String> excluded = new HashSet<>(excludedExperimentIds);
+        ExperimentConfiguration experiment;
+        while ((experiments.size() < count) && ((experiment = getNextExperiment(excluded)) != null)) {
+            experiments.add(experiment);
+            excluded.add(experiment.id);
+        }
+        return experiments;
+    }
+
+    /**
+     * Returns the experiments a {@link SchedulingPolicy} has to choose from: the
+     * due challenge experiment with the earliest execution date and, for every
+     * user, the due interactive and batch experiment that has been waiting the
+     * longest (see {@link SchedulingCandidateIndex}). The default implementation
+     * indexes all experiments of {@link #listAll()}.
+     *
+     * @param excludedExperimentIds
+     *            IDs of experiments that should not be returned
+     * @param now
+     *            the current time stamp (in ms)
+     * @return the candidates for the next experiment
+     */
+    public default List<ExperimentConfiguration> getSchedulingCandidates(Set<String> excludedExperimentIds,
+            long now) {
+        SchedulingCandidateIndex index = new SchedulingCandidateIndex();
+        for (ExperimentConfiguration experiment : listAll()) {
+            index.add(experiment);
+        }
+        return index.getCandidates(excludedExperimentIds, now);
+    }
 
     /**
      * Adds the given experiment to the queue.
@@ -43,6 +105,33 @@ public interface ExperimentQueue {
      */
     public void add(ExperimentConfiguration experiment);
 
+    /**
+     * Adds the given experiments to the queue. Implementations should add them
+     * with as few operations as possible. The default implementation adds them
+     * one after the other using {@link #add(ExperimentConfiguration)}.
+     *
+     * @param experiments
+     *            the experiments that should be added
+     */
+    public default void addAll(Collection<ExperimentConfiguration> experiments) {
+        for (ExperimentConfiguration experiment : experiments) {
+            add(experiment);
+        }
+    }
+
+    /**
+     * Informs the queue that the given experiment has been started. Note that
+     * the experiment stays in the queue until it is removed after its
+     * termination. Queues may use this information for their scheduling
+     * decisions. The default implementation does nothing.
+     *
+     * @param experiment
+     *            the experiment that has been started
+     */
+    public default void experimentStarted(ExperimentConfiguration experiment) {
+        // nothing to do
+    }
+
     /**
      * Removes the experiment from the queue.
      *
@@ -68,4 +157,36 @@ public interface ExperimentQueue {
      *         can not be found
      */
     public ExperimentConfiguration getExperiment(String experimentId);
+
+    /**
+     * Returns the earliest execution date (in ms since epoch) of the waiting
+     * experiments that lies in the future or {@code null} if there is no such
+     * experiment. The default implementation scans {@link #listAll()}.
+     *
+     * @return the next execution date in the future or {@code null}
+     */
+    public default Long getNextExecutionTime() {
+        long now = System.currentTimeMillis();
+        Long next = null;
+        for (ExperimentConfiguration experiment : listAll()) {
+            if (experiment.executionDate != null) {
+                long executionTime = experiment.executionDate.getTimeInMillis();
+                if ((executionTime > now) && ((next == null) || (executionTime < next))) {
+                    next = executionTime;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Adds a listener that is informed whenever an experiment is added to this
+     * queue. The default implementation does not inform any listener.
+     *
+     * @param listener
+     *            the listener that should be added
+     */
+    public default void addListener(ExperimentQueueListener listener) {
+        // nothing to do
+    }
 }
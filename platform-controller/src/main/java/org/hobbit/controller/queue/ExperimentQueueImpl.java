@@ -20,17 +20,28 @@ import java.io.Closeable;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.hobbit.controller.data.ExperimentConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
 import com.lambdaworks.redis.RedisClient;
+import com.lambdaworks.redis.RedisException;
+import com.lambdaworks.redis.ScoredValue;
+import com.lambdaworks.redis.ScriptOutputType;
 import com.lambdaworks.redis.api.StatefulRedisConnection;
 import com.lambdaworks.redis.api.sync.RedisCommands;
+import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
+import com.lambdaworks.redis.pubsub.StatefulRedisPubSubConnection;
 
 /**
  * Created by Timofey Ermilov on 07/09/16. TODO: 1. Setup Redis-based queue for
@@ -46,13 +57,81 @@ public class ExperimentQueueImpl implements ExperimentQueue, Closeable {
     public final static String EXPERIMENT_KEY = "experiment";
     public final static String CHALLENGE_QUEUE = "challenge_queue";
     public final static String EXPERIMENT_QUEUE = "experiment_queue";
+    /**
+     * Key of the counter that is incremented with every change of the queue.
+     */
+    public final static String QUEUE_VERSION_KEY = "queue_version";
+    /**
+     * Name of the Redis configuration parameter that defines the keyspace events
+     * for which notifications are published.
+     */
+    private final static String NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
+    /**
+     * Environmental variable key for the encoding of experiments stored in the
+     * queue. Possible values are {@value #ENCODING_JSON} (default) and
+     * {@value #ENCODING_BINARY}. Note that older versions of the platform can
+     * only read JSON entries.
+     */
+    public final static String QUEUE_ENCODING_KEY = "QUEUE_ENCODING";
+    /**
+     * Environmental variable key for the flag enabling the migration of all
+     * queued entries to the configured encoding when the queue is created
+     * (default: <code>false</code>). Together with {@value #ENCODING_JSON}, it
+     * can be used to convert a binary queue back before downgrading the
+     * platform.
+     */
+    public final static String QUEUE_MIGRATE_ENTRIES_KEY = "QUEUE_MIGRATE_ENTRIES";
+    public final static String ENCODING_BINARY = "binary";
+    public final static String ENCODING_JSON = "json";
 
     // redis connection
     private RedisClient redisClient;
     private StatefulRedisConnection<String, String> redisConnection;
     private RedisCommands<String, String> redisSyncCommands;
+    /**
+     * Connection used to receive keyspace notifications about experiments added
+     * by other processes. It is created when the first listener is added.
+     */
+    private StatefulRedisPubSubConnection<String, String> pubSubConnection = null;
+    /**
+     * Connection used for transactions. It is created when it is needed for the
+     * first time.
+     */
+    private StatefulRedisConnection<String, String> transactionConnection = null;
+    private List<ExperimentQueueListener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * Decoded copy of the queue's content that is used to answer
+     * {@link #listAll()} and {@link #getExperiment(String)} without transferring
+     * and decoding all experiments. It is valid as long as its version equals
+     * the version counter in Redis. <code>null</code> if there is no valid
+     * snapshot. Guarded by {@link #snapshotLock}.
+     */
+    private QueueSnapshot snapshot = null;
+    private final Object snapshotLock = new Object();
+    /**
+     * Codec used to encode experiments that are added to the queue.
+     */
+    private ExperimentConfigurationCodec codec;
+    /**
+     * All known codecs. Entries are decoded with the first codec that accepts
+     * them, so entries written with another encoding can still be read.
+     */
+    private ExperimentConfigurationCodec[] codecs;
 
     public ExperimentQueueImpl() {
+        this(ENCODING_BINARY.equals(System.getenv(QUEUE_ENCODING_KEY)) ? ENCODING_BINARY : ENCODING_JSON,
+                Boolean.parseBoolean(System.getenv(QUEUE_MIGRATE_ENTRIES_KEY)));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param encoding       the encoding of new entries ({@value #ENCODING_JSON}
+     *                       or {@value #ENCODING_BINARY})
+     * @param migrateEntries flag whether all entries that are not encoded with
+     *                       the given encoding should be re-encoded
+     */
+    public ExperimentQueueImpl(String encoding, boolean migrateEntries) {
         // init redis redisConnection
         String host = "redis://localhost";
         if (System.getenv().containsKey("HOBBIT_REDIS_HOST")) {
@@ -61,35 +140,172 @@ public class ExperimentQueueImpl implements ExperimentQueue, Closeable {
         redisClient = RedisClient.create(host);
         redisConnection = redisClient.connect();
         redisSyncCommands = redisConnection.sync();
-    }
 
-    private ExperimentConfiguration decodeExperimentFromString(String json) {
-        Gson gson = new Gson();
-        return gson.fromJson(json, ExperimentConfiguration.class);
+        ExperimentConfigurationCodec binaryCodec = new BinaryExperimentConfigurationCodec();
+        ExperimentConfigurationCodec jsonCodec = new JsonExperimentConfigurationCodec();
+        codecs = new ExperimentConfigurationCodec[] { binaryCodec, jsonCodec };
+        if (ENCODING_BINARY.equals(encoding)) {
+            codec = binaryCodec;
+        } else {
+            codec = jsonCodec;
+        }
+        if (migrateEntries) {
+            migrateEntries();
+        }
     }
 
-    @Override
-    public ExperimentConfiguration getNextExperiment() {
-        String timestamp = Long.toString(new Timestamp(System.currentTimeMillis()).getTime());
-        List<String> experimentIds = redisSyncCommands.zrangebyscore(EXPERIMENT_QUEUE, "-inf", timestamp);
-        List<String> challengeIds = redisSyncCommands.zrangebyscore(CHALLENGE_QUEUE, "-inf", timestamp);
-        if (experimentIds.isEmpty() && challengeIds.isEmpty()) {
+    private ExperimentConfiguration decodeExperimentFromString(String encoded) {
+        if (encoded == null) {
             return null;
         }
+        String shortened = encoded.length() > 50 ? encoded.substring(0, 50) + "..." : encoded;
+        for (ExperimentConfigurationCodec c : codecs) {
+            if (c.canDecode(encoded)) {
+                try {
+                    return c.decode(encoded);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Couldn't decode the queue entry \"" + shortened + "\". Returning null.", e);
+                    return null;
+                }
+            }
+        }
+        LOGGER.error("Couldn't find a codec for the queue entry \"{}\".", shortened);
+        return null;
+    }
 
-        ExperimentConfiguration experiment = null;
-        ExperimentConfiguration challenge = null;
+    /**
+     * Re-encodes all entries of the queue that have not been encoded with the
+     * current codec. Note that this is a one-way upgrade if the entries are
+     * migrated to the binary encoding, which can not be read by older versions
+     * of the platform. The entries are replaced within a transaction
+     * that is aborted if the queue is changed in the meantime. In that case the
+     * remaining entries are migrated with the next start.
+     */
+    private void migrateEntries() {
+        try {
+            synchronized (this) {
+                if (transactionConnection == null) {
+                    transactionConnection = redisClient.connect();
+                }
+                RedisCommands<String, String> commands = transactionConnection.sync();
+                commands.watch(CHALLENGE_KEY, EXPERIMENT_KEY);
+                Map<String, String> migratedChallenges = reencode(commands.hgetall(CHALLENGE_KEY));
+                Map<String, String> migratedExperiments = reencode(commands.hgetall(EXPERIMENT_KEY));
+                if (migratedChallenges.isEmpty() && migratedExperiments.isEmpty()) {
+                    commands.unwatch();
+                    return;
+                }
+                commands.multi();
+                if (!migratedChallenges.isEmpty()) {
+                    commands.hmset(CHALLENGE_KEY, migratedChallenges);
+                }
+                if (!migratedExperiments.isEmpty()) {
+                    commands.hmset(EXPERIMENT_KEY, migratedExperiments);
+                }
+                commands.incr(QUEUE_VERSION_KEY);
+                List<Object> results = commands.exec();
+                if ((results == null) || results.isEmpty()) {
+                    LOGGER.warn("The queue has been changed during its migration. It will be migrated later.");
+                } else {
+                    LOGGER.info("Migrated {} queue entries to the current encoding.",
+                            migratedChallenges.size() + migratedExperiments.size());
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Couldn't migrate the queue entries to the current encoding.", e);
+        }
+    }
 
-        if (!experimentIds.isEmpty()) {
-            String experimentId = experimentIds.get(0);
-            String experimentStr = redisSyncCommands.hget(EXPERIMENT_KEY, experimentId);
-            experiment = decodeExperimentFromString(experimentStr);
+    private Map<String, String> reencode(Map<String, String> entries) {
+        Map<String, String> migrated = new HashMap<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (!codec.canDecode(entry.getValue())) {
+                ExperimentConfiguration experiment = decodeExperimentFromString(entry.getValue());
+                if (experiment != null) {
+                    migrated.put(entry.getKey(), codec.encode(experiment));
+                }
+            }
         }
+        return migrated;
+    }
+
+    /**
+     * Lua script retrieving the first experiment and the first challenge
+     * experiment that are due and not excluded within a single round trip. The
+     * ranges are limited to the number of excluded IDs + 1, so the costs do not
+     * depend on the length of the queues. KEYS are the experiment queue and data
+     * store followed by the challenge queue and data store. ARGV contains the
+     * current timestamp followed by the excluded IDs. The script returns the
+     * serialized experiment and challenge or an empty string, respectively.
+     */
+    private static final String NEXT_EXPERIMENTS_SCRIPT = "local excluded = {} "
+            + "for i = 2, #ARGV do excluded[ARGV[i]] = true end "
+            + "local result = {} "
+            + "for q = 0, 1 do "
+            + "  local entry = '' "
+            + "  local ids = redis.call('ZRANGEBYSCORE', KEYS[2 * q + 1], '-inf', ARGV[1], 'LIMIT', 0, #ARGV) "
+            + "  for _, id in ipairs(ids) do "
+            + "    if not excluded[id] then "
+            + "      entry = redis.call('HGET', KEYS[2 * q + 2], id) or '' "
+            + "      break "
+            + "    end "
+            + "  end "
+            + "  result[q + 1] = entry "
+            + "end "
+            + "return result";
+    private static final String[] NEXT_EXPERIMENTS_SCRIPT_KEYS = new String[] { EXPERIMENT_QUEUE, EXPERIMENT_KEY,
+            CHALLENGE_QUEUE, CHALLENGE_KEY };
 
-        if (!challengeIds.isEmpty()) {
-            String challengeId = challengeIds.get(0);
-            String challengeStr = redisSyncCommands.hget(CHALLENGE_KEY, challengeId);
-            challenge = decodeExperimentFromString(challengeStr);
+    /**
+     * SHA1 digest of the {@link #NEXT_EXPERIMENTS_SCRIPT} after it has been
+     * loaded into Redis.
+     */
+    private String nextExperimentsScriptSha = null;
+
+    /**
+     * Executes the {@link #NEXT_EXPERIMENTS_SCRIPT}. The script is loaded once
+     * and executed via its digest afterwards. If Redis has lost the script,
+     * e.g., because of a restart, it is loaded again.
+     */
+    private synchronized List<Object> runNextExperimentsScript(String[] args) {
+        if (nextExperimentsScriptSha != null) {
+            try {
+                return redisSyncCommands.evalsha(nextExperimentsScriptSha, ScriptOutputType.MULTI,
+                        NEXT_EXPERIMENTS_SCRIPT_KEYS, args);
+            } catch (RedisException e) {
+                if ((e.getMessage() == null) || !e.getMessage().startsWith("NOSCRIPT")) {
+                    throw e;
+                }
+                LOGGER.info("Redis does not know the script for retrieving the next experiment. Loading it again.");
+            }
+        }
+        nextExperimentsScriptSha = redisSyncCommands.scriptLoad(NEXT_EXPERIMENTS_SCRIPT);
+        return redisSyncCommands.evalsha(nextExperimentsScriptSha, ScriptOutputType.MULTI,
+                NEXT_EXPERIMENTS_SCRIPT_KEYS, args);
+    }
+
+    private ExperimentConfiguration decodeScriptResult(Object result) {
+        if ((result == null) || result.toString().isEmpty()) {
+            return null;
+        }
+        return decodeExperimentFromString(result.toString());
+    }
+
+    @Override
+    public ExperimentConfiguration getNextExperiment(Set<String> excludedExperimentIds) {
+        String timestamp = Long.toString(new Timestamp(System.currentTimeMillis()).getTime());
+        String[] args = new String[excludedExperimentIds.size() + 1];
+        args[0] = timestamp;
+        int pos = 1;
+        for (String excludedId : excludedExperimentIds) {
+            args[pos] = excludedId;
+            ++pos;
+        }
+        List<Object> result = runNextExperimentsScript(args);
+        ExperimentConfiguration experiment = decodeScriptResult(result.get(0));
+        ExperimentConfiguration challenge = decodeScriptResult(result.get(1));
+        if ((experiment == null) && (challenge == null)) {
+            return null;
         }
 
         // If a challenge experiment is available
@@ -110,7 +326,6 @@ public class ExperimentQueueImpl implements ExperimentQueue, Closeable {
 
     @Override
     public void add(ExperimentConfiguration experiment) {
-        Gson gson = new Gson();
         String typeKey, queueKey;
         if ((experiment.challengeUri != null) && (experiment.challengeTaskUri != null)) {
             typeKey = CHALLENGE_KEY;
@@ -120,7 +335,7 @@ public class ExperimentQueueImpl implements ExperimentQueue, Closeable {
             queueKey = EXPERIMENT_QUEUE;
         }
         String idKey = experiment.id;
-        String experimentJson = gson.toJson(experiment);
+        String experimentJson = codec.encode(experiment);
 
         // add to experiment data store
         redisSyncCommands.hset(typeKey, idKey, experimentJson);
@@ -130,6 +345,155 @@ public class ExperimentQueueImpl implements ExperimentQueue, Closeable {
         }
         // append it to queue
         redisSyncCommands.zadd(queueKey, (double) timestamp, idKey);
+        long version = redisSyncCommands.incr(QUEUE_VERSION_KEY);
+        // add a copy to the snapshot to make sure that later changes of the given
+        // object do not change the snapshot
+        ExperimentConfiguration copy = new ExperimentConfiguration(experiment);
+        updateSnapshot(version, s -> s.put(CHALLENGE_KEY.equals(typeKey), copy));
+        notifyListeners();
+    }
+
+    /**
+     * Adds all given experiments within a single transaction that comprises one
+     * HMSET and one ZADD per queue. Hence, the number of round trips does not
+     * depend on the number of experiments.
+     */
+    @Override
+    public void addAll(Collection<ExperimentConfiguration> experiments) {
+        if (experiments.isEmpty()) {
+            return;
+        }
+        Map<String, String> challengeData = new HashMap<>();
+        Map<String, String> experimentData = new HashMap<>();
+        List<ScoredValue<String>> challengeQueue = new ArrayList<>();
+        List<ScoredValue<String>> experimentQueue = new ArrayList<>();
+        List<ExperimentConfiguration> challengeCopies = new ArrayList<>();
+        List<ExperimentConfiguration> experimentCopies = new ArrayList<>();
+        for (ExperimentConfiguration experiment : experiments) {
+            String experimentJson = codec.encode(experiment);
+            long timestamp = 0;
+            if (experiment.executionDate != null) {
+                timestamp = experiment.executionDate.getTimeInMillis();
+            }
+            ScoredValue<String> queueEntry = new ScoredValue<String>((double) timestamp, experiment.id);
+            if ((experiment.challengeUri != null) && (experiment.challengeTaskUri != null)) {
+                challengeData.put(experiment.id, experimentJson);
+                challengeQueue.add(queueEntry);
+                challengeCopies.add(new ExperimentConfiguration(experiment));
+            } else {
+                experimentData.put(experiment.id, experimentJson);
+                experimentQueue.add(queueEntry);
+                experimentCopies.add(new ExperimentConfiguration(experiment));
+            }
+        }
+        List<Object> results;
+        synchronized (this) {
+            // the transaction uses its own connection since all commands sent
+            // through a connection after MULTI become part of the transaction
+            if (transactionConnection == null) {
+                transactionConnection = redisClient.connect();
+            }
+            RedisCommands<String, String> commands = transactionConnection.sync();
+            commands.multi();
+            if (!challengeData.isEmpty()) {
+                commands.hmset(CHALLENGE_KEY, challengeData);
+                commands.zadd(CHALLENGE_QUEUE, toArray(challengeQueue));
+            }
+            if (!experimentData.isEmpty()) {
+                commands.hmset(EXPERIMENT_KEY, experimentData);
+                commands.zadd(EXPERIMENT_QUEUE, toArray(experimentQueue));
+            }
+            commands.incr(QUEUE_VERSION_KEY);
+            results = commands.exec();
+        }
+        long version = (Long) results.get(results.size() - 1);
+        updateSnapshot(version, s -> {
+            for (ExperimentConfiguration challenge : challengeCopies) {
+                s.put(true, challenge);
+            }
+            for (ExperimentConfiguration experiment : experimentCopies) {
+                s.put(false, experiment);
+            }
+        });
+        notifyListeners();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ScoredValue<String>[] toArray(List<ScoredValue<String>> values) {
+        return values.toArray(new ScoredValue[values.size()]);
+    }
+
+    private void notifyListeners() {
+        for (ExperimentQueueListener listener : listeners) {
+            try {
+                listener.queueChanged();
+            } catch (Exception e) {
+                LOGGER.error("Queue listener threw an exception.", e);
+            }
+        }
+    }
+
+    /**
+     * Adds the given listener. When the first listener is added, this queue
+     * subscribes to the keyspace notifications of the Redis queues to recognize
+     * experiments that are added by other processes, e.g., another controller
+     * instance. If the notifications are not enabled in the Redis configuration
+     * (<code>notify-keyspace-events Kz</code>), the listeners are only informed
+     * about experiments added through this instance.
+     */
+    @Override
+    public synchronized void addListener(ExperimentQueueListener listener) {
+        listeners.add(listener);
+        if (pubSubConnection == null) {
+            subscribeToKeyspaceNotifications();
+        }
+    }
+
+    private void subscribeToKeyspaceNotifications() {
+        checkKeyspaceNotificationConfig();
+        try {
+            pubSubConnection = redisClient.connectPubSub();
+            pubSubConnection.addListener(new RedisPubSubAdapter<String, String>() {
+                @Override
+                public void message(String pattern, String channel, String message) {
+                    if ("zadd".equals(message)) {
+                        notifyListeners();
+                    }
+                }
+            });
+            pubSubConnection.sync().psubscribe("__keyspace@*__:" + EXPERIMENT_QUEUE,
+                    "__keyspace@*__:" + CHALLENGE_QUEUE);
+        } catch (Exception e) {
+            LOGGER.warn("Couldn't subscribe to the keyspace notifications of Redis. "
+                    + "Experiments added by other processes will only be recognized by the periodic check.", e);
+            if (pubSubConnection != null) {
+                pubSubConnection.close();
+                pubSubConnection = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether Redis publishes the keyspace events of sorted sets. They
+     * have to be enabled in the configuration of the Redis server
+     * (<code>notify-keyspace-events Kz</code>) since the configuration is shared
+     * with other clients and a change at runtime would be lost with the next
+     * restart of Redis.
+     */
+    private void checkKeyspaceNotificationConfig() {
+        try {
+            List<String> config = redisSyncCommands.configGet(NOTIFY_KEYSPACE_EVENTS);
+            String flags = ((config != null) && (config.size() > 1)) ? config.get(1) : "";
+            if (!flags.contains("K") || !(flags.contains("z") || flags.contains("A"))) {
+                LOGGER.warn("Redis does not publish the keyspace events of sorted sets ({}=\"{}\"). "
+                        + "Please add \"{} Kz\" to the Redis configuration. "
+                        + "Experiments added by other processes will only be recognized by the periodic check.",
+                        NOTIFY_KEYSPACE_EVENTS, flags, NOTIFY_KEYSPACE_EVENTS);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Couldn't check the keyspace notification configuration of Redis. "
+                    + "Please make sure that it contains \"{} Kz\".", NOTIFY_KEYSPACE_EVENTS, e);
+        }
     }
 
     @Override
@@ -147,52 +511,209 @@ public class ExperimentQueueImpl implements ExperimentQueue, Closeable {
         long removedFields1 = redisSyncCommands.hdel(typeKey, idKey);
         // remove from queue
         long removedFields2 = redisSyncCommands.zrem(queueKey, idKey);
+        if ((removedFields1 > 0) || (removedFields2 > 0)) {
+            long version = redisSyncCommands.incr(QUEUE_VERSION_KEY);
+            updateSnapshot(version, s -> s.remove(idKey));
+        }
         return (removedFields1 > 0) && (removedFields2 > 0);
     }
 
+    /**
+     * Applies the given change of this instance to the current snapshot if the
+     * snapshot has the version that preceded the given version. Otherwise, some
+     * other process changed the queue in the meantime and the snapshot is
+     * dropped.
+     *
+     * @param version the version of the queue after the change
+     * @param change  the change that should be applied to the snapshot
+     */
+    private void updateSnapshot(long version, Consumer<QueueSnapshot> change) {
+        synchronized (snapshotLock) {
+            if ((snapshot != null) && (snapshot.version == (version - 1))) {
+                change.accept(snapshot);
+                snapshot.version = version;
+            } else {
+                snapshot = null;
+            }
+        }
+    }
+
+    /**
+     * Applies the given reader to a snapshot of the queue that reflects the
+     * current version of the queue in Redis. The snapshot is only reloaded if
+     * the version counter has changed. The reader is called while holding the
+     * lock of the snapshot, so it must not hand out the snapshot or the objects
+     * stored in it.
+     *
+     * @param reader the function reading the snapshot
+     * @return the result of the reader
+     */
+    private <T> T readSnapshot(Function<QueueSnapshot, T> reader) {
+        String versionString = redisSyncCommands.get(QUEUE_VERSION_KEY);
+        long version = (versionString == null) ? 0 : Long.parseLong(versionString);
+        synchronized (snapshotLock) {
+            // If the snapshot is newer than the version, it has been updated by
+            // this instance in the meantime and can be used
+            if ((snapshot == null) || (snapshot.version < version)) {
+                // the version has been read before the content, so a change that
+                // happens in between only leads to another reload
+                snapshot = new QueueSnapshot(version,
+                        stringMapToExperimentList(redisSyncCommands.hgetall(CHALLENGE_KEY)),
+                        stringMapToExperimentList(redisSyncCommands.hgetall(EXPERIMENT_KEY)));
+            }
+            return reader.apply(snapshot);
+        }
+    }
+
     private List<ExperimentConfiguration> stringMapToExperimentList(Map<String, String> entries) {
         List<ExperimentConfiguration> result = new ArrayList<>();
         // decode and append all entries to result
         for (Map.Entry<String, String> entry : entries.entrySet()) {
             ExperimentConfiguration c = decodeExperimentFromString(entry.getValue());
-            result.add(c);
+            // skip entries that can not be decoded
+            if (c != null) {
+                result.add(c);
+            }
         }
         return result;
     }
 
+    /**
+     * Returns copies of all queued experiments. Changes of the returned objects
+     * do not change the queue.
+     */
     @Override
     public List<ExperimentConfiguration> listAll() {
-        // get all experiments
-        Map<String, String> experiments = redisSyncCommands.hgetall(EXPERIMENT_KEY);
-        // create result
-        List<ExperimentConfiguration> result = stringMapToExperimentList(experiments);
-        // result.sort((ExperimentConfiguration o1, ExperimentConfiguration o2) ->
-        // o1.executionDate == null
-        // ? (o2.executionDate == null ? 0 : 1)
-        // : (o2.executionDate == null ? -1 : (o1.executionDate.before(o2.executionDate)
-        // ? -1 : 1)));
-        Map<String, String> challenges = redisSyncCommands.hgetall(CHALLENGE_KEY);
-        // Add all challenges in front of the experiments
-        result.addAll(0, stringMapToExperimentList(challenges));
-        // return result
-        return result;
+        return readSnapshot(s -> {
+            List<ExperimentConfiguration> result = new ArrayList<>(s.challenges.size() + s.experiments.size());
+            // Add all challenges in front of the experiments
+            for (ExperimentConfiguration challenge : s.challenges.values()) {
+                result.add(new ExperimentConfiguration(challenge));
+            }
+            for (ExperimentConfiguration experiment : s.experiments.values()) {
+                result.add(new ExperimentConfiguration(experiment));
+            }
+            return result;
+        });
     }
 
+    /**
+     * Returns a copy of the queued experiment with the given ID. Changes of the
+     * returned object do not change the queue.
+     */
     @Override
     public ExperimentConfiguration getExperiment(String experimentId) {
-        String experimentStr = redisSyncCommands.hget(EXPERIMENT_KEY, experimentId);
-        if (experimentStr == null) {
-            experimentStr = redisSyncCommands.hget(CHALLENGE_KEY, experimentId);
-        }
-        if (experimentStr != null) {
-            return decodeExperimentFromString(experimentStr);
-        } else {
-            return null;
+        return readSnapshot(s -> {
+            ExperimentConfiguration experiment = s.experiments.get(experimentId);
+            if (experiment == null) {
+                experiment = s.challenges.get(experimentId);
+            }
+            return (experiment != null) ? new ExperimentConfiguration(experiment) : null;
+        });
+    }
+
+    /**
+     * Returns copies of the scheduling candidates. They are retrieved from an
+     * index of the snapshot, so only the version of the queue is requested from
+     * Redis as long as the queue is not changed by another process.
+     */
+    @Override
+    public List<ExperimentConfiguration> getSchedulingCandidates(Set<String> excludedExperimentIds, long now) {
+        return readSnapshot(s -> {
+            List<ExperimentConfiguration> candidates = new ArrayList<>();
+            for (ExperimentConfiguration candidate : s.getCandidateIndex().getCandidates(excludedExperimentIds, now)) {
+                candidates.add(new ExperimentConfiguration(candidate));
+            }
+            return candidates;
+        });
+    }
+
+    @Override
+    public Long getNextExecutionTime() {
+        String now = "(" + Long.toString(System.currentTimeMillis());
+        Long next = null;
+        for (String queueKey : new String[] { EXPERIMENT_QUEUE, CHALLENGE_QUEUE }) {
+            List<ScoredValue<String>> values = redisSyncCommands.zrangebyscoreWithScores(queueKey, now, "+inf", 0, 1);
+            if (!values.isEmpty()) {
+                long executionTime = (long) values.get(0).score;
+                if ((next == null) || (executionTime < next)) {
+                    next = executionTime;
+                }
+            }
         }
+        return next;
     }
 
-    public void close() {
+    public synchronized void close() {
+        if (transactionConnection != null) {
+            transactionConnection.close();
+            transactionConnection = null;
+        }
+        if (pubSubConnection != null) {
+            pubSubConnection.close();
+            pubSubConnection = null;
+        }
         redisConnection.close();
         redisClient.shutdown();
     }
+
+    /**
+     * A decoded copy of the experiments in the queue together with the version
+     * of the queue it reflects. Changes of this instance are applied in place
+     * while holding the {@link ExperimentQueueImpl#snapshotLock}.
+     */
+    private static class QueueSnapshot {
+        private long version;
+        private final Map<String, ExperimentConfiguration> challenges;
+        private final Map<String, ExperimentConfiguration> experiments;
+        /**
+         * Index of the candidates for a scheduling policy or <code>null</code>
+         * if it has not been requested, yet.
+         */
+        private SchedulingCandidateIndex candidateIndex = null;
+
+        public QueueSnapshot(long version, List<ExperimentConfiguration> challenges,
+                List<ExperimentConfiguration> experiments) {
+            this.version = version;
+            this.challenges = new LinkedHashMap<>();
+            for (ExperimentConfiguration challenge : challenges) {
+                this.challenges.put(challenge.id, challenge);
+            }
+            this.experiments = new LinkedHashMap<>();
+            for (ExperimentConfiguration experiment : experiments) {
+                this.experiments.put(experiment.id, experiment);
+            }
+        }
+
+        /**
+         * Returns the index of the scheduling candidates. It is created when it
+         * is needed for the first time and kept up to date afterwards.
+         */
+        private SchedulingCandidateIndex getCandidateIndex() {
+            if (candidateIndex == null) {
+                candidateIndex = new SchedulingCandidateIndex();
+                challenges.values().forEach(candidateIndex::add);
+                experiments.values().forEach(candidateIndex::add);
+            }
+            return candidateIndex;
+        }
+
+        private void put(boolean challenge, ExperimentConfiguration experiment) {
+            remove(experiment.id);
+            (challenge ? challenges : experiments).put(experiment.id, experiment);
+            if (candidateIndex != null) {
+                candidateIndex.add(experiment);
+            }
+        }
+
+        private void remove(String experimentId) {
+            ExperimentConfiguration removed = challenges.remove(experimentId);
+            if (removed == null) {
+                removed = experiments.remove(experimentId);
+            }
+            if ((removed != null) && (candidateIndex != null)) {
+                candidateIndex.remove(removed);
+            }
+        }
+    }
 }
@@ -0,0 +1,33 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+/**
+ * Interface of a class that is informed about experiments that have been added
+ * to an {@link ExperimentQueue}.
+ */
+public interface ExperimentQueueListener {
+
+    /**
+     * Called after an experiment has been added to the queue. Note that this
+     * method might be called by the thread that added the experiment or by a
+     * thread that received a notification from a remote queue. Hence, it should
+     * return quickly.
+     */
+    public void queueChanged();
+
+}
@@ -0,0 +1,273 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.data.UserShare;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A scheduling policy sharing the cluster between the users. It distinguishes
+ * three priority classes:
+ * <ol>
+ * <li>Challenge experiments are always executed first (in the order of their
+ * execution dates) since they have to be finished until the challenge
+ * deadline.</li>
+ * <li>Interactive experiments, i.e., experiments that have been submitted one
+ * by one.</li>
+ * <li>Batch experiments, e.g., parameter sweeps. They are delayed by
+ * {@link #batchDelay} compared to interactive experiments.</li>
+ * </ol>
+ * Interactive and batch experiments are ranked by the virtual start time
+ * <code>waiting since + usage / weight (+ batch delay)</code> where
+ * <code>waiting since</code> is the submission time (or the later execution
+ * date, see {@link ExperimentConfiguration#getWaitingSince()}) and the usage
+ * is the runtime of the user's experiments that decays with the
+ * {@link #halfLife}. Hence, a user who consumed one hour of runtime recently
+ * has to wait one hour longer than a user who did not execute any experiment.
+ * Since the usage of a user decays and is bounded while the waiting time of an
+ * experiment grows, every experiment will age until it is executed, i.e., no
+ * experiment starves.
+ * <p>
+ * For a single user and class, the experiment that has been waiting the
+ * longest is always preferred. Hence, it is sufficient to offer only these
+ * experiments as candidates (see
+ * {@link ExperimentQueue#getSchedulingCandidates(java.util.Set, long)}).
+ * </p>
+ */
+public class FairShareSchedulingPolicy implements SchedulingPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FairShareSchedulingPolicy.class);
+
+    public static final long DEFAULT_HALF_LIFE = 24 * 60 * 60 * 1000;
+    public static final long DEFAULT_BATCH_DELAY = 6 * 60 * 60 * 1000;
+    private static final double DEFAULT_WEIGHT = 1.0;
+    /**
+     * Usage (in ms) below which an idle user is forgotten.
+     */
+    private static final double MIN_USAGE = 1.0;
+
+    /**
+     * Weights of the users. Users that are not part of this map have the
+     * weight {@value #DEFAULT_WEIGHT}.
+     */
+    private final Map<String, Double> weights;
+    /**
+     * Time (in ms) after which the usage of a user has been halved.
+     */
+    private final long halfLife;
+    /**
+     * Time (in ms) batch experiments are delayed compared to interactive
+     * experiments.
+     */
+    private final long batchDelay;
+    /**
+     * The accounts of the users that have executed experiments recently.
+     */
+    private final Map<String, UserAccount> accounts = new HashMap<>();
+
+    public FairShareSchedulingPolicy() {
+        this(Collections.emptyMap(), DEFAULT_HALF_LIFE, DEFAULT_BATCH_DELAY);
+    }
+
+    public FairShareSchedulingPolicy(Map<String, Double> weights, long halfLife, long batchDelay) {
+        this.weights = weights;
+        this.halfLife = halfLife;
+        this.batchDelay = batchDelay;
+    }
+
+    @Override
+    public synchronized ExperimentConfiguration selectNext(List<ExperimentConfiguration> candidates, long now) {
+        ExperimentConfiguration next = null;
+        ExperimentConfiguration nextChallenge = null;
+        double nextVirtualStart = 0;
+        Map<String, Double> virtualUsages = new HashMap<>();
+        for (ExperimentConfiguration candidate : candidates) {
+            if ((candidate.challengeUri != null) && (candidate.challengeTaskUri != null)) {
+                if ((nextChallenge == null) || (getExecutionTime(candidate) < getExecutionTime(nextChallenge))) {
+                    nextChallenge = candidate;
+                }
+            } else if (nextChallenge == null) {
+                Double virtualUsage = virtualUsages.get(candidate.userName);
+                if (virtualUsage == null) {
+                    virtualUsage = getUsage(candidate.userName, now) / getWeight(candidate.userName);
+                    virtualUsages.put(candidate.userName, virtualUsage);
+                }
+                double virtualStart = candidate.getWaitingSince() + virtualUsage + (candidate.batch ? batchDelay : 0);
+                if ((next == null) || (virtualStart < nextVirtualStart)
+                        || ((virtualStart == nextVirtualStart) && (candidate.id.compareTo(next.id) < 0))) {
+                    next = candidate;
+                    nextVirtualStart = virtualStart;
+                }
+            }
+        }
+        return nextChallenge != null ? nextChallenge : next;
+    }
+
+    private static long getExecutionTime(ExperimentConfiguration experiment) {
+        return experiment.executionDate != null ? experiment.executionDate.getTimeInMillis() : 0;
+    }
+
+    @Override
+    public synchronized void experimentStarted(ExperimentConfiguration experiment, long now) {
+        UserAccount account = accounts.get(experiment.userName);
+        if (account == null) {
+            account = new UserAccount(now);
+            accounts.put(experiment.userName, account);
+        }
+        account.runningExperiments.put(experiment.id, now);
+    }
+
+    @Override
+    public synchronized void experimentRemoved(ExperimentConfiguration experiment, long now) {
+        UserAccount account = accounts.get(experiment.userName);
+        if (account != null) {
+            Long startTime = account.runningExperiments.remove(experiment.id);
+            if (startTime != null) {
+                account.decay(now);
+                account.usage += now - startTime;
+                LOGGER.debug("Added {}ms runtime of experiment {} to the usage of user {}.", now - startTime,
+                        experiment.id, experiment.userName);
+            }
+        }
+    }
+
+    /**
+     * Returns the current usage of the given user including the runtime of the
+     * user's running experiments.
+     *
+     * @param userName the name of the user
+     * @param now      the current time stamp (in ms)
+     * @return the current usage (in ms) of the given user
+     */
+    protected synchronized double getUsage(String userName, long now) {
+        UserAccount account = accounts.get(userName);
+        if (account == null) {
+            return 0;
+        }
+        account.decay(now);
+        double usage = account.usage;
+        for (Long startTime : account.runningExperiments.values()) {
+            usage += now - startTime;
+        }
+        return usage;
+    }
+
+    protected double getWeight(String userName) {
+        Double weight = weights.get(userName);
+        return weight != null ? weight : DEFAULT_WEIGHT;
+    }
+
+    @Override
+    public synchronized List<UserShare> getShares(long now) {
+        List<UserShare> shares = new ArrayList<>(accounts.size());
+        double usageSum = 0;
+        double weightSum = 0;
+        Iterator<Map.Entry<String, UserAccount>> iterator = accounts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, UserAccount> entry = iterator.next();
+            UserShare share = new UserShare();
+            share.userName = entry.getKey();
+            share.usage = Math.round(getUsage(share.userName, now));
+            share.runningExperiments = entry.getValue().runningExperiments.size();
+            // forget idle users whose usage has decayed
+            if ((share.runningExperiments == 0) && (entry.getValue().usage < MIN_USAGE)) {
+                iterator.remove();
+            } else {
+                share.weight = getWeight(share.userName);
+                usageSum += share.usage;
+                weightSum += share.weight;
+                shares.add(share);
+            }
+        }
+        for (UserShare share : shares) {
+            share.share = usageSum > 0 ? (share.usage / usageSum) : 0;
+            share.targetShare = share.weight / weightSum;
+        }
+        return shares;
+    }
+
+    /**
+     * Parses the given weight definition of the form
+     * <code>user1=weight1,user2=weight2</code>. Invalid entries are logged and
+     * ignored.
+     *
+     * @param definition the weight definition or {@code null}
+     * @return the weights of the users
+     */
+    public static Map<String, Double> parseWeights(String definition) {
+        Map<String, Double> weights = new HashMap<>();
+        if (definition == null) {
+            return weights;
+        }
+        for (String entry : definition.split(",")) {
+            int pos = entry.lastIndexOf('=');
+            if (pos > 0) {
+                try {
+                    double weight = Double.parseDouble(entry.substring(pos + 1).trim());
+                    if (weight > 0) {
+                        weights.put(entry.substring(0, pos).trim(), weight);
+                        continue;
+                    }
+                } catch (NumberFormatException e) {
+                    // handled below
+                }
+            }
+            if (!entry.trim().isEmpty()) {
+                LOGGER.warn("Couldn't parse the user weight \"{}\". It will be ignored.", entry);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * The usage of a single user.
+     */
+    private class UserAccount {
+        /**
+         * The decayed runtime (in ms) of the terminated experiments.
+         */
+        private double usage = 0;
+        /**
+         * The time stamp of the last decay of the usage.
+         */
+        private long lastUpdate;
+        /**
+         * The start time stamps of the running experiments mapped to their IDs.
+         */
+        private final Map<String, Long> runningExperiments = new HashMap<>();
+
+        public UserAccount(long now) {
+            lastUpdate = now;
+        }
+
+        public void decay(long now) {
+            if (now > lastUpdate) {
+                usage *= Math.pow(0.5, (now - lastUpdate) / (double) halfLife);
+                lastUpdate = now;
+            }
+        }
+    }
+}
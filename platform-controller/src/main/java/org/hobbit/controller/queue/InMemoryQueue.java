@@ -1,9 +1,12 @@
 package org.hobbit.controller.queue;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.hobbit.controller.data.ExperimentConfiguration;
 
@@ -17,11 +20,17 @@ import org.hobbit.controller.data.ExperimentConfiguration;
 public class InMemoryQueue implements ExperimentQueue {
 
     private Deque<ExperimentConfiguration> queue = new LinkedList<>();
+    private List<ExperimentQueueListener> listeners = new CopyOnWriteArrayList<>();
 
     @Override
-    public ExperimentConfiguration getNextExperiment() {
+    public ExperimentConfiguration getNextExperiment(Set<String> excludedExperimentIds) {
         synchronized (queue) {
-            return queue.peek();
+            for (ExperimentConfiguration experiment : queue) {
+                if (!excludedExperimentIds.contains(experiment.id)) {
+                    return experiment;
+                }
+            }
+            return null;
         }
     }
 
@@ -30,6 +39,24 @@ public class InMemoryQueue implements ExperimentQueue {
         synchronized (queue) {
             queue.add(experiment);
         }
+        for (ExperimentQueueListener listener : listeners) {
+            listener.queueChanged();
+        }
+    }
+
+    @Override
+    public void addAll(Collection<ExperimentConfiguration> experiments) {
+        synchronized (queue) {
+            queue.addAll(experiments);
+        }
+        for (ExperimentQueueListener listener : listeners) {
+            listener.queueChanged();
+        }
+    }
+
+    @Override
+    public void addListener(ExperimentQueueListener listener) {
+        listeners.add(listener);
     }
 
     @Override
@@ -0,0 +1,45 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+
+import com.google.gson.Gson;
+
+/**
+ * Codec storing experiments as JSON. This was the only format of the queue
+ * before the {@link BinaryExperimentConfigurationCodec} was introduced.
+ */
+public class JsonExperimentConfigurationCodec implements ExperimentConfigurationCodec {
+
+    private final Gson gson = new Gson();
+
+    @Override
+    public String encode(ExperimentConfiguration experiment) {
+        return gson.toJson(experiment);
+    }
+
+    @Override
+    public ExperimentConfiguration decode(String encoded) {
+        return gson.fromJson(encoded, ExperimentConfiguration.class);
+    }
+
+    @Override
+    public boolean canDecode(String encoded) {
+        return (encoded != null) && encoded.startsWith("{");
+    }
+}
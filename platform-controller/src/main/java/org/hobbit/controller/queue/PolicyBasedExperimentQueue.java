@@ -0,0 +1,128 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+
+/**
+ * An experiment queue that stores the experiments in another queue and uses a
+ * {@link SchedulingPolicy} to decide which experiment should be executed next.
+ * The policy only gets the candidates offered by
+ * {@link ExperimentQueue#getSchedulingCandidates(Set, long)}. The time at which
+ * an experiment is added is stored as its submission time.
+ */
+public class PolicyBasedExperimentQueue implements ExperimentQueue, Closeable {
+
+    /**
+     * The queue storing the experiments.
+     */
+    private final ExperimentQueue queue;
+    /**
+     * The policy selecting the next experiment.
+     */
+    private final SchedulingPolicy policy;
+
+    public PolicyBasedExperimentQueue(ExperimentQueue queue, SchedulingPolicy policy) {
+        this.queue = queue;
+        this.policy = policy;
+    }
+
+    @Override
+    public ExperimentConfiguration getNextExperiment(Set<String> excludedExperimentIds) {
+        long now = System.currentTimeMillis();
+        return policy.selectNext(queue.getSchedulingCandidates(excludedExperimentIds, now), now);
+    }
+
+    @Override
+    public void add(ExperimentConfiguration experiment) {
+        queue.add(withSubmissionTime(experiment, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void addAll(Collection<ExperimentConfiguration> experiments) {
+        long now = System.currentTimeMillis();
+        List<ExperimentConfiguration> copies = new ArrayList<>(experiments.size());
+        for (ExperimentConfiguration experiment : experiments) {
+            copies.add(withSubmissionTime(experiment, now));
+        }
+        queue.addAll(copies);
+    }
+
+    /**
+     * Returns the given experiment or a copy of it with the given submission
+     * time if it doesn't have a submission time. The given object is not
+     * changed.
+     */
+    private static ExperimentConfiguration withSubmissionTime(ExperimentConfiguration experiment, long now) {
+        if (experiment.submissionTime != 0) {
+            return experiment;
+        }
+        ExperimentConfiguration copy = new ExperimentConfiguration(experiment);
+        copy.submissionTime = now;
+        return copy;
+    }
+
+    @Override
+    public void experimentStarted(ExperimentConfiguration experiment) {
+        policy.experimentStarted(experiment, System.currentTimeMillis());
+        queue.experimentStarted(experiment);
+    }
+
+    @Override
+    public boolean remove(ExperimentConfiguration experiment) {
+        policy.experimentRemoved(experiment, System.currentTimeMillis());
+        return queue.remove(experiment);
+    }
+
+    @Override
+    public List<ExperimentConfiguration> listAll() {
+        return queue.listAll();
+    }
+
+    @Override
+    public ExperimentConfiguration getExperiment(String experimentId) {
+        return queue.getExperiment(experimentId);
+    }
+
+    @Override
+    public Long getNextExecutionTime() {
+        return queue.getNextExecutionTime();
+    }
+
+    @Override
+    public void addListener(ExperimentQueueListener listener) {
+        queue.addListener(listener);
+    }
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (queue instanceof Closeable) {
+            ((Closeable) queue).close();
+        }
+    }
+}
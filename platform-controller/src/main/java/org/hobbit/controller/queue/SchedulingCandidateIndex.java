@@ -0,0 +1,118 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+
+/**
+ * Index of queued experiments offering the candidates of a
+ * {@link SchedulingPolicy} without going through all queued experiments. The
+ * experiments are grouped into classes: the challenge experiments and the
+ * interactive and batch experiments of every single user. Within a class, the
+ * experiments are ordered by the time since which they are due, i.e., the
+ * execution date of challenge experiments and
+ * {@link ExperimentConfiguration#getWaitingSince()} of other experiments. The
+ * candidates are the first due experiments of all classes, so the costs of
+ * retrieving them depend on the number of users instead of the length of the
+ * queue.
+ *
+ * <p>
+ * This class is not thread-safe. Experiments must not be changed while they
+ * are part of the index.
+ * </p>
+ */
+public class SchedulingCandidateIndex {
+
+    private static final String CHALLENGE_CLASS = "challenge";
+    private static final String BATCH_CLASS_PREFIX = "batch:";
+    private static final String INTERACTIVE_CLASS_PREFIX = "interactive:";
+    private static final Comparator<ExperimentConfiguration> ORDER = Comparator
+            .comparingLong(SchedulingCandidateIndex::getDueSince).thenComparing(e -> e.id);
+
+    /**
+     * The experiments of the single classes mapped to the keys of the classes.
+     */
+    private final Map<String, TreeSet<ExperimentConfiguration>> classes = new HashMap<>();
+
+    public void add(ExperimentConfiguration experiment) {
+        classes.computeIfAbsent(getClassKey(experiment), k -> new TreeSet<>(ORDER)).add(experiment);
+    }
+
+    public void remove(ExperimentConfiguration experiment) {
+        String classKey = getClassKey(experiment);
+        TreeSet<ExperimentConfiguration> experiments = classes.get(classKey);
+        if (experiments != null) {
+            experiments.remove(experiment);
+            if (experiments.isEmpty()) {
+                classes.remove(classKey);
+            }
+        }
+    }
+
+    /**
+     * Returns the first experiment of every class that is due and not
+     * excluded. Since excluded experiments are skipped, the costs grow with the
+     * number of excluded experiments but not with the length of the queue.
+     *
+     * @param excludedExperimentIds IDs of experiments that should not be
+     *                              returned
+     * @param now                   the current time stamp (in ms)
+     * @return the candidates for the next experiment
+     */
+    public List<ExperimentConfiguration> getCandidates(Set<String> excludedExperimentIds, long now) {
+        List<ExperimentConfiguration> candidates = new ArrayList<>();
+        for (TreeSet<ExperimentConfiguration> experiments : classes.values()) {
+            for (ExperimentConfiguration experiment : experiments) {
+                if (getDueSince(experiment) > now) {
+                    // all following experiments are not due, yet
+                    break;
+                }
+                if (!excludedExperimentIds.contains(experiment.id)) {
+                    candidates.add(experiment);
+                    break;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean isChallenge(ExperimentConfiguration experiment) {
+        return (experiment.challengeUri != null) && (experiment.challengeTaskUri != null);
+    }
+
+    private static String getClassKey(ExperimentConfiguration experiment) {
+        if (isChallenge(experiment)) {
+            return CHALLENGE_CLASS;
+        }
+        return (experiment.batch ? BATCH_CLASS_PREFIX : INTERACTIVE_CLASS_PREFIX) + experiment.userName;
+    }
+
+    private static long getDueSince(ExperimentConfiguration experiment) {
+        if (isChallenge(experiment)) {
+            return (experiment.executionDate != null) ? experiment.executionDate.getTimeInMillis() : 0;
+        }
+        return experiment.getWaitingSince();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import java.util.List;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.data.UserShare;
+
+/**
+ * Interface of a policy that decides which of the waiting experiments should
+ * be executed next. It is used by the {@link PolicyBasedExperimentQueue}.
+ */
+public interface SchedulingPolicy {
+
+    /**
+     * Selects the experiment that should be executed next.
+     *
+     * @param candidates the experiments that are due and could be started
+     * @param now        the current time stamp (in ms)
+     * @return the experiment that should be executed next or {@code null} if
+     *         the list of candidates is empty
+     */
+    public ExperimentConfiguration selectNext(List<ExperimentConfiguration> candidates, long now);
+
+    /**
+     * Informs the policy that the given experiment has been started.
+     *
+     * @param experiment the experiment that has been started
+     * @param now        the current time stamp (in ms)
+     */
+    public void experimentStarted(ExperimentConfiguration experiment, long now);
+
+    /**
+     * Informs the policy that the given experiment has been removed from the
+     * queue, i.e., it has been terminated or canceled before its start.
+     *
+     * @param experiment the experiment that has been removed
+     * @param now        the current time stamp (in ms)
+     */
+    public void experimentRemoved(ExperimentConfiguration experiment, long now);
+
+    /**
+     * Returns the current share accounting of the users or {@code null} if
+     * this policy does not distinguish between users.
+     *
+     * @param now the current time stamp (in ms)
+     * @return the shares of the users known to this policy
+     */
+    public List<UserShare> getShares(long now);
+}
@@ -0,0 +1,105 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.utils;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single point through which the controller exposes the metrics of its
+ * components, e.g., the {@link OperationMetrics} of the command handling or
+ * the Docker requests. The components register a source of their metrics
+ * under a name and the current values of all sources are logged
+ * periodically.
+ */
+public class MetricsLogger implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsLogger.class);
+
+    public static final long DEFAULT_INTERVAL = 5 * 60 * 1000;
+
+    /**
+     * The sources of the metrics mapped to their names. Guarded by this
+     * logger.
+     */
+    private final Map<String, Supplier<?>> sources = new LinkedHashMap<>();
+    private Timer timer = null;
+
+    /**
+     * Registers the given source of metrics. A source that has been registered
+     * under the same name before is replaced.
+     *
+     * @param name   the name under which the metrics are logged
+     * @param source supplies the current metrics. The result is logged using
+     *               its {@link Object#toString()} method.
+     */
+    public synchronized void register(String name, Supplier<?> source) {
+        sources.put(name, source);
+    }
+
+    /**
+     * Starts logging the metrics in the given interval.
+     *
+     * @param interval the interval (in ms) in which the metrics are logged. If
+     *                 it is not positive, the metrics are not logged.
+     */
+    public synchronized void start(long interval) {
+        if ((interval <= 0) || (timer != null)) {
+            return;
+        }
+        timer = new Timer("metrics-logger", true);
+        timer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    logMetrics();
+                } catch (Throwable e) {
+                    LOGGER.error("Couldn't log the metrics.", e);
+                }
+            }
+        }, interval, interval);
+    }
+
+    /**
+     * Logs the current metrics of all registered sources.
+     */
+    public synchronized void logMetrics() {
+        for (Entry<String, Supplier<?>> source : sources.entrySet()) {
+            try {
+                LOGGER.info("Metrics of {}: {}", source.getKey(), source.getValue().get());
+            } catch (Exception e) {
+                LOGGER.warn("Couldn't get the metrics of " + source.getKey() + ".", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+}
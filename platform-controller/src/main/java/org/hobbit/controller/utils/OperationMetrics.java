@@ -0,0 +1,103 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simple thread-safe metrics of an operation that is executed repeatedly. It
+ * counts the executions, failures and retries and sums up the time (in ms)
+ * the executions took.
+ */
+public class OperationMetrics {
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong totalDuration = new AtomicLong();
+    private final AtomicLong maxDuration = new AtomicLong();
+
+    /**
+     * Records a successful execution.
+     *
+     * @param duration the time (in ms) the execution took
+     */
+    public void recordSuccess(long duration) {
+        record(duration);
+    }
+
+    /**
+     * Records a failed execution that won't be retried.
+     *
+     * @param duration the time (in ms) the execution took
+     */
+    public void recordFailure(long duration) {
+        failures.incrementAndGet();
+        record(duration);
+    }
+
+    /**
+     * Records a failed execution that will be retried.
+     *
+     * @param duration the time (in ms) the execution took
+     */
+    public void recordRetry(long duration) {
+        retries.incrementAndGet();
+        record(duration);
+    }
+
+    private void record(long duration) {
+        executions.incrementAndGet();
+        totalDuration.addAndGet(duration);
+        maxDuration.accumulateAndGet(duration, Math::max);
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getTotalDuration() {
+        return totalDuration.get();
+    }
+
+    public long getMaxDuration() {
+        return maxDuration.get();
+    }
+
+    /**
+     * @return the average duration (in ms) of the executions or 0 if there
+     *         hasn't been any execution
+     */
+    public double getAverageDuration() {
+        long count = executions.get();
+        return count > 0 ? (totalDuration.get() / (double) count) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{executions=%d, failures=%d, retries=%d, avg=%.1fms, max=%dms}", getExecutions(),
+                getFailures(), getRetries(), getAverageDuration(), getMaxDuration());
+    }
+}
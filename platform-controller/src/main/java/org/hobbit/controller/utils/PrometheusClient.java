@@ -0,0 +1,283 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * A client for the HTTP query API of Prometheus. The queries are executed by a
+ * small pool of threads and the responses are parsed while they are streamed,
+ * i.e., only the result array of a response is materialized. Connections are
+ * kept alive and reused by the HTTP implementation of the JDK. Identical
+ * queries that are sent while a query is running or before its result expires
+ * share the same response.
+ */
+public class PrometheusClient implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrometheusClient.class);
+
+    public static final int DEFAULT_TIMEOUT = 10000;
+    public static final int DEFAULT_THREADS = 4;
+    /**
+     * Number of cached queries above which expired entries are removed.
+     */
+    private static final int CACHE_CLEANUP_SIZE = 100;
+
+    private final String queryUrl;
+    private final int timeout;
+    /**
+     * Time (in ms) the result of a query is reused.
+     */
+    private final long cacheTtl;
+    private final ExecutorService executor;
+    private final Map<String, CachedQuery> cache = new ConcurrentHashMap<>();
+    private final OperationMetrics queryMetrics = new OperationMetrics();
+
+    /**
+     * Constructor.
+     *
+     * @param host     the host name of Prometheus
+     * @param port     the port of the Prometheus HTTP API
+     * @param timeout  the connect and read timeout (in ms) of a single request
+     * @param cacheTtl the time (in ms) a query result is reused. {@code 0}
+     *                 disables the caching but queries that are running are
+     *                 still shared.
+     * @param threads  the maximum number of queries that are executed in
+     *                 parallel
+     */
+    public PrometheusClient(String host, int port, int timeout, long cacheTtl, int threads) {
+        this.queryUrl = "http://" + host + ":" + port + "/api/v1/query?query=";
+        this.timeout = timeout;
+        this.cacheTtl = cacheTtl;
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "prometheus-client-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Sends the given query to Prometheus without blocking the calling thread.
+     * If the same query has been sent recently, the cached response is
+     * returned.
+     *
+     * @param query the PromQL query
+     * @return a future that is completed with the result array of the response
+     *         or completed exceptionally if the query failed
+     */
+    public CompletableFuture<JsonArray> queryAsync(String query) {
+        while (true) {
+            CachedQuery cached = cache.get(query);
+            if ((cached != null) && !cached.isExpired(System.currentTimeMillis())) {
+                return cached.result;
+            }
+            CachedQuery newQuery = new CachedQuery();
+            // make sure that only one thread executes the query
+            boolean added = (cached == null) ? (cache.putIfAbsent(query, newQuery) == null)
+                    : cache.replace(query, cached, newQuery);
+            if (added) {
+                execute(query, newQuery);
+                removeExpiredQueries();
+                return newQuery.result;
+            }
+        }
+    }
+
+    /**
+     * Sends the given query to Prometheus and waits for its result.
+     *
+     * @param query the PromQL query
+     * @return the result array of the response
+     * @throws IOException if the query failed
+     */
+    public JsonArray query(String query) throws IOException {
+        try {
+            return queryAsync(query).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error while requesting Prometheus", e.getCause());
+        }
+    }
+
+    private void execute(String query, CachedQuery cachedQuery) {
+        try {
+            executor.execute(() -> {
+                long start = System.currentTimeMillis();
+                try {
+                    JsonArray result = request(query);
+                    queryMetrics.recordSuccess(System.currentTimeMillis() - start);
+                    cachedQuery.expiresAt = System.currentTimeMillis() + cacheTtl;
+                    cachedQuery.result.complete(result);
+                } catch (Throwable e) {
+                    queryMetrics.recordFailure(System.currentTimeMillis() - start);
+                    // failed queries are not cached
+                    cache.remove(query, cachedQuery);
+                    cachedQuery.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cache.remove(query, cachedQuery);
+            cachedQuery.result.completeExceptionally(new IOException("The Prometheus client has been closed.", e));
+        }
+    }
+
+    private void removeExpiredQueries() {
+        if (cache.size() > CACHE_CLEANUP_SIZE) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(cached -> cached.isExpired(now));
+        }
+    }
+
+    private JsonArray request(String query) throws IOException {
+        LOGGER.debug("Prometheus query: {}", query);
+        URL url = new URL(queryUrl + URLEncoder.encode(query, StandardCharsets.UTF_8.name()));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setRequestProperty("Accept", "application/json");
+        int responseCode;
+        try {
+            responseCode = connection.getResponseCode();
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            // read the complete error response to be able to reuse the connection
+            InputStream error = connection.getErrorStream();
+            String message = null;
+            if (error != null) {
+                try (InputStream in = error) {
+                    message = IOUtils.toString(in, StandardCharsets.UTF_8);
+                }
+            }
+            throw new IOException("Got status " + responseCode + " for Prometheus query " + query + ": " + message);
+        }
+        // closing the completely read stream keeps the connection alive
+        try (InputStream in = connection.getInputStream()) {
+            return readResult(in);
+        }
+    }
+
+    /**
+     * Reads the result array of the given Prometheus response without
+     * materializing the complete response.
+     *
+     * @param in the stream containing the JSON response
+     * @return the result array of the response
+     * @throws IOException if the response couldn't be read or Prometheus
+     *                     reported an error
+     */
+    public static JsonArray readResult(InputStream in) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String status = null;
+        String error = null;
+        JsonArray result = null;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case "status":
+                    status = reader.nextString();
+                    break;
+                case "error":
+                    error = reader.nextString();
+                    break;
+                case "data":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("result".equals(reader.nextName())) {
+                            result = new JsonParser().parse(reader).getAsJsonArray();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | UnsupportedOperationException e) {
+            throw new IOException("Got a malformed response from Prometheus.", e);
+        }
+        if (!"success".equals(status)) {
+            throw new IOException("Prometheus reported status " + status + ": " + error);
+        }
+        return (result != null) ? result : new JsonArray();
+    }
+
+    /**
+     * @return the durations and failures of the requests sent to Prometheus.
+     *         Responses taken from the cache are not counted.
+     */
+    public OperationMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A query that is running or whose result can be reused until it expires.
+     */
+    private static class CachedQuery {
+        private final CompletableFuture<JsonArray> result = new CompletableFuture<>();
+        /**
+         * The query does not expire before it is completed.
+         */
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
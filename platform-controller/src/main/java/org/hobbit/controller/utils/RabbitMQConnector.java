@@ -25,6 +25,7 @@ import org.hobbit.core.components.AbstractCommandReceivingComponent;
 
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.Connection;
 
 /**
  * This class connects the controller to the experiment's command queue.
@@ -34,6 +35,17 @@ public class RabbitMQConnector extends AbstractCommandReceivingComponent {
      * The controller this connector belongs to.
      */
     private PlatformController controller;
+    /**
+     * The virtual host of the broker or {@code null} if the default virtual host
+     * should be used.
+     */
+    private String virtualHost = null;
+    /**
+     * The user name used to connect to the broker or {@code null} if the default
+     * credentials should be used.
+     */
+    private String username = null;
+    private String password = null;
 
     /**
      * Constructor needed for testing.
@@ -44,6 +56,30 @@ public class RabbitMQConnector extends AbstractCommandReceivingComponent {
         this.rabbitMQHostName = rabbitMQHostName;
     }
 
+    /**
+     * Creates a connector for the given virtual host of the given broker using
+     * the given credentials.
+     */
+    public RabbitMQConnector(PlatformController controller, String rabbitMQHostName, String virtualHost,
+            String username, String password) {
+        this(controller, rabbitMQHostName);
+        this.virtualHost = virtualHost;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    protected Connection createConnection() throws Exception {
+        if (virtualHost != null) {
+            connectionFactory.setVirtualHost(virtualHost);
+        }
+        if (username != null) {
+            connectionFactory.setUsername(username);
+            connectionFactory.setPassword(password);
+        }
+        return super.createConnection();
+    }
+
     @Override
     public void run() throws Exception {
         throw new IllegalStateException();
@@ -52,7 +88,8 @@ public class RabbitMQConnector extends AbstractCommandReceivingComponent {
     /**
      * The controller overrides the super method because it does not need to check
      * for the leading hobbit id and delegates the command handling to the
-     * {@link #receiveCommand(byte, byte[], String, String)} method.
+     * {@link PlatformController#dispatchCommand(byte, byte[], String, BasicProperties)}
+     * method.
      */
     @Override
     protected void handleCmd(byte bytes[], AMQP.BasicProperties props) {
@@ -69,13 +106,23 @@ public class RabbitMQConnector extends AbstractCommandReceivingComponent {
         } else {
             remainingData = new byte[0];
         }
-        controller.receiveCommand(command, remainingData, sessionId, props);
+        controller.dispatchCommand(command, remainingData, sessionId, props);
     }
 
     public void basicPublish(String exchange, String routingKey, BasicProperties props, byte[] body) throws IOException {
         cmdChannel.basicPublish(exchange, routingKey, props, body);
     }
 
+    /**
+     * Returns whether the channel to the broker is open, i.e., whether the
+     * connector has been initialized and the broker is still reachable.
+     *
+     * @return {@code true} if the channel to the broker is open
+     */
+    public boolean isOpen() {
+        return (cmdChannel != null) && cmdChannel.isOpen();
+    }
+
     @Override
     public String toString() {
         return String.format("RabbitMQConnector{rabbitMQHostName=%s}", this.rabbitMQHostName);
@@ -0,0 +1,147 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.google.gson.JsonObject;
+
+/**
+ * A simple client for the HTTP API of the RabbitMQ management plugin that is
+ * used to create and delete the virtual hosts and users of experiments on a
+ * shared broker.
+ */
+public class RabbitMQManagementClient {
+
+    private static final int TIMEOUT = 10000;
+
+    /**
+     * The base URL of the management API, e.g., {@code http://rabbit:15672}.
+     */
+    private String managementUrl;
+    /**
+     * Basic authentication header of the administrator.
+     */
+    private String basicAuth;
+
+    /**
+     * Constructor.
+     *
+     * @param managementUrl the base URL of the management API, e.g.,
+     *                      {@code http://rabbit:15672}
+     * @param username      the name of a user with administrator rights
+     * @param password      the password of the user
+     */
+    public RabbitMQManagementClient(String managementUrl, String username, String password) {
+        this.managementUrl = managementUrl.endsWith("/") ? managementUrl.substring(0, managementUrl.length() - 1)
+                : managementUrl;
+        this.basicAuth = "Basic "
+                + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a virtual host with the given name.
+     *
+     * @param virtualHost the name of the virtual host
+     * @throws IOException if the virtual host couldn't be created
+     */
+    public void createVirtualHost(String virtualHost) throws IOException {
+        send("PUT", "/api/vhosts/" + encode(virtualHost), null);
+    }
+
+    /**
+     * Deletes the virtual host with the given name together with all its queues
+     * and exchanges. A virtual host that does not exist is ignored, i.e., the
+     * deletion can be retried.
+     *
+     * @param virtualHost the name of the virtual host
+     * @throws IOException if the virtual host couldn't be deleted
+     */
+    public void deleteVirtualHost(String virtualHost) throws IOException {
+        send("DELETE", "/api/vhosts/" + encode(virtualHost), null);
+    }
+
+    /**
+     * Creates a user with the given name and password that has full access to
+     * the given virtual host but no access to the management API.
+     *
+     * @param username    the name of the user
+     * @param password    the password of the user
+     * @param virtualHost the virtual host the user should have access to
+     * @throws IOException if the user or its permissions couldn't be created
+     */
+    public void createUser(String username, String password, String virtualHost) throws IOException {
+        JsonObject user = new JsonObject();
+        user.addProperty("password", password);
+        user.addProperty("tags", "");
+        send("PUT", "/api/users/" + encode(username), user);
+        JsonObject permissions = new JsonObject();
+        permissions.addProperty("configure", ".*");
+        permissions.addProperty("write", ".*");
+        permissions.addProperty("read", ".*");
+        send("PUT", "/api/permissions/" + encode(virtualHost) + "/" + encode(username), permissions);
+    }
+
+    /**
+     * Deletes the user with the given name. A user that does not exist is
+     * ignored, i.e., the deletion can be retried.
+     *
+     * @param username the name of the user
+     * @throws IOException if the user couldn't be deleted
+     */
+    public void deleteUser(String username) throws IOException {
+        send("DELETE", "/api/users/" + encode(username), null);
+    }
+
+    private void send(String method, String path, JsonObject body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(managementUrl + path).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+            connection.setRequestProperty("Authorization", basicAuth);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int responseCode = connection.getResponseCode();
+            // a resource that should be deleted might have been deleted before
+            if ("DELETE".equals(method) && (responseCode == HttpURLConnection.HTTP_NOT_FOUND)) {
+                return;
+            }
+            if ((responseCode < 200) || (responseCode >= 300)) {
+                throw new IOException("Got status " + responseCode + " for " + method + " " + path
+                        + " from the RabbitMQ management API.");
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String encode(String value) throws IOException {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8.name()).replace("+", "%20");
+    }
+}
@@ -275,7 +275,7 @@ public class ChallengePublicationTest {
     protected static final class DummyQueue implements ExperimentQueue {
 
         @Override
-        public ExperimentConfiguration getNextExperiment() {
+        public ExperimentConfiguration getNextExperiment(Set<String> excludedExperimentIds) {
             return null;
         }
 
@@ -56,7 +56,10 @@ public class ExperimentHardwareInformationTest extends DockerBasedTest {
         LOGGER.info("Waiting for experiment to start...");
         Thread.sleep(2000);
 
-        manager.handleExperimentTermination();
+        manager.handleExperimentTermination(EXPERIMENT_ID);
+        // the hardware information is added by the teardown pipeline
+        Assert.assertTrue("Teardown finished", manager.teardownPipeline.awaitCompletion(60000));
+        Assert.assertTrue("Results flushed", manager.resultSpool.awaitFlush(60000));
         Model resultModel = ((DummyStorageServiceClient) controller.storage).insertedModel;
         Assert.assertNotNull("Result model", resultModel);
 
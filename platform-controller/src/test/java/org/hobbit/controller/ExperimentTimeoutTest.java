@@ -9,6 +9,7 @@ import org.apache.commons.configuration2.EnvironmentConfiguration;
 import org.apache.commons.configuration2.MapConfiguration;
 import org.apache.jena.rdf.model.Model;
 import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.execute.ExperimentSlot;
 import org.hobbit.controller.mocks.DummyImageManager;
 import org.hobbit.controller.mocks.DummyPlatformController;
 import org.hobbit.controller.mocks.DummyStorageServiceClient;
@@ -57,10 +58,10 @@ public class ExperimentTimeoutTest {
             // We have to override the creation of the RabbitMQ connector to the
             // experiment's RabbitMQ broker. Instead, we connect to the already running
             // RabbitMQ.
-            protected void createRabbitMQ(ExperimentConfiguration config) throws Exception {
+            protected void createRabbitMQ(ExperimentSlot slot) throws Exception {
                 RabbitMQConnector rabbitMQConnector = new RabbitMQConnector(controller,
                         this.hobbitConfig.getString(Constants.RABBIT_MQ_HOST_NAME_KEY));
-                controller.setExpRabbitMQConnector(rabbitMQConnector);
+                slot.setRabbitMQConnector(rabbitMQConnector);
                 rabbitMQConnector.init();
             };
         };
@@ -72,6 +73,8 @@ public class ExperimentTimeoutTest {
         benchmarkControllerTerminated.acquire();
         // Give the system some time to tidy up
         Thread.sleep(1000);
+        Assert.assertTrue("Teardown finished", manager.teardownPipeline.awaitCompletion(10000));
+        Assert.assertTrue("Results flushed", manager.resultSpool.awaitFlush(10000));
         // Check queue
         Assert.assertEquals("Queue size after experiment termination by timeout", 0, controller.queue.listAll().size());
         // Check status
@@ -0,0 +1,158 @@
+package org.hobbit.controller;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.data.ExperimentStatus;
+import org.hobbit.controller.data.HardwareResources;
+import org.hobbit.controller.execute.ExperimentSlot;
+import org.hobbit.controller.mocks.DummyClusterManager;
+import org.hobbit.controller.mocks.DummyContainerManager;
+import org.hobbit.controller.mocks.DummyImageManager;
+import org.hobbit.controller.mocks.DummyPlatformController;
+import org.hobbit.core.Commands;
+import org.hobbit.core.rabbit.RabbitMQUtils;
+import org.hobbit.utils.config.HobbitConfiguration;
+import org.hobbit.vocab.HOBBIT;
+import org.hobbit.vocab.HobbitExperiments;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Executes two experiments in parallel using a dummy {@link PlatformController}
+ * and checks that they are created concurrently, that commands are routed to
+ * the slot of their session and that the termination of one experiment frees
+ * only its own slot.
+ */
+public class ParallelExperimentsTest {
+
+    private static final String SESSION_A = "session-a";
+    private static final String SESSION_B = "session-b";
+
+    private ExperimentManager manager;
+    private PlatformController controller;
+    private File spoolDirectory;
+    /**
+     * Counted down by every experiment that is created. The creation waits until
+     * both experiments are created at the same time.
+     */
+    private CountDownLatch parallelCreation = new CountDownLatch(2);
+    private Set<String> parallelCreatedSessions = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void init() throws Exception {
+        spoolDirectory = Files.createTempDirectory("result-spool").toFile();
+        Configuration config = new MapConfiguration(new HashMap<>());
+        config.addProperty(ExperimentManager.MAX_PARALLEL_EXPERIMENTS_KEY, "2");
+        config.addProperty(ExperimentManager.RESULT_SPOOL_DIRECTORY_KEY, spoolDirectory.getAbsolutePath());
+        config.addProperty("HOBBIT_RABBIT_IMAGE", "rabbitmq:management");
+        HobbitConfiguration configuration = new HobbitConfiguration();
+        configuration.addConfiguration(config);
+
+        controller = new DummyPlatformController();
+        // the containers of the two experiments need different names
+        controller.containerManager = new DummyContainerManager(new Semaphore(0), controller) {
+            @Override
+            public String startContainer(String imageName, String containerType, String parentId, String[] env,
+                    String[] netAliases, String[] command, String experimentId, Map<String, Object> constraints) {
+                return imageName + "-" + experimentId;
+            }
+        };
+        // both experiments fit on the single node
+        DummyClusterManager clusterManager = new DummyClusterManager();
+        clusterManager.nodes.put(null, Arrays.asList(new HardwareResources(4000000000L, 4000000000L)));
+        controller.clusterManager = clusterManager;
+        controller.queue.add(createConfig(SESSION_A));
+        controller.queue.add(createConfig(SESSION_B));
+
+        // the experiments are started manually
+        manager = new ExperimentManager(controller, configuration, 600000, 600000) {
+            protected void createRabbitMQ(ExperimentSlot slot) throws Exception {
+                // there is no broker, but the creations wait for each other
+                parallelCreation.countDown();
+                if (parallelCreation.await(10, TimeUnit.SECONDS)) {
+                    parallelCreatedSessions.add(slot.getSessionId());
+                }
+            };
+        };
+        controller.expManager = manager;
+    }
+
+    private static ExperimentConfiguration createConfig(String sessionId) {
+        Model model = ModelFactory.createDefaultModel();
+        Resource hardware = model.createResource();
+        model.add(HobbitExperiments.New, HOBBIT.maxHardware, hardware);
+        model.addLiteral(hardware, HOBBIT.hasCPUTypeCount, 1);
+        model.addLiteral(hardware, HOBBIT.hasMemory, 1000000000L);
+        return new ExperimentConfiguration(sessionId, DummyImageManager.BENCHMARK_NAME,
+                RabbitMQUtils.writeModel2String(model), DummyImageManager.SYSTEM_URI);
+    }
+
+    @Test(timeout = 30000)
+    public void test() throws Exception {
+        manager.createNextExperiment();
+        ExperimentStatus statusA = awaitCreation(SESSION_A);
+        ExperimentStatus statusB = awaitCreation(SESSION_B);
+        Assert.assertEquals("Experiments created in parallel", 2, parallelCreatedSessions.size());
+        ExperimentSlot slotA = manager.getSlot(SESSION_A);
+        ExperimentSlot slotB = manager.getSlot(SESSION_B);
+        Assert.assertNotNull(slotA);
+        Assert.assertNotNull(slotB);
+        Assert.assertNotSame("Slots of the two experiments", slotA, slotB);
+
+        // the ready signal of the system of A has to reach A only
+        controller.receiveCommand(Commands.SYSTEM_READY_SIGNAL, null, SESSION_A, null);
+        Assert.assertTrue("System of A is ready", statusA.setReadyAndCheck(false));
+        Assert.assertFalse("System of B is ready", statusB.setReadyAndCheck(false));
+
+        // the termination of A has to free only the slot of A
+        manager.handleExperimentTermination(SESSION_A);
+        Assert.assertTrue("Slot of A is free", slotA.isFree());
+        Assert.assertNull(manager.getSlot(SESSION_A));
+        Assert.assertSame("Slot of B", slotB, manager.getSlot(SESSION_B));
+        Assert.assertSame("Status of B", statusB, slotB.getStatus());
+        Assert.assertTrue("Teardown finished", manager.teardownPipeline.awaitCompletion(10000));
+        Assert.assertTrue("B is still running", manager.isExpRunning(SESSION_B));
+        Assert.assertFalse("A is still running", manager.isExpRunning(SESSION_A));
+    }
+
+    /**
+     * Waits until the system of the given experiment has been created.
+     *
+     * @param sessionId the ID of the experiment
+     * @return the status of the experiment
+     */
+    private ExperimentStatus awaitCreation(String sessionId) throws InterruptedException {
+        while (true) {
+            ExperimentStatus status = manager.getExperimentStatus(sessionId);
+            if ((status != null) && (status.getSystemContainer() != null)) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    @After
+    public void close() {
+        IOUtils.closeQuietly(manager);
+        FileUtils.deleteQuietly(spoolDirectory);
+    }
+}
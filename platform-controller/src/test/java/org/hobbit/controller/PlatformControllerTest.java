@@ -148,10 +148,11 @@ public class PlatformControllerTest extends ContainerManagerBasedTest {
 
         public LocalExperimentManager(PlatformController controller, HobbitConfiguration config, String session) {
             super(controller, config);
-            experimentStatus = new ExperimentStatus(
+            ExperimentStatus experimentStatus = new ExperimentStatus(
                     new ExperimentConfiguration(session, "TestBenchmark", "", "TestSytem"),
                     HobbitExperiments.getExperimentURI(session));
             experimentStatus.setState(States.STARTED);
+            slots[0].setStatus(experimentStatus);
         }
 
     }
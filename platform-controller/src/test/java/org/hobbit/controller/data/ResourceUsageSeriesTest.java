@@ -0,0 +1,101 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.hobbit.controller.data.ResourceUsageSeries.Statistics;
+import org.hobbit.core.data.usage.CpuStats;
+import org.hobbit.core.data.usage.DiskStats;
+import org.hobbit.core.data.usage.MemoryStats;
+import org.hobbit.core.data.usage.ResourceUsageInformation;
+import org.junit.Test;
+
+public class ResourceUsageSeriesTest {
+
+    private static final double DELTA = 0.000001;
+
+    @Test
+    public void testStatistics() {
+        ResourceUsageSeries series = new ResourceUsageSeries("system");
+        assertNull(series.getCpuStatistics());
+        assertNull(series.getMemoryStatistics());
+        // one sample per second, the CPU time grows with 1, 2, 3 and 4 cores
+        long cpuTime = 0;
+        for (int i = 0; i < 5; ++i) {
+            cpuTime += i * 1000;
+            series.addSample(i * 1000, createUsage(cpuTime, (i + 1) * 100, 50));
+        }
+        // samples of stopped containers are ignored
+        series.addSample(5000, null);
+        assertEquals(5, series.size());
+
+        Statistics cpu = series.getCpuStatistics();
+        assertEquals(1, cpu.min, DELTA);
+        assertEquals(4, cpu.max, DELTA);
+        assertEquals(2.5, cpu.mean, DELTA);
+        assertArrayEquals(new double[] { 2, 4, 4 }, cpu.percentiles, DELTA);
+        assertArrayEquals(new double[] { 1, 2, 3, 4 }, cpu.series, DELTA);
+
+        Statistics memory = series.getMemoryStatistics();
+        assertEquals(100, memory.min, DELTA);
+        assertEquals(500, memory.max, DELTA);
+        assertEquals(300, memory.mean, DELTA);
+        assertArrayEquals(new double[] { 300, 500, 500 }, memory.percentiles, DELTA);
+
+        assertEquals(50, series.getDiskStatistics().mean, DELTA);
+    }
+
+    @Test
+    public void testCompaction() {
+        ResourceUsageSeries series = new ResourceUsageSeries("benchmark", 4);
+        for (int i = 0; i < 9; ++i) {
+            series.addSample(i * 1000, createUsage(0, i, 0));
+        }
+        // the buffer still covers the complete time with a lower resolution
+        Statistics memory = series.getMemoryStatistics();
+        assertEquals(0, memory.min, DELTA);
+        assertEquals(8, memory.max, DELTA);
+        assertArrayEquals(new double[] { 0, 4, 8 }, memory.series, DELTA);
+        // the CPU usage is 0 since the CPU time does not increase
+        assertEquals(0, series.getCpuStatistics().max, DELTA);
+    }
+
+    @Test
+    public void testDownsampling() {
+        long[] timestamps = new long[120];
+        double[] values = new double[120];
+        for (int i = 0; i < values.length; ++i) {
+            timestamps[i] = i * 1000;
+            values[i] = i;
+        }
+        Statistics statistics = Statistics.create(timestamps, values, 60);
+        assertEquals(60, statistics.series.length);
+        assertEquals(0.5, statistics.series[0], DELTA);
+        assertEquals(118.5, statistics.series[59], DELTA);
+    }
+
+    private static ResourceUsageInformation createUsage(long cpuTime, long memory, long disk) {
+        ResourceUsageInformation usage = new ResourceUsageInformation();
+        usage.setCpuStats(new CpuStats(cpuTime));
+        usage.setMemoryStats(new MemoryStats(memory));
+        usage.setDiskStats(new DiskStats(disk));
+        return usage;
+    }
+}
@@ -1,5 +1,9 @@
 package org.hobbit.controller.docker;
 
+import java.util.List;
+
+import org.hobbit.controller.data.HardwareResources;
+
 import com.spotify.docker.client.messages.Info;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,6 +43,15 @@ public class ClusterManagerImplTest {
         assertEquals(0, numberOfNodes);
     }
 
+    @Test
+    public void getNodeResources() throws Exception {
+        List<HardwareResources> nodes = clusterManager.getNodeResources(null);
+        assertEquals(1, nodes.size());
+        assertTrue(nodes.get(0).getNanoCpus() > 0);
+        assertTrue(nodes.get(0).getMemory() > 0);
+        assertEquals(0, clusterManager.getNodeResources("org.hobbit.workergroup=system").size());
+    }
+
     @Test
     public void isClusterHealthy() throws Exception {
         boolean isHealthy = clusterManager.isClusterHealthy();
@@ -27,8 +27,12 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import org.hobbit.controller.data.HardwareResources;
+import org.hobbit.controller.mocks.DummyClusterManager;
 import org.hobbit.core.Constants;
 import org.junit.Assert;
 import org.junit.Assume;
@@ -45,8 +49,11 @@ import com.spotify.docker.client.messages.ContainerConfig;
 import com.spotify.docker.client.messages.HostConfig;
 import com.spotify.docker.client.messages.Image;
 import com.spotify.docker.client.messages.PortBinding;
+import com.spotify.docker.client.messages.swarm.ContainerSpec;
 import com.spotify.docker.client.messages.swarm.Service;
+import com.spotify.docker.client.messages.swarm.ServiceSpec;
 import com.spotify.docker.client.messages.swarm.Task;
+import com.spotify.docker.client.messages.swarm.TaskSpec;
 import com.spotify.docker.client.messages.swarm.TaskStatus;
 
 /**
@@ -124,6 +131,66 @@ public class ContainerManagerImplTest extends ContainerManagerBasedTest {
         }
     }
 
+    @Test
+    public void startContainersAsync() throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            futures.add(manager.startContainerAsync(busyboxImageName, Constants.CONTAINER_TYPE_SYSTEM, null, null,
+                    null, sleepCommand, true, "asyncTest", null));
+        }
+        for (CompletableFuture<String> future : futures) {
+            String containerId = future.get();
+            assertNotNull(containerId);
+            services.add(containerId);
+        }
+        assertEquals("Number of distinct containers", futures.size(), services.stream().distinct().count());
+    }
+
+    @Test(timeout = 60000)
+    public void pendingStartCompletes() throws Exception {
+        String containerId = manager.startContainerAsync(busyboxImageName, Constants.CONTAINER_TYPE_SYSTEM, null,
+                null, null, sleepCommand, true, "pendingStartTest", null).get();
+        assertNotNull(containerId);
+        services.add(containerId);
+        // the start is only completed after the task left the pending states
+        assertContainerIsRunning("Started container", containerId);
+    }
+
+    @Test(timeout = 60000)
+    public void pendingStartWithoutSuitableNode() throws Exception {
+        // pretend that there are two nodes without labels, so that the system
+        // container gets a placement constraint no node can satisfy
+        DummyClusterManager clusterManager = new DummyClusterManager();
+        clusterManager.nodes.put(null,
+                Arrays.asList(new HardwareResources(1000000000L, 1L << 30), new HardwareResources(1000000000L, 1L << 30)));
+        ContainerManagerImpl constrainedManager = new ContainerManagerImpl(clusterManager);
+        int numberOfServices = dockerClient.listServices().size();
+
+        String containerId = constrainedManager.startContainerAsync(busyboxImageName,
+                Constants.CONTAINER_TYPE_SYSTEM, null, null, null, sleepCommand, true, "pendingStartTest", null).get();
+        if (containerId != null) {
+            services.add(containerId);
+        }
+        assertNull("Container that can't be placed", containerId);
+        assertEquals("Number of services after the failed start", numberOfServices,
+                dockerClient.listServices().size());
+    }
+
+    @Test(timeout = 60000)
+    public void pendingStartTimeout() throws Exception {
+        manager.setContainerStartTimeout(0);
+        int numberOfServices = dockerClient.listServices().size();
+
+        String containerId = manager.startContainerAsync(busyboxImageName, Constants.CONTAINER_TYPE_SYSTEM, null,
+                null, null, sleepCommand, true, "pendingStartTest", null).get();
+        if (containerId != null) {
+            services.add(containerId);
+        }
+        assertNull("Container that didn't start in time", containerId);
+        assertEquals("Number of services after the failed start", numberOfServices,
+                dockerClient.listServices().size());
+    }
+
     @Test
     public void startContainerWithoutCommand() throws Exception {
         String containerId = manager.startContainer(busyboxImageName, Constants.CONTAINER_TYPE_SYSTEM, null);
@@ -210,6 +277,92 @@ public class ContainerManagerImplTest extends ContainerManagerBasedTest {
         assertContainerIsRunning("Unrelated child container", unrelatedChild);
     }
 
+    @Test
+    public void removeParentAndChildrenLevelByLevel() throws Exception {
+        // a chain of four levels: parent -> child -> grandchild -> great-grandchild
+        List<String> chain = new ArrayList<>();
+        String parent = null;
+        for (int i = 0; i < 4; ++i) {
+            parent = manager.startContainer(busyboxImageName, Constants.CONTAINER_TYPE_SYSTEM, parent, sleepCommand);
+            assertNotNull(parent);
+            services.add(parent);
+            chain.add(parent);
+        }
+        // a service that has not been created by the platform is not part of the tree
+        String foreignService = createService("foreign-child-" + System.currentTimeMillis(), chain.get(0), false);
+
+        manager.removeParentAndChildrenOrFail(chain.get(0));
+
+        for (int i = 0; i < chain.size(); ++i) {
+            assertContainerIsNotRunning("Container of level " + i, chain.get(i));
+            services.remove(chain.get(i));
+        }
+        assertNotNull("Foreign service", manager.getContainerInfo(foreignService));
+    }
+
+    @Test(timeout = 120000)
+    public void removeParentAndChildrenWithCycle() throws Exception {
+        long time = System.currentTimeMillis();
+        String serviceA = "cycle-a-" + time;
+        String serviceB = "cycle-b-" + time;
+        // the two services are labeled as parents of each other
+        createService(serviceA, serviceB, true);
+        createService(serviceB, serviceA, true);
+
+        manager.removeParentAndChildrenOrFail(serviceA);
+
+        assertContainerIsNotRunning("Service A", serviceA);
+        services.remove(serviceA);
+        assertContainerIsNotRunning("Service B", serviceB);
+        services.remove(serviceB);
+    }
+
+    @Test(timeout = 120000)
+    public void removeParentAndChildrenInTestingMode() throws Exception {
+        manager.setDeployEnv(ContainerManagerImpl.DEPLOY_ENV_TESTING);
+        String parent = manager.startContainer(busyboxImageName, Constants.CONTAINER_TYPE_BENCHMARK, null,
+                sleepCommand);
+        assertNotNull(parent);
+        services.add(parent);
+        String failingChild = manager.startContainer(busyboxImageName, Constants.CONTAINER_TYPE_BENCHMARK, parent,
+                new String[] { "sh", "-c", "exit 3" });
+        assertNotNull(failingChild);
+        services.add(failingChild);
+        while (manager.getContainerExitCode(failingChild) == null) {
+            Thread.sleep(1000);
+        }
+
+        manager.removeParentAndChildren(parent);
+
+        assertContainerIsNotRunning("Parent container", parent);
+        services.remove(parent);
+        // containers with a non-zero exit code are kept in the testing mode
+        assertNotNull("Failed child container", manager.getContainerInfo(failingChild));
+    }
+
+    /**
+     * Creates a service with the given name directly via the docker client.
+     *
+     * @param name     the name of the service
+     * @param parent   the value of the parent label
+     * @param platform whether the service gets the type label of the services
+     *                 created by the platform
+     * @return the name of the service
+     */
+    private String createService(String name, String parent, boolean platform) throws Exception {
+        Map<String, String> labels = platform
+                ? ImmutableMap.of(ContainerManager.LABEL_TYPE, Constants.CONTAINER_TYPE_SYSTEM,
+                        ContainerManager.LABEL_PARENT, parent)
+                : ImmutableMap.of(ContainerManager.LABEL_PARENT, parent);
+        dockerClient.createService(ServiceSpec.builder().name(name).labels(labels)
+                .taskTemplate(TaskSpec.builder()
+                        .containerSpec(ContainerSpec.builder().image(busyboxImageName).command(sleepCommand).build())
+                        .build())
+                .build());
+        services.add(name);
+        return name;
+    }
+
     @Test
     public void getContainerInfo() throws Exception {
         // start new test container
@@ -440,4 +593,25 @@ public class ContainerManagerImplTest extends ContainerManagerBasedTest {
         Thread.sleep(10000);
         assertEquals("Result of pinging the nonexisting host", Long.valueOf(1), manager.getContainerExitCode(pingContainer));
     }
+
+    @Test
+    public void getContainerExitCodes() throws Exception {
+        String runningContainer = manager.startContainer(busyboxImageName, Constants.CONTAINER_TYPE_BENCHMARK,
+                null, sleepCommand);
+        assertNotNull(runningContainer);
+        services.add(runningContainer);
+
+        String failingContainer = manager.startContainer(busyboxImageName, Constants.CONTAINER_TYPE_BENCHMARK,
+                null, new String[] { "sh", "-c", "exit 3" });
+        assertNotNull(failingContainer);
+        services.add(failingContainer);
+        Thread.sleep(10000);
+
+        Map<String, Long> exitCodes = manager.getContainerExitCodes(
+                Arrays.asList(runningContainer, failingContainer, "nonexistingContainer"));
+        assertEquals("Number of terminated containers", 2, exitCodes.size());
+        assertEquals("Exit code of the failing container", Long.valueOf(3), exitCodes.get(failingContainer));
+        assertEquals("Exit code of the nonexisting container", Long.valueOf(ContainerManager.DOCKER_EXITCODE_SIGKILL),
+                exitCodes.get("nonexistingContainer"));
+    }
 }
@@ -26,7 +26,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.hobbit.controller.mocks.DummyContainerManager;
 import org.hobbit.core.Constants;
 
 /**
@@ -122,4 +125,36 @@ public class ContainerStateObserverImplTest extends ContainerManagerBasedTest {
             Assert.fail(throwable.toString());
         }
     }
+
+    @Test
+    public void terminationIsReportedOnce() throws Exception {
+        // every poll reports the container as exited
+        ContainerStateObserverImpl dummyObserver = new ContainerStateObserverImpl(
+                new DummyContainerManager(new Semaphore(0), null) {
+                    @Override
+                    public Long getContainerExitCode(String serviceName) {
+                        return 0L;
+                    }
+                }, 50);
+        AtomicInteger notifications = new AtomicInteger();
+        Semaphore dummyTermination = new Semaphore(0);
+        dummyObserver.addTerminationCallback((containerId, exitCode) -> {
+            notifications.incrementAndGet();
+            dummyTermination.release();
+        });
+        dummyObserver.addObservedContainer("container");
+        dummyObserver.startObserving();
+        try {
+            Assert.assertTrue(dummyTermination.tryAcquire(10, TimeUnit.SECONDS));
+            // the container is not monitored anymore after its termination has
+            // been reported
+            Assert.assertFalse(dummyObserver.isObserved("container"));
+            // a second report of the same termination is ignored
+            dummyObserver.notifyTermination("container", 0);
+            Thread.sleep(200);
+            assertEquals(1, notifications.get());
+        } finally {
+            dummyObserver.stopObserving();
+        }
+    }
 }
@@ -0,0 +1,62 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.hobbit.controller.utils.OperationMetrics;
+import org.junit.Test;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.exceptions.DockerException;
+
+public class DockerClientMetricsTest {
+
+    @Test
+    public void testMetrics() throws Exception {
+        // a client that answers pings and fails for all other requests
+        DockerClient client = (DockerClient) Proxy.newProxyInstance(DockerClient.class.getClassLoader(),
+                new Class<?>[] { DockerClient.class }, (proxy, method, args) -> {
+                    if ("ping".equals(method.getName())) {
+                        return "OK";
+                    }
+                    throw new DockerException("daemon not available");
+                });
+        DockerClient instrumented = DockerClientMetrics.instrument(client, 1000);
+        assertEquals("OK", instrumented.ping());
+        assertEquals("OK", instrumented.ping());
+        try {
+            instrumented.listServices();
+            fail("The exception of the client should be thrown.");
+        } catch (DockerException e) {
+            // expected
+        }
+
+        Map<String, OperationMetrics> metrics = DockerClientMetrics.getMetrics(instrumented);
+        assertEquals(2, metrics.size());
+        assertEquals(2, metrics.get("ping").getExecutions());
+        assertEquals(0, metrics.get("ping").getFailures());
+        assertEquals(1, metrics.get("listServices").getExecutions());
+        assertEquals(1, metrics.get("listServices").getFailures());
+        assertTrue(DockerClientMetrics.getMetrics(client).isEmpty());
+    }
+}
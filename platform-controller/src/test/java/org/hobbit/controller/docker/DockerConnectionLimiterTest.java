@@ -0,0 +1,71 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.exceptions.DockerException;
+
+public class DockerConnectionLimiterTest {
+
+    @Test
+    public void testLeaseTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // a client whose listServices requests block until they are released
+        DockerClient client = (DockerClient) Proxy.newProxyInstance(DockerClient.class.getClassLoader(),
+                new Class<?>[] { DockerClient.class }, (proxy, method, args) -> {
+                    if ("listServices".equals(method.getName())) {
+                        started.countDown();
+                        release.await();
+                    }
+                    return null;
+                });
+        DockerClient limited = DockerConnectionLimiter.limit(client, 1, 100);
+        Thread blocking = new Thread(() -> {
+            try {
+                limited.listServices();
+            } catch (Exception e) {
+                // nothing to do
+            }
+        });
+        blocking.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // the only connection is used by the blocking request
+        try {
+            limited.ping();
+            fail("The request shouldn't get a connection.");
+        } catch (DockerException e) {
+            // expected
+        }
+
+        release.countDown();
+        blocking.join(10000);
+        // the connection is free again
+        assertEquals(null, limited.ping());
+    }
+}
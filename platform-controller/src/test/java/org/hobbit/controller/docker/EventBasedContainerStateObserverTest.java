@@ -0,0 +1,80 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.hobbit.core.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the {@link EventBasedContainerStateObserver} reports the
+ * termination of a container long before its reconciliation would detect it.
+ */
+public class EventBasedContainerStateObserverTest extends ContainerManagerBasedTest {
+
+    private static final String[] SHORT_SLEEP_COMMAND = { "sleep", "2s" };
+
+    private EventBasedContainerStateObserver observer;
+    private Semaphore termination = new Semaphore(0);
+    private String terminatedContainer = null;
+    private long exitCode = -1;
+
+    @Before
+    public void initObserver() throws Exception {
+        // reconcile only every minute to make sure that the termination is
+        // detected based on the events
+        observer = new EventBasedContainerStateObserver(this.manager, DockerUtility.initializeStreamingDockerClient(),
+                60000);
+        observer.addTerminationCallback(new ContainerTerminationCallback() {
+            @Override
+            public void notifyTermination(String containerId, long exitCode) {
+                terminatedContainer = containerId;
+                EventBasedContainerStateObserverTest.this.exitCode = exitCode;
+                termination.release();
+            }
+        });
+        observer.startObserving();
+    }
+
+    @After
+    public void stopObserver() {
+        observer.stopObserving();
+    }
+
+    @Test
+    public void testTerminationEvent() throws Exception {
+        String containerId = manager.startContainer("busybox:latest", Constants.CONTAINER_TYPE_SYSTEM, null,
+                SHORT_SLEEP_COMMAND);
+        assertNotNull(containerId);
+        services.add(containerId);
+        observer.addObservedContainer(containerId);
+
+        assertTrue("Termination has not been reported", termination.tryAcquire(30, TimeUnit.SECONDS));
+        assertEquals(containerId, terminatedContainer);
+        assertEquals(0, exitCode);
+        // the container must not be reported twice
+        assertTrue(observer.getObservedContainers().isEmpty());
+    }
+}
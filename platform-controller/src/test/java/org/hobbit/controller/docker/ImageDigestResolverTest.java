@@ -0,0 +1,52 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.hobbit.controller.ConnectivityAssumptionUtils;
+import org.junit.Test;
+
+public class ImageDigestResolverTest {
+
+    private ImageDigestResolver resolver = new ImageDigestResolver(null, null, null);
+
+    @Test
+    public void testPinnedImage() {
+        String digest = "sha256:0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+        assertEquals(digest, resolver.resolveDigest("example.org:5000/some/image@" + digest));
+    }
+
+    @Test
+    public void testDockerHubImage() {
+        ConnectivityAssumptionUtils.assumeConnectivity("https://hub.docker.com/");
+        String digest = resolver.resolveDigest("busybox:latest");
+        assertNotNull(digest);
+        assertTrue(digest.startsWith("sha256:"));
+        assertEquals(digest, resolver.resolveDigest("busybox"));
+        assertEquals(digest, resolver.resolveDigest("library/busybox:latest"));
+    }
+
+    @Test
+    public void testUnknownImage() {
+        ConnectivityAssumptionUtils.assumeConnectivity("https://hub.docker.com/");
+        assertNull(resolver.resolveDigest("hobbitproject/this-image-does-not-exist:latest"));
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the retrieval of the resource usage of several services with a stubbed
+ * Prometheus server.
+ */
+public class ResourceInformationCollectorImplTest {
+
+    private static final String METRIC = "container_cpu_usage_seconds_total";
+    private static final String SERVICE_LABEL = "container_label_com_docker_swarm_service_name";
+
+    /**
+     * Two series of service a on node1 (only the first is used), one series of
+     * service a on node2 and one series of service b on node1.
+     */
+    private static final String RESULT = "[" + series("a", "node1", "2") + "," + series("a", "node1", "100") + ","
+            + series("a", "node2", "4") + "," + series("b", "node1", "8") + "]";
+
+    private HttpServer server;
+    private List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    private ResourceInformationCollectorImpl collector;
+
+    private static String series(String service, String instance, String value) {
+        return "{\"metric\":{\"__name__\":\"" + METRIC + "\",\"" + SERVICE_LABEL + "\":\"" + service
+                + "\",\"instance\":\"" + instance + "\"},\"value\":[1.5,\"" + value + "\"]}";
+    }
+
+    @Before
+    public void init() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/query", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            queries.add(URLDecoder.decode(query.substring(query.indexOf("query=") + 6), StandardCharsets.UTF_8.name()));
+            byte[] body = ("{\"status\":\"success\",\"data\":{\"resultType\":\"vector\",\"result\":" + RESULT + "}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        collector = new ResourceInformationCollectorImpl(null, "localhost",
+                Integer.toString(server.getAddress().getPort()));
+    }
+
+    @Test
+    public void testParseServiceValues() {
+        JsonArray result = new JsonParser().parse(RESULT).getAsJsonArray();
+        // malformed series are skipped
+        result.add(new JsonParser().parse("{\"metric\":{\"instance\":\"node1\"},\"value\":[1.5,\"16\"]}"));
+
+        Map<String, Double> averages = ResourceInformationCollectorImpl.parseServiceValues(METRIC, result, true);
+        assertEquals(2, averages.size());
+        assertEquals(3.0, averages.get("a"), 0.000001);
+        assertEquals(8.0, averages.get("b"), 0.000001);
+
+        Map<String, Double> firstValues = ResourceInformationCollectorImpl.parseServiceValues(METRIC, result, false);
+        assertEquals(2, firstValues.size());
+        assertEquals(2.0, firstValues.get("a"), 0.000001);
+        assertEquals(8.0, firstValues.get("b"), 0.000001);
+    }
+
+    @Test
+    public void testSingleQueryForAllServices() throws IOException {
+        Map<String, Double> values = collector
+                .requestServiceValues(METRIC, new LinkedHashSet<>(Arrays.asList("a", "b")), true).join();
+
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0), queries.get(0).contains(SERVICE_LABEL + "=~\"a|b\""));
+        assertTrue(queries.get(0), queries.get(0).contains("__name__=\"" + METRIC + "\""));
+        assertEquals(3.0, values.get("a"), 0.000001);
+        assertEquals(8.0, values.get("b"), 0.000001);
+    }
+
+    @After
+    public void close() {
+        server.stop(0);
+    }
+}
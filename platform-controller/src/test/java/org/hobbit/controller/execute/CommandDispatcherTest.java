@@ -0,0 +1,115 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hobbit.core.Commands;
+import org.junit.After;
+import org.junit.Test;
+
+public class CommandDispatcherTest {
+
+    private CommandDispatcher dispatcher = new CommandDispatcher(4);
+
+    @Test
+    public void testOrderWithinLane() throws Exception {
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(1);
+        for (int i = 0; i < 100; ++i) {
+            final int number = i;
+            dispatcher.dispatch("session", Commands.DOCKER_CONTAINER_START, () -> executed.add(number));
+        }
+        dispatcher.dispatch("session", Commands.DOCKER_CONTAINER_STOP, finished::countDown);
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(100, executed.size());
+        for (int i = 0; i < executed.size(); ++i) {
+            assertEquals(i, executed.get(i).intValue());
+        }
+        assertEquals(100, dispatcher.getLatencies().get(Commands.toString(Commands.DOCKER_CONTAINER_START))
+                .getExecutions());
+    }
+
+    @Test
+    public void testParallelLanes() throws Exception {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch otherSession = new CountDownLatch(1);
+        CountDownLatch otherClass = new CountDownLatch(1);
+        // a slow container start...
+        dispatcher.dispatch("session1", Commands.DOCKER_CONTAINER_START, () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // ...does neither delay other sessions nor other command classes
+        dispatcher.dispatch("session2", Commands.DOCKER_CONTAINER_START, otherSession::countDown);
+        dispatcher.dispatch("session1", Commands.REPORT_ERROR, otherClass::countDown);
+
+        assertTrue(otherSession.await(10, TimeUnit.SECONDS));
+        assertTrue(otherClass.await(10, TimeUnit.SECONDS));
+        // the depth is decreased after the other commands signalled their execution
+        assertTrue(awaitQueueDepth(1, 10000));
+        blocker.countDown();
+        assertTrue(awaitQueueDepth(0, 10000));
+    }
+
+    /**
+     * Waits until the queue depth of the dispatcher reaches the given value.
+     *
+     * @param depth   the expected queue depth
+     * @param timeout the maximum time (in ms) to wait
+     * @return <code>true</code> if the depth has been reached in time
+     */
+    private boolean awaitQueueDepth(int depth, long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (dispatcher.getQueueDepth() != depth) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Test
+    public void testFailingHandler() throws Exception {
+        CountDownLatch finished = new CountDownLatch(1);
+        dispatcher.dispatch("session", Commands.REPORT_ERROR, () -> {
+            throw new IllegalStateException("failing handler");
+        });
+        dispatcher.dispatch("session", Commands.REPORT_ERROR, finished::countDown);
+
+        // the lane continues after a failure
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(1, dispatcher.getLatencies().get(Commands.toString(Commands.REPORT_ERROR)).getFailures());
+    }
+
+    @After
+    public void close() {
+        dispatcher.close();
+    }
+}
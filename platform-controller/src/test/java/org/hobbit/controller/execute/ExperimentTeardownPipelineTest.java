@@ -0,0 +1,72 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hobbit.controller.execute.ExperimentTeardownPipeline.Stage;
+import org.hobbit.controller.utils.OperationMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+public class ExperimentTeardownPipelineTest {
+
+    private ExperimentTeardownPipeline pipeline = new ExperimentTeardownPipeline(2, 3, 10);
+
+    @Test
+    public void testStagesAndRetries() throws Exception {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger flakyCalls = new AtomicInteger();
+        pipeline.submit("1", Arrays.asList(new Stage("first", () -> executed.add("first")),
+                new Stage("flaky", () -> {
+                    // fails twice before it succeeds
+                    if (flakyCalls.incrementAndGet() < 3) {
+                        throw new IllegalStateException("flaky");
+                    }
+                    executed.add("flaky");
+                }), new Stage("broken", () -> {
+                    throw new IllegalStateException("broken");
+                }), new Stage("last", () -> executed.add("last"))));
+
+        assertTrue(pipeline.awaitCompletion(10000));
+        assertTrue(pipeline.getPendingExperimentIds().isEmpty());
+        // a stage that fails permanently does not stop the teardown
+        assertEquals(Arrays.asList("first", "flaky", "last"), executed);
+
+        OperationMetrics metrics = pipeline.getStageMetrics().get("flaky");
+        assertEquals(3, metrics.getExecutions());
+        assertEquals(2, metrics.getRetries());
+        assertEquals(0, metrics.getFailures());
+        metrics = pipeline.getStageMetrics().get("broken");
+        assertEquals(3, metrics.getExecutions());
+        assertEquals(2, metrics.getRetries());
+        assertEquals(1, metrics.getFailures());
+        assertEquals(1, pipeline.getTeardownMetrics().getExecutions());
+    }
+
+    @After
+    public void close() {
+        pipeline.close();
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.mocks.DummyContainerManager;
+import org.hobbit.controller.mocks.DummyImageManager;
+import org.hobbit.controller.queue.InMemoryQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ImagePrewarmerTest {
+
+    @Test
+    public void testPrewarmUpcomingExperiments() {
+        InMemoryQueue queue = new InMemoryQueue();
+        queue.add(createExperiment("running", "wrong_" + DummyImageManager.SYSTEM_URI));
+        queue.add(createExperiment("next", DummyImageManager.SYSTEM_URI));
+        queue.add(createExperiment("later", "wrong_" + DummyImageManager.SYSTEM_URI));
+
+        List<Collection<String>> requestedImages = new ArrayList<>();
+        DummyContainerManager containerManager = new DummyContainerManager(new Semaphore(0), null) {
+            @Override
+            public void prewarmImages(Collection<String> imageNames) {
+                requestedImages.add(imageNames);
+            }
+        };
+        ImagePrewarmer prewarmer = new ImagePrewarmer();
+
+        List<ExperimentConfiguration> upcoming = queue.getNextExperiments(1, Collections.singleton("running"));
+        Assert.assertEquals(1, upcoming.size());
+        Assert.assertEquals("next", upcoming.get(0).id);
+
+        prewarmer.prewarm(upcoming, new DummyImageManager(), containerManager);
+        Assert.assertEquals(1, requestedImages.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(DummyImageManager.BENCHMARK_NAME, "benchmarkImage1",
+                "benchmarkImage2", "SystemImage", "SystemImage1", "SystemImage2")),
+                new HashSet<>(requestedImages.get(0)));
+
+        // without upcoming experiments, nothing should be pulled
+        prewarmer.prewarm(Collections.emptyList(), new DummyImageManager(), containerManager);
+        Assert.assertEquals(1, requestedImages.size());
+    }
+
+    private static ExperimentConfiguration createExperiment(String id, String systemUri) {
+        ExperimentConfiguration config = new ExperimentConfiguration();
+        config.id = id;
+        config.benchmarkUri = DummyImageManager.BENCHMARK_NAME;
+        config.systemUri = systemUri;
+        return config;
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+import org.hobbit.controller.mocks.DummyContainerManager;
+import org.hobbit.controller.utils.RabbitMQConnector;
+import org.junit.After;
+import org.junit.Test;
+
+public class RabbitMQBrokerPoolTest {
+
+    /**
+     * A container manager that records the started and removed brokers.
+     */
+    private static class BrokerContainerManager extends DummyContainerManager {
+        /**
+         * The experiment IDs the brokers have been started with.
+         */
+        private List<String> startedExperiments = Collections.synchronizedList(new ArrayList<>());
+        private List<String> removedContainers = Collections.synchronizedList(new ArrayList<>());
+
+        public BrokerContainerManager() {
+            super(new Semaphore(0), null);
+        }
+
+        @Override
+        public String startContainer(String imageName, String containerType, String parentId, String[] env,
+                String[] netAliases, String[] command, String experimentId, Map<String, Object> constraints) {
+            startedExperiments.add(experimentId);
+            return "broker-" + startedExperiments.size();
+        }
+
+        @Override
+        public void removeContainer(String serviceName) {
+            removedContainers.add(serviceName);
+        }
+    }
+
+    /**
+     * A connector that does not connect to a broker.
+     */
+    private static class StubConnector extends RabbitMQConnector {
+        private volatile boolean open = false;
+
+        public StubConnector(String rabbitMQHostName) {
+            super(null, rabbitMQHostName);
+        }
+
+        @Override
+        public void init() throws Exception {
+            open = true;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    private BrokerContainerManager containerManager = new BrokerContainerManager();
+    private List<StubConnector> connectors = Collections.synchronizedList(new ArrayList<>());
+    private volatile List<String> upcomingExperiments = Collections.emptyList();
+    private RabbitMQBrokerPool pool;
+
+    private RabbitMQBrokerPool createPool(int size) {
+        pool = new RabbitMQBrokerPool(null, containerManager, "rabbitmq:management", size,
+                () -> upcomingExperiments) {
+            @Override
+            protected RabbitMQConnector createConnector(String containerName) {
+                StubConnector connector = new StubConnector(containerName);
+                connectors.add(connector);
+                return connector;
+            }
+        };
+        return pool;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testLeaseStartsReplacement() throws Exception {
+        upcomingExperiments = Arrays.asList("exp1", "exp2");
+        createPool(2);
+        waitFor(() -> pool.getNumberOfIdleBrokers() == 2);
+        assertEquals(Arrays.asList("exp1", "exp2"), containerManager.startedExperiments);
+
+        // exp1 is started and exp3 moves up in the queue
+        upcomingExperiments = Arrays.asList("exp2", "exp3");
+        RabbitMQBrokerPool.PooledBroker broker = pool.lease("exp1");
+        assertNotNull(broker);
+        assertEquals("broker-1", broker.getContainerName());
+        assertTrue(broker.getConnector().isOpen());
+        // the lease triggers the start of a broker for the next experiment
+        waitFor(() -> containerManager.startedExperiments.size() == 3);
+        assertEquals("exp3", containerManager.startedExperiments.get(2));
+        assertTrue(containerManager.removedContainers.isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void testFallbackWhenEmpty() throws Exception {
+        createPool(2);
+        // there is no broker for an experiment that hasn't been upcoming
+        assertNull(pool.lease("exp1"));
+
+        upcomingExperiments = Arrays.asList("exp1");
+        pool.checkIdleBrokers();
+        waitFor(() -> containerManager.startedExperiments.size() == 1);
+        // the broker of an experiment can not be used by another experiment
+        assertNull(pool.lease("exp2"));
+    }
+
+    @Test(timeout = 10000)
+    public void testUnhealthyIdleBrokerIsReplaced() throws Exception {
+        upcomingExperiments = Arrays.asList("exp1");
+        createPool(1);
+        waitFor(() -> pool.getNumberOfIdleBrokers() == 1);
+        // the idle broker loses its connection
+        connectors.get(0).open = false;
+
+        pool.checkIdleBrokers();
+
+        assertEquals(Arrays.asList("broker-1"), containerManager.removedContainers);
+        waitFor(() -> pool.getNumberOfIdleBrokers() == 1);
+        assertEquals(Arrays.asList("exp1", "exp1"), containerManager.startedExperiments);
+        RabbitMQBrokerPool.PooledBroker broker = pool.lease("exp1");
+        assertNotNull(broker);
+        assertEquals("broker-2", broker.getContainerName());
+        assertTrue(broker.getConnector().isOpen());
+    }
+
+    @After
+    public void close() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.hobbit.controller.data.HardwareResources;
+import org.hobbit.controller.mocks.DummyClusterManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResourceAdmissionControllerTest {
+
+    private static final long CPU = 1000000000L;
+    private static final long GB = 1024L * 1024L * 1024L;
+
+    private static ResourceAdmissionController createController(long maxBackfillDelay, HardwareResources... nodes) {
+        DummyClusterManager clusterManager = new DummyClusterManager();
+        clusterManager.nodes.put(ResourceAdmissionController.SYSTEM_WORKER_GROUP_LABEL, Arrays.asList(nodes));
+        ResourceAdmissionController controller = new ResourceAdmissionController(maxBackfillDelay);
+        controller.updateCapacity(clusterManager);
+        return controller;
+    }
+
+    @Test
+    public void testFootprintFitsAfterReservations() {
+        ResourceAdmissionController controller = createController(0, new HardwareResources(8 * CPU, 16 * GB));
+        HardwareResources footprint = controller.getFootprint(new HardwareResources(4 * CPU, 8 * GB));
+        Assert.assertNotNull(footprint);
+
+        Assert.assertTrue(controller.canAdmit(footprint, Collections.emptyList()));
+        Assert.assertTrue(controller.canAdmit(footprint, Arrays.asList(new HardwareResources(4 * CPU, 8 * GB))));
+        Assert.assertFalse(controller.canAdmit(footprint, Arrays.asList(new HardwareResources(4 * CPU, 9 * GB))));
+        Assert.assertFalse(controller.canAdmit(footprint, Arrays.asList(new HardwareResources(5 * CPU, 8 * GB))));
+        Assert.assertFalse(controller.canAdmit(footprint,
+                Arrays.asList(new HardwareResources(2 * CPU, 4 * GB), new HardwareResources(2 * CPU, 5 * GB))));
+    }
+
+    @Test
+    public void testFootprintHasToFitOnSingleNode() {
+        ResourceAdmissionController controller = createController(0, new HardwareResources(4 * CPU, 8 * GB),
+                new HardwareResources(4 * CPU, 8 * GB));
+        // larger than any node
+        Assert.assertNull(controller.getFootprint(new HardwareResources(6 * CPU, 12 * GB)));
+
+        HardwareResources footprint = controller.getFootprint(new HardwareResources(3 * CPU, 6 * GB));
+        Assert.assertNotNull(footprint);
+        // one experiment per node
+        Assert.assertTrue(controller.canAdmit(footprint, Arrays.asList(new HardwareResources(3 * CPU, 6 * GB))));
+        // half of both nodes are free but the experiment doesn't fit into one of
+        // the halves
+        Assert.assertFalse(controller.canAdmit(footprint,
+                Arrays.asList(new HardwareResources(2 * CPU, 4 * GB), new HardwareResources(2 * CPU, 4 * GB))));
+    }
+
+    @Test
+    public void testExclusiveExecution() {
+        ResourceAdmissionController controller = createController(0, new HardwareResources(8 * CPU, 16 * GB));
+        HardwareResources footprint = controller.getFootprint(new HardwareResources(CPU, GB));
+        // no declared footprint
+        Assert.assertNull(controller.getFootprint(null));
+        Assert.assertTrue(controller.canAdmit(null, Collections.emptyList()));
+        Assert.assertFalse(controller.canAdmit(null, Arrays.asList(new HardwareResources(CPU, GB))));
+        // an exclusively running experiment blocks all others
+        Assert.assertFalse(controller.canAdmit(footprint, Collections.singletonList(null)));
+    }
+
+    @Test
+    public void testNoBackfillingAfterMaxDelay() {
+        ResourceAdmissionController controller = createController(0, new HardwareResources(8 * CPU, 16 * GB));
+        Assert.assertTrue(controller.mayBackfill("1"));
+        Assert.assertFalse(controller.mayBackfill("1"));
+        // another blocked experiment starts a new delay
+        Assert.assertTrue(controller.mayBackfill("2"));
+        controller.admitted("2");
+        Assert.assertTrue(controller.mayBackfill("2"));
+
+        controller = createController(60000, new HardwareResources(8 * CPU, 16 * GB));
+        Assert.assertTrue(controller.mayBackfill("1"));
+        Assert.assertTrue(controller.mayBackfill("1"));
+    }
+
+    @Test
+    public void testCapacityFallsBackToAllNodes() {
+        DummyClusterManager clusterManager = new DummyClusterManager();
+        clusterManager.nodes.put(null, Arrays.asList(new HardwareResources(4 * CPU, 8 * GB)));
+        ResourceAdmissionController controller = new ResourceAdmissionController(0);
+        // without cluster information, experiments are executed exclusively
+        Assert.assertNull(controller.getFootprint(new HardwareResources(CPU, GB)));
+
+        controller.updateCapacity(clusterManager);
+        HardwareResources footprint = controller.getFootprint(new HardwareResources(2 * CPU, 4 * GB));
+        Assert.assertNotNull(footprint);
+        Assert.assertTrue(controller.canAdmit(footprint, Arrays.asList(new HardwareResources(2 * CPU, 4 * GB))));
+        Assert.assertFalse(controller.canAdmit(footprint, Arrays.asList(new HardwareResources(3 * CPU, 4 * GB))));
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.hobbit.storage.client.StorageServiceClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultSpoolTest {
+
+    private static final String GRAPH = "http://example.org/graph";
+
+    private File directory;
+    private ResultSpool spool;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("result-spool").toFile();
+    }
+
+    @Test
+    public void testRetryAndDeferredAction() throws Exception {
+        FlakyStorage storage = new FlakyStorage(2);
+        spool = new ResultSpool(directory, () -> storage, 10, 100);
+        AtomicBoolean analysed = new AtomicBoolean(false);
+
+        spool.spool("exp1", createModel("exp1", "first"), GRAPH);
+        spool.spool("exp1", createModel("exp1", "second"), GRAPH);
+        spool.runWhenFlushed("exp1", () -> analysed.set(true));
+
+        assertTrue(spool.awaitFlush(10000));
+        assertTrue(analysed.get());
+        assertFalse(spool.hasPendingResults("exp1"));
+        // the storage failed twice before it accepted the results
+        assertEquals(2, spool.getFlushMetrics().getRetries());
+        assertEquals(GRAPH, storage.graph);
+        assertEquals(2, storage.inserted.size());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testActionWithoutPendingResults() throws Exception {
+        spool = new ResultSpool(directory, () -> new FlakyStorage(0));
+        AtomicBoolean executed = new AtomicBoolean(false);
+        spool.runWhenFlushed("exp1", () -> executed.set(true));
+        assertTrue(executed.get());
+    }
+
+    @Test
+    public void testRecoveryAfterRestart() throws Exception {
+        // the storage is not available before the restart
+        spool = new ResultSpool(directory, () -> null, 10000, 10000);
+        spool.spool("exp1", createModel("exp1", "result"), GRAPH);
+        assertTrue(spool.hasPendingResults("exp1"));
+        assertEquals(1, spool.getPendingFileCount());
+        spool.close();
+        assertEquals(1, directory.listFiles().length);
+
+        FlakyStorage storage = new FlakyStorage(0);
+        spool = new ResultSpool(directory, () -> storage, 10, 100);
+        assertTrue(spool.awaitFlush(10000));
+        assertEquals(0, spool.getPendingFileCount());
+        assertNotNull(storage.graph);
+        assertTrue(storage.inserted.contains(storage.inserted.getResource("http://example.org/exp1"),
+                RDFS.label, "result"));
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test(timeout = 60000)
+    public void testSpoolingDuringRunningFlushes() throws Exception {
+        FlakyStorage storage = new FlakyStorage(0);
+        spool = new ResultSpool(directory, () -> storage, 10, 100);
+        int experiments = 4;
+        int resultsPerExperiment = 50;
+        // every spooled file requests a flush, so files are spooled while
+        // the flusher lists and inserts the files of the other experiments
+        ExecutorService executor = Executors.newFixedThreadPool(experiments);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int e = 0; e < experiments; ++e) {
+            String experiment = "exp" + e;
+            futures.add(executor.submit(() -> {
+                for (int r = 0; r < resultsPerExperiment; ++r) {
+                    spool.spool(experiment, createModel(experiment, "result" + r), GRAPH);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertTrue(spool.awaitFlush(10000));
+        assertEquals(0, spool.getPendingFileCount());
+        for (int e = 0; e < experiments; ++e) {
+            assertFalse(spool.hasPendingResults("exp" + e));
+            AtomicBoolean analysed = new AtomicBoolean(false);
+            spool.runWhenFlushed("exp" + e, () -> analysed.set(true));
+            assertTrue(analysed.get());
+        }
+        assertEquals(experiments * resultsPerExperiment, storage.inserted.size());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @After
+    public void close() throws IOException {
+        if (spool != null) {
+            spool.close();
+        }
+        FileUtils.deleteDirectory(directory);
+    }
+
+    private static Model createModel(String experiment, String label) {
+        Model model = ModelFactory.createDefaultModel();
+        model.add(model.getResource("http://example.org/" + experiment), RDFS.label, label);
+        return model;
+    }
+
+    /**
+     * A storage that rejects the first inserts before it accepts all further
+     * inserts.
+     */
+    private static class FlakyStorage extends StorageServiceClient {
+
+        private AtomicInteger failures;
+        private Model inserted = ModelFactory.createDefaultModel();
+        private String graph;
+
+        public FlakyStorage(int failures) {
+            super(null);
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public synchronized boolean sendInsertQuery(Model model, String graphURI) {
+            if (failures.getAndDecrement() > 0) {
+                return false;
+            }
+            inserted.add(model);
+            graph = graphURI;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.front;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hobbit.core.FrontEndApiCommands;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Makes sure that the commands of {@link ExtFrontEndApiCommands} do not collide
+ * with the commands of the core library.
+ */
+public class ExtFrontEndApiCommandsTest {
+
+    @Test
+    public void testNoCollisions() throws Exception {
+        Map<Byte, String> commands = new HashMap<>();
+        for (Class<?> clazz : new Class<?>[] { FrontEndApiCommands.class, ExtFrontEndApiCommands.class }) {
+            for (Field field : clazz.getFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && (field.getType() == byte.class)) {
+                    String name = clazz.getSimpleName() + "." + field.getName();
+                    String previous = commands.put(field.getByte(null), name);
+                    Assert.assertNull(name + " has the same value as " + previous, previous);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.hobbit.controller.mocks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hobbit.controller.data.HardwareResources;
+import org.hobbit.controller.docker.ClusterManager;
+
+import com.spotify.docker.client.messages.Info;
+
+/**
+ * A cluster manager that returns the resources of predefined nodes.
+ */
+public class DummyClusterManager implements ClusterManager {
+
+    /**
+     * The resources of the nodes mapped to their label. The nodes without label
+     * filter are stored with the <code>null</code> key.
+     */
+    public Map<String, List<HardwareResources>> nodes = new HashMap<>();
+
+    @Override
+    public Info getClusterInfo() {
+        return null;
+    }
+
+    @Override
+    public long getNumberOfNodes() {
+        return getNodeResources(null).size();
+    }
+
+    @Override
+    public long getNumberOfNodes(String label) {
+        return getNodeResources(label).size();
+    }
+
+    @Override
+    public List<HardwareResources> getNodeResources(String label) {
+        return nodes.containsKey(label) ? nodes.get(label) : Collections.emptyList();
+    }
+
+    @Override
+    public Set<String> getNodeIds() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public boolean isClusterHealthy() {
+        return true;
+    }
+
+    @Override
+    public long getExpectedNumberOfNodes() {
+        return getNumberOfNodes();
+    }
+
+    @Override
+    public void setTaskHistoryLimit(Integer taskHistoryLimit) {
+    }
+
+    @Override
+    public int getTaskHistoryLimit() {
+        return 0;
+    }
+}
@@ -17,6 +17,11 @@ public class DummyResourceInformationCollector implements ResourceInformationCol
         return null;
     };
 
+    @Override
+    public ResourceUsageInformation getContainerUsageInformation(String containerType, String containerName) {
+        return null;
+    };
+
     @Override
     public SetupHardwareInformation getHardwareInformation() {
         return null;
@@ -1,6 +1,7 @@
 package org.hobbit.controller.mocks;
 
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.hobbit.storage.client.StorageServiceClient;
 
 public class DummyStorageServiceClient extends StorageServiceClient {
@@ -11,9 +12,16 @@ public class DummyStorageServiceClient extends StorageServiceClient {
         super(null);
     }
 
+    /**
+     * Adds the given model to the {@link #insertedModel} since the results of
+     * an experiment might be inserted in several steps.
+     */
     @Override
-    public boolean sendInsertQuery(Model model, String graphURI) {
-        insertedModel = model;
+    public synchronized boolean sendInsertQuery(Model model, String graphURI) {
+        if (insertedModel == null) {
+            insertedModel = ModelFactory.createDefaultModel();
+        }
+        insertedModel.add(model);
         return true;
     }
 
@@ -0,0 +1,89 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.junit.Test;
+
+public class BinaryExperimentConfigurationCodecTest {
+
+    private BinaryExperimentConfigurationCodec codec = new BinaryExperimentConfigurationCodec();
+
+    @Test
+    public void testRoundTrip() {
+        ExperimentConfiguration cfg = new ExperimentConfiguration();
+        cfg.id = "123";
+        cfg.benchmarkUri = "http://example.org/benchmark";
+        cfg.systemUri = "http://example.org/system";
+        cfg.userName = "user";
+        cfg.challengeUri = "http://example.org/challenge";
+        cfg.challengeTaskUri = "http://example.org/challenge/task1";
+        cfg.executionDate = Calendar.getInstance();
+        cfg.submissionTime = System.currentTimeMillis();
+        cfg.batch = true;
+        StringBuilder params = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            params.append("<http://example.org/experiment> <http://example.org/param> \"\u00e4\u00f6\u00fc ").append(i)
+                    .append("\" .\n");
+        }
+        cfg.serializedBenchParams = params.toString();
+
+        String encoded = codec.encode(cfg);
+        assertTrue(codec.canDecode(encoded));
+        assertTrue("The encoded experiment should be smaller than its parameters.",
+                encoded.length() < cfg.serializedBenchParams.length());
+        ExperimentConfiguration decoded = codec.decode(encoded);
+        assertEquals(cfg.id, decoded.id);
+        assertEquals(cfg.benchmarkUri, decoded.benchmarkUri);
+        assertEquals(cfg.systemUri, decoded.systemUri);
+        assertEquals(cfg.userName, decoded.userName);
+        assertEquals(cfg.challengeUri, decoded.challengeUri);
+        assertEquals(cfg.challengeTaskUri, decoded.challengeTaskUri);
+        assertEquals(cfg.executionDate.getTimeInMillis(), decoded.executionDate.getTimeInMillis());
+        assertEquals(cfg.serializedBenchParams, decoded.serializedBenchParams);
+        assertEquals(cfg.submissionTime, decoded.submissionTime);
+        assertEquals(cfg.batch, decoded.batch);
+    }
+
+    @Test
+    public void testNullFields() {
+        ExperimentConfiguration cfg = new ExperimentConfiguration();
+        cfg.id = "1";
+
+        ExperimentConfiguration decoded = codec.decode(codec.encode(cfg));
+        assertEquals(cfg.id, decoded.id);
+        assertNull(decoded.benchmarkUri);
+        assertNull(decoded.executionDate);
+        assertNull(decoded.serializedBenchParams);
+        assertNull(codec.decode(null));
+    }
+
+    @Test
+    public void testCanDecode() {
+        ExperimentConfiguration cfg = new ExperimentConfiguration();
+        cfg.id = "1";
+        assertFalse(codec.canDecode(new JsonExperimentConfigurationCodec().encode(cfg)));
+        assertFalse(codec.canDecode(null));
+    }
+}
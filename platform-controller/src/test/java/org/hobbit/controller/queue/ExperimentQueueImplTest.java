@@ -19,28 +19,30 @@ package org.hobbit.controller.queue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.hobbit.controller.data.ExperimentConfiguration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
-import com.google.gson.Gson;
-
 /**
  * Created by Timofey Ermilov on 07/09/16.
  */
 public class ExperimentQueueImplTest extends RedisBasedTest {
     private ExperimentQueueImpl queue;
 
-    private ExperimentConfiguration decodeExperimentFromString(String json) {
-        Gson gson = new Gson();
-        return gson.fromJson(json, ExperimentConfiguration.class);
+    private ExperimentConfiguration decodeExperimentFromString(String encoded) {
+        return new JsonExperimentConfigurationCodec().decode(encoded);
     }
 
     @Before
@@ -157,6 +159,146 @@ public class ExperimentQueueImplTest extends RedisBasedTest {
         assertNull(next);
     }
 
+    @Test
+    public void nextWithExcludedExperimentsTest() {
+        for (int i = 1; i <= 3; ++i) {
+            ExperimentConfiguration cfg = new ExperimentConfiguration();
+            cfg.id = Integer.toString(i);
+            cfg.executionDate = Calendar.getInstance();
+            cfg.executionDate.set(Calendar.YEAR, 2016);
+            cfg.executionDate.set(Calendar.DAY_OF_YEAR, i);
+            queue.add(cfg);
+        }
+        assertEquals("1", queue.getNextExperiment().id);
+        assertEquals("2", queue.getNextExperiment(Collections.singleton("1")).id);
+        assertEquals("3", queue.getNextExperiment(new HashSet<>(Arrays.asList("1", "2", "unknown"))).id);
+        assertNull(queue.getNextExperiment(new HashSet<>(Arrays.asList("1", "2", "3"))));
+    }
+
+    @Test
+    public void addAllTest() {
+        List<ExperimentConfiguration> experiments = new ArrayList<>();
+        for (int i = 1; i <= 100; ++i) {
+            ExperimentConfiguration cfg = new ExperimentConfiguration();
+            cfg.id = Integer.toString(i);
+            cfg.executionDate = Calendar.getInstance();
+            cfg.executionDate.set(Calendar.YEAR, 2016);
+            cfg.executionDate.set(Calendar.DAY_OF_YEAR, i);
+            experiments.add(cfg);
+        }
+        queue.addAll(experiments);
+
+        assertEquals(100, queue.listAll().size());
+        assertEquals(100L, (long) redisSyncCommands.zcard(ExperimentQueueImpl.EXPERIMENT_QUEUE));
+        assertEquals("1", queue.getNextExperiment().id);
+        assertNotNull(queue.getExperiment("100"));
+    }
+
+    @Test
+    public void snapshotTest() {
+        ExperimentConfiguration cfg = new ExperimentConfiguration();
+        cfg.id = "1";
+        queue.add(cfg);
+        assertEquals(1, queue.listAll().size());
+
+        // changes of another instance have to be visible
+        ExperimentQueueImpl remoteQueue = new ExperimentQueueImpl();
+        try {
+            ExperimentConfiguration cfg2 = new ExperimentConfiguration();
+            cfg2.id = "2";
+            remoteQueue.add(cfg2);
+            assertNotNull(queue.getExperiment(cfg2.id));
+            assertEquals(2, queue.listAll().size());
+            remoteQueue.remove(cfg);
+        } finally {
+            remoteQueue.close();
+        }
+        assertNull(queue.getExperiment(cfg.id));
+        assertEquals(1, queue.listAll().size());
+
+        // changing the added object must not change the queue
+        ExperimentConfiguration cfg3 = new ExperimentConfiguration();
+        cfg3.id = "3";
+        queue.add(cfg3);
+        cfg3.systemUri = "changed";
+        assertNull(queue.getExperiment(cfg3.id).systemUri);
+        // changing the returned objects must not change the queue
+        queue.getExperiment(cfg3.id).systemUri = "changed";
+        queue.listAll().get(0).systemUri = "changed";
+        for (ExperimentConfiguration experiment : queue.listAll()) {
+            assertNull(experiment.systemUri);
+        }
+
+        // entries that can not be decoded are skipped
+        redisSyncCommands.hset(ExperimentQueueImpl.EXPERIMENT_KEY, "4", "not decodable");
+        redisSyncCommands.incr(ExperimentQueueImpl.QUEUE_VERSION_KEY);
+        assertEquals(2, queue.listAll().size());
+        assertNull(queue.getExperiment("4"));
+    }
+
+    @Test
+    public void listenerAndExecutionTimeTest() throws Exception {
+        Semaphore notifications = new Semaphore(0);
+        queue.addListener(() -> notifications.release());
+
+        // add a future experiment through a second queue, e.g., of another process
+        ExperimentConfiguration cfg = new ExperimentConfiguration();
+        cfg.id = "1";
+        cfg.executionDate = Calendar.getInstance();
+        cfg.executionDate.add(Calendar.HOUR, 1);
+        ExperimentQueueImpl remoteQueue = new ExperimentQueueImpl();
+        try {
+            remoteQueue.add(cfg);
+        } finally {
+            remoteQueue.close();
+        }
+        assertTrue("Listener has not been informed about the remote add.",
+                notifications.tryAcquire(10, TimeUnit.SECONDS));
+
+        // the experiment is not due, yet, but its execution time is known
+        assertNull(queue.getNextExperiment());
+        assertEquals(Long.valueOf(cfg.executionDate.getTimeInMillis()), queue.getNextExecutionTime());
+    }
+
+    @Test
+    public void migrationTest() throws Exception {
+        // add an experiment in the old JSON format
+        ExperimentConfiguration cfg = new ExperimentConfiguration();
+        cfg.id = "1";
+        cfg.benchmarkUri = "benchmark";
+        cfg.serializedBenchParams = "params";
+        redisSyncCommands.hset(ExperimentQueueImpl.EXPERIMENT_KEY, cfg.id,
+                new JsonExperimentConfigurationCodec().encode(cfg));
+        redisSyncCommands.zadd(ExperimentQueueImpl.EXPERIMENT_QUEUE, 0, cfg.id);
+
+        // a queue should only migrate the entry if it has been configured to do so
+        new ExperimentQueueImpl().close();
+        assertTrue(redisSyncCommands.hget(ExperimentQueueImpl.EXPERIMENT_KEY, cfg.id).startsWith("{"));
+
+        ExperimentQueueImpl migratingQueue = new ExperimentQueueImpl(ExperimentQueueImpl.ENCODING_BINARY, true);
+        try {
+            String str = redisSyncCommands.hget(ExperimentQueueImpl.EXPERIMENT_KEY, cfg.id);
+            assertTrue(str.startsWith(BinaryExperimentConfigurationCodec.PREFIX));
+            ExperimentConfiguration loadedCfg = new BinaryExperimentConfigurationCodec().decode(str);
+            assertEquals(cfg.id, loadedCfg.id);
+            assertEquals(cfg.benchmarkUri, loadedCfg.benchmarkUri);
+            assertEquals(cfg.serializedBenchParams, loadedCfg.serializedBenchParams);
+            assertEquals(cfg.id, migratingQueue.getNextExperiment().id);
+        } finally {
+            migratingQueue.close();
+        }
+
+        // the migration back to JSON allows a downgrade of the platform
+        migratingQueue = new ExperimentQueueImpl(ExperimentQueueImpl.ENCODING_JSON, true);
+        try {
+            ExperimentConfiguration loadedCfg = decodeExperimentFromString(
+                    redisSyncCommands.hget(ExperimentQueueImpl.EXPERIMENT_KEY, cfg.id));
+            assertEquals(cfg.serializedBenchParams, loadedCfg.serializedBenchParams);
+        } finally {
+            migratingQueue.close();
+        }
+    }
+
     @After
     public void close() {
         // cleanup
@@ -0,0 +1,155 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.hobbit.controller.data.UserShare;
+import org.junit.Test;
+
+public class FairShareSchedulingPolicyTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+    private static final long NOW = 1000 * HOUR;
+
+    private static ExperimentConfiguration createExperiment(String id, String userName, long submissionTime) {
+        ExperimentConfiguration experiment = new ExperimentConfiguration();
+        experiment.id = id;
+        experiment.userName = userName;
+        experiment.submissionTime = submissionTime;
+        return experiment;
+    }
+
+    /**
+     * Lets the given user consume the given runtime that ended at
+     * {@link #NOW}.
+     */
+    private static void consume(SchedulingPolicy policy, String userName, long runtime) {
+        ExperimentConfiguration experiment = createExperiment("run-" + userName, userName, 0);
+        policy.experimentStarted(experiment, NOW - runtime);
+        policy.experimentRemoved(experiment, NOW);
+    }
+
+    @Test
+    public void testFifoForSingleUser() {
+        SchedulingPolicy policy = new FairShareSchedulingPolicy();
+        ExperimentConfiguration first = createExperiment("1", "alice", NOW - 2 * HOUR);
+        ExperimentConfiguration second = createExperiment("2", "alice", NOW - HOUR);
+        assertEquals(first, policy.selectNext(Arrays.asList(second, first), NOW));
+        assertNull(policy.selectNext(Collections.emptyList(), NOW));
+    }
+
+    @Test
+    public void testChallengeFirst() {
+        SchedulingPolicy policy = new FairShareSchedulingPolicy();
+        ExperimentConfiguration experiment = createExperiment("1", "alice", NOW - 10 * HOUR);
+        ExperimentConfiguration challenge = createExperiment("2", "bob", NOW);
+        challenge.challengeUri = "http://example.org/challenge";
+        challenge.challengeTaskUri = "http://example.org/challenge/task";
+        challenge.executionDate = Calendar.getInstance();
+        challenge.executionDate.setTimeInMillis(NOW - HOUR);
+        assertEquals(challenge, policy.selectNext(Arrays.asList(experiment, challenge), NOW));
+    }
+
+    @Test
+    public void testFairShare() {
+        SchedulingPolicy policy = new FairShareSchedulingPolicy();
+        consume(policy, "alice", 5 * HOUR);
+        // alice's sweep has been submitted before bob's experiment
+        ExperimentConfiguration aliceExp = createExperiment("1", "alice", NOW - 2 * HOUR);
+        ExperimentConfiguration bobExp = createExperiment("2", "bob", NOW - HOUR);
+        assertEquals(bobExp, policy.selectNext(Arrays.asList(aliceExp, bobExp), NOW));
+
+        // alice's experiment ages until it has waited longer than her usage
+        aliceExp.submissionTime = NOW - 7 * HOUR;
+        assertEquals(aliceExp, policy.selectNext(Arrays.asList(aliceExp, bobExp), NOW));
+    }
+
+    @Test
+    public void testRunningExperimentsAreCharged() {
+        SchedulingPolicy policy = new FairShareSchedulingPolicy();
+        policy.experimentStarted(createExperiment("0", "alice", 0), NOW - 3 * HOUR);
+        ExperimentConfiguration aliceExp = createExperiment("1", "alice", NOW - 2 * HOUR);
+        ExperimentConfiguration bobExp = createExperiment("2", "bob", NOW - HOUR);
+        assertEquals(bobExp, policy.selectNext(Arrays.asList(aliceExp, bobExp), NOW));
+    }
+
+    @Test
+    public void testWeights() {
+        Map<String, Double> weights = FairShareSchedulingPolicy.parseWeights("alice=10, invalid, bob=x");
+        assertEquals(1, weights.size());
+        SchedulingPolicy policy = new FairShareSchedulingPolicy(weights, FairShareSchedulingPolicy.DEFAULT_HALF_LIFE,
+                FairShareSchedulingPolicy.DEFAULT_BATCH_DELAY);
+        consume(policy, "alice", 5 * HOUR);
+        ExperimentConfiguration aliceExp = createExperiment("1", "alice", NOW - 2 * HOUR);
+        ExperimentConfiguration bobExp = createExperiment("2", "bob", NOW - HOUR);
+        assertEquals(aliceExp, policy.selectNext(Arrays.asList(aliceExp, bobExp), NOW));
+    }
+
+    @Test
+    public void testBatchDelay() {
+        SchedulingPolicy policy = new FairShareSchedulingPolicy(Collections.emptyMap(),
+                FairShareSchedulingPolicy.DEFAULT_HALF_LIFE, 2 * HOUR);
+        ExperimentConfiguration batchExp = createExperiment("1", "alice", NOW - HOUR);
+        batchExp.batch = true;
+        ExperimentConfiguration interactiveExp = createExperiment("2", "alice", NOW);
+        assertEquals(interactiveExp, policy.selectNext(Arrays.asList(batchExp, interactiveExp), NOW));
+        // the batch experiment ages as well
+        batchExp.submissionTime = NOW - 3 * HOUR;
+        assertEquals(batchExp, policy.selectNext(Arrays.asList(batchExp, interactiveExp), NOW));
+    }
+
+    @Test
+    public void testShares() {
+        Map<String, Double> weights = new HashMap<>();
+        weights.put("alice", 3.0);
+        SchedulingPolicy policy = new FairShareSchedulingPolicy(weights, HOUR,
+                FairShareSchedulingPolicy.DEFAULT_BATCH_DELAY);
+        consume(policy, "alice", 3 * HOUR);
+        consume(policy, "bob", HOUR);
+
+        List<UserShare> shares = policy.getShares(NOW);
+        assertEquals(2, shares.size());
+        for (UserShare share : shares) {
+            if ("alice".equals(share.userName)) {
+                assertEquals(3 * HOUR, share.usage);
+                assertEquals(0.75, share.share, 0.0001);
+                assertEquals(0.75, share.targetShare, 0.0001);
+            } else {
+                assertEquals(HOUR, share.usage);
+                assertEquals(0.25, share.share, 0.0001);
+                assertEquals(0.25, share.targetShare, 0.0001);
+            }
+            assertEquals(0, share.runningExperiments);
+        }
+
+        // the usage is halved after one half-life
+        shares = policy.getShares(NOW + HOUR);
+        for (UserShare share : shares) {
+            assertEquals("alice".equals(share.userName) ? 3 * HOUR / 2 : HOUR / 2, share.usage);
+        }
+    }
+}
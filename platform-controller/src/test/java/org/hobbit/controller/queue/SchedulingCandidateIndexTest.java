@@ -0,0 +1,108 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.queue;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.hobbit.controller.data.ExperimentConfiguration;
+import org.junit.Test;
+
+public class SchedulingCandidateIndexTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+    private static final long NOW = 1000 * HOUR;
+
+    private static ExperimentConfiguration createExperiment(String id, String userName, long submissionTime,
+            boolean batch) {
+        ExperimentConfiguration experiment = new ExperimentConfiguration();
+        experiment.id = id;
+        experiment.userName = userName;
+        experiment.submissionTime = submissionTime;
+        experiment.batch = batch;
+        return experiment;
+    }
+
+    private static ExperimentConfiguration createChallengeExperiment(String id, long executionTime) {
+        ExperimentConfiguration experiment = createExperiment(id, "organizer", 0, false);
+        experiment.challengeUri = "http://example.org/challenge";
+        experiment.challengeTaskUri = "http://example.org/task";
+        experiment.executionDate = Calendar.getInstance();
+        experiment.executionDate.setTimeInMillis(executionTime);
+        return experiment;
+    }
+
+    private static Set<String> getIds(List<ExperimentConfiguration> experiments) {
+        return experiments.stream().map(e -> e.id).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Test
+    public void testOneCandidatePerClass() {
+        SchedulingCandidateIndex index = new SchedulingCandidateIndex();
+        index.add(createExperiment("a2", "alice", NOW - HOUR, false));
+        index.add(createExperiment("a1", "alice", NOW - 2 * HOUR, false));
+        index.add(createExperiment("ab1", "alice", NOW - 3 * HOUR, true));
+        index.add(createExperiment("ab2", "alice", NOW - 4 * HOUR, true));
+        index.add(createExperiment("b1", "bob", NOW - HOUR, false));
+        index.add(createChallengeExperiment("c2", NOW - HOUR));
+        index.add(createChallengeExperiment("c1", NOW - 2 * HOUR));
+
+        assertEquals(new TreeSet<>(Arrays.asList("a1", "ab2", "b1", "c1")),
+                getIds(index.getCandidates(Collections.emptySet(), NOW)));
+    }
+
+    @Test
+    public void testExcludedAndNotDueExperiments() {
+        SchedulingCandidateIndex index = new SchedulingCandidateIndex();
+        index.add(createExperiment("a1", "alice", NOW - 2 * HOUR, false));
+        index.add(createExperiment("a2", "alice", NOW - HOUR, false));
+        index.add(createChallengeExperiment("c1", NOW - HOUR));
+        index.add(createChallengeExperiment("c2", NOW + HOUR));
+        // an experiment that has a future execution date is not due, yet
+        ExperimentConfiguration scheduled = createExperiment("b1", "bob", NOW - HOUR, false);
+        scheduled.executionDate = Calendar.getInstance();
+        scheduled.executionDate.setTimeInMillis(NOW + HOUR);
+        index.add(scheduled);
+
+        Set<String> excluded = new HashSet<>(Arrays.asList("a1", "c1"));
+        assertEquals(new TreeSet<>(Arrays.asList("a2")), getIds(index.getCandidates(excluded, NOW)));
+        assertEquals(new TreeSet<>(Arrays.asList("a2", "b1", "c2")),
+                getIds(index.getCandidates(excluded, NOW + HOUR)));
+    }
+
+    @Test
+    public void testRemove() {
+        SchedulingCandidateIndex index = new SchedulingCandidateIndex();
+        ExperimentConfiguration first = createExperiment("a1", "alice", NOW - 2 * HOUR, false);
+        index.add(first);
+        index.add(createExperiment("a2", "alice", NOW - HOUR, false));
+        ExperimentConfiguration other = createExperiment("b1", "bob", NOW - HOUR, true);
+        index.add(other);
+
+        index.remove(first);
+        index.remove(other);
+        assertEquals(new TreeSet<>(Arrays.asList("a2")), getIds(index.getCandidates(Collections.emptySet(), NOW)));
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.sun.net.httpserver.HttpServer;
+
+public class PrometheusClientTest {
+
+    private static final String RESPONSE = "{\"status\":\"success\",\"data\":{\"resultType\":\"vector\",\"result\":["
+            + "{\"metric\":{\"__name__\":\"up\",\"instance\":\"node1\"},\"value\":[1.5,\"1\"]},"
+            + "{\"metric\":{\"__name__\":\"up\",\"instance\":\"node2\"},\"value\":[1.5,\"0\"]}]}}";
+
+    private HttpServer server;
+    private AtomicInteger requests = new AtomicInteger();
+    private PrometheusClient client;
+
+    @Before
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/query", exchange -> {
+            requests.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            boolean broken = query.contains("broken");
+            byte[] body = (broken ? "{\"status\":\"error\",\"error\":\"parse error\"}" : RESPONSE)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(broken ? 400 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new PrometheusClient("localhost", server.getAddress().getPort(), 1000, 60000, 2);
+    }
+
+    @Test
+    public void testReadResult() throws IOException {
+        JsonArray result = PrometheusClient
+                .readResult(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, result.size());
+        assertEquals("node2",
+                result.get(1).getAsJsonObject().getAsJsonObject("metric").get("instance").getAsString());
+        try {
+            PrometheusClient.readResult(new ByteArrayInputStream(
+                    "{\"status\":\"error\",\"error\":\"timeout\"}".getBytes(StandardCharsets.UTF_8)));
+            fail("An error response should cause an exception.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCaching() throws IOException {
+        assertEquals(2, client.query("up").size());
+        assertEquals(2, client.query("up").size());
+        // the second response has been taken from the cache
+        assertEquals(1, requests.get());
+        assertEquals(2, client.queryAsync("sum(up)").join().size());
+        assertEquals(2, requests.get());
+        assertEquals(2, client.getQueryMetrics().getExecutions());
+    }
+
+    @Test
+    public void testFailedQueriesAreNotCached() {
+        for (int i = 1; i <= 2; ++i) {
+            try {
+                client.query("broken");
+                fail("A failed query should cause an exception.");
+            } catch (IOException e) {
+                // expected
+            }
+            assertEquals(i, requests.get());
+        }
+        assertEquals(2, client.getQueryMetrics().getFailures());
+    }
+
+    @After
+    public void close() {
+        client.close();
+        server.stop(0);
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * This file is part of platform-controller.
+ *
+ * platform-controller is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * platform-controller is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with platform-controller.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.hobbit.controller.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+
+public class RabbitMQManagementClientTest {
+
+    private HttpServer server;
+    /**
+     * The received requests as "METHOD path".
+     */
+    private List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+    private List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * The status code the stubbed API responds with.
+     */
+    private volatile int responseCode = 204;
+    private RabbitMQManagementClient client;
+
+    @Before
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath());
+            bodies.add(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(responseCode, -1);
+            exchange.close();
+        });
+        server.start();
+        client = new RabbitMQManagementClient("http://localhost:" + server.getAddress().getPort() + "/", "admin",
+                "secret");
+    }
+
+    @Test
+    public void testVirtualHost() throws IOException {
+        client.createVirtualHost("experiment-1");
+        client.deleteVirtualHost("experiment-1");
+        assertEquals(2, requests.size());
+        assertEquals("PUT /api/vhosts/experiment-1", requests.get(0));
+        assertEquals("DELETE /api/vhosts/experiment-1", requests.get(1));
+        assertEquals("Basic " + Base64.getEncoder().encodeToString("admin:secret".getBytes(StandardCharsets.UTF_8)),
+                authorizations.get(0));
+    }
+
+    @Test
+    public void testUser() throws IOException {
+        client.createUser("user 1", "pw", "experiment/1");
+        client.deleteUser("user 1");
+        assertEquals(3, requests.size());
+        assertEquals("PUT /api/users/user%201", requests.get(0));
+        JsonObject user = new JsonParser().parse(bodies.get(0)).getAsJsonObject();
+        assertEquals("pw", user.get("password").getAsString());
+        assertEquals("", user.get("tags").getAsString());
+        // the permissions are restricted to the virtual host of the user
+        assertEquals("PUT /api/permissions/experiment%2F1/user%201", requests.get(1));
+        JsonObject permissions = new JsonParser().parse(bodies.get(1)).getAsJsonObject();
+        assertEquals(".*", permissions.get("configure").getAsString());
+        assertEquals(".*", permissions.get("write").getAsString());
+        assertEquals(".*", permissions.get("read").getAsString());
+        assertEquals("DELETE /api/users/user%201", requests.get(2));
+    }
+
+    @Test
+    public void testDeletionOfMissingResources() throws IOException {
+        // deletions can be retried after they succeeded
+        responseCode = 404;
+        client.deleteVirtualHost("experiment-1");
+        client.deleteUser("user1");
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void testErrors() {
+        responseCode = 404;
+        try {
+            client.createVirtualHost("experiment-1");
+            fail("A missing resource should cause an exception when it is created.");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("404"));
+        }
+        responseCode = 401;
+        try {
+            client.createUser("user1", "pw", "experiment-1");
+            fail("A rejected request should cause an exception.");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("401"));
+        }
+        // the permissions are not set if the user couldn't be created
+        assertEquals(2, requests.size());
+        responseCode = 500;
+        try {
+            client.deleteVirtualHost("experiment-1");
+            fail("A failed deletion should cause an exception.");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("500"));
+        }
+        try {
+            client.deleteUser("user1");
+            fail("A failed deletion should cause an exception.");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("500"));
+        }
+    }
+
+    @Test
+    public void testUnreachableApi() {
+        server.stop(0);
+        try {
+            client.createVirtualHost("experiment-1");
+            fail("An unreachable API should cause an exception.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @After
+    public void close() {
+        server.stop(0);
+    }
+}